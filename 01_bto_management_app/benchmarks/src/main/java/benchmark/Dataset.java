@@ -0,0 +1,106 @@
+package benchmark;
+
+import controller.ReportController;
+import controller.ReportStatistics;
+import data.ApplicationDB;
+import data.DatasetGenerator;
+import data.EnquiryDB;
+import data.ProjectDB;
+import data.UserDB;
+import entity.Applicant;
+import entity.Project;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * A generated data set shared by the benchmarks.
+ * The data is written by {@link DatasetGenerator} into a fresh data directory
+ * and then loaded through the databases, so every benchmark starts from the
+ * same state the application would load from disk. The number of applicants
+ * is given by the {@code records} parameter; the other tables are sized from
+ * it.
+ */
+@State(Scope.Benchmark)
+public class Dataset {
+    @Param({ "1000", "100000", "1000000" })
+    public int records;
+
+    public Path dataDir;
+    public UserDB userDB;
+    public ProjectDB projectDB;
+    public ApplicationDB applicationDB;
+    public EnquiryDB enquiryDB;
+    public ReportController reportController;
+
+    /** NRICs of the applicants, used to pick lookup keys. */
+    public String[] applicantNrics;
+    /** Names of the projects, used to pick report filters. */
+    public String[] projectNames;
+
+    /**
+     * Generates the data set and loads it.
+     *
+     * @throws IOException if the data files cannot be written
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataDir = Files.createTempDirectory("bto-bench");
+        System.setProperty("bto.dataDir", dataDir.toString());
+        new DatasetGenerator(42, records, Math.max(10, records / 100), Runtime.getRuntime().availableProcessors())
+                .writeStores();
+        load();
+
+        List<String> nrics = new ArrayList<>();
+        for (Applicant applicant : userDB.getAllApplicants()) {
+            nrics.add(applicant.getNric());
+        }
+        Collections.sort(nrics);
+        applicantNrics = nrics.toArray(new String[0]);
+
+        List<String> names = new ArrayList<>();
+        for (Project project : projectDB.getAllProjects()) {
+            names.add(project.getProjectName());
+        }
+        Collections.sort(names);
+        projectNames = names.toArray(new String[0]);
+    }
+
+    /**
+     * Deletes the data directory.
+     *
+     * @throws IOException if the directory cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dataDir)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    /**
+     * Constructs the databases and controllers over the data directory and
+     * loads every table.
+     */
+    public void load() {
+        userDB = new UserDB();
+        projectDB = new ProjectDB();
+        applicationDB = new ApplicationDB(userDB);
+        enquiryDB = new EnquiryDB();
+        userDB.getLoader().ensureLoaded();
+        projectDB.getLoader().ensureLoaded();
+        applicationDB.getLoader().ensureLoaded();
+        enquiryDB.getLoader().ensureLoaded();
+        reportController = new ReportController(applicationDB, projectDB, userDB,
+                new ReportStatistics(applicationDB, userDB));
+        reportController.verifyStatistics();
+    }
+}
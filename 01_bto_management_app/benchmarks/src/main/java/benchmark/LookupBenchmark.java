@@ -0,0 +1,69 @@
+package benchmark;
+
+import entity.FlatBooking;
+import entity.Project;
+import entity.User;
+import entity.enums.FlatType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the lookups the menus run on every screen: logging in,
+ * checking for an active application, listing projects and filtering
+ * bookings.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+@State(Scope.Thread)
+public class LookupBenchmark {
+    private int next;
+
+    /**
+     * Picks the next applicant, cycling through all of them so lookups do not
+     * hit the same entry every time.
+     *
+     * @param dataset The data set
+     * @return The NRIC of the applicant
+     */
+    private String nextNric(Dataset dataset) {
+        String[] nrics = dataset.applicantNrics;
+        next = next + 7919 < nrics.length ? next + 7919 : (next + 7919) % nrics.length;
+        return nrics[next];
+    }
+
+    @Benchmark
+    public User authenticate(Dataset dataset) {
+        return dataset.userDB.authenticate(nextNric(dataset), "password");
+    }
+
+    @Benchmark
+    public boolean hasActiveApplication(Dataset dataset) {
+        return dataset.applicationDB.hasActiveApplication(nextNric(dataset));
+    }
+
+    @Benchmark
+    public List<FlatBooking> generateBookingReportAll(Dataset dataset) {
+        return dataset.applicationDB.generateBookingReport(null, null, null, null, null);
+    }
+
+    @Benchmark
+    public List<FlatBooking> generateBookingReportFiltered(Dataset dataset) {
+        String projectName = dataset.projectNames[next++ % dataset.projectNames.length];
+        return dataset.applicationDB.generateBookingReport(projectName, FlatType.THREE_ROOM, null, 30, 60);
+    }
+
+    @Benchmark
+    public List<Project> visibleProjectsForMarried(Dataset dataset) {
+        return dataset.projectDB.getVisibleProjectsByMaritalStatus(true);
+    }
+
+    @Benchmark
+    public List<Project> visibleProjectsForSingles(Dataset dataset) {
+        return dataset.projectDB.getVisibleProjectsByMaritalStatus(false);
+    }
+}
@@ -0,0 +1,53 @@
+package benchmark;
+
+import data.ApplicationDB;
+import data.EnquiryDB;
+import data.ProjectDB;
+import data.UserDB;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the save and load round trip of each database: the table is
+ * written as a snapshot and read back into a new database instance.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+public class PersistenceBenchmark {
+
+    @Benchmark
+    public UserDB userRoundTrip(Dataset dataset) {
+        dataset.userDB.saveData();
+        UserDB loaded = new UserDB();
+        loaded.getLoader().ensureLoaded();
+        return loaded;
+    }
+
+    @Benchmark
+    public ProjectDB projectRoundTrip(Dataset dataset) {
+        dataset.projectDB.saveData();
+        ProjectDB loaded = new ProjectDB();
+        loaded.getLoader().ensureLoaded();
+        return loaded;
+    }
+
+    @Benchmark
+    public ApplicationDB applicationRoundTrip(Dataset dataset) {
+        dataset.applicationDB.saveData();
+        ApplicationDB loaded = new ApplicationDB(dataset.userDB);
+        loaded.getLoader().ensureLoaded();
+        return loaded;
+    }
+
+    @Benchmark
+    public EnquiryDB enquiryRoundTrip(Dataset dataset) {
+        dataset.enquiryDB.saveData();
+        EnquiryDB loaded = new EnquiryDB();
+        loaded.getLoader().ensureLoaded();
+        return loaded;
+    }
+}
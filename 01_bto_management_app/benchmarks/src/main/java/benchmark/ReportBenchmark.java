@@ -0,0 +1,88 @@
+package benchmark;
+
+import entity.FlatBooking;
+import entity.enums.ApplicationStatus;
+import entity.enums.FlatType;
+import entity.enums.MaritalStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of every report the managers can generate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+@State(Scope.Thread)
+public class ReportBenchmark {
+    private static final int[] AGE_GROUPS = { 21, 30, 40, 50, 60 };
+
+    private int next;
+
+    /**
+     * Picks the next project, cycling through all of them.
+     *
+     * @param dataset The data set
+     * @return The name of the project
+     */
+    private String nextProject(Dataset dataset) {
+        next = (next + 1) % dataset.projectNames.length;
+        return dataset.projectNames[next];
+    }
+
+    @Benchmark
+    public boolean verifyStatistics(Dataset dataset) {
+        return dataset.reportController.verifyStatistics();
+    }
+
+    @Benchmark
+    public List<FlatBooking> bookingReport(Dataset dataset) {
+        return dataset.reportController.generateBookingReport(null, FlatType.TWO_ROOM, MaritalStatus.MARRIED,
+                null, null);
+    }
+
+    @Benchmark
+    public Map<String, Integer> applicationSummaryReport(Dataset dataset) {
+        return dataset.reportController.generateApplicationSummaryReport();
+    }
+
+    @Benchmark
+    public Map<ApplicationStatus, Integer> applicationDetailReport(Dataset dataset) {
+        return dataset.reportController.generateApplicationDetailReport(nextProject(dataset));
+    }
+
+    @Benchmark
+    public Map<MaritalStatus, Map<FlatType, Integer>> flatTypePreferenceReport(Dataset dataset) {
+        return dataset.reportController.generateFlatTypePreferenceReport();
+    }
+
+    @Benchmark
+    public Map<String, Double> ageGroupSuccessReport(Dataset dataset) {
+        return dataset.reportController.generateAgeGroupSuccessReport(AGE_GROUPS);
+    }
+
+    @Benchmark
+    public Map<String, Map<FlatType, Integer>> remainingUnitsReport(Dataset dataset) {
+        return dataset.reportController.generateRemainingUnitsReport();
+    }
+
+    @Benchmark
+    public Map<String, Integer> officerPerformanceReport(Dataset dataset) {
+        return dataset.reportController.generateOfficerPerformanceReport();
+    }
+
+    @Benchmark
+    public String bookingDetailsTextReport(Dataset dataset) {
+        return dataset.reportController.generateBookingDetailsTextReport(nextProject(dataset));
+    }
+
+    @Benchmark
+    public String systemSummaryReport(Dataset dataset) {
+        return dataset.reportController.generateSystemSummaryReport();
+    }
+}
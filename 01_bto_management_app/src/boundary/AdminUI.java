@@ -1,12 +1,18 @@
 package boundary;
 
 import controller.*;
+import data.Page;
+import data.TableMetrics;
 import entity.*;
 import entity.enums.MaritalStatus;
 import entity.enums.UserRole;
+import metrics.LatencyHistogram;
+import metrics.MetricsRegistry;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.TreeSet;
 
 /**
  * User interface for administrator functionality.
@@ -19,6 +25,8 @@ public class AdminUI {
     private ProjectController projectController;
     private ApplicationController applicationController;
 
+    private static final int PAGE_SIZE = 20;
+
     /**
      * Constructs a new AdminUI with references to necessary components.
      * 
@@ -105,8 +113,7 @@ public class AdminUI {
         System.out.println("|               ALL USERS                       ");
         System.out.println("+-----------------------------------------------");
 
-        List<User> allUsers = userController.getAllUsers();
-        if (allUsers.isEmpty()) {
+        if (userController.getUsersPage(null, null, 1).getTotal() == 0) {
             System.out.println("No users found in the system.");
             return;
         }
@@ -127,72 +134,93 @@ public class AdminUI {
             filterOption = 1;
         }
 
-        List<User> filteredUsers;
+        UserRole role;
         String roleFilter = "All Users";
 
         switch (filterOption) {
             case 2:
-                filteredUsers = userController.getUsersByRole(UserRole.APPLICANT);
+                role = UserRole.APPLICANT;
                 roleFilter = "Applicants";
                 break;
             case 3:
-                filteredUsers = userController.getUsersByRole(UserRole.HDB_OFFICER);
+                role = UserRole.HDB_OFFICER;
                 roleFilter = "HDB Officers";
                 break;
             case 4:
-                filteredUsers = userController.getUsersByRole(UserRole.HDB_MANAGER);
+                role = UserRole.HDB_MANAGER;
                 roleFilter = "HDB Managers";
                 break;
             default:
-                filteredUsers = allUsers;
+                role = null;
                 break;
         }
 
-        if (filteredUsers.isEmpty()) {
+        // Only one page of users is read at a time
+        Page<User> page = userController.getUsersPage(role, null, PAGE_SIZE);
+        if (page.getTotal() == 0) {
             System.out.println("No users found with the selected filter.");
             return;
         }
 
-        System.out.println("\nUsers (" + roleFilter + "): " + filteredUsers.size() + " total");
-
-        // Print table header
-        System.out.println("┌─────┬───────────────┬──────────────────┬─────┬────────────────┬──────────────────┐");
-        System.out.printf("│ %-3s │ %-13s │ %-16s │ %-3s │ %-14s │ %-16s │%n",
-                "No.", "NRIC", "Name", "Age", "Marital Status", "Role");
-        System.out.println("├─────┼───────────────┼──────────────────┼─────┼────────────────┼──────────────────┤");
-
-        // Print user details
-        for (int i = 0; i < filteredUsers.size(); i++) {
-            User user = filteredUsers.get(i);
-            System.out.printf("│ %-3d │ %-13s │ %-16s │ %-3d │ %-14s │ %-16s │%n",
-                    i + 1,
-                    user.getNric(),
-                    user.getName(),
-                    user.getAge(),
-                    user.getMaritalStatus().getStatus(),
-                    user.getRole().getRole());
-        }
+        User selectedUser = null;
+        int shown = 0;
+        while (selectedUser == null) {
+            List<User> filteredUsers = page.getItems();
+
+            System.out.println("\nUsers (" + roleFilter + "): " + page.getTotal() + " total, showing "
+                    + (shown + 1) + "-" + (shown + filteredUsers.size()));
+
+            // Print table header
+            System.out.println("┌─────┬───────────────┬──────────────────┬─────┬────────────────┬──────────────────┐");
+            System.out.printf("│ %-3s │ %-13s │ %-16s │ %-3s │ %-14s │ %-16s │%n",
+                    "No.", "NRIC", "Name", "Age", "Marital Status", "Role");
+            System.out.println("├─────┼───────────────┼──────────────────┼─────┼────────────────┼──────────────────┤");
+
+            // Print user details
+            for (int i = 0; i < filteredUsers.size(); i++) {
+                User user = filteredUsers.get(i);
+                System.out.printf("│ %-3d │ %-13s │ %-16s │ %-3d │ %-14s │ %-16s │%n",
+                        i + 1,
+                        user.getNric(),
+                        user.getName(),
+                        user.getAge(),
+                        user.getMaritalStatus().getStatus(),
+                        user.getRole().getRole());
+            }
 
-        System.out.println("└─────┴───────────────┴──────────────────┴─────┴────────────────┴──────────────────┘");
+            System.out.println("└─────┴───────────────┴──────────────────┴─────┴────────────────┴──────────────────┘");
 
-        // Option to view a specific user
-        System.out.print("\nEnter the number of a user to view details (0 to return): ");
-        int userIndex;
-        try {
-            userIndex = Integer.parseInt(scanner.nextLine().trim());
-            if (userIndex == 0) {
-                return;
+            // Option to view a specific user or move to the next page
+            if (page.hasNext()) {
+                System.out.print("\nEnter the number of a user to view details (N for next page, 0 to return): ");
+            } else {
+                System.out.print("\nEnter the number of a user to view details (0 to return): ");
             }
-            if (userIndex < 1 || userIndex > filteredUsers.size()) {
-                System.out.println("Invalid user number.");
+            String input = scanner.nextLine().trim();
+            if (page.hasNext() && input.equalsIgnoreCase("N")) {
+                shown += filteredUsers.size();
+                page = userController.getUsersPage(role, page.getNextCursor(), PAGE_SIZE);
+                continue;
+            }
+
+            int userIndex;
+            try {
+                userIndex = Integer.parseInt(input);
+                if (userIndex == 0) {
+                    return;
+                }
+                if (userIndex < 1 || userIndex > filteredUsers.size()) {
+                    System.out.println("Invalid user number.");
+                    return;
+                }
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid input. Please enter a number.");
                 return;
             }
-        } catch (NumberFormatException e) {
-            System.out.println("Invalid input. Please enter a number.");
-            return;
+
+            selectedUser = filteredUsers.get(userIndex - 1);
         }
 
-        User selectedUser = filteredUsers.get(userIndex - 1);
         displayUserDetails(selectedUser);
     }
 
@@ -466,6 +494,78 @@ public class AdminUI {
         System.out.printf("│ Active Projects │ %-9d │%n", activeProjects);
         System.out.printf("│ Visible Projects│ %-9d │%n", visibleProjects);
         System.out.println("└─────────────────┴───────────┘");
+
+        System.out.print("\nView runtime metrics? (Y/N): ");
+        if (scanner.nextLine().trim().equalsIgnoreCase("Y")) {
+            showRuntimeMetrics();
+        }
+    }
+
+    /**
+     * Displays the runtime metrics recorded since the system started: the
+     * latency of every controller method that has been called, and the load,
+     * save and size figures of every database table.
+     */
+    private void showRuntimeMetrics() {
+        MetricsRegistry registry = MetricsRegistry.getDefault();
+
+        System.out.println("\n+-----------------------------------------------");
+        System.out.println("|           RUNTIME METRICS                    ");
+        System.out.println("+-----------------------------------------------");
+
+        System.out.println("Controller Calls (latency in ms):");
+        System.out.println("┌─────────────┬───────────────────────────────────┬──────────┬──────────┬──────────┐");
+        System.out.println("│ Controller  │ Method                            │ Calls    │ Mean     │ p99      │");
+        System.out.println("├─────────────┼───────────────────────────────────┼──────────┼──────────┼──────────┤");
+        for (Map.Entry<String, LatencyHistogram> entry : registry.getHistograms("bto_controller_call_seconds")
+                .entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            System.out.printf("│ %-11s │ %-33s │ %-8d │ %-8.3f │ %-8.3f │%n",
+                    MetricsRegistry.labelValue(entry.getKey(), "controller").replace("Controller", ""),
+                    MetricsRegistry.labelValue(entry.getKey(), "method"), histogram.getCount(),
+                    histogram.getMean() / 1e6, histogram.getValueAtPercentile(99) / 1e6);
+        }
+        System.out.println("└─────────────┴───────────────────────────────────┴──────────┴──────────┴──────────┘");
+
+        Map<String, Double> records = registry.getGaugeValues(TableMetrics.RECORDS);
+        Map<String, Double> loadSeconds = registry.getGaugeValues(TableMetrics.LOAD_SECONDS);
+        Map<String, LatencyHistogram> saves = registry.getHistograms(TableMetrics.SAVE_SECONDS);
+        Map<String, Long> saveErrors = registry.getCounterValues(TableMetrics.SAVE_ERRORS);
+        Map<String, Long> loadErrors = registry.getCounterValues(TableMetrics.LOAD_ERRORS);
+        TreeSet<String> tables = new TreeSet<>(records.keySet());
+        tables.addAll(saves.keySet());
+
+        System.out.println("\nDatabase Tables (times in ms):");
+        System.out.println("┌──────────────┬────────────┬──────────┬──────────┬──────────┬──────────┐");
+        System.out.println("│ Table        │ Records    │ Load     │ Saves    │ Save p99 │ Errors   │");
+        System.out.println("├──────────────┼────────────┼──────────┼──────────┼──────────┼──────────┤");
+        for (String table : tables) {
+            LatencyHistogram histogram = saves.get(table);
+            long errors = saveErrors.getOrDefault(table, 0L) + loadErrors.getOrDefault(table, 0L);
+            System.out.printf("│ %-12s │ %-10d │ %-8.1f │ %-8d │ %-8.3f │ %-8d │%n",
+                    MetricsRegistry.labelValue(table, "table"), records.getOrDefault(table, 0.0).longValue(),
+                    loadSeconds.getOrDefault(table, 0.0) * 1e3, histogram == null ? 0 : histogram.getCount(),
+                    histogram == null ? 0 : histogram.getValueAtPercentile(99) / 1e6, errors);
+        }
+        System.out.println("└──────────────┴────────────┴──────────┴──────────┴──────────┴──────────┘");
+
+        Map<String, Long> bytesWritten = registry.getCounterValues(TableMetrics.BYTES_WRITTEN);
+        Map<String, Long> bytesRead = registry.getCounterValues(TableMetrics.BYTES_READ);
+        TreeSet<String> files = new TreeSet<>(bytesWritten.keySet());
+        files.addAll(bytesRead.keySet());
+
+        System.out.println("\nData Files:");
+        System.out.println("┌──────────────────────────┬───────────────┬───────────────┐");
+        System.out.println("│ File                     │ Bytes Written │ Bytes Read    │");
+        System.out.println("├──────────────────────────┼───────────────┼───────────────┤");
+        for (String file : files) {
+            System.out.printf("│ %-24s │ %-13d │ %-13d │%n", MetricsRegistry.labelValue(file, "file"),
+                    bytesWritten.getOrDefault(file, 0L), bytesRead.getOrDefault(file, 0L));
+        }
+        System.out.println("└──────────────────────────┴───────────────┴───────────────┘");
     }
 
     /**
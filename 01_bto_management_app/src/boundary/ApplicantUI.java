@@ -137,16 +137,9 @@ public class ApplicantUI {
         System.out.println("+-----------------------------+");
 
         boolean isMarried = currentUser.getMaritalStatus() == MaritalStatus.MARRIED;
-        List<Project> projects = projectController.getVisibleProjectsByMaritalStatus(isMarried);
-
         // Apply filters if set
-        if (filterNeighborhood != null && !filterNeighborhood.isEmpty()) {
-            projects = projectController.filterByNeighborhood(projects, filterNeighborhood);
-        }
-
-        if (filterFlatType != null) {
-            projects = projectController.filterByFlatType(projects, filterFlatType);
-        }
+        List<Project> projects = projectController.searchVisibleProjects(isMarried, filterNeighborhood,
+                filterFlatType);
 
         if (projects.isEmpty()) {
             System.out.println("No projects available for your eligibility criteria and filters.");
@@ -297,16 +290,9 @@ public class ApplicantUI {
 
         // Display available projects
         boolean isMarried = currentUser.getMaritalStatus() == MaritalStatus.MARRIED;
-        List<Project> projects = projectController.getVisibleProjectsByMaritalStatus(isMarried);
-
         // Apply filters if set
-        if (filterNeighborhood != null && !filterNeighborhood.isEmpty()) {
-            projects = projectController.filterByNeighborhood(projects, filterNeighborhood);
-        }
-
-        if (filterFlatType != null) {
-            projects = projectController.filterByFlatType(projects, filterFlatType);
-        }
+        List<Project> projects = projectController.searchVisibleProjects(isMarried, filterNeighborhood,
+                filterFlatType);
 
         // Filter only projects that are in application period
         List<Project> openProjects = new java.util.ArrayList<>();
@@ -2,6 +2,7 @@
 package boundary;
 
 import controller.*;
+import data.Page;
 import entity.*;
 import entity.enums.ApplicationStatus;
 import entity.enums.FlatType;
@@ -10,6 +11,7 @@ import entity.enums.MaritalStatus;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
@@ -30,6 +32,8 @@ public class HDBManagerUI {
 
     private LoginUI loginUI;
 
+    private static final int PAGE_SIZE = 20;
+
     /**
      * Constructs a new HDBManagerUI with references to necessary components.
      * 
@@ -852,85 +856,87 @@ public class HDBManagerUI {
 
         Project selectedProject = managerProjects.get(projectIndex - 1);
 
-        // Get all applications for this project
-        List<Application> applications = applicationController.getApplicationsByProject(
-                selectedProject.getProjectName());
-
-        if (applications.isEmpty()) {
-            System.out.println("No applications found for this project.");
+        System.out.println("\n1. Review next pending applications in order");
+        System.out.println("2. Browse pending applications");
+        System.out.print("Enter your choice: ");
+        String mode = scanner.nextLine().trim();
+        if (mode.equals("1")) {
+            reviewPendingApplications(selectedProject);
+            return;
+        } else if (!mode.equals("2")) {
+            System.out.println("Invalid choice.");
             return;
         }
 
-        // Filter pending applications
-        List<Application> pendingApplications = new java.util.ArrayList<>();
-        for (Application application : applications) {
-            if (application.getStatus() == ApplicationStatus.PENDING) {
-                pendingApplications.add(application);
-            }
-        }
+        // Get pending applications for this project, one page at a time
+        Page<Application> page = applicationController.getApplicationsByProjectPage(
+                selectedProject.getProjectName(), ApplicationStatus.PENDING, null, PAGE_SIZE);
 
-        if (pendingApplications.isEmpty()) {
-            System.out.println("No pending applications found for this project.");
+        if (page.getTotal() == 0) {
+            if (applicationController.getApplicationsByProjectPage(
+                    selectedProject.getProjectName(), null, null, 1).getTotal() == 0) {
+                System.out.println("No applications found for this project.");
+            } else {
+                System.out.println("No pending applications found for this project.");
+            }
             return;
         }
 
-        System.out.println("\nPending Applications for Project: " + selectedProject.getProjectName());
-        System.out.printf("%-5s %-20s %-15s %-15s\n",
-                "No.", "Application ID", "Applicant NRIC", "Flat Type");
-        System.out.println("--------------------------------------------------------");
-
-        for (int i = 0; i < pendingApplications.size(); i++) {
-            Application application = pendingApplications.get(i);
-            System.out.printf("%-5d %-20s %-15s %-15s\n",
-                    i + 1,
-                    application.getApplicationId(),
-                    application.getApplicantNric(),
-                    application.getFlatType().getDescription());
-        }
+        Application selectedApplication = null;
+        int shown = 0;
+        while (selectedApplication == null) {
+            List<Application> pendingApplications = page.getItems();
+
+            System.out.println("\nPending Applications for Project: " + selectedProject.getProjectName()
+                    + " (" + (shown + 1) + "-" + (shown + pendingApplications.size()) + " of " + page.getTotal()
+                    + ")");
+            System.out.printf("%-5s %-20s %-15s %-15s\n",
+                    "No.", "Application ID", "Applicant NRIC", "Flat Type");
+            System.out.println("--------------------------------------------------------");
+
+            for (int i = 0; i < pendingApplications.size(); i++) {
+                Application application = pendingApplications.get(i);
+                System.out.printf("%-5d %-20s %-15s %-15s\n",
+                        i + 1,
+                        application.getApplicationId(),
+                        application.getApplicantNric(),
+                        application.getFlatType().getDescription());
+            }
 
-        // Let user select an application
-        System.out.print("\nEnter the number of the application to process (0 to cancel): ");
-        int applicationIndex;
-        try {
-            applicationIndex = Integer.parseInt(scanner.nextLine().trim());
-            if (applicationIndex == 0) {
-                return;
+            // Let user select an application or move to the next page
+            if (page.hasNext()) {
+                System.out.print("\nEnter the number of the application to process (N for next page, 0 to cancel): ");
+            } else {
+                System.out.print("\nEnter the number of the application to process (0 to cancel): ");
             }
-            if (applicationIndex < 1 || applicationIndex > pendingApplications.size()) {
-                System.out.println("Invalid application number.");
-                return;
+            String input = scanner.nextLine().trim();
+            if (page.hasNext() && input.equalsIgnoreCase("N")) {
+                shown += pendingApplications.size();
+                page = applicationController.getApplicationsByProjectPage(selectedProject.getProjectName(),
+                        ApplicationStatus.PENDING, page.getNextCursor(), PAGE_SIZE);
+                continue;
             }
-        } catch (NumberFormatException e) {
-            System.out.println("Invalid input. Please enter a number.");
-            return;
-        }
 
-        Application selectedApplication = pendingApplications.get(applicationIndex - 1);
+            int applicationIndex;
+            try {
+                applicationIndex = Integer.parseInt(input);
+                if (applicationIndex == 0) {
+                    return;
+                }
+                if (applicationIndex < 1 || applicationIndex > pendingApplications.size()) {
+                    System.out.println("Invalid application number.");
+                    return;
+                }
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid input. Please enter a number.");
+                return;
+            }
 
-        // Get applicant details
-        User applicant = userController.getUser(selectedApplication.getApplicantNric());
-        if (applicant == null) {
-            System.out.println("Error: Applicant not found.");
-            return;
+            selectedApplication = pendingApplications.get(applicationIndex - 1);
         }
 
-        // Display application details
-        System.out.println("\nApplication Details:");
-        System.out.println("Application ID: " + selectedApplication.getApplicationId());
-        System.out.println("Applicant NRIC: " + applicant.getNric());
-        System.out.println("Age: " + applicant.getAge());
-        System.out.println("Marital Status: " + applicant.getMaritalStatus().getStatus());
-        System.out.println("Flat Type: " + selectedApplication.getFlatType().getDescription());
-        System.out.println("Application Date: " + selectedApplication.getApplicationDate());
-
-        // Check if there are available units
-        FlatType flatType = selectedApplication.getFlatType();
-        int availableUnits = selectedProject.getFlatTypeUnits().getOrDefault(flatType, 0);
-
-        System.out.println("\nAvailable Units for " + flatType.getDescription() + ": " + availableUnits);
-
-        if (availableUnits <= 0) {
-            System.out.println("No available units for this flat type. Application cannot be approved.");
+        // Display application details and check if there are available units
+        if (!printApplicationDetails(selectedProject, selectedApplication)) {
             return;
         }
 
@@ -959,6 +965,120 @@ public class HDBManagerUI {
         }
     }
 
+    /**
+     * Lets the manager review the pending applications of a project in the
+     * order they were submitted, a batch at a time.
+     * 
+     * @param project The project to review applications for
+     */
+    private void reviewPendingApplications(Project project) {
+        int waiting = applicationController.getPendingQueueSize(project.getProjectName());
+        if (waiting == 0) {
+            System.out.println("No pending applications found for this project.");
+            return;
+        }
+
+        System.out.println("\n" + waiting + " pending application(s) waiting for review.");
+        System.out.print("Enter the number of applications to review (default " + PAGE_SIZE + "): ");
+        int batchSize = PAGE_SIZE;
+        String input = scanner.nextLine().trim();
+        if (!input.isEmpty()) {
+            try {
+                batchSize = Integer.parseInt(input);
+                if (batchSize < 1) {
+                    System.out.println("Number of applications must be at least 1.");
+                    return;
+                }
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid input. Please enter a number.");
+                return;
+            }
+        }
+
+        List<Application> batch = applicationController.takePendingApplications(project.getProjectName(),
+                batchSize);
+        List<Application> unreviewed = new ArrayList<>(batch);
+        int reviewed = 0;
+        try {
+            for (Application application : batch) {
+                if (!printApplicationDetails(project, application)) {
+                    continue;
+                }
+
+                System.out.print("\nApprove (A), reject (R), skip (S) or stop reviewing (Q): ");
+                String decision = scanner.nextLine().trim();
+                if (decision.equalsIgnoreCase("Q")) {
+                    break;
+                }
+
+                boolean success;
+                if (decision.equalsIgnoreCase("A")) {
+                    if (project.getFlatTypeUnits().getOrDefault(application.getFlatType(), 0) <= 0) {
+                        System.out.println("No available units for this flat type. Application cannot be approved.");
+                        continue;
+                    }
+                    success = applicationController.approveApplication(application.getApplicationId());
+                    System.out.println(success ? "Application approved successfully!"
+                            : "Failed to approve application. Please try again later.");
+                } else if (decision.equalsIgnoreCase("R")) {
+                    success = applicationController.rejectApplication(application.getApplicationId());
+                    System.out.println(success ? "Application rejected successfully."
+                            : "Failed to reject application. Please try again later.");
+                } else {
+                    continue;
+                }
+
+                if (success) {
+                    unreviewed.remove(application);
+                    reviewed++;
+                }
+            }
+        } finally {
+            // Skipped applications keep their place for the next review
+            applicationController.putBackPendingApplications(unreviewed);
+        }
+
+        System.out.println("\nReviewed " + reviewed + " of " + batch.size() + " application(s). "
+                + applicationController.getPendingQueueSize(project.getProjectName())
+                + " still waiting for review.");
+    }
+
+    /**
+     * Displays the details of an application and the units left for its flat
+     * type.
+     * 
+     * @param project     The project applied for
+     * @param application The application to display
+     * @return true if the application can be approved, false otherwise
+     */
+    private boolean printApplicationDetails(Project project, Application application) {
+        // Get applicant details
+        User applicant = userController.getUser(application.getApplicantNric());
+        if (applicant == null) {
+            System.out.println("Error: Applicant not found.");
+            return false;
+        }
+
+        System.out.println("\nApplication Details:");
+        System.out.println("Application ID: " + application.getApplicationId());
+        System.out.println("Applicant NRIC: " + applicant.getNric());
+        System.out.println("Age: " + applicant.getAge());
+        System.out.println("Marital Status: " + applicant.getMaritalStatus().getStatus());
+        System.out.println("Flat Type: " + application.getFlatType().getDescription());
+        System.out.println("Application Date: " + application.getApplicationDate());
+
+        FlatType flatType = application.getFlatType();
+        int availableUnits = project.getFlatTypeUnits().getOrDefault(flatType, 0);
+
+        System.out.println("\nAvailable Units for " + flatType.getDescription() + ": " + availableUnits);
+
+        if (availableUnits <= 0) {
+            System.out.println("No available units for this flat type. Application cannot be approved.");
+            return false;
+        }
+        return true;
+    }
+
     /**
      * Allows the manager to manage withdrawal requests for applications.
      */
@@ -1083,7 +1203,8 @@ public class HDBManagerUI {
             System.out.println("4. Remaining Units Report");
             System.out.println("5. Officer Performance Report");
             System.out.println("6. System Summary Report");
-            System.out.println("7. Back to Main Menu");
+            System.out.println("7. Verify Report Statistics");
+            System.out.println("8. Back to Main Menu");
             System.out.print("Enter your choice: ");
 
             try {
@@ -1109,6 +1230,9 @@ public class HDBManagerUI {
                         generateSystemSummaryReport();
                         break;
                     case 7:
+                        verifyReportStatistics();
+                        break;
+                    case 8:
                         back = true;
                         break;
                     default:
@@ -1120,6 +1244,18 @@ public class HDBManagerUI {
         }
     }
 
+    /**
+     * Checks the report counters against the raw data and rebuilds them if
+     * needed.
+     */
+    private void verifyReportStatistics() {
+        if (reportController.verifyStatistics()) {
+            System.out.println("Report statistics are consistent.");
+        } else {
+            System.out.println("Report statistics were out of date and have been rebuilt.");
+        }
+    }
+
     /**
      * Generates an application summary report.
      */
@@ -1,6 +1,7 @@
 package boundary;
 
 import controller.LoginController;
+import controller.Session;
 import entity.User;
 
 import java.util.Scanner;
@@ -11,6 +12,7 @@ import java.util.Scanner;
 public class LoginUI {
     private Scanner scanner;
     private LoginController loginController;
+    private Session session;
 
     /**
      * Constructs a new LoginUI with references to necessary components.
@@ -74,10 +76,10 @@ public class LoginUI {
         System.out.print("Enter password: ");
         String password = scanner.nextLine().trim();
 
-        boolean loggedIn = loginController.login(nric, password);
+        session = loginController.login(nric, password);
 
-        if (loggedIn) {
-            User user = loginController.getCurrentUser();
+        if (session != null) {
+            User user = session.getUser();
             System.out.println("\nLogin successful!");
             System.out.println("Welcome, " + user.getName() + " (" + user.getRole().getRole() + ")");
 
@@ -91,6 +93,23 @@ public class LoginUI {
         }
     }
 
+    /**
+     * Gets the user logged in at this console.
+     * 
+     * @return The current user, or null if no user is logged in
+     */
+    public User getCurrentUser() {
+        return session != null ? session.getUser() : null;
+    }
+
+    /**
+     * Logs out the user logged in at this console.
+     */
+    public void logout() {
+        loginController.logout(session);
+        session = null;
+    }
+
     /**
      * Handles the password change process.
      */
@@ -111,7 +130,7 @@ public class LoginUI {
             return;
         }
 
-        boolean changed = loginController.changePassword(currentPassword, newPassword);
+        boolean changed = loginController.changePassword(session, currentPassword, newPassword);
 
         if (changed) {
             System.out.println("Password changed successfully!");
@@ -4,7 +4,11 @@ import controller.*;
 import data.*;
 import entity.User;
 // import entity.enums.UserRole;
+import metrics.MetricsRegistry;
+import metrics.PrometheusExporter;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -17,6 +21,9 @@ public class MainUI {
     private ProjectDB projectDB;
     private ApplicationDB applicationDB;
     private EnquiryDB enquiryDB;
+    private GroupCommit groupCommit;
+    private PrometheusExporter metricsExporter;
+    private long startNanos;
 
     private LoginController loginController;
     private UserController userController;
@@ -35,21 +42,45 @@ public class MainUI {
      * Constructs a new MainUI and initializes all components.
      */
     public MainUI() {
+        startNanos = System.nanoTime();
         scanner = new Scanner(System.in);
 
         // Initialize databases
-        userDB = new UserDB();
+        // -Dbto.userStore=mapped keeps users in a memory-mapped slot file
+        userDB = new UserDB("mapped".equals(System.getProperty("bto.userStore")));
         projectDB = new ProjectDB();
-        applicationDB = new ApplicationDB();
+        applicationDB = new ApplicationDB(userDB);
         enquiryDB = new EnquiryDB();
 
+        // Batch database writes if a group commit interval is configured
+        long commitIntervalMillis = Long.getLong("bto.groupCommit.intervalMs", 0);
+        if (commitIntervalMillis > 0) {
+            int commitBatchSize = Integer.getInteger("bto.groupCommit.batchSize", 256);
+            groupCommit = new GroupCommit(commitIntervalMillis, commitBatchSize);
+            userDB.setGroupCommit(groupCommit);
+            projectDB.setGroupCommit(groupCommit);
+            applicationDB.setGroupCommit(groupCommit);
+            enquiryDB.setGroupCommit(groupCommit);
+            // Write out any buffered changes if the program is interrupted
+            Runtime.getRuntime().addShutdownHook(new Thread(groupCommit::flush));
+        }
+
+        // Dump metrics for a scraper if -Dbto.metrics.file is set
+        String metricsFile = System.getProperty("bto.metrics.file");
+        if (metricsFile != null) {
+            long metricsIntervalSeconds = Long.getLong("bto.metrics.intervalSeconds", 15);
+            metricsExporter = new PrometheusExporter(MetricsRegistry.getDefault(), metricsFile, metricsIntervalSeconds);
+            metricsExporter.start();
+        }
+
         // Initialize controllers
+        ReportStatistics reportStatistics = new ReportStatistics(applicationDB, userDB);
         loginController = new LoginController(userDB);
         userController = new UserController(userDB);
         projectController = new ProjectController(projectDB, userDB);
-        applicationController = new ApplicationController(applicationDB, projectDB, userDB);
+        applicationController = new ApplicationController(applicationDB, projectDB, userDB, reportStatistics);
         enquiryController = new EnquiryController(enquiryDB, projectDB, userDB);
-        reportController = new ReportController(applicationDB, projectDB, userDB);
+        reportController = new ReportController(applicationDB, projectDB, userDB, reportStatistics);
 
         // Initialize UI components
         loginUI = new LoginUI(scanner, loginController);
@@ -64,6 +95,50 @@ public class MainUI {
         // Load sample data if needed
         DataInitializer initializer = new DataInitializer(userDB, projectDB, applicationDB, enquiryDB);
         initializer.initialize();
+
+        // Tables load on first access unless -Dbto.loadMode is eager or parallel
+        String loadMode = System.getProperty("bto.loadMode", "lazy");
+        if (loadMode.equals("eager")) {
+            for (TableLoader loader : getTableLoaders()) {
+                loader.ensureLoaded();
+            }
+        } else if (loadMode.equals("parallel")) {
+            TableLoader.loadInParallel(getTableLoaders(), Runtime.getRuntime().availableProcessors());
+        }
+    }
+
+    /**
+     * Gets the loaders of all database tables.
+     * 
+     * @return The table loaders
+     */
+    private List<TableLoader> getTableLoaders() {
+        return List.of(userDB.getLoader(), projectDB.getLoader(), applicationDB.getLoader(),
+                enquiryDB.getLoader());
+    }
+
+    /**
+     * Prints how long startup took and how long each loaded table took.
+     * Tables that have not been needed yet are listed as deferred.
+     */
+    private void printStartupTime() {
+        long startupMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        List<String> loaded = new ArrayList<>();
+        List<String> deferred = new ArrayList<>();
+        for (TableLoader loader : getTableLoaders()) {
+            if (loader.isLoaded()) {
+                loaded.add(loader.getTableName() + " " + loader.getLoadMillis() + " ms");
+            } else {
+                deferred.add(loader.getTableName());
+            }
+        }
+
+        StringBuilder line = new StringBuilder("Startup: " + startupMillis + " ms (");
+        line.append(loaded.isEmpty() ? "no tables loaded" : String.join(", ", loaded));
+        if (!deferred.isEmpty()) {
+            line.append("; ").append(String.join(", ", deferred)).append(" deferred");
+        }
+        System.out.println(line.append(")"));
     }
 
     /**
@@ -73,6 +148,7 @@ public class MainUI {
         System.out.println("===============================");
         System.out.println("  BTO MANAGEMENT SYSTEM");
         System.out.println("===============================");
+        printStartupTime();
 
         boolean exit = false;
 
@@ -84,8 +160,9 @@ public class MainUI {
                 case 1: // Login
                     boolean loggedIn = loginUI.login();
                     if (loggedIn) {
-                        User currentUser = loginController.getCurrentUser();
+                        User currentUser = loginUI.getCurrentUser();
                         redirectToUserInterface(currentUser);
+                        loginUI.logout();
                     }
                     break;
                 case 2: // Exit
@@ -97,6 +174,13 @@ public class MainUI {
             }
         }
 
+        if (groupCommit != null) {
+            groupCommit.shutdown();
+        }
+        userDB.close();
+        if (metricsExporter != null) {
+            metricsExporter.stop();
+        }
         scanner.close();
     }
 
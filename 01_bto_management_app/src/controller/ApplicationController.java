@@ -1,6 +1,7 @@
 package controller;
 
 import data.ApplicationDB;
+import data.Page;
 import data.ProjectDB;
 import data.UserDB;
 import entity.*;
@@ -8,30 +9,43 @@ import entity.enums.ApplicationStatus;
 import entity.enums.FlatType;
 import entity.enums.MaritalStatus;
 import entity.enums.UserRole;
+import metrics.MethodTimers;
 
 import java.util.List;
 import java.util.UUID;
 
 /**
  * Controller for managing BTO applications and flat bookings.
+ * Operations on the same applicant are serialized, so the controller can be
+ * shared by concurrent sessions.
  */
 public class ApplicationController {
     private ApplicationDB applicationDB;
     private ProjectDB projectDB;
     private UserDB userDB;
+    private ReportStatistics reportStatistics;
+    private KeyedLock applicantLocks;
+    private PendingApplicationQueue pendingQueue;
+    private MethodTimers timers;
 
     /**
      * Constructs a new ApplicationController with references to all necessary
      * databases.
      * 
-     * @param applicationDB The application database
-     * @param projectDB     The project database
-     * @param userDB        The user database
+     * @param applicationDB    The application database
+     * @param projectDB        The project database
+     * @param userDB           The user database
+     * @param reportStatistics The report counters to update on state transitions
      */
-    public ApplicationController(ApplicationDB applicationDB, ProjectDB projectDB, UserDB userDB) {
+    public ApplicationController(ApplicationDB applicationDB, ProjectDB projectDB, UserDB userDB,
+            ReportStatistics reportStatistics) {
         this.applicationDB = applicationDB;
         this.projectDB = projectDB;
         this.userDB = userDB;
+        this.reportStatistics = reportStatistics;
+        this.applicantLocks = new KeyedLock();
+        this.pendingQueue = new PendingApplicationQueue(applicationDB);
+        this.timers = new MethodTimers("ApplicationController");
     }
 
     /**
@@ -43,44 +57,58 @@ public class ApplicationController {
      * @return The application ID if successful, null otherwise
      */
     public String createApplication(String applicantNric, String projectName, FlatType flatType) {
-        // Check if applicant, project, and flat type are valid
-        User user = userDB.getUser(applicantNric);
-        Project project = projectDB.getProject(projectName);
+        return timers.time("createApplication", () -> {
+            // Check if applicant, project, and flat type are valid
+            User user = userDB.getUser(applicantNric);
+            Project project = projectDB.getProject(projectName);
 
-        if (user == null || !(user instanceof Applicant) || project == null) {
-            return null;
-        }
-
-        // Check if applicant already has an active application
-        if (applicationDB.hasActiveApplication(applicantNric)) {
-            return null;
-        }
-
-        // Check if applicant meets the requirements for the flat type
-        if (!isApplicantEligibleForFlatType(user, flatType)) {
-            return null;
-        }
-
-        // Check if the project has available units of this flat type
-        if (!project.getFlatTypeUnits().containsKey(flatType) ||
-                project.getFlatTypeUnits().get(flatType) <= 0) {
-            return null;
-        }
-
-        // Create and save the application
-        String applicationId = UUID.randomUUID().toString();
-        Application application = new Application(applicationId, applicantNric, projectName, flatType);
+            if (user == null || !(user instanceof Applicant) || project == null) {
+                return null;
+            }
 
-        if (applicationDB.addApplication(application)) {
-            // Update applicant's current application
-            Applicant applicant = (Applicant) user;
-            applicant.setCurrentApplicationId(applicationId);
-            userDB.updateUser(applicant);
+            // Check if applicant meets the requirements for the flat type
+            if (!isApplicantEligibleForFlatType(user, flatType)) {
+                return null;
+            }
 
-            return applicationId;
-        }
+            // Check if the project has available units of this flat type
+            if (!project.getFlatTypeUnits().containsKey(flatType) ||
+                    project.getFlatTypeUnits().get(flatType) <= 0) {
+                return null;
+            }
 
-        return null;
+            // Serialize with other operations on this applicant so two concurrent
+            // requests cannot both pass the active application check
+            synchronized (applicantLocks.forKey(applicantNric)) {
+                reportStatistics.beginTransition();
+                try {
+                    // Check if applicant already has an active application
+                    if (applicationDB.hasActiveApplication(applicantNric)) {
+                        return null;
+                    }
+
+                    // Create and save the application
+                    String applicationId = UUID.randomUUID().toString();
+                    Application application = new Application(applicationId, applicantNric, projectName, flatType);
+
+                    if (applicationDB.addApplication(application)) {
+                        reportStatistics.recordApplication(application);
+                        pendingQueue.add(application);
+
+                        // Update applicant's current application
+                        Applicant applicant = (Applicant) user;
+                        applicant.setCurrentApplicationId(applicationId);
+                        userDB.updateUser(applicant);
+
+                        return applicationId;
+                    }
+
+                    return null;
+                } finally {
+                    reportStatistics.endTransition();
+                }
+            }
+        });
     }
 
     /**
@@ -109,7 +137,7 @@ public class ApplicationController {
      * @return The application, or null if not found
      */
     public Application getApplication(String applicationId) {
-        return applicationDB.getApplication(applicationId);
+        return timers.time("getApplication", () -> applicationDB.getApplication(applicationId));
     }
 
     /**
@@ -119,7 +147,7 @@ public class ApplicationController {
      * @return The application, or null if none found
      */
     public Application getCurrentApplication(String applicantNric) {
-        return applicationDB.getCurrentApplication(applicantNric);
+        return timers.time("getCurrentApplication", () -> applicationDB.getCurrentApplication(applicantNric));
     }
 
     /**
@@ -129,7 +157,24 @@ public class ApplicationController {
      * @return A list of applications for the project
      */
     public List<Application> getApplicationsByProject(String projectName) {
-        return applicationDB.getApplicationsByProject(projectName);
+        return timers.time("getApplicationsByProject", () -> applicationDB.getApplicationsByProject(projectName));
+    }
+
+    /**
+     * Gets one page of the applications for a project, oldest first.
+     * 
+     * @param projectName The name of the project
+     * @param status      The status to filter by, or null for any status
+     * @param cursor      The cursor of the previous page, or null for the first
+     *                    page
+     * @param limit       The maximum number of applications on the page
+     * @return The page of applications
+     */
+    public Page<Application> getApplicationsByProjectPage(String projectName, ApplicationStatus status,
+            String cursor, int limit) {
+        return timers.time("getApplicationsByProjectPage", () -> {
+            return applicationDB.getApplicationsByProjectPage(projectName, status, cursor, limit);
+        });
     }
 
     /**
@@ -140,9 +185,48 @@ public class ApplicationController {
      * @return A list of applications with the specified status
      */
     public List<Application> getApplicationsByProjectAndStatus(String projectName, ApplicationStatus status) {
-        List<Application> applications = applicationDB.getApplicationsByProject(projectName);
-        applications.removeIf(app -> app.getStatus() != status);
-        return applications;
+        return timers.time("getApplicationsByProjectAndStatus", () -> {
+            List<Application> applications = applicationDB.getApplicationsByProject(projectName);
+            applications.removeIf(app -> app.getStatus() != status);
+            return applications;
+        });
+    }
+
+    /**
+     * Takes the next pending applications of a project for review, oldest
+     * first. The applications are held back from other managers until they are
+     * approved, rejected or put back, or until their lease runs out.
+     * 
+     * @param projectName The name of the project
+     * @param max         The maximum number of applications to take
+     * @return The applications taken, oldest first
+     */
+    public List<Application> takePendingApplications(String projectName, int max) {
+        return timers.time("takePendingApplications", () -> pendingQueue.poll(projectName, max));
+    }
+
+    /**
+     * Puts back applications taken for review that were not approved or
+     * rejected, so they can be reviewed later.
+     * 
+     * @param applications The applications to put back
+     */
+    public void putBackPendingApplications(List<Application> applications) {
+        timers.run("putBackPendingApplications", () -> {
+            for (Application application : applications) {
+                pendingQueue.putBack(application);
+            }
+        });
+    }
+
+    /**
+     * Gets the number of pending applications of a project waiting for review.
+     * 
+     * @param projectName The name of the project
+     * @return The number of applications waiting
+     */
+    public int getPendingQueueSize(String projectName) {
+        return timers.time("getPendingQueueSize", () -> pendingQueue.size(projectName));
     }
 
     /**
@@ -152,14 +236,33 @@ public class ApplicationController {
      * @return true if successful, false otherwise
      */
     public boolean approveApplication(String applicationId) {
-        Application application = applicationDB.getApplication(applicationId);
-        if (application == null || application.getStatus() != ApplicationStatus.PENDING) {
-            return false;
-        }
+        return timers.time("approveApplication", () -> {
+            Application application = applicationDB.getApplication(applicationId);
+            if (application == null) {
+                return false;
+            }
 
-        // Update application status
-        application.setStatus(ApplicationStatus.SUCCESSFUL);
-        return applicationDB.updateApplication(application);
+            synchronized (applicantLocks.forKey(application.getApplicantNric())) {
+                reportStatistics.beginTransition();
+                try {
+                    if (application.getStatus() != ApplicationStatus.PENDING) {
+                        return false;
+                    }
+
+                    // Update application status
+                    application.setStatus(ApplicationStatus.SUCCESSFUL);
+                    if (!applicationDB.updateApplication(application)) {
+                        return false;
+                    }
+
+                    reportStatistics.recordStatusChange(application, ApplicationStatus.PENDING);
+                    pendingQueue.remove(application);
+                    return true;
+                } finally {
+                    reportStatistics.endTransition();
+                }
+            }
+        });
     }
 
     /**
@@ -169,24 +272,39 @@ public class ApplicationController {
      * @return true if successful, false otherwise
      */
     public boolean rejectApplication(String applicationId) {
-        Application application = applicationDB.getApplication(applicationId);
-        if (application == null || application.getStatus() != ApplicationStatus.PENDING) {
-            return false;
-        }
-
-        // Update application status
-        application.setStatus(ApplicationStatus.UNSUCCESSFUL);
-        applicationDB.updateApplication(application);
-
-        // Update applicant's current application
-        User user = userDB.getUser(application.getApplicantNric());
-        if (user instanceof Applicant) {
-            Applicant applicant = (Applicant) user;
-            applicant.clearApplication();
-            userDB.updateUser(applicant);
-        }
+        return timers.time("rejectApplication", () -> {
+            Application application = applicationDB.getApplication(applicationId);
+            if (application == null) {
+                return false;
+            }
 
-        return true;
+            synchronized (applicantLocks.forKey(application.getApplicantNric())) {
+                reportStatistics.beginTransition();
+                try {
+                    if (application.getStatus() != ApplicationStatus.PENDING) {
+                        return false;
+                    }
+
+                    // Update application status
+                    application.setStatus(ApplicationStatus.UNSUCCESSFUL);
+                    applicationDB.updateApplication(application);
+                    reportStatistics.recordStatusChange(application, ApplicationStatus.PENDING);
+                    pendingQueue.remove(application);
+
+                    // Update applicant's current application
+                    User user = userDB.getUser(application.getApplicantNric());
+                    if (user instanceof Applicant) {
+                        Applicant applicant = (Applicant) user;
+                        applicant.clearApplication();
+                        userDB.updateUser(applicant);
+                    }
+
+                    return true;
+                } finally {
+                    reportStatistics.endTransition();
+                }
+            }
+        });
     }
 
     /**
@@ -197,47 +315,63 @@ public class ApplicationController {
      * @return The booking ID if successful, null otherwise
      */
     public String bookFlat(String applicationId, String officerNric) {
-        // Check if application and officer are valid
-        Application application = applicationDB.getApplication(applicationId);
-        User officer = userDB.getUser(officerNric);
-
-        if (application == null || officer == null || officer.getRole() != UserRole.HDB_OFFICER) {
-            return null;
-        }
-
-        // Check if application is successful and not already booked
-        if (application.getStatus() != ApplicationStatus.SUCCESSFUL || application.hasBooking()) {
-            return null;
-        }
+        return timers.time("bookFlat", () -> {
+            // Check if application and officer are valid
+            Application application = applicationDB.getApplication(applicationId);
+            User officer = userDB.getUser(officerNric);
 
-        // Check if the officer is handling the project
-        HDBOfficer hdbOfficer = (HDBOfficer) officer;
-        if (!application.getProjectName().equals(hdbOfficer.getHandlingProjectName())) {
-            return null;
-        }
-
-        // Create and save the booking
-        String bookingId = UUID.randomUUID().toString();
-        FlatBooking booking = new FlatBooking(
-                bookingId,
-                applicationId,
-                application.getApplicantNric(),
-                application.getProjectName(),
-                application.getFlatType(),
-                officerNric);
-
-        if (applicationDB.addBooking(booking)) {
-            // Decrement flat type units in project
-            Project project = projectDB.getProject(application.getProjectName());
-            if (project != null) {
-                project.decrementFlatTypeUnits(application.getFlatType());
-                projectDB.updateProject(project);
+            if (application == null || officer == null || officer.getRole() != UserRole.HDB_OFFICER) {
+                return null;
             }
 
-            return bookingId;
-        }
+            // Check if the officer is handling the project
+            HDBOfficer hdbOfficer = (HDBOfficer) officer;
+            if (!application.getProjectName().equals(hdbOfficer.getHandlingProjectName())) {
+                return null;
+            }
 
-        return null;
+            synchronized (applicantLocks.forKey(application.getApplicantNric())) {
+                reportStatistics.beginTransition();
+                try {
+                    // Check if application is still present, successful and not already booked
+                    if (applicationDB.getApplication(applicationId) != application ||
+                            application.getStatus() != ApplicationStatus.SUCCESSFUL || application.hasBooking()) {
+                        return null;
+                    }
+
+                    // Reserve a unit first so concurrent bookings cannot oversell
+                    Project project = projectDB.getProject(application.getProjectName());
+                    if (project == null || !project.decrementFlatTypeUnits(application.getFlatType())) {
+                        return null;
+                    }
+
+                    // Create and save the booking
+                    String bookingId = UUID.randomUUID().toString();
+                    FlatBooking booking = new FlatBooking(
+                            bookingId,
+                            applicationId,
+                            application.getApplicantNric(),
+                            application.getProjectName(),
+                            application.getFlatType(),
+                            officerNric);
+
+                    if (!applicationDB.addBooking(booking)) {
+                        // Give the reserved unit back
+                        project.incrementFlatTypeUnits(application.getFlatType());
+                        return null;
+                    }
+
+                    reportStatistics.recordStatusChange(application, ApplicationStatus.SUCCESSFUL);
+                    reportStatistics.recordBooking(booking);
+
+                    // Commit the reservation
+                    projectDB.updateProject(project);
+                    return bookingId;
+                } finally {
+                    reportStatistics.endTransition();
+                }
+            }
+        });
     }
 
     /**
@@ -247,7 +381,7 @@ public class ApplicationController {
      * @return A list of bookings for the project
      */
     public List<FlatBooking> getBookingsByProject(String projectName) {
-        return applicationDB.getBookingsByProject(projectName);
+        return timers.time("getBookingsByProject", () -> applicationDB.getBookingsByProject(projectName));
     }
 
     /**
@@ -257,12 +391,17 @@ public class ApplicationController {
      * @return true if successful, false otherwise
      */
     public boolean requestWithdrawal(String applicationId) {
-        Application application = applicationDB.getApplication(applicationId);
-        if (application == null) {
-            return false;
-        }
-        application.setWithdrawn();
-        return true;
+        return timers.time("requestWithdrawal", () -> {
+            Application application = applicationDB.getApplication(applicationId);
+            if (application == null) {
+                return false;
+            }
+
+            synchronized (applicantLocks.forKey(application.getApplicantNric())) {
+                application.setWithdrawn();
+                return applicationDB.updateApplication(application);
+            }
+        });
     }
 
     /**
@@ -272,31 +411,51 @@ public class ApplicationController {
      * @return true if successful, false otherwise
      */
     public boolean approveWithdrawal(String applicationId) {
-        Application application = applicationDB.getApplication(applicationId);
-        if (application == null) {
-            return false;
-        }
-
-        // Update project if application was successful or booked
-        if (application.getStatus() == ApplicationStatus.SUCCESSFUL ||
-                application.getStatus() == ApplicationStatus.BOOKED) {
-            Project project = projectDB.getProject(application.getProjectName());
-            if (project != null) {
-                project.incrementFlatTypeUnits(application.getFlatType());
-                projectDB.updateProject(project);
+        return timers.time("approveWithdrawal", () -> {
+            Application application = applicationDB.getApplication(applicationId);
+            if (application == null) {
+                return false;
             }
-        }
 
-        // Clear applicant's current application
-        User user = userDB.getUser(application.getApplicantNric());
-        if (user instanceof Applicant) {
-            Applicant applicant = (Applicant) user;
-            applicant.clearApplication();
-            userDB.updateUser(applicant);
-        }
-
-        // Remove the application
-        return applicationDB.removeApplication(applicationId);
+            synchronized (applicantLocks.forKey(application.getApplicantNric())) {
+                reportStatistics.beginTransition();
+                try {
+                    // Check the application was not withdrawn concurrently
+                    if (applicationDB.getApplication(applicationId) != application) {
+                        return false;
+                    }
+
+                    // Update project if application was successful or booked
+                    if (application.getStatus() == ApplicationStatus.SUCCESSFUL ||
+                            application.getStatus() == ApplicationStatus.BOOKED) {
+                        Project project = projectDB.getProject(application.getProjectName());
+                        if (project != null) {
+                            project.incrementFlatTypeUnits(application.getFlatType());
+                            projectDB.updateProject(project);
+                        }
+                    }
+
+                    // Clear applicant's current application
+                    User user = userDB.getUser(application.getApplicantNric());
+                    if (user instanceof Applicant) {
+                        Applicant applicant = (Applicant) user;
+                        applicant.clearApplication();
+                        userDB.updateUser(applicant);
+                    }
+
+                    // Remove the application
+                    if (!applicationDB.removeApplication(applicationId)) {
+                        return false;
+                    }
+
+                    reportStatistics.recordRemoval(application);
+                    pendingQueue.remove(application);
+                    return true;
+                } finally {
+                    reportStatistics.endTransition();
+                }
+            }
+        });
     }
 
     /**
@@ -306,37 +465,39 @@ public class ApplicationController {
      * @return A string containing the receipt, or null if booking not found
      */
     public String generateReceipt(String bookingId) {
-        FlatBooking booking = applicationDB.getBooking(bookingId);
-        if (booking == null) {
-            return null;
-        }
+        return timers.time("generateReceipt", () -> {
+            FlatBooking booking = applicationDB.getBooking(bookingId);
+            if (booking == null) {
+                return null;
+            }
 
-        User applicant = userDB.getUser(booking.getApplicantNric());
-        if (applicant == null) {
-            return null;
-        }
+            User applicant = userDB.getUser(booking.getApplicantNric());
+            if (applicant == null) {
+                return null;
+            }
 
-        Project project = projectDB.getProject(booking.getProjectName());
-        if (project == null) {
-            return null;
-        }
+            Project project = projectDB.getProject(booking.getProjectName());
+            if (project == null) {
+                return null;
+            }
 
-        StringBuilder receipt = new StringBuilder();
-        receipt.append("=============== FLAT BOOKING RECEIPT ===============\n");
-        receipt.append("Booking ID: ").append(booking.getBookingId()).append("\n");
-        receipt.append("Date: ").append(booking.getBookingDate()).append("\n\n");
-        receipt.append("Applicant Information:\n");
-        receipt.append("Name: ").append(applicant.getNric()).append("\n");
-        receipt.append("Age: ").append(applicant.getAge()).append("\n");
-        receipt.append("Marital Status: ").append(applicant.getMaritalStatus().getStatus()).append("\n\n");
-        receipt.append("Project Information:\n");
-        receipt.append("Project Name: ").append(project.getProjectName()).append("\n");
-        receipt.append("Neighborhood: ").append(project.getNeighborhood()).append("\n");
-        receipt.append("Flat Type: ").append(booking.getFlatType().getDescription()).append("\n\n");
-        receipt.append("Officer NRIC: ").append(booking.getOfficerNric()).append("\n");
-        receipt.append("=================================================\n");
-
-        return receipt.toString();
+            StringBuilder receipt = new StringBuilder();
+            receipt.append("=============== FLAT BOOKING RECEIPT ===============\n");
+            receipt.append("Booking ID: ").append(booking.getBookingId()).append("\n");
+            receipt.append("Date: ").append(booking.getBookingDate()).append("\n\n");
+            receipt.append("Applicant Information:\n");
+            receipt.append("Name: ").append(applicant.getNric()).append("\n");
+            receipt.append("Age: ").append(applicant.getAge()).append("\n");
+            receipt.append("Marital Status: ").append(applicant.getMaritalStatus().getStatus()).append("\n\n");
+            receipt.append("Project Information:\n");
+            receipt.append("Project Name: ").append(project.getProjectName()).append("\n");
+            receipt.append("Neighborhood: ").append(project.getNeighborhood()).append("\n");
+            receipt.append("Flat Type: ").append(booking.getFlatType().getDescription()).append("\n\n");
+            receipt.append("Officer NRIC: ").append(booking.getOfficerNric()).append("\n");
+            receipt.append("=================================================\n");
+
+            return receipt.toString();
+        });
     }
 
     /**
@@ -351,6 +512,8 @@ public class ApplicationController {
      */
     public List<FlatBooking> generateBookingReport(String projectName, FlatType flatType,
             MaritalStatus maritalStatus, Integer minAge, Integer maxAge) {
-        return applicationDB.generateBookingReport(projectName, flatType, maritalStatus, minAge, maxAge);
+        return timers.time("generateBookingReport", () -> {
+            return applicationDB.generateBookingReport(projectName, flatType, maritalStatus, minAge, maxAge);
+        });
     }
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import entity.Enquiry;
 import entity.Project;
 import entity.User;
 import entity.enums.UserRole;
+import metrics.MethodTimers;
 
 import java.util.List;
 import java.util.UUID;
@@ -18,6 +19,8 @@ public class EnquiryController {
     private EnquiryDB enquiryDB;
     private ProjectDB projectDB;
     private UserDB userDB;
+    private KeyedLock enquiryLocks;
+    private MethodTimers timers;
 
     /**
      * Constructs a new EnquiryController with references to all necessary
@@ -31,6 +34,8 @@ public class EnquiryController {
         this.enquiryDB = enquiryDB;
         this.projectDB = projectDB;
         this.userDB = userDB;
+        this.enquiryLocks = new KeyedLock();
+        this.timers = new MethodTimers("EnquiryController");
     }
 
     /**
@@ -42,23 +47,25 @@ public class EnquiryController {
      * @return The enquiry ID if successful, null otherwise
      */
     public String createEnquiry(String applicantNric, String projectName, String enquiryText) {
-        // Check if applicant and project are valid
-        User user = userDB.getUser(applicantNric);
-        Project project = projectDB.getProject(projectName);
+        return timers.time("createEnquiry", () -> {
+            // Check if applicant and project are valid
+            User user = userDB.getUser(applicantNric);
+            Project project = projectDB.getProject(projectName);
 
-        if (user == null || project == null || enquiryText == null || enquiryText.trim().isEmpty()) {
-            return null;
-        }
+            if (user == null || project == null || enquiryText == null || enquiryText.trim().isEmpty()) {
+                return null;
+            }
 
-        // Create and save the enquiry
-        String enquiryId = UUID.randomUUID().toString();
-        Enquiry enquiry = new Enquiry(enquiryId, applicantNric, projectName, enquiryText);
+            // Create and save the enquiry
+            String enquiryId = UUID.randomUUID().toString();
+            Enquiry enquiry = new Enquiry(enquiryId, applicantNric, projectName, enquiryText);
 
-        if (enquiryDB.addEnquiry(enquiry)) {
-            return enquiryId;
-        }
+            if (enquiryDB.addEnquiry(enquiry)) {
+                return enquiryId;
+            }
 
-        return null;
+            return null;
+        });
     }
 
     /**
@@ -68,7 +75,7 @@ public class EnquiryController {
      * @return The enquiry, or null if not found
      */
     public Enquiry getEnquiry(String enquiryId) {
-        return enquiryDB.getEnquiry(enquiryId);
+        return timers.time("getEnquiry", () -> enquiryDB.getEnquiry(enquiryId));
     }
 
     /**
@@ -78,7 +85,7 @@ public class EnquiryController {
      * @return A list of enquiries from the applicant
      */
     public List<Enquiry> getEnquiriesByApplicant(String applicantNric) {
-        return enquiryDB.getEnquiriesByApplicant(applicantNric);
+        return timers.time("getEnquiriesByApplicant", () -> enquiryDB.getEnquiriesByApplicant(applicantNric));
     }
 
     /**
@@ -88,7 +95,7 @@ public class EnquiryController {
      * @return A list of enquiries about the project
      */
     public List<Enquiry> getEnquiriesByProject(String projectName) {
-        return enquiryDB.getEnquiriesByProject(projectName);
+        return timers.time("getEnquiriesByProject", () -> enquiryDB.getEnquiriesByProject(projectName));
     }
 
     /**
@@ -98,7 +105,7 @@ public class EnquiryController {
      * @return A list of answered or unanswered enquiries
      */
     public List<Enquiry> getEnquiriesByAnswered(boolean answered) {
-        return enquiryDB.getEnquiriesByAnswered(answered);
+        return timers.time("getEnquiriesByAnswered", () -> enquiryDB.getEnquiriesByAnswered(answered));
     }
 
     /**
@@ -107,7 +114,7 @@ public class EnquiryController {
      * @return A list of all enquiries
      */
     public List<Enquiry> getAllEnquiries() {
-        return enquiryDB.getAllEnquiries();
+        return timers.time("getAllEnquiries", () -> enquiryDB.getAllEnquiries());
     }
 
     /**
@@ -118,13 +125,22 @@ public class EnquiryController {
      * @return true if successful, false otherwise
      */
     public boolean updateEnquiry(String enquiryId, String enquiryText) {
-        Enquiry enquiry = enquiryDB.getEnquiry(enquiryId);
-        if (enquiry == null || enquiry.isAnswered() || enquiryText == null || enquiryText.trim().isEmpty()) {
-            return false;
-        }
+        return timers.time("updateEnquiry", () -> {
+            Enquiry enquiry = enquiryDB.getEnquiry(enquiryId);
+            if (enquiry == null || enquiryText == null || enquiryText.trim().isEmpty()) {
+                return false;
+            }
 
-        enquiry.setEnquiryText(enquiryText);
-        return enquiryDB.updateEnquiry(enquiry);
+            // Serialize with a concurrent answer so an answered enquiry is never edited
+            synchronized (enquiryLocks.forKey(enquiryId)) {
+                if (enquiry.isAnswered()) {
+                    return false;
+                }
+
+                enquiry.setEnquiryText(enquiryText);
+                return enquiryDB.updateEnquiry(enquiry);
+            }
+        });
     }
 
     /**
@@ -134,12 +150,14 @@ public class EnquiryController {
      * @return true if successful, false otherwise
      */
     public boolean deleteEnquiry(String enquiryId) {
-        Enquiry enquiry = enquiryDB.getEnquiry(enquiryId);
-        if (enquiry == null) {
-            return false;
-        }
+        return timers.time("deleteEnquiry", () -> {
+            Enquiry enquiry = enquiryDB.getEnquiry(enquiryId);
+            if (enquiry == null) {
+                return false;
+            }
 
-        return enquiryDB.deleteEnquiry(enquiryId);
+            return enquiryDB.deleteEnquiry(enquiryId);
+        });
     }
 
     /**
@@ -151,33 +169,37 @@ public class EnquiryController {
      * @return true if successful, false otherwise
      */
     public boolean answerEnquiry(String enquiryId, String userNric, String responseText) {
-        // Check if enquiry and user are valid
-        Enquiry enquiry = enquiryDB.getEnquiry(enquiryId);
-        User user = userDB.getUser(userNric);
-
-        if (enquiry == null || user == null || responseText == null || responseText.trim().isEmpty()) {
-            return false;
-        }
-
-        // Check if user is authorized to answer
-        if (user.getRole() == UserRole.APPLICANT) {
-            return false;
-        }
-
-        // If user is an officer, check if they handle the project
-        if (user.getRole() == UserRole.HDB_OFFICER) {
-            if (!(user instanceof entity.HDBOfficer)) {
+        return timers.time("answerEnquiry", () -> {
+            // Check if enquiry and user are valid
+            Enquiry enquiry = enquiryDB.getEnquiry(enquiryId);
+            User user = userDB.getUser(userNric);
+
+            if (enquiry == null || user == null || responseText == null || responseText.trim().isEmpty()) {
                 return false;
             }
 
-            entity.HDBOfficer officer = (entity.HDBOfficer) user;
-            if (!enquiry.getProjectName().equals(officer.getHandlingProjectName())) {
+            // Check if user is authorized to answer
+            if (user.getRole() == UserRole.APPLICANT) {
                 return false;
             }
-        }
 
-        // Update the enquiry with the response
-        enquiry.setResponse(responseText);
-        return enquiryDB.updateEnquiry(enquiry);
+            // If user is an officer, check if they handle the project
+            if (user.getRole() == UserRole.HDB_OFFICER) {
+                if (!(user instanceof entity.HDBOfficer)) {
+                    return false;
+                }
+
+                entity.HDBOfficer officer = (entity.HDBOfficer) user;
+                if (!enquiry.getProjectName().equals(officer.getHandlingProjectName())) {
+                    return false;
+                }
+            }
+
+            // Update the enquiry with the response
+            synchronized (enquiryLocks.forKey(enquiryId)) {
+                enquiry.setResponse(responseText);
+                return enquiryDB.updateEnquiry(enquiry);
+            }
+        });
     }
 }
\ No newline at end of file
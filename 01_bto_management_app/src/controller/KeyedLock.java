@@ -0,0 +1,32 @@
+package controller;
+
+/**
+ * A fixed set of lock objects selected by key.
+ * Operations on the same key are serialized, while operations on different
+ * keys usually proceed in parallel.
+ */
+public class KeyedLock {
+    private static final int STRIPES = 64;
+
+    private final Object[] locks;
+
+    /**
+     * Constructs a new KeyedLock.
+     */
+    public KeyedLock() {
+        locks = new Object[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Gets the lock object guarding a key.
+     *
+     * @param key The key, such as an NRIC or project name
+     * @return The object to synchronize on
+     */
+    public Object forKey(String key) {
+        return locks[(key.hashCode() & 0x7fffffff) % STRIPES];
+    }
+}
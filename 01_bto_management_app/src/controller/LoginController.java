@@ -2,13 +2,22 @@ package controller;
 
 import data.UserDB;
 import entity.User;
+import metrics.LoginEvent;
+import metrics.MethodTimers;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Controller for handling user authentication and password management.
+ * Each login opens its own {@link Session}, so any number of users can be
+ * logged in at once.
  */
 public class LoginController {
     private UserDB userDB;
-    private User currentUser;
+    private Map<String, Session> sessions;
+    private MethodTimers timers;
 
     /**
      * Constructs a new LoginController with a reference to the user database.
@@ -17,59 +26,87 @@ public class LoginController {
      */
     public LoginController(UserDB userDB) {
         this.userDB = userDB;
-        this.currentUser = null;
+        this.sessions = new ConcurrentHashMap<>();
+        this.timers = new MethodTimers("LoginController");
     }
 
     /**
-     * Authenticates a user with the provided credentials.
+     * Authenticates a user with the provided credentials and opens a session.
      * 
      * @param nric     The NRIC of the user
      * @param password The password of the user
-     * @return true if authentication was successful, false otherwise
+     * @return The new session if authentication was successful, null otherwise
      */
-    public boolean login(String nric, String password) {
-        User user = userDB.authenticate(nric, password);
-        if (user != null) {
-            currentUser = user;
-            return true;
-        }
-        return false;
+    public Session login(String nric, String password) {
+        LoginEvent event = LoginEvent.isRecording() ? new LoginEvent() : null;
+        return timers.time("login", event, () -> {
+            User user = userDB.authenticate(nric, password);
+            if (user != null) {
+                Session session = new Session(UUID.randomUUID().toString(), user);
+                sessions.put(session.getSessionId(), session);
+                if (event != null) {
+                    event.succeeded(user.getRole().getRole());
+                }
+                return session;
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Logs out a session.
+     * 
+     * @param session The session to close
+     */
+    public void logout(Session session) {
+        timers.run("logout", () -> {
+            if (session != null) {
+                sessions.remove(session.getSessionId());
+            }
+        });
     }
 
     /**
-     * Logs out the current user.
+     * Gets an open session by ID.
+     * 
+     * @param sessionId The ID of the session
+     * @return The session, or null if it is not open
      */
-    public void logout() {
-        currentUser = null;
+    public Session getSession(String sessionId) {
+        return timers.time("getSession", () -> sessions.get(sessionId));
     }
 
     /**
-     * Gets the currently logged-in user.
+     * Gets the number of currently open sessions.
      * 
-     * @return The current user, or null if no user is logged in
+     * @return The number of open sessions
      */
-    public User getCurrentUser() {
-        return currentUser;
+    public int getActiveSessionCount() {
+        return timers.time("getActiveSessionCount", () -> sessions.size());
     }
 
     /**
-     * Changes the password of the current user.
+     * Changes the password of the user logged in with a session.
      * 
+     * @param session     The session of the user
      * @param oldPassword The current password
      * @param newPassword The new password
      * @return true if the password was changed, false otherwise
      */
-    public boolean changePassword(String oldPassword, String newPassword) {
-        if (currentUser == null) {
-            return false;
-        }
-
-        boolean success = userDB.changePassword(currentUser.getNric(), oldPassword, newPassword);
-        if (success) {
-            // Update the current user reference
-            currentUser = userDB.getUser(currentUser.getNric());
-        }
-        return success;
+    public boolean changePassword(Session session, String oldPassword, String newPassword) {
+        return timers.time("changePassword", () -> {
+            if (session == null) {
+                return false;
+            }
+
+            String nric = session.getUser().getNric();
+            boolean success = userDB.changePassword(nric, oldPassword, newPassword);
+            if (success) {
+                // Update the session's user reference
+                session.setUser(userDB.getUser(nric));
+            }
+            return success;
+        });
     }
 
     /**
@@ -80,7 +117,7 @@ public class LoginController {
      * @return true if the password is the default password
      */
     public boolean isDefaultPassword(String nric, String password) {
-        return userDB.hasDefaultPassword(nric, password);
+        return timers.time("isDefaultPassword", () -> userDB.hasDefaultPassword(nric, password));
     }
 
     /**
@@ -90,27 +127,29 @@ public class LoginController {
      * @return true if the NRIC has a valid format, false otherwise
      */
     public boolean validateNRIC(String nric) {
-        if (nric == null || nric.length() != 9) {
-            return false;
-        }
-
-        char firstChar = nric.charAt(0);
-        if (firstChar != 'S' && firstChar != 'T') {
-            return false;
-        }
-
-        char lastChar = nric.charAt(8);
-        if (!Character.isLetter(lastChar)) {
-            return false;
-        }
-
-        // Check that characters 1-7 are digits
-        for (int i = 1; i < 8; i++) {
-            if (!Character.isDigit(nric.charAt(i))) {
+        return timers.time("validateNRIC", () -> {
+            if (nric == null || nric.length() != 9) {
+                return false;
+            }
+
+            char firstChar = nric.charAt(0);
+            if (firstChar != 'S' && firstChar != 'T') {
                 return false;
             }
-        }
 
-        return true;
+            char lastChar = nric.charAt(8);
+            if (!Character.isLetter(lastChar)) {
+                return false;
+            }
+
+            // Check that characters 1-7 are digits
+            for (int i = 1; i < 8; i++) {
+                if (!Character.isDigit(nric.charAt(i))) {
+                    return false;
+                }
+            }
+
+            return true;
+        });
     }
 }
@@ -0,0 +1,224 @@
+package controller;
+
+import data.ApplicationDB;
+import data.SortKey;
+import entity.Application;
+import entity.enums.ApplicationStatus;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queues of pending applications waiting for review, one per project.
+ * Applications are reviewed oldest first. Taking the next application costs
+ * O(log n) instead of a scan of the project, and an application taken by one
+ * manager is leased to them: it is not handed to another manager until it is
+ * put back or the lease runs out, so applications taken by a review that never
+ * finished go back into the queue on their own.
+ */
+public class PendingApplicationQueue {
+    public static final long DEFAULT_LEASE_MINUTES = 15;
+
+    private final ApplicationDB applicationDB;
+    private final long leaseNanos;
+    private final Map<String, NavigableSet<SortKey>> queues;
+    private final Map<String, Map<SortKey, Long>> leases;
+
+    /**
+     * Constructs a new PendingApplicationQueue with the default lease. The
+     * queue of a project is filled from the database the first time the
+     * project is used.
+     *
+     * @param applicationDB The application database
+     */
+    public PendingApplicationQueue(ApplicationDB applicationDB) {
+        this(applicationDB, TimeUnit.MINUTES.toNanos(DEFAULT_LEASE_MINUTES));
+    }
+
+    /**
+     * Constructs a new PendingApplicationQueue. The queue of a project is
+     * filled from the database the first time the project is used.
+     *
+     * @param applicationDB The application database
+     * @param leaseNanos    How long taken applications are held back from
+     *                      other managers, in nanoseconds
+     */
+    public PendingApplicationQueue(ApplicationDB applicationDB, long leaseNanos) {
+        this.applicationDB = applicationDB;
+        this.leaseNanos = leaseNanos;
+        this.queues = new ConcurrentHashMap<>();
+        this.leases = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Adds a pending application to the queue of its project.
+     *
+     * @param application The application to add
+     */
+    public void add(Application application) {
+        queueFor(application.getProjectName()).add(keyOf(application));
+    }
+
+    /**
+     * Removes an application from the queue of its project, such as after it
+     * is approved or rejected, and ends any lease on it.
+     *
+     * @param application The application to remove
+     */
+    public void remove(Application application) {
+        SortKey key = keyOf(application);
+        NavigableSet<SortKey> queue = queues.get(application.getProjectName());
+        if (queue != null) {
+            queue.remove(key);
+        }
+        leasesFor(application.getProjectName()).remove(key);
+    }
+
+    /**
+     * Takes the oldest pending applications of a project for review and
+     * leases them to the caller. Applications that are no longer pending are
+     * dropped on the way.
+     *
+     * @param projectName The name of the project
+     * @param max         The maximum number of applications to take
+     * @return The applications taken, oldest first
+     */
+    public List<Application> poll(String projectName, int max) {
+        NavigableSet<SortKey> queue = queueFor(projectName);
+        Map<SortKey, Long> projectLeases = leasesFor(projectName);
+        reclaimExpired(queue, projectLeases);
+
+        long expiry = System.nanoTime() + leaseNanos;
+        List<Application> taken = new ArrayList<>();
+        while (taken.size() < max) {
+            SortKey key = queue.pollFirst();
+            if (key == null) {
+                break;
+            }
+            Application application = pending(key);
+            if (application != null) {
+                projectLeases.put(key, expiry);
+                taken.add(application);
+            }
+        }
+        return taken;
+    }
+
+    /**
+     * Puts back an application that was taken but not reviewed. It keeps its
+     * place in the queue. An application whose lease has already run out is
+     * back in the queue, so it is not added again.
+     *
+     * @param application The application to put back
+     */
+    public void putBack(Application application) {
+        if (leasesFor(application.getProjectName()).remove(keyOf(application)) != null
+                && application.getStatus() == ApplicationStatus.PENDING
+                && applicationDB.getApplication(application.getApplicationId()) == application) {
+            add(application);
+        }
+    }
+
+    /**
+     * Gets the number of applications waiting in the queue of a project.
+     * Applications that stopped being pending without passing through the
+     * queue are dropped while counting, and expired leases are returned first.
+     *
+     * @param projectName The name of the project
+     * @return The number of queued applications
+     */
+    public int size(String projectName) {
+        NavigableSet<SortKey> queue = queueFor(projectName);
+        reclaimExpired(queue, leasesFor(projectName));
+
+        int size = 0;
+        for (Iterator<SortKey> keys = queue.iterator(); keys.hasNext();) {
+            if (pending(keys.next()) != null) {
+                size++;
+            } else {
+                keys.remove();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns applications whose lease has run out to the queue of their
+     * project, so a review that was abandoned does not lose them.
+     *
+     * @param queue         The queue of the project
+     * @param projectLeases The leases of the project
+     */
+    private void reclaimExpired(NavigableSet<SortKey> queue, Map<SortKey, Long> projectLeases) {
+        long now = System.nanoTime();
+        for (Map.Entry<SortKey, Long> lease : projectLeases.entrySet()) {
+            // Only the thread that removes the lease returns it, so it is queued once
+            if (now - lease.getValue() >= 0 && projectLeases.remove(lease.getKey(), lease.getValue())
+                    && pending(lease.getKey()) != null) {
+                queue.add(lease.getKey());
+            }
+        }
+    }
+
+    /**
+     * Gets the queue of a project, filling it from the status index on first
+     * use. The queue is filled before it is published rather than inside the
+     * map's compute, so a slow fill does not block other projects sharing the
+     * map's bin; if two threads fill the same queue, the first one published
+     * is kept.
+     *
+     * @param projectName The name of the project
+     * @return The queue
+     */
+    private NavigableSet<SortKey> queueFor(String projectName) {
+        NavigableSet<SortKey> queue = queues.get(projectName);
+        if (queue != null) {
+            return queue;
+        }
+        NavigableSet<SortKey> filled = new ConcurrentSkipListSet<>();
+        for (Application application : applicationDB.getApplicationsByStatus(projectName,
+                ApplicationStatus.PENDING)) {
+            filled.add(keyOf(application));
+        }
+        queue = queues.putIfAbsent(projectName, filled);
+        return queue != null ? queue : filled;
+    }
+
+    /**
+     * Gets the leases of a project.
+     *
+     * @param projectName The name of the project
+     * @return The expiry time of each leased application, from
+     *         {@link System#nanoTime()}
+     */
+    private Map<SortKey, Long> leasesFor(String projectName) {
+        return leases.computeIfAbsent(projectName, name -> new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Gets the application at a queue position if it is still pending.
+     *
+     * @param key The queue position
+     * @return The application, or null if it is gone or no longer pending
+     */
+    private Application pending(SortKey key) {
+        Application application = applicationDB.getApplication(key.getId());
+        return application != null && application.getStatus() == ApplicationStatus.PENDING ? application : null;
+    }
+
+    /**
+     * Gets the queue position of an application.
+     *
+     * @param application The application
+     * @return The sort key of the application
+     */
+    private static SortKey keyOf(Application application) {
+        return new SortKey(application.getApplicationDate(), application.getApplicationId());
+    }
+}
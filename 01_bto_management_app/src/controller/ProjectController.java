@@ -4,7 +4,9 @@ import data.ProjectDB;
 import data.UserDB;
 import entity.*;
 import entity.enums.FlatType;
+import entity.enums.MaritalStatus;
 import entity.enums.UserRole;
+import metrics.MethodTimers;
 
 import java.time.LocalDate;
 import java.util.HashMap;
@@ -18,6 +20,8 @@ import java.util.UUID;
 public class ProjectController {
     private ProjectDB projectDB;
     private UserDB userDB;
+    private KeyedLock projectLocks;
+    private MethodTimers timers;
 
     /**
      * Constructs a new ProjectController with references to the project and user
@@ -29,6 +33,8 @@ public class ProjectController {
     public ProjectController(ProjectDB projectDB, UserDB userDB) {
         this.projectDB = projectDB;
         this.userDB = userDB;
+        this.projectLocks = new KeyedLock();
+        this.timers = new MethodTimers("ProjectController");
     }
 
     /**
@@ -48,35 +54,37 @@ public class ProjectController {
             int twoRoomUnits, int threeRoomUnits,
             LocalDate applicationOpeningDate, LocalDate applicationClosingDate,
             String managerNric, int availableOfficerSlots) {
-        // Check if manager exists and is a manager
-        User user = userDB.getUser(managerNric);
-        if (user == null || user.getRole() != UserRole.HDB_MANAGER) {
-            return false;
-        }
-
-        // Create the project
-        Project project = new Project(projectName, neighborhood, applicationOpeningDate,
-                applicationClosingDate, managerNric, availableOfficerSlots);
-
-        // Set flat type units
-        Map<FlatType, Integer> flatTypeUnits = new HashMap<>();
-        flatTypeUnits.put(FlatType.TWO_ROOM, twoRoomUnits);
-        flatTypeUnits.put(FlatType.THREE_ROOM, threeRoomUnits);
-
-        for (Map.Entry<FlatType, Integer> entry : flatTypeUnits.entrySet()) {
-            project.setFlatTypeUnits(entry.getKey(), entry.getValue());
-        }
-
-        // Add the project to the database
-        boolean success = projectDB.addProject(project);
-
-        // Update manager's created projects list
-        if (success && user instanceof HDBManager) {
-            ((HDBManager) user).addCreatedProject(projectName);
-            userDB.updateUser(user);
-        }
-
-        return success;
+        return timers.time("createProject", () -> {
+            // Check if manager exists and is a manager
+            User user = userDB.getUser(managerNric);
+            if (user == null || user.getRole() != UserRole.HDB_MANAGER) {
+                return false;
+            }
+
+            // Create the project
+            Project project = new Project(projectName, neighborhood, applicationOpeningDate,
+                    applicationClosingDate, managerNric, availableOfficerSlots);
+
+            // Set flat type units
+            Map<FlatType, Integer> flatTypeUnits = new HashMap<>();
+            flatTypeUnits.put(FlatType.TWO_ROOM, twoRoomUnits);
+            flatTypeUnits.put(FlatType.THREE_ROOM, threeRoomUnits);
+
+            for (Map.Entry<FlatType, Integer> entry : flatTypeUnits.entrySet()) {
+                project.setFlatTypeUnits(entry.getKey(), entry.getValue());
+            }
+
+            // Add the project to the database
+            boolean success = projectDB.addProject(project);
+
+            // Update manager's created projects list
+            if (success && user instanceof HDBManager) {
+                ((HDBManager) user).addCreatedProject(projectName);
+                userDB.updateUser(user);
+            }
+
+            return success;
+        });
     }
 
     /**
@@ -95,20 +103,22 @@ public class ProjectController {
             int twoRoomUnits, int threeRoomUnits,
             LocalDate applicationOpeningDate, LocalDate applicationClosingDate,
             int availableOfficerSlots) {
-        Project project = projectDB.getProject(projectName);
-        if (project == null) {
-            return false;
-        }
-
-        // Update project details
-        project.setNeighborhood(neighborhood);
-        project.setFlatTypeUnits(FlatType.TWO_ROOM, twoRoomUnits);
-        project.setFlatTypeUnits(FlatType.THREE_ROOM, threeRoomUnits);
-        project.setApplicationOpeningDate(applicationOpeningDate);
-        project.setApplicationClosingDate(applicationClosingDate);
-        project.setAvailableOfficerSlots(availableOfficerSlots);
-
-        return projectDB.updateProject(project);
+        return timers.time("updateProject", () -> {
+            Project project = projectDB.getProject(projectName);
+            if (project == null) {
+                return false;
+            }
+
+            // Update project details
+            project.setNeighborhood(neighborhood);
+            project.setFlatTypeUnits(FlatType.TWO_ROOM, twoRoomUnits);
+            project.setFlatTypeUnits(FlatType.THREE_ROOM, threeRoomUnits);
+            project.setApplicationOpeningDate(applicationOpeningDate);
+            project.setApplicationClosingDate(applicationClosingDate);
+            project.setAvailableOfficerSlots(availableOfficerSlots);
+
+            return projectDB.updateProject(project);
+        });
     }
 
     /**
@@ -118,31 +128,33 @@ public class ProjectController {
      * @return true if the project was deleted, false if project name not found
      */
     public boolean deleteProject(String projectName) {
-        Project project = projectDB.getProject(projectName);
-        if (project == null) {
-            return false;
-        }
-
-        // Remove project from manager's created projects list
-        User user = userDB.getUser(project.getManagerInChargeNric());
-        if (user instanceof HDBManager) {
-            ((HDBManager) user).removeCreatedProject(projectName);
-            userDB.updateUser(user);
-        }
-
-        // Remove project from officers' handling projects
-        for (String officerNric : project.getOfficerNrics()) {
-            User officerUser = userDB.getUser(officerNric);
-            if (officerUser instanceof HDBOfficer) {
-                HDBOfficer officer = (HDBOfficer) officerUser;
-                if (projectName.equals(officer.getHandlingProjectName())) {
-                    officer.setHandlingProjectName(null);
-                    userDB.updateUser(officer);
+        return timers.time("deleteProject", () -> {
+            Project project = projectDB.getProject(projectName);
+            if (project == null) {
+                return false;
+            }
+
+            // Remove project from manager's created projects list
+            User user = userDB.getUser(project.getManagerInChargeNric());
+            if (user instanceof HDBManager) {
+                ((HDBManager) user).removeCreatedProject(projectName);
+                userDB.updateUser(user);
+            }
+
+            // Remove project from officers' handling projects
+            for (String officerNric : project.getOfficerNrics()) {
+                User officerUser = userDB.getUser(officerNric);
+                if (officerUser instanceof HDBOfficer) {
+                    HDBOfficer officer = (HDBOfficer) officerUser;
+                    if (projectName.equals(officer.getHandlingProjectName())) {
+                        officer.setHandlingProjectName(null);
+                        userDB.updateUser(officer);
+                    }
                 }
             }
-        }
 
-        return projectDB.deleteProject(projectName);
+            return projectDB.deleteProject(projectName);
+        });
     }
 
     /**
@@ -152,7 +164,7 @@ public class ProjectController {
      * @return The project, or null if not found
      */
     public Project getProject(String projectName) {
-        return projectDB.getProject(projectName);
+        return timers.time("getProject", () -> projectDB.getProject(projectName));
     }
 
     /**
@@ -161,7 +173,7 @@ public class ProjectController {
      * @return A list of all projects
      */
     public List<Project> getAllProjects() {
-        return projectDB.getAllProjects();
+        return timers.time("getAllProjects", () -> projectDB.getAllProjects());
     }
 
     /**
@@ -170,7 +182,7 @@ public class ProjectController {
      * @return A list of all visible projects
      */
     public List<Project> getAllVisibleProjects() {
-        return projectDB.getAllVisibleProjects();
+        return timers.time("getAllVisibleProjects", () -> projectDB.getAllVisibleProjects());
     }
 
     /**
@@ -180,7 +192,7 @@ public class ProjectController {
      * @return A list of projects created by the manager
      */
     public List<Project> getProjectsByManager(String managerNric) {
-        return projectDB.getProjectsByManager(managerNric);
+        return timers.time("getProjectsByManager", () -> projectDB.getProjectsByManager(managerNric));
     }
 
     /**
@@ -190,7 +202,7 @@ public class ProjectController {
      * @return A list of projects handled by the officer
      */
     public List<Project> getProjectsByOfficer(String officerNric) {
-        return projectDB.getProjectsByOfficer(officerNric);
+        return timers.time("getProjectsByOfficer", () -> projectDB.getProjectsByOfficer(officerNric));
     }
 
     /**
@@ -201,7 +213,29 @@ public class ProjectController {
      * @return A list of visible projects suitable for the marital status
      */
     public List<Project> getVisibleProjectsByMaritalStatus(boolean isMarried) {
-        return projectDB.getVisibleProjectsByMaritalStatus(isMarried);
+        return timers.time("getVisibleProjectsByMaritalStatus", () -> {
+            return projectDB.getVisibleProjectsByMaritalStatus(isMarried);
+        });
+    }
+
+    /**
+     * Searches the visible projects an applicant may apply for.
+     * 
+     * @param isMarried    Whether the applicant is married
+     * @param neighborhood The neighborhood to filter by, or null for any
+     * @param flatType     The flat type that must have units left, or null for
+     *                     any
+     * @return A list of matching projects
+     */
+    public List<Project> searchVisibleProjects(boolean isMarried, String neighborhood, FlatType flatType) {
+        return timers.time("searchVisibleProjects", () -> {
+            return projectDB.query()
+                    .visible()
+                    .eligibleFor(isMarried ? MaritalStatus.MARRIED : MaritalStatus.SINGLE)
+                    .inNeighborhood(neighborhood)
+                    .withAvailableUnits(flatType)
+                    .list();
+        });
     }
 
     /**
@@ -212,13 +246,15 @@ public class ProjectController {
      * @return true if the visibility was toggled, false if project name not found
      */
     public boolean toggleProjectVisibility(String projectName, boolean visible) {
-        Project project = projectDB.getProject(projectName);
-        if (project == null) {
-            return false;
-        }
+        return timers.time("toggleProjectVisibility", () -> {
+            Project project = projectDB.getProject(projectName);
+            if (project == null) {
+                return false;
+            }
 
-        project.setVisible(visible);
-        return projectDB.updateProject(project);
+            project.setVisible(visible);
+            return projectDB.updateProject(project);
+        });
     }
 
     /**
@@ -229,30 +265,32 @@ public class ProjectController {
      * @return A registration ID if successful, null otherwise
      */
     public String registerOfficerForProject(String officerNric, String projectName) {
-        // Check if officer and project exist
-        User user = userDB.getUser(officerNric);
-        Project project = projectDB.getProject(projectName);
-
-        if (user == null || !(user instanceof HDBOfficer) || project == null) {
-            return null;
-        }
-
-        // Check if officer already handles a project in this application period
-        HDBOfficer officer = (HDBOfficer) user;
-        if (officer.isHandlingProject()) {
-            Project handlingProject = projectDB.getProject(officer.getHandlingProjectName());
-            if (handlingProject != null && handlingProject.isInApplicationPeriod() &&
-                    project.isInApplicationPeriod()) {
+        return timers.time("registerOfficerForProject", () -> {
+            // Check if officer and project exist
+            User user = userDB.getUser(officerNric);
+            Project project = projectDB.getProject(projectName);
+
+            if (user == null || !(user instanceof HDBOfficer) || project == null) {
                 return null;
             }
-        }
 
-        // Check if there are available slots
-        if (project.getAvailableOfficerSlots() <= 0) {
-            return null;
-        }
+            // Check if officer already handles a project in this application period
+            HDBOfficer officer = (HDBOfficer) user;
+            if (officer.isHandlingProject()) {
+                Project handlingProject = projectDB.getProject(officer.getHandlingProjectName());
+                if (handlingProject != null && handlingProject.isInApplicationPeriod() &&
+                        project.isInApplicationPeriod()) {
+                    return null;
+                }
+            }
 
-        return UUID.randomUUID().toString();
+            // Check if there are available slots
+            if (project.getAvailableOfficerSlots() <= 0) {
+                return null;
+            }
+
+            return UUID.randomUUID().toString();
+        });
     }
 
     /**
@@ -264,29 +302,33 @@ public class ProjectController {
      * @return true if the registration was approved, false otherwise
      */
     public boolean approveOfficerRegistration(String registrationId, String officerNric, String projectName) {
-        // Check if officer and project exist
-        User user = userDB.getUser(officerNric);
-        Project project = projectDB.getProject(projectName);
+        return timers.time("approveOfficerRegistration", () -> {
+            // Check if officer and project exist
+            User user = userDB.getUser(officerNric);
+            Project project = projectDB.getProject(projectName);
 
-        if (user == null || !(user instanceof HDBOfficer) || project == null) {
-            return false;
-        }
+            if (user == null || !(user instanceof HDBOfficer) || project == null) {
+                return false;
+            }
 
-        // Check if there are available slots
-        if (project.getAvailableOfficerSlots() <= 0) {
-            return false;
-        }
+            synchronized (projectLocks.forKey(projectName)) {
+                // Check if there are available slots
+                if (project.getAvailableOfficerSlots() <= 0) {
+                    return false;
+                }
 
-        // Update officer and project
-        HDBOfficer officer = (HDBOfficer) user;
-        officer.setHandlingProjectName(projectName);
-        userDB.updateUser(officer);
+                // Update officer and project
+                HDBOfficer officer = (HDBOfficer) user;
+                officer.setHandlingProjectName(projectName);
+                userDB.updateUser(officer);
 
-        project.addOfficerNric(officerNric);
-        project.decrementAvailableOfficerSlots();
-        projectDB.updateProject(project);
+                project.addOfficerNric(officerNric);
+                project.decrementAvailableOfficerSlots();
+                projectDB.updateProject(project);
+            }
 
-        return true;
+            return true;
+        });
     }
 
     /**
@@ -296,9 +338,11 @@ public class ProjectController {
      * @return true if the registration was rejected, false otherwise
      */
     public boolean rejectOfficerRegistration(String registrationId) {
-        // Since OfficerRegistration is not persisted in the current implementation,
-        // simply return true to indicate success
-        return true;
+        return timers.time("rejectOfficerRegistration", () -> {
+            // Since OfficerRegistration is not persisted in the current implementation,
+            // simply return true to indicate success
+            return true;
+        });
     }
 
     /**
@@ -309,16 +353,18 @@ public class ProjectController {
      * @return true if successful, false if no more units available
      */
     public boolean decrementFlatTypeUnits(String projectName, FlatType flatType) {
-        Project project = projectDB.getProject(projectName);
-        if (project == null) {
-            return false;
-        }
-
-        boolean success = project.decrementFlatTypeUnits(flatType);
-        if (success) {
-            projectDB.updateProject(project);
-        }
-        return success;
+        return timers.time("decrementFlatTypeUnits", () -> {
+            Project project = projectDB.getProject(projectName);
+            if (project == null) {
+                return false;
+            }
+
+            boolean success = project.decrementFlatTypeUnits(flatType);
+            if (success) {
+                projectDB.updateProject(project);
+            }
+            return success;
+        });
     }
 
     /**
@@ -329,13 +375,15 @@ public class ProjectController {
      * @return true if successful, false if project not found
      */
     public boolean incrementFlatTypeUnits(String projectName, FlatType flatType) {
-        Project project = projectDB.getProject(projectName);
-        if (project == null) {
-            return false;
-        }
+        return timers.time("incrementFlatTypeUnits", () -> {
+            Project project = projectDB.getProject(projectName);
+            if (project == null) {
+                return false;
+            }
 
-        project.incrementFlatTypeUnits(flatType);
-        return projectDB.updateProject(project);
+            project.incrementFlatTypeUnits(flatType);
+            return projectDB.updateProject(project);
+        });
     }
 
     /**
@@ -346,7 +394,7 @@ public class ProjectController {
      * @return A filtered list of projects
      */
     public List<Project> filterByNeighborhood(List<Project> projects, String neighborhood) {
-        return projectDB.filterByNeighborhood(projects, neighborhood);
+        return timers.time("filterByNeighborhood", () -> projectDB.filterByNeighborhood(projects, neighborhood));
     }
 
     /**
@@ -357,6 +405,6 @@ public class ProjectController {
      * @return A filtered list of projects
      */
     public List<Project> filterByFlatType(List<Project> projects, FlatType flatType) {
-        return projectDB.filterByFlatType(projects, flatType);
+        return timers.time("filterByFlatType", () -> projectDB.filterByFlatType(projects, flatType));
     }
 }
\ No newline at end of file
@@ -0,0 +1,262 @@
+package controller;
+
+import entity.Application;
+import entity.FlatBooking;
+import entity.User;
+import entity.enums.ApplicationStatus;
+import entity.enums.FlatType;
+import entity.enums.MaritalStatus;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Application and booking counters for a single project.
+ */
+public class ProjectStatistics {
+    private int[] statusCounts;
+    private int bookingCount;
+    private int[][] flatTypeCountsByMaritalStatus;
+    private TreeMap<Integer, int[]> applicationCountsByAge;
+    private Map<String, Integer> bookingCountsByOfficer;
+
+    /**
+     * Constructs a new ProjectStatistics with all counters set to zero.
+     */
+    public ProjectStatistics() {
+        statusCounts = new int[ApplicationStatus.values().length];
+        bookingCount = 0;
+        flatTypeCountsByMaritalStatus = new int[MaritalStatus.values().length][FlatType.values().length];
+        applicationCountsByAge = new TreeMap<>();
+        bookingCountsByOfficer = new HashMap<>();
+    }
+
+    /**
+     * Constructs a copy of another set of counters.
+     *
+     * @param other The counters to copy
+     */
+    public ProjectStatistics(ProjectStatistics other) {
+        statusCounts = other.statusCounts.clone();
+        bookingCount = other.bookingCount;
+        flatTypeCountsByMaritalStatus = new int[other.flatTypeCountsByMaritalStatus.length][];
+        for (int i = 0; i < flatTypeCountsByMaritalStatus.length; i++) {
+            flatTypeCountsByMaritalStatus[i] = other.flatTypeCountsByMaritalStatus[i].clone();
+        }
+        applicationCountsByAge = new TreeMap<>();
+        for (Map.Entry<Integer, int[]> entry : other.applicationCountsByAge.entrySet()) {
+            applicationCountsByAge.put(entry.getKey(), entry.getValue().clone());
+        }
+        bookingCountsByOfficer = new HashMap<>(other.bookingCountsByOfficer);
+    }
+
+    /**
+     * Counts an application towards this project.
+     *
+     * @param application The application to count
+     * @param applicant   The applicant, or null if the applicant no longer exists
+     */
+    public void addApplication(Application application, User applicant) {
+        statusCounts[application.getStatus().ordinal()]++;
+
+        // Marital status and age breakdowns only include known applicants
+        if (applicant != null) {
+            flatTypeCountsByMaritalStatus[applicant.getMaritalStatus().ordinal()][application.getFlatType()
+                    .ordinal()]++;
+            adjustAgeCounts(applicant.getAge(), 1, isSuccessful(application.getStatus()) ? 1 : 0);
+        }
+    }
+
+    /**
+     * Removes an application from the counts of this project.
+     *
+     * @param application The application to remove, in its current status
+     * @param applicant   The applicant, or null if the applicant no longer exists
+     */
+    public void removeApplication(Application application, User applicant) {
+        statusCounts[application.getStatus().ordinal()]--;
+
+        if (applicant != null) {
+            flatTypeCountsByMaritalStatus[applicant.getMaritalStatus().ordinal()][application.getFlatType()
+                    .ordinal()]--;
+            adjustAgeCounts(applicant.getAge(), -1, isSuccessful(application.getStatus()) ? -1 : 0);
+        }
+    }
+
+    /**
+     * Moves an application from one status count to another.
+     *
+     * @param oldStatus The status the application was counted under
+     * @param newStatus The new status of the application
+     * @param applicant The applicant, or null if the applicant no longer exists
+     */
+    public void changeStatus(ApplicationStatus oldStatus, ApplicationStatus newStatus, User applicant) {
+        statusCounts[oldStatus.ordinal()]--;
+        statusCounts[newStatus.ordinal()]++;
+
+        if (applicant != null && isSuccessful(oldStatus) != isSuccessful(newStatus)) {
+            adjustAgeCounts(applicant.getAge(), 0, isSuccessful(newStatus) ? 1 : -1);
+        }
+    }
+
+    /**
+     * Counts a booking towards this project.
+     *
+     * @param booking The booking to count
+     */
+    public void addBooking(FlatBooking booking) {
+        bookingCount++;
+        bookingCountsByOfficer.merge(booking.getOfficerNric(), 1, Integer::sum);
+    }
+
+    /**
+     * Removes a booking from the counts of this project.
+     *
+     * @param booking The booking to remove
+     */
+    public void removeBooking(FlatBooking booking) {
+        bookingCount--;
+        bookingCountsByOfficer.computeIfPresent(booking.getOfficerNric(),
+                (nric, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /**
+     * Adjusts the application counts for an age, dropping the age once it has no
+     * applications left.
+     *
+     * @param age             The applicant age
+     * @param totalDelta      The change in the total count
+     * @param successfulDelta The change in the successful count
+     */
+    private void adjustAgeCounts(int age, int totalDelta, int successfulDelta) {
+        int[] ageCounts = applicationCountsByAge.computeIfAbsent(age, key -> new int[2]);
+        ageCounts[0] += totalDelta;
+        ageCounts[1] += successfulDelta;
+        if (ageCounts[0] == 0 && ageCounts[1] == 0) {
+            applicationCountsByAge.remove(age);
+        }
+    }
+
+    /**
+     * Gets the total number of applications for this project.
+     *
+     * @return The number of applications
+     */
+    public int getApplicationCount() {
+        int total = 0;
+        for (int count : statusCounts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Gets the number of applications with a specific status.
+     *
+     * @param status The status to count
+     * @return The number of applications with the status
+     */
+    public int getStatusCount(ApplicationStatus status) {
+        return statusCounts[status.ordinal()];
+    }
+
+    /**
+     * Gets the number of bookings for this project.
+     *
+     * @return The number of bookings
+     */
+    public int getBookingCount() {
+        return bookingCount;
+    }
+
+    /**
+     * Gets the number of applications for a flat type by applicants of a
+     * specific marital status.
+     *
+     * @param maritalStatus The marital status of the applicants
+     * @param flatType      The flat type applied for
+     * @return The number of matching applications
+     */
+    public int getFlatTypeCount(MaritalStatus maritalStatus, FlatType flatType) {
+        return flatTypeCountsByMaritalStatus[maritalStatus.ordinal()][flatType.ordinal()];
+    }
+
+    /**
+     * Gets the application counts by applicant age.
+     * Each value holds the total number of applications followed by the number
+     * of successful or booked applications.
+     *
+     * @return A map of ages to application counts, ordered by age
+     */
+    public TreeMap<Integer, int[]> getApplicationCountsByAge() {
+        return applicationCountsByAge;
+    }
+
+    /**
+     * Gets the number of bookings processed by each officer.
+     *
+     * @return A map of officer NRICs to booking counts
+     */
+    public Map<String, Integer> getBookingCountsByOfficer() {
+        return bookingCountsByOfficer;
+    }
+
+    /**
+     * Checks if these counters hold the same values as another set of counters.
+     *
+     * @param other The object to compare with
+     * @return true if all counters are equal, false otherwise
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ProjectStatistics)) {
+            return false;
+        }
+
+        ProjectStatistics that = (ProjectStatistics) other;
+        if (bookingCount != that.bookingCount
+                || !Arrays.equals(statusCounts, that.statusCounts)
+                || !Arrays.deepEquals(flatTypeCountsByMaritalStatus, that.flatTypeCountsByMaritalStatus)
+                || !bookingCountsByOfficer.equals(that.bookingCountsByOfficer)
+                || applicationCountsByAge.size() != that.applicationCountsByAge.size()) {
+            return false;
+        }
+
+        Iterator<Map.Entry<Integer, int[]>> theirs = that.applicationCountsByAge.entrySet().iterator();
+        for (Map.Entry<Integer, int[]> entry : applicationCountsByAge.entrySet()) {
+            Map.Entry<Integer, int[]> theirEntry = theirs.next();
+            if (!entry.getKey().equals(theirEntry.getKey())
+                    || !Arrays.equals(entry.getValue(), theirEntry.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets a hash code consistent with {@link #equals(Object)}.
+     *
+     * @return The hash code
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(bookingCount, Arrays.hashCode(statusCounts), bookingCountsByOfficer);
+    }
+
+    /**
+     * Checks if a status counts as a successful application.
+     *
+     * @param status The application status
+     * @return true if the status is successful or booked, false otherwise
+     */
+    private static boolean isSuccessful(ApplicationStatus status) {
+        return status == ApplicationStatus.SUCCESSFUL || status == ApplicationStatus.BOOKED;
+    }
+}
@@ -3,18 +3,19 @@ package controller;
 import data.ApplicationDB;
 import data.ProjectDB;
 import data.UserDB;
-import entity.Application;
 import entity.FlatBooking;
 import entity.Project;
 import entity.User;
 import entity.enums.ApplicationStatus;
 import entity.enums.FlatType;
 import entity.enums.MaritalStatus;
+import metrics.MethodTimers;
+import metrics.ReportEvent;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * Controller for generating various reports for the BTO Management System.
@@ -23,18 +24,34 @@ public class ReportController {
     private ApplicationDB applicationDB;
     private ProjectDB projectDB;
     private UserDB userDB;
+    private ReportStatistics reportStatistics;
+    private MethodTimers timers;
 
     /**
      * Constructs a new ReportController with references to all necessary databases.
      * 
-     * @param applicationDB The application database
-     * @param projectDB     The project database
-     * @param userDB        The user database
+     * @param applicationDB    The application database
+     * @param projectDB        The project database
+     * @param userDB           The user database
+     * @param reportStatistics The live report counters
      */
-    public ReportController(ApplicationDB applicationDB, ProjectDB projectDB, UserDB userDB) {
+    public ReportController(ApplicationDB applicationDB, ProjectDB projectDB, UserDB userDB,
+            ReportStatistics reportStatistics) {
         this.applicationDB = applicationDB;
         this.projectDB = projectDB;
         this.userDB = userDB;
+        this.reportStatistics = reportStatistics;
+        this.timers = new MethodTimers("ReportController");
+    }
+
+    /**
+     * Checks the live report counters against the raw application and booking
+     * data, rebuilding them if they have drifted.
+     * 
+     * @return true if the counters were consistent, false if they were rebuilt
+     */
+    public boolean verifyStatistics() {
+        return report("verifyStatistics", reportStatistics::verify);
     }
 
     /**
@@ -49,7 +66,11 @@ public class ReportController {
      */
     public List<FlatBooking> generateBookingReport(String projectName, FlatType flatType,
             MaritalStatus maritalStatus, Integer minAge, Integer maxAge) {
-        return applicationDB.generateBookingReport(projectName, flatType, maritalStatus, minAge, maxAge);
+        ReportEvent event = ReportEvent.isRecording()
+                ? new ReportEvent("generateBookingReport", projectName, flatType, maritalStatus, minAge, maxAge) : null;
+        return timers.time("generateBookingReport", event, () -> {
+            return applicationDB.generateBookingReport(projectName, flatType, maritalStatus, minAge, maxAge);
+        });
     }
 
     /**
@@ -58,15 +79,16 @@ public class ReportController {
      * @return A map of project names to application counts
      */
     public Map<String, Integer> generateApplicationSummaryReport() {
-        Map<String, Integer> summary = new HashMap<>();
-        List<Project> projects = projectDB.getAllProjects();
+        return report("generateApplicationSummaryReport", () -> {
+            Map<String, Integer> summary = new HashMap<>();
 
-        for (Project project : projects) {
-            List<Application> applications = applicationDB.getApplicationsByProject(project.getProjectName());
-            summary.put(project.getProjectName(), applications.size());
-        }
+            for (Project project : projectDB.getAllProjects()) {
+                summary.put(project.getProjectName(),
+                        reportStatistics.getProjectStatistics(project.getProjectName()).getApplicationCount());
+            }
 
-        return summary;
+            return summary;
+        });
     }
 
     /**
@@ -76,21 +98,19 @@ public class ReportController {
      * @return A map of application statuses to counts
      */
     public Map<ApplicationStatus, Integer> generateApplicationDetailReport(String projectName) {
-        Map<ApplicationStatus, Integer> report = new HashMap<>();
-        List<Application> applications = applicationDB.getApplicationsByProject(projectName);
-
-        // Initialize counts for all statuses
-        for (ApplicationStatus status : ApplicationStatus.values()) {
-            report.put(status, 0);
-        }
-
-        // Count applications by status
-        for (Application application : applications) {
-            ApplicationStatus status = application.getStatus();
-            report.put(status, report.get(status) + 1);
-        }
+        ReportEvent event = ReportEvent.isRecording()
+                ? new ReportEvent("generateApplicationDetailReport", projectName) : null;
+        return timers.time("generateApplicationDetailReport", event, () -> {
+            Map<ApplicationStatus, Integer> report = new HashMap<>();
+            ProjectStatistics statistics = reportStatistics.getProjectStatistics(projectName);
+
+            // Count applications by status
+            for (ApplicationStatus status : ApplicationStatus.values()) {
+                report.put(status, statistics.getStatusCount(status));
+            }
 
-        return report;
+            return report;
+        });
     }
 
     /**
@@ -99,35 +119,33 @@ public class ReportController {
      * @return A nested map of marital statuses to flat types to counts
      */
     public Map<MaritalStatus, Map<FlatType, Integer>> generateFlatTypePreferenceReport() {
-        Map<MaritalStatus, Map<FlatType, Integer>> report = new HashMap<>();
-
-        // Initialize report structure
-        for (MaritalStatus status : MaritalStatus.values()) {
-            Map<FlatType, Integer> flatTypeCounts = new HashMap<>();
-            for (FlatType type : FlatType.values()) {
-                flatTypeCounts.put(type, 0);
+        return report("generateFlatTypePreferenceReport", () -> {
+            Map<MaritalStatus, Map<FlatType, Integer>> report = new HashMap<>();
+
+            // Initialize report structure
+            for (MaritalStatus status : MaritalStatus.values()) {
+                Map<FlatType, Integer> flatTypeCounts = new HashMap<>();
+                for (FlatType type : FlatType.values()) {
+                    flatTypeCounts.put(type, 0);
+                }
+                report.put(status, flatTypeCounts);
             }
-            report.put(status, flatTypeCounts);
-        }
-
-        // Count applications by marital status and flat type
-        List<Application> applications = new ArrayList<>();
-        for (Project project : projectDB.getAllProjects()) {
-            applications.addAll(applicationDB.getApplicationsByProject(project.getProjectName()));
-        }
 
-        for (Application application : applications) {
-            User user = userDB.getUser(application.getApplicantNric());
-            if (user != null) {
-                MaritalStatus status = user.getMaritalStatus();
-                FlatType type = application.getFlatType();
+            // Count applications by marital status and flat type
+            for (Project project : projectDB.getAllProjects()) {
+                ProjectStatistics projectStatistics = reportStatistics.getProjectStatistics(project.getProjectName());
 
-                Map<FlatType, Integer> flatTypeCounts = report.get(status);
-                flatTypeCounts.put(type, flatTypeCounts.get(type) + 1);
+                for (MaritalStatus status : MaritalStatus.values()) {
+                    Map<FlatType, Integer> flatTypeCounts = report.get(status);
+                    for (FlatType type : FlatType.values()) {
+                        flatTypeCounts.put(type,
+                                flatTypeCounts.get(type) + projectStatistics.getFlatTypeCount(status, type));
+                    }
+                }
             }
-        }
 
-        return report;
+            return report;
+        });
     }
 
     /**
@@ -137,57 +155,52 @@ public class ReportController {
      * @return A map of age group strings to success rates
      */
     public Map<String, Double> generateAgeGroupSuccessReport(int[] ageGroups) {
-        Map<String, Integer> totalByAgeGroup = new HashMap<>();
-        Map<String, Integer> successfulByAgeGroup = new HashMap<>();
-        Map<String, Double> successRates = new HashMap<>();
+        ReportEvent event = ReportEvent.isRecording()
+                ? new ReportEvent("generateAgeGroupSuccessReport", ageGroups) : null;
+        return timers.time("generateAgeGroupSuccessReport", event, () -> {
+            Map<String, Integer> totalByAgeGroup = new HashMap<>();
+            Map<String, Integer> successfulByAgeGroup = new HashMap<>();
+            Map<String, Double> successRates = new HashMap<>();
+
+            // Initialize age group maps
+            for (int i = 0; i < ageGroups.length; i++) {
+                String groupLabel;
+                if (i == 0) {
+                    groupLabel = "Below " + ageGroups[i];
+                } else if (i == ageGroups.length - 1) {
+                    groupLabel = ageGroups[i] + " and above";
+                } else {
+                    groupLabel = ageGroups[i - 1] + " to " + (ageGroups[i] - 1);
+                }
 
-        // Initialize age group maps
-        for (int i = 0; i < ageGroups.length; i++) {
-            String groupLabel;
-            if (i == 0) {
-                groupLabel = "Below " + ageGroups[i];
-            } else if (i == ageGroups.length - 1) {
-                groupLabel = ageGroups[i] + " and above";
-            } else {
-                groupLabel = ageGroups[i - 1] + " to " + (ageGroups[i] - 1);
+                totalByAgeGroup.put(groupLabel, 0);
+                successfulByAgeGroup.put(groupLabel, 0);
             }
 
-            totalByAgeGroup.put(groupLabel, 0);
-            successfulByAgeGroup.put(groupLabel, 0);
-        }
-
-        // Count applications by age group and success status
-        List<Application> applications = new ArrayList<>();
-        for (Project project : projectDB.getAllProjects()) {
-            applications.addAll(applicationDB.getApplicationsByProject(project.getProjectName()));
-        }
+            // Count applications by age group and success status
+            for (Project project : projectDB.getAllProjects()) {
+                ProjectStatistics projectStatistics = reportStatistics.getProjectStatistics(project.getProjectName());
 
-        for (Application application : applications) {
-            User user = userDB.getUser(application.getApplicantNric());
-            if (user != null) {
-                String ageGroup = getAgeGroup(user.getAge(), ageGroups);
+                for (Map.Entry<Integer, int[]> entry : projectStatistics.getApplicationCountsByAge().entrySet()) {
+                    String ageGroup = getAgeGroup(entry.getKey(), ageGroups);
+                    int[] counts = entry.getValue();
 
-                // Increment total count for this age group
-                totalByAgeGroup.put(ageGroup, totalByAgeGroup.get(ageGroup) + 1);
-
-                // If application is successful or booked, increment successful count
-                if (application.getStatus() == ApplicationStatus.SUCCESSFUL ||
-                        application.getStatus() == ApplicationStatus.BOOKED) {
-                    successfulByAgeGroup.put(ageGroup, successfulByAgeGroup.get(ageGroup) + 1);
+                    totalByAgeGroup.merge(ageGroup, counts[0], Integer::sum);
+                    successfulByAgeGroup.merge(ageGroup, counts[1], Integer::sum);
                 }
             }
-        }
 
-        // Calculate success rates
-        for (String ageGroup : totalByAgeGroup.keySet()) {
-            int total = totalByAgeGroup.get(ageGroup);
-            int successful = successfulByAgeGroup.get(ageGroup);
+            // Calculate success rates
+            for (String ageGroup : totalByAgeGroup.keySet()) {
+                int total = totalByAgeGroup.get(ageGroup);
+                int successful = successfulByAgeGroup.get(ageGroup);
 
-            double rate = total > 0 ? (double) successful / total : 0.0;
-            successRates.put(ageGroup, rate);
-        }
+                double rate = total > 0 ? (double) successful / total : 0.0;
+                successRates.put(ageGroup, rate);
+            }
 
-        return successRates;
+            return successRates;
+        });
     }
 
     /**
@@ -216,15 +229,17 @@ public class ReportController {
      * @return A nested map of project names to flat types to remaining units
      */
     public Map<String, Map<FlatType, Integer>> generateRemainingUnitsReport() {
-        Map<String, Map<FlatType, Integer>> report = new HashMap<>();
-        List<Project> projects = projectDB.getAllProjects();
+        return report("generateRemainingUnitsReport", () -> {
+            Map<String, Map<FlatType, Integer>> report = new HashMap<>();
+            List<Project> projects = projectDB.getAllProjects();
 
-        for (Project project : projects) {
-            Map<FlatType, Integer> flatTypeUnits = new HashMap<>(project.getFlatTypeUnits());
-            report.put(project.getProjectName(), flatTypeUnits);
-        }
+            for (Project project : projects) {
+                Map<FlatType, Integer> flatTypeUnits = new HashMap<>(project.getFlatTypeUnits());
+                report.put(project.getProjectName(), flatTypeUnits);
+            }
 
-        return report;
+            return report;
+        });
     }
 
     /**
@@ -233,31 +248,26 @@ public class ReportController {
      * @return A map of officer NRICs to booking counts
      */
     public Map<String, Integer> generateOfficerPerformanceReport() {
-        Map<String, Integer> report = new HashMap<>();
+        return report("generateOfficerPerformanceReport", () -> {
+            Map<String, Integer> report = new HashMap<>();
 
-        // Get all officers
-        List<entity.HDBOfficer> officers = userDB.getAllOfficers();
-        for (entity.HDBOfficer officer : officers) {
-            report.put(officer.getNric(), 0);
-        }
+            // Get all officers
+            List<entity.HDBOfficer> officers = userDB.getAllOfficers();
+            for (entity.HDBOfficer officer : officers) {
+                report.put(officer.getNric(), 0);
+            }
 
-        // Count bookings by officer
-        List<FlatBooking> allBookings = new ArrayList<>();
-        for (Project project : projectDB.getAllProjects()) {
-            allBookings.addAll(applicationDB.getBookingsByProject(project.getProjectName()));
-        }
+            // Count bookings by officer, including officers who might have been removed
+            for (Project project : projectDB.getAllProjects()) {
+                ProjectStatistics projectStatistics = reportStatistics.getProjectStatistics(project.getProjectName());
 
-        for (FlatBooking booking : allBookings) {
-            String officerNric = booking.getOfficerNric();
-            if (report.containsKey(officerNric)) {
-                report.put(officerNric, report.get(officerNric) + 1);
-            } else {
-                // Handle case where officer might have been removed
-                report.put(officerNric, 1);
+                for (Map.Entry<String, Integer> entry : projectStatistics.getBookingCountsByOfficer().entrySet()) {
+                    report.merge(entry.getKey(), entry.getValue(), Integer::sum);
+                }
             }
-        }
 
-        return report;
+            return report;
+        });
     }
 
     /**
@@ -267,44 +277,48 @@ public class ReportController {
      * @return A formatted string report
      */
     public String generateBookingDetailsTextReport(String projectName) {
-        Project project = projectDB.getProject(projectName);
-        if (project == null) {
-            return "Project not found.";
-        }
+        ReportEvent event = ReportEvent.isRecording()
+                ? new ReportEvent("generateBookingDetailsTextReport", projectName) : null;
+        return timers.time("generateBookingDetailsTextReport", event, () -> {
+            Project project = projectDB.getProject(projectName);
+            if (project == null) {
+                return "Project not found.";
+            }
 
-        List<FlatBooking> bookings = applicationDB.getBookingsByProject(projectName);
-        if (bookings.isEmpty()) {
-            return "No bookings found for project: " + projectName;
-        }
+            List<FlatBooking> bookings = applicationDB.getBookingsByProject(projectName);
+            if (bookings.isEmpty()) {
+                return "No bookings found for project: " + projectName;
+            }
 
-        StringBuilder report = new StringBuilder();
-        report.append("=================================================\n");
-        report.append("BOOKING DETAILS REPORT FOR PROJECT: ").append(projectName).append("\n");
-        report.append("Neighborhood: ").append(project.getNeighborhood()).append("\n");
-        report.append("Application Period: ").append(project.getApplicationOpeningDate())
-                .append(" to ").append(project.getApplicationClosingDate()).append("\n");
-        report.append("=================================================\n\n");
-
-        report.append(String.format("%-15s %-10s %-15s %-15s %-20s\n",
-                "Applicant", "Age", "Marital Status", "Flat Type", "Booking Date"));
-        report.append("-------------------------------------------------------------------------\n");
-
-        for (FlatBooking booking : bookings) {
-            User applicant = userDB.getUser(booking.getApplicantNric());
-            if (applicant != null) {
-                report.append(String.format("%-15s %-10d %-15s %-15s %-20s\n",
-                        applicant.getNric(),
-                        applicant.getAge(),
-                        applicant.getMaritalStatus().getStatus(),
-                        booking.getFlatType().getDescription(),
-                        booking.getBookingDate().toLocalDate().toString()));
+            StringBuilder report = new StringBuilder();
+            report.append("=================================================\n");
+            report.append("BOOKING DETAILS REPORT FOR PROJECT: ").append(projectName).append("\n");
+            report.append("Neighborhood: ").append(project.getNeighborhood()).append("\n");
+            report.append("Application Period: ").append(project.getApplicationOpeningDate())
+                    .append(" to ").append(project.getApplicationClosingDate()).append("\n");
+            report.append("=================================================\n\n");
+
+            report.append(String.format("%-15s %-10s %-15s %-15s %-20s\n",
+                    "Applicant", "Age", "Marital Status", "Flat Type", "Booking Date"));
+            report.append("-------------------------------------------------------------------------\n");
+
+            for (FlatBooking booking : bookings) {
+                User applicant = userDB.getUser(booking.getApplicantNric());
+                if (applicant != null) {
+                    report.append(String.format("%-15s %-10d %-15s %-15s %-20s\n",
+                            applicant.getNric(),
+                            applicant.getAge(),
+                            applicant.getMaritalStatus().getStatus(),
+                            booking.getFlatType().getDescription(),
+                            booking.getBookingDate().toLocalDate().toString()));
+                }
             }
-        }
 
-        report.append("\nTotal Bookings: ").append(bookings.size()).append("\n");
-        report.append("=================================================\n");
+            report.append("\nTotal Bookings: ").append(bookings.size()).append("\n");
+            report.append("=================================================\n");
 
-        return report.toString();
+            return report.toString();
+        });
     }
 
     /**
@@ -314,57 +328,75 @@ public class ReportController {
      * @return A formatted string report
      */
     public String generateSystemSummaryReport() {
-        List<Project> projects = projectDB.getAllProjects();
-        int totalApplications = 0;
-        int totalBookings = 0;
-        Map<FlatType, Integer> totalUnitsByType = new HashMap<>();
+        return report("generateSystemSummaryReport", () -> {
+            List<Project> projects = projectDB.getAllProjects();
+            int totalApplications = 0;
+            int totalBookings = 0;
+            Map<FlatType, Integer> totalUnitsByType = new HashMap<>();
 
-        for (FlatType type : FlatType.values()) {
-            totalUnitsByType.put(type, 0);
-        }
-
-        StringBuilder report = new StringBuilder();
-        report.append("=================================================\n");
-        report.append("BTO MANAGEMENT SYSTEM SUMMARY REPORT\n");
-        report.append("=================================================\n\n");
-
-        report.append("PROJECT SUMMARY:\n");
-        report.append(String.format("%-25s %-20s %-15s %-15s %-10s %-10s\n",
-                "Project Name", "Neighborhood", "Applications", "Bookings", "2-Room", "3-Room"));
-        report.append("-------------------------------------------------------------------------------------------\n");
-
-        for (Project project : projects) {
-            List<Application> applications = applicationDB.getApplicationsByProject(project.getProjectName());
-            List<FlatBooking> bookings = applicationDB.getBookingsByProject(project.getProjectName());
-
-            totalApplications += applications.size();
-            totalBookings += bookings.size();
-
-            // Count remaining units by flat type
-            Map<FlatType, Integer> remainingUnits = project.getFlatTypeUnits();
             for (FlatType type : FlatType.values()) {
-                if (remainingUnits.containsKey(type)) {
-                    totalUnitsByType.put(type, totalUnitsByType.get(type) + remainingUnits.get(type));
-                }
+                totalUnitsByType.put(type, 0);
             }
 
-            report.append(String.format("%-25s %-20s %-15d %-15d %-10d %-10d\n",
-                    project.getProjectName(),
-                    project.getNeighborhood(),
-                    applications.size(),
-                    bookings.size(),
-                    remainingUnits.getOrDefault(FlatType.TWO_ROOM, 0),
-                    remainingUnits.getOrDefault(FlatType.THREE_ROOM, 0)));
-        }
+            StringBuilder report = new StringBuilder();
+            report.append("=================================================\n");
+            report.append("BTO MANAGEMENT SYSTEM SUMMARY REPORT\n");
+            report.append("=================================================\n\n");
+
+            report.append("PROJECT SUMMARY:\n");
+            report.append(String.format("%-25s %-20s %-15s %-15s %-10s %-10s\n",
+                    "Project Name", "Neighborhood", "Applications", "Bookings", "2-Room", "3-Room"));
+            report.append(
+                    "-------------------------------------------------------------------------------------------\n");
+
+            for (Project project : projects) {
+                ProjectStatistics projectStatistics = reportStatistics.getProjectStatistics(project.getProjectName());
+                int applicationCount = projectStatistics.getApplicationCount();
+                int bookingCount = projectStatistics.getBookingCount();
+
+                totalApplications += applicationCount;
+                totalBookings += bookingCount;
+
+                // Count remaining units by flat type
+                Map<FlatType, Integer> remainingUnits = project.getFlatTypeUnits();
+                for (FlatType type : FlatType.values()) {
+                    if (remainingUnits.containsKey(type)) {
+                        totalUnitsByType.put(type, totalUnitsByType.get(type) + remainingUnits.get(type));
+                    }
+                }
+
+                report.append(String.format("%-25s %-20s %-15d %-15d %-10d %-10d\n",
+                        project.getProjectName(),
+                        project.getNeighborhood(),
+                        applicationCount,
+                        bookingCount,
+                        remainingUnits.getOrDefault(FlatType.TWO_ROOM, 0),
+                        remainingUnits.getOrDefault(FlatType.THREE_ROOM, 0)));
+            }
 
-        report.append("\nSYSTEM TOTALS:\n");
-        report.append("Total Projects: ").append(projects.size()).append("\n");
-        report.append("Total Applications: ").append(totalApplications).append("\n");
-        report.append("Total Bookings: ").append(totalBookings).append("\n");
-        report.append("Total Remaining 2-Room Units: ").append(totalUnitsByType.get(FlatType.TWO_ROOM)).append("\n");
-        report.append("Total Remaining 3-Room Units: ").append(totalUnitsByType.get(FlatType.THREE_ROOM)).append("\n");
-        report.append("\n=================================================\n");
+            report.append("\nSYSTEM TOTALS:\n");
+            report.append("Total Projects: ").append(projects.size()).append("\n");
+            report.append("Total Applications: ").append(totalApplications).append("\n");
+            report.append("Total Bookings: ").append(totalBookings).append("\n");
+            report.append("Total Remaining 2-Room Units: ").append(totalUnitsByType.get(FlatType.TWO_ROOM))
+                    .append("\n");
+            report.append("Total Remaining 3-Room Units: ").append(totalUnitsByType.get(FlatType.THREE_ROOM))
+                    .append("\n");
+            report.append("\n=================================================\n");
+
+            return report.toString();
+        });
+    }
 
-        return report.toString();
+    /**
+     * Times a report that takes no parameters and records it as a Flight
+     * Recorder event when a recording wants report events.
+     * 
+     * @param name   The name of the report
+     * @param report Generates the report
+     * @return The report
+     */
+    private <T> T report(String name, Supplier<T> report) {
+        return timers.time(name, ReportEvent.isRecording() ? new ReportEvent(name) : null, report);
     }
 }
\ No newline at end of file
@@ -0,0 +1,217 @@
+package controller;
+
+import data.ApplicationDB;
+import data.UserDB;
+import entity.Application;
+import entity.FlatBooking;
+import entity.enums.ApplicationStatus;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Live report counters for all projects.
+ * The counters are built in a single pass over all applications and bookings
+ * the first time they are needed, and afterwards kept up to date by the
+ * application controller on every state transition, so reports read them
+ * without touching the application database. All access is synchronized.
+ * Callers bracket each transition with {@link #beginTransition()} and
+ * {@link #endTransition()}, so a rebuild never sees a database change whose
+ * counter update is still to come.
+ */
+public class ReportStatistics {
+    private static final ProjectStatistics EMPTY = new ProjectStatistics();
+
+    private ApplicationDB applicationDB;
+    private UserDB userDB;
+    private volatile Map<String, ProjectStatistics> projectStatistics;
+    private final ReentrantReadWriteLock transitionLock;
+
+    /**
+     * Constructs a new ReportStatistics over the given databases.
+     *
+     * @param applicationDB The application database
+     * @param userDB        The user database
+     */
+    public ReportStatistics(ApplicationDB applicationDB, UserDB userDB) {
+        this.applicationDB = applicationDB;
+        this.userDB = userDB;
+        this.projectStatistics = null;
+        this.transitionLock = new ReentrantReadWriteLock();
+    }
+
+    /**
+     * Marks the start of a state transition. Transitions run in parallel with
+     * each other but not with a rebuild of the counters.
+     */
+    public void beginTransition() {
+        transitionLock.readLock().lock();
+    }
+
+    /**
+     * Marks the end of a state transition started with
+     * {@link #beginTransition()}.
+     */
+    public void endTransition() {
+        transitionLock.readLock().unlock();
+    }
+
+    /**
+     * Computes the counters for all projects in one pass over the applications
+     * and bookings.
+     *
+     * @return A map of project names to counters
+     */
+    private Map<String, ProjectStatistics> aggregate() {
+        Map<String, ProjectStatistics> statistics = new HashMap<>();
+
+        for (Application application : applicationDB.getAllApplications()) {
+            statistics.computeIfAbsent(application.getProjectName(), name -> new ProjectStatistics())
+                    .addApplication(application, userDB.getUser(application.getApplicantNric()));
+        }
+
+        for (FlatBooking booking : applicationDB.getAllBookings()) {
+            statistics.computeIfAbsent(booking.getProjectName(), name -> new ProjectStatistics())
+                    .addBooking(booking);
+        }
+
+        return statistics;
+    }
+
+    /**
+     * Gets a snapshot of the counters for a project.
+     * The snapshot is a copy, so it can be read while other sessions keep
+     * updating the live counters.
+     *
+     * @param projectName The name of the project
+     * @return The counters for the project, all zero if it has no applications
+     */
+    public ProjectStatistics getProjectStatistics(String projectName) {
+        if (projectStatistics == null) {
+            transitionLock.writeLock().lock();
+            try {
+                synchronized (this) {
+                    if (projectStatistics == null) {
+                        projectStatistics = aggregate();
+                    }
+                }
+            } finally {
+                transitionLock.writeLock().unlock();
+            }
+        }
+
+        synchronized (this) {
+            return new ProjectStatistics(projectStatistics.getOrDefault(projectName, EMPTY));
+        }
+    }
+
+    /**
+     * Records a newly created application.
+     *
+     * @param application The new application
+     */
+    public synchronized void recordApplication(Application application) {
+        if (projectStatistics != null) {
+            forProject(application.getProjectName())
+                    .addApplication(application, userDB.getUser(application.getApplicantNric()));
+        }
+    }
+
+    /**
+     * Records a change in the status of an application.
+     *
+     * @param application The application, already in its new status
+     * @param oldStatus   The status the application had before the change
+     */
+    public synchronized void recordStatusChange(Application application, ApplicationStatus oldStatus) {
+        if (projectStatistics != null && oldStatus != application.getStatus()) {
+            forProject(application.getProjectName()).changeStatus(oldStatus, application.getStatus(),
+                    userDB.getUser(application.getApplicantNric()));
+        }
+    }
+
+    /**
+     * Records a new flat booking.
+     *
+     * @param booking The new booking
+     */
+    public synchronized void recordBooking(FlatBooking booking) {
+        if (projectStatistics != null) {
+            forProject(booking.getProjectName()).addBooking(booking);
+        }
+    }
+
+    /**
+     * Records the removal of an application together with any booking it has.
+     *
+     * @param application The removed application, in the status it was removed in
+     */
+    public synchronized void recordRemoval(Application application) {
+        if (projectStatistics != null) {
+            ProjectStatistics statistics = forProject(application.getProjectName());
+            statistics.removeApplication(application, userDB.getUser(application.getApplicantNric()));
+            if (application.hasBooking()) {
+                statistics.removeBooking(application.getFlatBooking());
+            }
+        }
+    }
+
+    /**
+     * Checks the live counters against counters rebuilt from the raw
+     * application and booking data, replacing the live counters if they differ.
+     *
+     * @return true if the live counters were consistent, false if they had to be
+     *         rebuilt
+     */
+    public boolean verify() {
+        transitionLock.writeLock().lock();
+        try {
+            synchronized (this) {
+                return rebuild();
+            }
+        } finally {
+            transitionLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the counters and compares them with the live counters.
+     * Called with no transitions in progress.
+     *
+     * @return true if the live counters were consistent, false otherwise
+     */
+    private boolean rebuild() {
+        Map<String, ProjectStatistics> rebuilt = aggregate();
+        if (projectStatistics == null) {
+            projectStatistics = rebuilt;
+            return true;
+        }
+
+        // Projects whose counters have all dropped back to zero count as absent
+        boolean consistent = true;
+        for (String projectName : projectStatistics.keySet()) {
+            if (!projectStatistics.get(projectName).equals(rebuilt.getOrDefault(projectName, EMPTY))) {
+                consistent = false;
+            }
+        }
+        for (String projectName : rebuilt.keySet()) {
+            if (!projectStatistics.containsKey(projectName)) {
+                consistent = false;
+            }
+        }
+
+        projectStatistics = rebuilt;
+        return consistent;
+    }
+
+    /**
+     * Gets the counters for a project, creating them if needed.
+     *
+     * @param projectName The name of the project
+     * @return The counters for the project
+     */
+    private ProjectStatistics forProject(String projectName) {
+        return projectStatistics.computeIfAbsent(projectName, name -> new ProjectStatistics());
+    }
+}
@@ -0,0 +1,64 @@
+package controller;
+
+import entity.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents the login session of a single user.
+ * Each connected user holds their own session, so many users can be logged
+ * in at the same time.
+ */
+public class Session {
+    private final String sessionId;
+    private final LocalDateTime loginTime;
+    private volatile User user;
+
+    /**
+     * Creates a new session for an authenticated user.
+     *
+     * @param sessionId The unique ID of the session
+     * @param user      The authenticated user
+     */
+    public Session(String sessionId, User user) {
+        this.sessionId = sessionId;
+        this.user = user;
+        this.loginTime = LocalDateTime.now();
+    }
+
+    /**
+     * Gets the ID of this session.
+     *
+     * @return The session ID
+     */
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * Gets the user logged in with this session.
+     *
+     * @return The user
+     */
+    public User getUser() {
+        return user;
+    }
+
+    /**
+     * Sets the user logged in with this session.
+     *
+     * @param user The refreshed user
+     */
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    /**
+     * Gets the date and time this session was opened.
+     *
+     * @return The login time
+     */
+    public LocalDateTime getLoginTime() {
+        return loginTime;
+    }
+}
@@ -1,10 +1,12 @@
 package controller;
 
+import data.Page;
 import data.UserDB;
 import entity.*;
 import entity.enums.MaritalStatus;
 // import entity.enums.UserRole;
 import entity.enums.UserRole;
+import metrics.MethodTimers;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -15,6 +17,7 @@ import java.util.List;
  */
 public class UserController {
     private UserDB userDB;
+    private MethodTimers timers;
 
     /**
      * Constructs a new UserController with a reference to the user database.
@@ -23,6 +26,7 @@ public class UserController {
      */
     public UserController(UserDB userDB) {
         this.userDB = userDB;
+        this.timers = new MethodTimers("UserController");
     }
 
     /**
@@ -32,7 +36,7 @@ public class UserController {
      * @return The user, or null if not found
      */
     public User getUser(String nric) {
-        return userDB.getUser(nric);
+        return timers.time("getUser", () -> userDB.getUser(nric));
     }
 
     /**
@@ -41,7 +45,19 @@ public class UserController {
      * @return A list of all users
      */
     public List<User> getAllUsers() {
-        return userDB.getAllUsers();
+        return timers.time("getAllUsers", () -> userDB.getAllUsers());
+    }
+
+    /**
+     * Gets one page of users, ordered by NRIC.
+     * 
+     * @param role   The role to filter by, or null for all users
+     * @param cursor The cursor of the previous page, or null for the first page
+     * @param limit  The maximum number of users on the page
+     * @return The page of users
+     */
+    public Page<User> getUsersPage(UserRole role, String cursor, int limit) {
+        return timers.time("getUsersPage", () -> userDB.getUsersPage(role, cursor, limit));
     }
 
     /**
@@ -51,16 +67,18 @@ public class UserController {
      * @return A list of users with the specified role
      */
     public List<User> getUsersByRole(UserRole role) {
-        List<User> users = userDB.getAllUsers();
-        List<User> filteredUsers = new ArrayList<>();
-
-        for (User user : users) {
-            if (user.getRole() == role) {
-                filteredUsers.add(user);
+        return timers.time("getUsersByRole", () -> {
+            List<User> users = userDB.getAllUsers();
+            List<User> filteredUsers = new ArrayList<>();
+
+            for (User user : users) {
+                if (user.getRole() == role) {
+                    filteredUsers.add(user);
+                }
             }
-        }
 
-        return filteredUsers;
+            return filteredUsers;
+        });
     }
 
     /**
@@ -69,7 +87,7 @@ public class UserController {
      * @return A list of all applicants
      */
     public List<Applicant> getAllApplicants() {
-        return userDB.getAllApplicants();
+        return timers.time("getAllApplicants", () -> userDB.getAllApplicants());
     }
 
     /**
@@ -78,7 +96,7 @@ public class UserController {
      * @return A list of all HDB officers
      */
     public List<HDBOfficer> getAllOfficers() {
-        return userDB.getAllOfficers();
+        return timers.time("getAllOfficers", () -> userDB.getAllOfficers());
     }
 
     /**
@@ -87,7 +105,7 @@ public class UserController {
      * @return A list of all HDB managers
      */
     public List<HDBManager> getAllManagers() {
-        return userDB.getAllManagers();
+        return timers.time("getAllManagers", () -> userDB.getAllManagers());
     }
 
     /**
@@ -101,8 +119,10 @@ public class UserController {
      * @return true if the applicant was added, false if NRIC already exists
      */
     public boolean addApplicant(String nric, String name, String password, int age, MaritalStatus maritalStatus) {
-        Applicant applicant = new Applicant(nric, name, password, age, maritalStatus);
-        return userDB.addUser(applicant);
+        return timers.time("addApplicant", () -> {
+            Applicant applicant = new Applicant(nric, name, password, age, maritalStatus);
+            return userDB.addUser(applicant);
+        });
     }
 
     /**
@@ -116,8 +136,10 @@ public class UserController {
      * @return true if the officer was added, false if NRIC already exists
      */
     public boolean addOfficer(String nric, String name, String password, int age, MaritalStatus maritalStatus) {
-        HDBOfficer officer = new HDBOfficer(nric, name, password, age, maritalStatus);
-        return userDB.addUser(officer);
+        return timers.time("addOfficer", () -> {
+            HDBOfficer officer = new HDBOfficer(nric, name, password, age, maritalStatus);
+            return userDB.addUser(officer);
+        });
     }
 
     /**
@@ -131,8 +153,10 @@ public class UserController {
      * @return true if the manager was added, false if NRIC already exists
      */
     public boolean addManager(String nric, String name, String password, int age, MaritalStatus maritalStatus) {
-        HDBManager manager = new HDBManager(nric, name, password, age, maritalStatus);
-        return userDB.addUser(manager);
+        return timers.time("addManager", () -> {
+            HDBManager manager = new HDBManager(nric, name, password, age, maritalStatus);
+            return userDB.addUser(manager);
+        });
     }
 
     /**
@@ -142,7 +166,7 @@ public class UserController {
      * @return true if the user was updated, false if NRIC not found
      */
     public boolean updateUser(User user) {
-        return userDB.updateUser(user);
+        return timers.time("updateUser", () -> userDB.updateUser(user));
     }
 
     /**
@@ -153,13 +177,15 @@ public class UserController {
      * @return true if the applicant was updated, false if NRIC not found
      */
     public boolean updateApplicantApplication(String nric, String applicationId) {
-        User user = userDB.getUser(nric);
-        if (user instanceof Applicant) {
-            Applicant applicant = (Applicant) user;
-            applicant.setCurrentApplicationId(applicationId);
-            return userDB.updateUser(applicant);
-        }
-        return false;
+        return timers.time("updateApplicantApplication", () -> {
+            User user = userDB.getUser(nric);
+            if (user instanceof Applicant) {
+                Applicant applicant = (Applicant) user;
+                applicant.setCurrentApplicationId(applicationId);
+                return userDB.updateUser(applicant);
+            }
+            return false;
+        });
     }
 
     /**
@@ -170,13 +196,15 @@ public class UserController {
      * @return true if the officer was updated, false if NRIC not found
      */
     public boolean updateOfficerProject(String nric, String projectName) {
-        User user = userDB.getUser(nric);
-        if (user instanceof HDBOfficer) {
-            HDBOfficer officer = (HDBOfficer) user;
-            officer.setHandlingProjectName(projectName);
-            return userDB.updateUser(officer);
-        }
-        return false;
+        return timers.time("updateOfficerProject", () -> {
+            User user = userDB.getUser(nric);
+            if (user instanceof HDBOfficer) {
+                HDBOfficer officer = (HDBOfficer) user;
+                officer.setHandlingProjectName(projectName);
+                return userDB.updateUser(officer);
+            }
+            return false;
+        });
     }
 
     /**
@@ -187,13 +215,15 @@ public class UserController {
      * @return true if the project was added, false if NRIC not found
      */
     public boolean addManagerProject(String nric, String projectName) {
-        User user = userDB.getUser(nric);
-        if (user instanceof HDBManager) {
-            HDBManager manager = (HDBManager) user;
-            manager.addCreatedProject(projectName);
-            return userDB.updateUser(manager);
-        }
-        return false;
+        return timers.time("addManagerProject", () -> {
+            User user = userDB.getUser(nric);
+            if (user instanceof HDBManager) {
+                HDBManager manager = (HDBManager) user;
+                manager.addCreatedProject(projectName);
+                return userDB.updateUser(manager);
+            }
+            return false;
+        });
     }
 
     /**
@@ -204,12 +234,14 @@ public class UserController {
      * @return true if the project was removed, false if NRIC not found
      */
     public boolean removeManagerProject(String nric, String projectName) {
-        User user = userDB.getUser(nric);
-        if (user instanceof HDBManager) {
-            HDBManager manager = (HDBManager) user;
-            manager.removeCreatedProject(projectName);
-            return userDB.updateUser(manager);
-        }
-        return false;
+        return timers.time("removeManagerProject", () -> {
+            User user = userDB.getUser(nric);
+            if (user instanceof HDBManager) {
+                HDBManager manager = (HDBManager) user;
+                manager.removeCreatedProject(projectName);
+                return userDB.updateUser(manager);
+            }
+            return false;
+        });
     }
 }
\ No newline at end of file
@@ -2,73 +2,435 @@ package data;
 
 import entity.Application;
 import entity.FlatBooking;
+import entity.User;
 import entity.enums.ApplicationStatus;
 import entity.enums.FlatType;
 import entity.enums.MaritalStatus;
+import metrics.DatabaseLoadEvent;
+import metrics.DatabaseSaveEvent;
 
 import java.io.*;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Predicate;
 
 /**
  * Data access class for Application objects.
  * Handles storage and retrieval of applications and flat bookings.
+ * Safe for concurrent use: reads are lock-free and writes are serialized.
  */
-public class ApplicationDB {
+public class ApplicationDB implements Persistable {
     private static final String APPLICATION_DATA_FILE = "applications.dat";
     private static final String BOOKING_DATA_FILE = "bookings.dat";
+    private static final String JOURNAL_FILE = "applications.journal";
+    private static final int COMPACTION_THRESHOLD = 1000;
     private Map<String, Application> applications;
     private Map<String, FlatBooking> bookings;
+    private Journal journal;
+    private List<JournalEntry> pendingEntries;
+    private GroupCommit groupCommit;
+    private TableLoader loader;
+    private UserDB userDB;
+
+    // Secondary indexes, kept in step with the primary maps on every mutation.
+    // Project indexes are ordered by application or booking time.
+    private Map<String, Set<String>> applicationIdsByApplicant;
+    private TimeIndex applicationIdsByProject;
+    private Map<ApplicationStatus, Set<String>> applicationIdsByStatus;
+    private Map<String, Set<String>> applicationIdsByProjectStatus;
+    private TimeIndex bookingIdsByProject;
+    private Map<String, ApplicationStatus> indexedStatuses;
+    private Map<String, AtomicIntegerArray> statusCountsByProject;
 
     /**
-     * Constructs a new ApplicationDB and loads existing data if available.
+     * Constructs a new ApplicationDB. Existing data is loaded on first access.
+     * 
+     * @param userDB The user database used to resolve applicant details in
+     *               reports
      */
-    public ApplicationDB() {
-        applications = new HashMap<>();
-        bookings = new HashMap<>();
-        loadData();
+    public ApplicationDB(UserDB userDB) {
+        this.userDB = userDB;
+        applications = new ConcurrentHashMap<>();
+        bookings = new ConcurrentHashMap<>();
+        journal = new Journal(DataFiles.path(JOURNAL_FILE));
+        pendingEntries = new ArrayList<>();
+        applicationIdsByApplicant = new ConcurrentHashMap<>();
+        applicationIdsByProject = new TimeIndex();
+        applicationIdsByStatus = new ConcurrentHashMap<>();
+        applicationIdsByProjectStatus = new ConcurrentHashMap<>();
+        bookingIdsByProject = new TimeIndex();
+        indexedStatuses = new ConcurrentHashMap<>();
+        statusCountsByProject = new ConcurrentHashMap<>();
+        loader = new TableLoader("applications", this, this::loadData);
+        loader.getMetrics().recordCount("applications", applications::size);
+        loader.getMetrics().recordCount("bookings", bookings::size);
     }
 
     /**
-     * Loads application and booking data from files.
+     * Loads application and booking data from the snapshot files, then replays
+     * any mutations recorded in the journal since the last snapshot.
      */
-    @SuppressWarnings("unchecked")
     private void loadData() {
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(APPLICATION_DATA_FILE))) {
-            applications = (Map<String, Application>) ois.readObject();
+        boolean legacy = false;
+        boolean failed = false;
+        try (DatabaseLoadEvent event = DatabaseLoadEvent.start("applications", APPLICATION_DATA_FILE)) {
+            byte[] data = SnapshotFile.read(DataFiles.path(APPLICATION_DATA_FILE));
+            List<Application> loaded = EntityCodec.decodeApplications(data);
+            for (Application application : loaded) {
+                applications.put(application.getApplicationId(), application);
+            }
+            if (event != null) {
+                event.completed(loaded.size(), data.length);
+            }
+            legacy = EntityCodec.isLegacy(data);
         } catch (FileNotFoundException e) {
             // System.out.println("Application data file not found. Starting with empty
             // application database.");
-        } catch (IOException | ClassNotFoundException e) {
+        } catch (IOException e) {
+            loader.getMetrics().loadFailed();
+            failed = true;
             System.out.println("Error loading application data: " + e.getMessage());
         }
 
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(BOOKING_DATA_FILE))) {
-            bookings = (Map<String, FlatBooking>) ois.readObject();
+        try (DatabaseLoadEvent event = DatabaseLoadEvent.start("bookings", BOOKING_DATA_FILE)) {
+            byte[] data = SnapshotFile.read(DataFiles.path(BOOKING_DATA_FILE));
+            List<FlatBooking> loaded = EntityCodec.decodeBookings(data);
+            for (FlatBooking booking : loaded) {
+                bookings.put(booking.getBookingId(), booking);
+            }
+            if (event != null) {
+                event.completed(loaded.size(), data.length);
+            }
+            legacy |= EntityCodec.isLegacy(data);
         } catch (FileNotFoundException e) {
             // System.out.println("Booking data file not found. Starting with empty booking
             // database.");
-        } catch (IOException | ClassNotFoundException e) {
+        } catch (IOException e) {
+            loader.getMetrics().loadFailed();
+            failed = true;
             System.out.println("Error loading booking data: " + e.getMessage());
         }
+
+        rebuildIndexes();
+
+        for (JournalEntry entry : journal.readAll()) {
+            apply(entry);
+        }
+
+        // Rewrite data saved before the binary format in the new format, unless
+        // that would write over a file that could not be read
+        if (!failed && (legacy || journal.getEntryCount() >= COMPACTION_THRESHOLD)) {
+            saveData();
+        }
+    }
+
+    /**
+     * Saves a full snapshot of application and booking data to files and clears
+     * the journal, whose entries are now contained in the snapshot.
+     * 
+     * @return true if the snapshot was saved, false otherwise
+     */
+    public synchronized boolean saveData() {
+        loader.ensureLoaded();
+        long start = System.nanoTime();
+        try {
+            try (DatabaseSaveEvent event = DatabaseSaveEvent.start("applications", APPLICATION_DATA_FILE)) {
+                byte[] data = EntityCodec.encodeApplications(applications.values());
+                SnapshotFile.write(DataFiles.path(APPLICATION_DATA_FILE), data);
+                if (event != null) {
+                    event.completed(applications.size(), data.length);
+                }
+            } catch (IOException e) {
+                loader.getMetrics().saveFailed();
+                System.out.println("Error saving application data: " + e.getMessage());
+                return false;
+            }
+
+            try (DatabaseSaveEvent event = DatabaseSaveEvent.start("bookings", BOOKING_DATA_FILE)) {
+                byte[] data = EntityCodec.encodeBookings(bookings.values());
+                SnapshotFile.write(DataFiles.path(BOOKING_DATA_FILE), data);
+                if (event != null) {
+                    event.completed(bookings.size(), data.length);
+                }
+            } catch (IOException e) {
+                loader.getMetrics().saveFailed();
+                System.out.println("Error saving booking data: " + e.getMessage());
+                return false;
+            }
+
+            // Buffered entries are contained in the snapshot as well
+            pendingEntries.clear();
+            try {
+                journal.clear();
+            } catch (IOException e) {
+                System.out.println("Error clearing application journal: " + e.getMessage());
+            }
+            return true;
+        } finally {
+            loader.getMetrics().saved(System.nanoTime() - start);
+        }
     }
 
     /**
-     * Saves application and booking data to files.
+     * Sets the group commit that batches journal writes of this database.
+     * 
+     * @param groupCommit The group commit to use, or null to journal every
+     *                    change immediately
      */
-    public void saveData() {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(APPLICATION_DATA_FILE))) {
-            oos.writeObject(applications);
-        } catch (IOException e) {
-            System.out.println("Error saving application data: " + e.getMessage());
+    public void setGroupCommit(GroupCommit groupCommit) {
+        this.groupCommit = groupCommit;
+    }
+
+    /**
+     * Appends all buffered journal entries in a single write.
+     * 
+     * @return true if the entries were written, false otherwise
+     */
+    @Override
+    public synchronized boolean flush() {
+        loader.ensureLoaded();
+        if (pendingEntries.isEmpty()) {
+            return true;
         }
 
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(BOOKING_DATA_FILE))) {
-            oos.writeObject(bookings);
+        try (DatabaseSaveEvent event = DatabaseSaveEvent.start("applications", JOURNAL_FILE)) {
+            long bytes = journal.appendAll(pendingEntries);
+            if (event != null) {
+                event.completed(pendingEntries.size(), bytes);
+            }
+            pendingEntries.clear();
         } catch (IOException e) {
-            System.out.println("Error saving booking data: " + e.getMessage());
+            loader.getMetrics().saveFailed();
+            System.out.println("Error writing application journal: " + e.getMessage());
+            // Fall back to a full snapshot so the mutations are not lost
+            return saveData();
+        }
+
+        if (journal.getEntryCount() >= COMPACTION_THRESHOLD) {
+            return saveData();
+        }
+        return true;
+    }
+
+    /**
+     * Records a mutation in the journal, compacting the journal into a new
+     * snapshot once it grows past the compaction threshold. With a group
+     * commit the entry is buffered until the next flush.
+     * 
+     * @param operation The mutation performed
+     * @param payload   The entity written, or the ID of the entity removed
+     */
+    private void log(JournalEntry.Operation operation, Serializable payload) {
+        pendingEntries.add(new JournalEntry(operation, payload));
+        if (groupCommit != null) {
+            groupCommit.markDirty(this);
+        } else {
+            flush();
+        }
+    }
+
+    /**
+     * Applies a journal entry to the in-memory data during replay.
+     * Entries are applied idempotently, so replaying an entry that is already
+     * contained in the snapshot leaves the data unchanged.
+     * 
+     * @param entry The journal entry to apply
+     */
+    private void apply(JournalEntry entry) {
+        switch (entry.getOperation()) {
+            case ADD_APPLICATION:
+            case UPDATE_APPLICATION:
+                putApplication((Application) entry.getPayload());
+                break;
+            case ADD_BOOKING:
+                linkBooking((FlatBooking) entry.getPayload());
+                break;
+            case REMOVE_APPLICATION:
+                unlinkApplication((String) entry.getPayload());
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Stores an application in the primary map and updates the secondary
+     * indexes to match its current state.
+     * 
+     * @param application The application to store
+     */
+    private void putApplication(Application application) {
+        String applicationId = application.getApplicationId();
+        Application previous = applications.put(applicationId, application);
+        if (previous == null) {
+            index(applicationIdsByApplicant, application.getApplicantNric(), applicationId);
+            applicationIdsByProject.add(application.getProjectName(), application.getApplicationDate(),
+                    applicationId);
+        }
+
+        // The status may have been changed in place, so compare against the
+        // status the application was last indexed under
+        ApplicationStatus oldStatus = indexedStatuses.put(applicationId, application.getStatus());
+        if (oldStatus != application.getStatus()) {
+            unindex(applicationIdsByStatus, oldStatus, applicationId);
+            index(applicationIdsByStatus, application.getStatus(), applicationId);
+            unindex(applicationIdsByProjectStatus, projectStatusKey(application.getProjectName(), oldStatus),
+                    applicationId);
+            index(applicationIdsByProjectStatus, projectStatusKey(application.getProjectName(),
+                    application.getStatus()), applicationId);
+            countStatus(application.getProjectName(), oldStatus, -1);
+            countStatus(application.getProjectName(), application.getStatus(), 1);
+        }
+    }
+
+    /**
+     * Adjusts the number of applications for a project with a status.
+     * 
+     * @param projectName The name of the project
+     * @param status      The status, or null to do nothing
+     * @param delta       The change in the count
+     */
+    private void countStatus(String projectName, ApplicationStatus status, int delta) {
+        if (status != null) {
+            statusCountsByProject
+                    .computeIfAbsent(projectName, k -> new AtomicIntegerArray(ApplicationStatus.values().length))
+                    .addAndGet(status.ordinal(), delta);
+        }
+    }
+
+    /**
+     * Stores a booking and marks its associated application as booked.
+     * 
+     * @param booking The booking to store
+     */
+    private void linkBooking(FlatBooking booking) {
+        if (bookings.put(booking.getBookingId(), booking) == null) {
+            bookingIdsByProject.add(booking.getProjectName(), booking.getBookingDate(), booking.getBookingId());
+        }
+
+        // Update the associated application
+        Application application = applications.get(booking.getApplicationId());
+        if (application != null) {
+            application.setFlatBooking(booking);
+            application.setStatus(ApplicationStatus.BOOKED);
+            putApplication(application);
+        }
+    }
+
+    /**
+     * Removes an application together with any associated booking.
+     * 
+     * @param applicationId The ID of the application to remove
+     */
+    private void unlinkApplication(String applicationId) {
+        Application application = applications.remove(applicationId);
+        if (application == null) {
+            return;
+        }
+
+        unindex(applicationIdsByApplicant, application.getApplicantNric(), applicationId);
+        applicationIdsByProject.remove(application.getProjectName(), application.getApplicationDate(),
+                applicationId);
+        ApplicationStatus indexedStatus = indexedStatuses.remove(applicationId);
+        unindex(applicationIdsByStatus, indexedStatus, applicationId);
+        unindex(applicationIdsByProjectStatus, projectStatusKey(application.getProjectName(), indexedStatus),
+                applicationId);
+        countStatus(application.getProjectName(), indexedStatus, -1);
+
+        if (application.hasBooking()) {
+            FlatBooking booking = bookings.remove(application.getFlatBooking().getBookingId());
+            if (booking != null) {
+                bookingIdsByProject.remove(booking.getProjectName(), booking.getBookingDate(),
+                        booking.getBookingId());
+            }
+        }
+    }
+
+    /**
+     * Rebuilds all secondary indexes from the primary maps.
+     */
+    private void rebuildIndexes() {
+        applicationIdsByApplicant.clear();
+        applicationIdsByProject.clear();
+        applicationIdsByStatus.clear();
+        applicationIdsByProjectStatus.clear();
+        bookingIdsByProject.clear();
+        indexedStatuses.clear();
+        statusCountsByProject.clear();
+
+        for (Application application : applications.values()) {
+            String applicationId = application.getApplicationId();
+            index(applicationIdsByApplicant, application.getApplicantNric(), applicationId);
+            applicationIdsByProject.add(application.getProjectName(), application.getApplicationDate(),
+                    applicationId);
+            index(applicationIdsByStatus, application.getStatus(), applicationId);
+            index(applicationIdsByProjectStatus, projectStatusKey(application.getProjectName(),
+                    application.getStatus()), applicationId);
+            indexedStatuses.put(applicationId, application.getStatus());
+            countStatus(application.getProjectName(), application.getStatus(), 1);
+        }
+
+        for (FlatBooking booking : bookings.values()) {
+            bookingIdsByProject.add(booking.getProjectName(), booking.getBookingDate(), booking.getBookingId());
+        }
+    }
+
+    /**
+     * Builds the key of the project and status index.
+     * 
+     * @param projectName The name of the project
+     * @param status      The status, may be null
+     * @return The key, or null if there is no status
+     */
+    private static String projectStatusKey(String projectName, ApplicationStatus status) {
+        return status == null ? null : projectName + '\0' + status.name();
+    }
+
+    /**
+     * Adds an ID to the set stored under a key in an index.
+     * 
+     * @param index The index to update
+     * @param key   The index key
+     * @param id    The ID to add
+     */
+    private static <K> void index(Map<K, Set<String>> index, K key, String id) {
+        index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(id);
+    }
+
+    /**
+     * Removes an ID from the set stored under a key in an index.
+     * 
+     * @param index The index to update
+     * @param key   The index key, may be null
+     * @param id    The ID to remove
+     */
+    private static <K> void unindex(Map<K, Set<String>> index, K key, String id) {
+        if (key == null) {
+            return;
+        }
+        Set<String> ids = index.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                index.remove(key);
+            }
         }
     }
 
+    /**
+     * Gets the IDs stored under a key in an index.
+     * 
+     * @param index The index to read
+     * @param key   The index key, may be null
+     * @return The IDs under the key, or an empty set if none
+     */
+    private static <K> Set<String> lookup(Map<K, Set<String>> index, K key) {
+        Set<String> ids = key != null ? index.get(key) : null;
+        return ids != null ? ids : Collections.emptySet();
+    }
+
     /**
      * Adds a new application to the database.
      * 
@@ -76,12 +438,13 @@ public class ApplicationDB {
      * @return true if the application was added, false if application ID already
      *         exists
      */
-    public boolean addApplication(Application application) {
+    public synchronized boolean addApplication(Application application) {
+        loader.ensureLoaded();
         if (applications.containsKey(application.getApplicationId())) {
             return false;
         }
-        applications.put(application.getApplicationId(), application);
-        saveData();
+        putApplication(application);
+        log(JournalEntry.Operation.ADD_APPLICATION, application);
         return true;
     }
 
@@ -92,12 +455,13 @@ public class ApplicationDB {
      * @return true if the application was updated, false if application ID not
      *         found
      */
-    public boolean updateApplication(Application application) {
+    public synchronized boolean updateApplication(Application application) {
+        loader.ensureLoaded();
         if (!applications.containsKey(application.getApplicationId())) {
             return false;
         }
-        applications.put(application.getApplicationId(), application);
-        saveData();
+        putApplication(application);
+        log(JournalEntry.Operation.UPDATE_APPLICATION, application);
         return true;
     }
 
@@ -107,21 +471,13 @@ public class ApplicationDB {
      * @param booking The booking to add
      * @return true if the booking was added, false if booking ID already exists
      */
-    public boolean addBooking(FlatBooking booking) {
+    public synchronized boolean addBooking(FlatBooking booking) {
+        loader.ensureLoaded();
         if (bookings.containsKey(booking.getBookingId())) {
             return false;
         }
-        bookings.put(booking.getBookingId(), booking);
-
-        // Update the associated application
-        Application application = applications.get(booking.getApplicationId());
-        if (application != null) {
-            application.setFlatBooking(booking);
-            application.setStatus(ApplicationStatus.BOOKED);
-            applications.put(application.getApplicationId(), application);
-        }
-
-        saveData();
+        linkBooking(booking);
+        log(JournalEntry.Operation.ADD_BOOKING, booking);
         return true;
     }
 
@@ -132,6 +488,7 @@ public class ApplicationDB {
      * @return The application, or null if not found
      */
     public Application getApplication(String applicationId) {
+        loader.ensureLoaded();
         return applications.get(applicationId);
     }
 
@@ -142,9 +499,30 @@ public class ApplicationDB {
      * @return The booking, or null if not found
      */
     public FlatBooking getBooking(String bookingId) {
+        loader.ensureLoaded();
         return bookings.get(bookingId);
     }
 
+    /**
+     * Gets all applications in the database.
+     * 
+     * @return A list of all applications
+     */
+    public List<Application> getAllApplications() {
+        loader.ensureLoaded();
+        return new ArrayList<>(applications.values());
+    }
+
+    /**
+     * Gets all bookings in the database.
+     * 
+     * @return A list of all bookings
+     */
+    public List<FlatBooking> getAllBookings() {
+        loader.ensureLoaded();
+        return new ArrayList<>(bookings.values());
+    }
+
     /**
      * Gets all applications for a specific applicant.
      * 
@@ -152,9 +530,11 @@ public class ApplicationDB {
      * @return A list of applications for the applicant
      */
     public List<Application> getApplicationsByApplicant(String applicantNric) {
+        loader.ensureLoaded();
         List<Application> applicantApplications = new ArrayList<>();
-        for (Application application : applications.values()) {
-            if (application.getApplicantNric().equals(applicantNric)) {
+        for (String applicationId : lookup(applicationIdsByApplicant, applicantNric)) {
+            Application application = applications.get(applicationId);
+            if (application != null) {
                 applicantApplications.add(application);
             }
         }
@@ -162,15 +542,17 @@ public class ApplicationDB {
     }
 
     /**
-     * Gets all applications for a specific project.
+     * Gets all applications for a specific project, oldest first.
      * 
      * @param projectName The name of the project
      * @return A list of applications for the project
      */
     public List<Application> getApplicationsByProject(String projectName) {
+        loader.ensureLoaded();
         List<Application> projectApplications = new ArrayList<>();
-        for (Application application : applications.values()) {
-            if (application.getProjectName().equals(projectName)) {
+        for (String applicationId : applicationIdsByProject.inOrder(projectName)) {
+            Application application = applications.get(applicationId);
+            if (application != null) {
                 projectApplications.add(application);
             }
         }
@@ -184,9 +566,32 @@ public class ApplicationDB {
      * @return A list of applications with the specified status
      */
     public List<Application> getApplicationsByStatus(ApplicationStatus status) {
+        loader.ensureLoaded();
         List<Application> statusApplications = new ArrayList<>();
-        for (Application application : applications.values()) {
-            if (application.getStatus() == status) {
+        for (String applicationId : lookup(applicationIdsByStatus, status)) {
+            Application application = applications.get(applicationId);
+            if (application != null && application.getStatus() == status) {
+                statusApplications.add(application);
+            }
+        }
+        return statusApplications;
+    }
+
+    /**
+     * Gets the applications for a project with a specific status from the
+     * project and status index, in no particular order. Only the project's
+     * applications with the status are visited.
+     * 
+     * @param projectName The name of the project
+     * @param status      The status to filter by
+     * @return A list of the project's applications with the specified status
+     */
+    public List<Application> getApplicationsByStatus(String projectName, ApplicationStatus status) {
+        loader.ensureLoaded();
+        List<Application> statusApplications = new ArrayList<>();
+        for (String applicationId : lookup(applicationIdsByProjectStatus, projectStatusKey(projectName, status))) {
+            Application application = applications.get(applicationId);
+            if (application != null && application.getStatus() == status) {
                 statusApplications.add(application);
             }
         }
@@ -200,11 +605,12 @@ public class ApplicationDB {
      * @return A list of successful applications for the project
      */
     public List<Application> getSuccessfulApplicationsByProject(String projectName) {
+        loader.ensureLoaded();
         List<Application> successfulApplications = new ArrayList<>();
-        for (Application application : applications.values()) {
-            if (application.getProjectName().equals(projectName) &&
-                    (application.getStatus() == ApplicationStatus.SUCCESSFUL ||
-                            application.getStatus() == ApplicationStatus.BOOKED)) {
+        for (String applicationId : applicationIdsByProject.inOrder(projectName)) {
+            Application application = applications.get(applicationId);
+            if (application != null && (application.getStatus() == ApplicationStatus.SUCCESSFUL ||
+                    application.getStatus() == ApplicationStatus.BOOKED)) {
                 successfulApplications.add(application);
             }
         }
@@ -212,15 +618,17 @@ public class ApplicationDB {
     }
 
     /**
-     * Gets all bookings for a specific project.
+     * Gets all bookings for a specific project, oldest first.
      * 
      * @param projectName The name of the project
      * @return A list of bookings for the project
      */
     public List<FlatBooking> getBookingsByProject(String projectName) {
+        loader.ensureLoaded();
         List<FlatBooking> projectBookings = new ArrayList<>();
-        for (FlatBooking booking : bookings.values()) {
-            if (booking.getProjectName().equals(projectName)) {
+        for (String bookingId : bookingIdsByProject.inOrder(projectName)) {
+            FlatBooking booking = bookings.get(bookingId);
+            if (booking != null) {
                 projectBookings.add(booking);
             }
         }
@@ -233,19 +641,15 @@ public class ApplicationDB {
      * @param applicationId The ID of the application to remove
      * @return true if the application was removed, false if not found
      */
-    public boolean removeApplication(String applicationId) {
+    public synchronized boolean removeApplication(String applicationId) {
+        loader.ensureLoaded();
         if (!applications.containsKey(applicationId)) {
             return false;
         }
 
-        // Remove any associated booking
-        Application application = applications.get(applicationId);
-        if (application.hasBooking()) {
-            bookings.remove(application.getFlatBooking().getBookingId());
-        }
-
-        applications.remove(applicationId);
-        saveData();
+        // Remove the application and any associated booking
+        unlinkApplication(applicationId);
+        log(JournalEntry.Operation.REMOVE_APPLICATION, applicationId);
         return true;
     }
 
@@ -256,9 +660,10 @@ public class ApplicationDB {
      * @return The current application, or null if none found
      */
     public Application getCurrentApplication(String applicantNric) {
-        for (Application application : applications.values()) {
-            if (application.getApplicantNric().equals(applicantNric) &&
-                    application.getStatus() != ApplicationStatus.UNSUCCESSFUL) {
+        loader.ensureLoaded();
+        for (String applicationId : lookup(applicationIdsByApplicant, applicantNric)) {
+            Application application = applications.get(applicationId);
+            if (application != null && application.getStatus() != ApplicationStatus.UNSUCCESSFUL) {
                 return application;
             }
         }
@@ -272,11 +677,12 @@ public class ApplicationDB {
      * @return true if the applicant has an active application, false otherwise
      */
     public boolean hasActiveApplication(String applicantNric) {
-        for (Application application : applications.values()) {
-            if (application.getApplicantNric().equals(applicantNric) &&
-                    (application.getStatus() == ApplicationStatus.PENDING ||
-                            application.getStatus() == ApplicationStatus.SUCCESSFUL ||
-                            application.getStatus() == ApplicationStatus.BOOKED)) {
+        loader.ensureLoaded();
+        for (String applicationId : lookup(applicationIdsByApplicant, applicantNric)) {
+            Application application = applications.get(applicationId);
+            if (application != null && (application.getStatus() == ApplicationStatus.PENDING ||
+                    application.getStatus() == ApplicationStatus.SUCCESSFUL ||
+                    application.getStatus() == ApplicationStatus.BOOKED)) {
                 return true;
             }
         }
@@ -295,40 +701,151 @@ public class ApplicationDB {
      */
     public List<FlatBooking> generateBookingReport(String projectName, FlatType flatType,
             MaritalStatus maritalStatus, Integer minAge, Integer maxAge) {
-        List<FlatBooking> reportBookings = new ArrayList<>(bookings.values());
-
-        // Filter by project name
+        loader.ensureLoaded();
+        // Narrow down by project through the index, other filters are combined
+        // into a single predicate evaluated once per booking
+        Collection<FlatBooking> candidates = bookings.values();
         if (projectName != null && !projectName.isEmpty()) {
-            reportBookings.removeIf(booking -> !booking.getProjectName().equals(projectName));
+            candidates = getBookingsByProject(projectName);
         }
 
+        Predicate<FlatBooking> filter = booking -> true;
+
         // Filter by flat type
         if (flatType != null) {
-            reportBookings.removeIf(booking -> booking.getFlatType() != flatType);
+            filter = filter.and(booking -> booking.getFlatType() == flatType);
         }
 
-        // For the remaining filters, we need user information
-        UserDB userDB = new UserDB();
-
-        // Filter by marital status
-        if (maritalStatus != null) {
-            reportBookings.removeIf(booking -> {
-                entity.User user = userDB.getUser(booking.getApplicantNric());
-                return user == null || user.getMaritalStatus() != maritalStatus;
-            });
-        }
-
-        // Filter by age range
-        if (minAge != null || maxAge != null) {
-            reportBookings.removeIf(booking -> {
-                entity.User user = userDB.getUser(booking.getApplicantNric());
-                if (user == null)
-                    return true;
+        // Filter by marital status and age range, joined against the live user data
+        if (maritalStatus != null || minAge != null || maxAge != null) {
+            filter = filter.and(booking -> {
+                User user = userDB.getUser(booking.getApplicantNric());
+                if (user == null) {
+                    return false;
+                }
+                if (maritalStatus != null && user.getMaritalStatus() != maritalStatus) {
+                    return false;
+                }
                 int age = user.getAge();
-                return (minAge != null && age < minAge) || (maxAge != null && age > maxAge);
+                return (minAge == null || age >= minAge) && (maxAge == null || age <= maxAge);
             });
         }
 
+        List<FlatBooking> reportBookings = new ArrayList<>();
+        for (FlatBooking booking : candidates) {
+            if (filter.test(booking)) {
+                reportBookings.add(booking);
+            }
+        }
         return reportBookings;
     }
+
+    /**
+     * Gets the applications for a project made in a time range, oldest first.
+     * 
+     * @param projectName The name of the project, or null for all projects
+     * @param from        The start of the range, inclusive
+     * @param to          The end of the range, exclusive
+     * @return A list of applications made in the range
+     */
+    public List<Application> getApplicationsBetween(String projectName, LocalDateTime from, LocalDateTime to) {
+        loader.ensureLoaded();
+        List<Application> rangeApplications = new ArrayList<>();
+        for (String applicationId : applicationIdsByProject.range(projectName, from, to)) {
+            Application application = applications.get(applicationId);
+            if (application != null) {
+                rangeApplications.add(application);
+            }
+        }
+        return rangeApplications;
+    }
+
+    /**
+     * Gets the oldest pending applications for a project, in the order they
+     * should be processed.
+     * 
+     * @param projectName The name of the project
+     * @param limit       The maximum number of applications to return
+     * @return A list of pending applications, oldest first
+     */
+    public List<Application> getPendingApplicationsInOrder(String projectName, int limit) {
+        loader.ensureLoaded();
+        List<Application> pendingApplications = new ArrayList<>();
+        for (String applicationId : applicationIdsByProject.inOrder(projectName)) {
+            if (pendingApplications.size() >= limit) {
+                break;
+            }
+            Application application = applications.get(applicationId);
+            if (application != null && application.getStatus() == ApplicationStatus.PENDING) {
+                pendingApplications.add(application);
+            }
+        }
+        return pendingApplications;
+    }
+
+    /**
+     * Gets the bookings for a project made in a time range, oldest first.
+     * 
+     * @param projectName The name of the project, or null for all projects
+     * @param from        The start of the range, inclusive
+     * @param to          The end of the range, exclusive
+     * @return A list of bookings made in the range
+     */
+    public List<FlatBooking> getBookingsBetween(String projectName, LocalDateTime from, LocalDateTime to) {
+        loader.ensureLoaded();
+        List<FlatBooking> rangeBookings = new ArrayList<>();
+        for (String bookingId : bookingIdsByProject.range(projectName, from, to)) {
+            FlatBooking booking = bookings.get(bookingId);
+            if (booking != null) {
+                rangeBookings.add(booking);
+            }
+        }
+        return rangeBookings;
+    }
+
+    /**
+     * Gets one page of the applications for a project, oldest first.
+     * 
+     * @param projectName The name of the project
+     * @param status      The status to filter by, or null for any status
+     * @param cursor      The cursor of the previous page, or null for the first
+     *                    page
+     * @param limit       The maximum number of applications on the page
+     * @return The page of applications
+     */
+    public Page<Application> getApplicationsByProjectPage(String projectName, ApplicationStatus status,
+            String cursor, int limit) {
+        loader.ensureLoaded();
+        return Page.seek(after -> applicationIdsByProject.keysAfter(projectName, after), applications::get,
+                application -> status == null || application.getStatus() == status, cursor, limit,
+                countApplications(projectName, status));
+    }
+
+    /**
+     * Counts the applications for a project from the indexes.
+     * 
+     * @param projectName The name of the project, or null for all projects
+     * @param status      The status to count, or null for any status
+     * @return The number of applications
+     */
+    private int countApplications(String projectName, ApplicationStatus status) {
+        if (status == null) {
+            return applicationIdsByProject.size(projectName);
+        }
+        if (projectName == null) {
+            Set<String> ids = applicationIdsByStatus.get(status);
+            return ids != null ? ids.size() : 0;
+        }
+        AtomicIntegerArray counts = statusCountsByProject.get(projectName);
+        return counts != null ? counts.get(status.ordinal()) : 0;
+    }
+
+    /**
+     * Gets the loader that reads this table from disk.
+     * 
+     * @return The table loader
+     */
+    public TableLoader getLoader() {
+        return loader;
+    }
 }
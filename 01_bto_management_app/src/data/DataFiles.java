@@ -0,0 +1,29 @@
+package data;
+
+import java.io.File;
+
+/**
+ * Locates the files the application reads and writes.
+ * Files are kept in the working directory unless the {@code bto.dataDir}
+ * system property names another directory, which lets benchmarks and scripted
+ * runs work on their own data without touching the real files.
+ */
+public class DataFiles {
+    private DataFiles() {
+    }
+
+    /**
+     * Gets the path of a data file. The directory is read on every call, so it
+     * can be changed between runs in the same JVM.
+     *
+     * @param fileName The name of the file
+     * @return The path of the file in the data directory
+     */
+    public static String path(String fileName) {
+        String dataDir = System.getProperty("bto.dataDir");
+        if (dataDir == null || dataDir.isEmpty()) {
+            return fileName;
+        }
+        return new File(dataDir, fileName).getPath();
+    }
+}
@@ -1,18 +1,28 @@
 package data;
 
 import entity.*;
+import entity.enums.ApplicationStatus;
 import entity.enums.MaritalStatus;
 import entity.enums.UserRole;
 import entity.enums.FlatType;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
 
 /**
  * Initializes the system with sample data.
@@ -20,8 +30,11 @@ import java.util.Map;
 public class DataInitializer {
     private static final String USER_DATA_CSV = "usersInit.csv";
     private static final String PROJECT_DATA_CSV = "projectsInit.csv";
-    private static final String USER_DATA_DAT = "users.dat";
     private static final String PROJECT_DATA_DAT = "projects.dat";
+    private static final String USER_MANIFEST = "usersInit.manifest";
+    private static final String PROJECT_MANIFEST = "projectsInit.manifest";
+    private static final Pattern NRIC_PATTERN = Pattern.compile("[STFG]\\d{7}[A-Z]");
+    private static final int CHUNK_ROWS = 10_000;
 
     private UserDB userDB;
     private ProjectDB projectDB;
@@ -51,8 +64,13 @@ public class DataInitializer {
 
         if (!datFilesExist) {
             System.out.println("No .dat files found. Loading data from CSV files...");
-            loadUsersFromCSV();
-            loadProjectsFromCSV();
+            // Manifests left from before a reset describe rows that are gone
+            loadUsersFromCSV(false);
+            loadProjectsFromCSV(false);
+        } else if ("delta".equals(System.getProperty("bto.csvImport"))) {
+            System.out.println(".dat files found. Applying changes from CSV files...");
+            loadUsersFromCSV(true);
+            loadProjectsFromCSV(true);
         } else {
             System.out.println(".dat files found. CSV files will not be loaded.");
             // .dat files exist and will be loaded by their respective database classes
@@ -65,146 +83,460 @@ public class DataInitializer {
      * @return true if all required .dat files exist, false otherwise
      */
     private boolean checkDatFilesExist() {
-        File userDat = new File(USER_DATA_DAT);
-        File projectDat = new File(PROJECT_DATA_DAT);
-
-        // Return true only if all .dat files exist
-        return userDat.exists() && projectDat.exists();
+        // Return true only if all .dat files exist, counting a backup left by an
+        // interrupted save as present
+        return userDB.hasSavedData() && SnapshotFile.exists(DataFiles.path(PROJECT_DATA_DAT));
     }
 
     /**
      * Loads user data from a CSV file.
+     * Only rows that are new or changed since the last import are applied, and
+     * all of them are saved in one batch. Passwords and application state of
+     * existing users are kept.
+     * 
+     * @param useManifest true to skip rows unchanged since the last import,
+     *                    false to import every row
      */
-    private void loadUsersFromCSV() {
-        try (BufferedReader br = new BufferedReader(new FileReader(USER_DATA_CSV))) {
-            String line;
-            boolean headerSkipped = false;
+    private void loadUsersFromCSV(boolean useManifest) {
+        File source = new File(DataFiles.path(USER_DATA_CSV));
+        ImportManifest manifest = useManifest ? ImportManifest.load(DataFiles.path(USER_MANIFEST))
+                : ImportManifest.empty(DataFiles.path(USER_MANIFEST));
+        if (manifest.isUpToDate(source)) {
+            System.out.println("Users CSV unchanged since last import.");
+            return;
+        }
+
+        try {
+            long start = System.nanoTime();
+            CsvResult<CsvRow<User>> result = importCsv(DataFiles.path(USER_DATA_CSV), 5,
+                    row -> parseRow(row, row.getString(0).toUpperCase(), manifest, key -> userDB.getUser(key) != null,
+                            this::parseUser));
 
-            while ((line = br.readLine()) != null) {
-                if (!headerSkipped) {
-                    headerSkipped = true;
+            List<User> newUsers = new ArrayList<>();
+            List<User> changedUsers = new ArrayList<>();
+            Map<String, Long> rowHashes = new HashMap<>(result.rows.size() * 4 / 3 + 1);
+            for (CsvRow<User> row : result.rows) {
+                rowHashes.put(row.key, row.hash);
+                if (row.entity == null) {
                     continue;
                 }
 
-                String[] data = line.split(",");
-                if (data.length >= 4) {
-                    String nric = data[0].trim();
-                    String name = data[1].trim();
-                    String password = "password"; // Default password as per requirements
-                    int age = Integer.parseInt(data[2].trim());
-                    MaritalStatus maritalStatus = data[3].trim().equalsIgnoreCase("Single") ? MaritalStatus.SINGLE
-                            : MaritalStatus.MARRIED;
-                    UserRole role = parseRole(data[4].trim());
-
-                    User user;
-                    switch (role) {
-                        case APPLICANT:
-                            user = new Applicant(nric, name, password, age, maritalStatus);
-                            break;
-                        case HDB_OFFICER:
-                            user = new HDBOfficer(nric, name, password, age, maritalStatus);
-                            break;
-                        case HDB_MANAGER:
-                            user = new HDBManager(nric, name, password, age, maritalStatus);
-                            break;
-                        case ADMIN:
-                            user = new Admin(nric, name, password, age, maritalStatus);
-                            break;
-                        default:
-                            continue;
+                User existing = userDB.getUser(row.key);
+                if (existing == null) {
+                    newUsers.add(row.entity);
+                } else if (row.changed) {
+                    if (existing.getRole() != row.entity.getRole()) {
+                        result.skip("role of " + row.key + " cannot change");
+                        rowHashes.remove(row.key);
+                        continue;
                     }
-
-                    userDB.addUser(user);
+                    existing.setName(row.entity.getName());
+                    existing.setAge(row.entity.getAge());
+                    existing.setMaritalStatus(row.entity.getMaritalStatus());
+                    changedUsers.add(existing);
                 }
             }
-            System.out.println("Users loaded successfully from CSV.");
+
+            int added = userDB.addUsers(newUsers);
+            int updated = userDB.updateUsers(changedUsers);
+            manifest.save(source, rowHashes);
+            System.out.println("Users loaded successfully from CSV. " + describe(result, added, updated, start));
         } catch (IOException e) {
             System.out.println("Error loading users from CSV: " + e.getMessage());
-        } catch (NumberFormatException e) {
-            System.out.println("Error parsing user data: " + e.getMessage());
         }
     }
 
     /**
-     * Parses a role string into a UserRole enum value.
+     * Parses a user from a CSV row.
      * 
-     * @param roleStr The role string
-     * @return The UserRole enum value
+     * @param row The reader positioned at the row
+     * @return The user
+     * @throws IllegalArgumentException if a field is invalid
      */
-    private UserRole parseRole(String roleStr) {
-        switch (roleStr.toLowerCase()) {
-            case "applicant":
-                return UserRole.APPLICANT;
-            case "hdb officer":
-            case "hdbofficer":
-                return UserRole.HDB_OFFICER;
-            case "hdb manager":
-            case "hdbmanager":
-                return UserRole.HDB_MANAGER;
-            case "admin":
-                return UserRole.ADMIN;
+    private User parseUser(MappedCsvReader row) {
+        String nric = row.getString(0).toUpperCase();
+        if (!NRIC_PATTERN.matcher(nric).matches()) {
+            throw new IllegalArgumentException("invalid NRIC " + nric);
+        }
+        String name = row.getString(1);
+        String password = "password"; // Default password as per requirements
+        int age = row.getInt(2);
+        if (age < 0) {
+            throw new IllegalArgumentException("invalid age " + age);
+        }
+        MaritalStatus maritalStatus;
+        if (row.fieldEquals(3, "single")) {
+            maritalStatus = MaritalStatus.SINGLE;
+        } else if (row.fieldEquals(3, "married")) {
+            maritalStatus = MaritalStatus.MARRIED;
+        } else {
+            throw new IllegalArgumentException("invalid marital status " + row.getString(3));
+        }
+        UserRole role = parseRole(row, 4);
+
+        switch (role) {
+            case HDB_OFFICER:
+                return new HDBOfficer(nric, name, password, age, maritalStatus);
+            case HDB_MANAGER:
+                return new HDBManager(nric, name, password, age, maritalStatus);
+            case ADMIN:
+                return new Admin(nric, name, password, age, maritalStatus);
             default:
-                return UserRole.APPLICANT; // Default to applicant
+                return new Applicant(nric, name, password, age, maritalStatus);
+        }
+    }
+
+    /**
+     * Parses a role field of a CSV row into a UserRole enum value.
+     * 
+     * @param row   The reader positioned at the row
+     * @param field The index of the role field
+     * @return The UserRole enum value
+     */
+    private UserRole parseRole(MappedCsvReader row, int field) {
+        if (row.fieldEquals(field, "hdb officer") || row.fieldEquals(field, "hdbofficer")) {
+            return UserRole.HDB_OFFICER;
+        } else if (row.fieldEquals(field, "hdb manager") || row.fieldEquals(field, "hdbmanager")) {
+            return UserRole.HDB_MANAGER;
+        } else if (row.fieldEquals(field, "admin")) {
+            return UserRole.ADMIN;
+        } else {
+            return UserRole.APPLICANT; // Default to applicant
         }
     }
 
     /**
      * Loads project data from a CSV file.
+     * Only rows that are new or changed since the last import are applied, and
+     * each manager is updated once.
+     * 
+     * @param useManifest true to skip rows unchanged since the last import,
+     *                    false to import every row
      */
-    private void loadProjectsFromCSV() {
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private void loadProjectsFromCSV(boolean useManifest) {
+        File source = new File(DataFiles.path(PROJECT_DATA_CSV));
+        ImportManifest manifest = useManifest ? ImportManifest.load(DataFiles.path(PROJECT_MANIFEST))
+                : ImportManifest.empty(DataFiles.path(PROJECT_MANIFEST));
+        if (manifest.isUpToDate(source)) {
+            System.out.println("Projects CSV unchanged since last import.");
+            return;
+        }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(PROJECT_DATA_CSV))) {
-            String line;
-            boolean headerSkipped = false;
+        try {
+            long start = System.nanoTime();
+            CsvResult<CsvRow<Project>> result = importCsv(DataFiles.path(PROJECT_DATA_CSV), 7,
+                    row -> parseRow(row, row.getString(0), manifest, key -> projectDB.getProject(key) != null,
+                            this::parseProject));
 
-            while ((line = br.readLine()) != null) {
-                if (!headerSkipped) {
-                    headerSkipped = true;
+            // Keep the first row of each project name
+            Map<String, Project> newProjects = new LinkedHashMap<>();
+            Map<String, Project> changedProjects = new LinkedHashMap<>();
+            Map<String, User> managers = new HashMap<>();
+            Map<String, Long> rowHashes = new HashMap<>(result.rows.size() * 4 / 3 + 1);
+            for (CsvRow<Project> row : result.rows) {
+                rowHashes.putIfAbsent(row.key, row.hash);
+                if (row.entity == null) {
                     continue;
                 }
 
-                String[] data = line.split(",");
-                if (data.length >= 7) {
-                    String name = data[0].trim();
-                    String neighborhood = data[1].trim();
-                    LocalDate openingDate = LocalDate.parse(data[2].trim(), dateFormatter);
-                    LocalDate closingDate = LocalDate.parse(data[3].trim(), dateFormatter);
-                    String managerNric = data[4].trim();
-                    int twoRoomUnits = Integer.parseInt(data[5].trim());
-                    int threeRoomUnits = Integer.parseInt(data[6].trim());
-
-                    // Check if manager exists
-                    if (userDB.getUser(managerNric) != null) {
-                        Project project = new Project(name, neighborhood, openingDate, closingDate, managerNric, 10);
-
-                        Map<FlatType, Integer> flatTypeUnits = new HashMap<>();
-                        flatTypeUnits.put(FlatType.TWO_ROOM, twoRoomUnits);
-                        flatTypeUnits.put(FlatType.THREE_ROOM, threeRoomUnits);
-
-                        for (Map.Entry<FlatType, Integer> entry : flatTypeUnits.entrySet()) {
-                            project.setFlatTypeUnits(entry.getKey(), entry.getValue());
-                        }
-
-                        // Set project to visible by default
-                        project.setVisible(true);
-                        projectDB.addProject(project);
-
-                        // Update manager's created projects list
-                        User user = userDB.getUser(managerNric);
-                        if (user instanceof HDBManager) {
-                            ((HDBManager) user).addCreatedProject(name);
-                            userDB.updateUser(user);
+                Project existing = projectDB.getProject(row.key);
+                if (existing == null) {
+                    newProjects.putIfAbsent(row.key, row.entity);
+                } else if (row.changed && !changedProjects.containsKey(row.key)) {
+                    existing.setNeighborhood(row.entity.getNeighborhood());
+                    existing.setApplicationOpeningDate(row.entity.getApplicationOpeningDate());
+                    existing.setApplicationClosingDate(row.entity.getApplicationClosingDate());
+                    if (!existing.getManagerInChargeNric().equals(row.entity.getManagerInChargeNric())) {
+                        User previous = managers.computeIfAbsent(existing.getManagerInChargeNric(), userDB::getUser);
+                        if (previous instanceof HDBManager) {
+                            ((HDBManager) previous).removeCreatedProject(row.key);
                         }
-
+                        existing.setManagerInChargeNric(row.entity.getManagerInChargeNric());
+                    }
+                    for (Map.Entry<FlatType, Integer> entry : row.entity.getFlatTypeUnits().entrySet()) {
+                        updateSupply(existing, entry.getKey(), entry.getValue());
                     }
+                    changedProjects.put(row.key, existing);
                 }
             }
-            System.out.println("Projects loaded successfully from CSV.");
+            int added = projectDB.addProjects(newProjects.values());
+            int updated = projectDB.updateProjects(changedProjects.values());
+
+            // Update managers' created projects lists
+            List<Project> assigned = new ArrayList<>(newProjects.values());
+            assigned.addAll(changedProjects.values());
+            for (Project project : assigned) {
+                User user = managers.computeIfAbsent(project.getManagerInChargeNric(), userDB::getUser);
+                if (user instanceof HDBManager
+                        && !((HDBManager) user).getCreatedProjectNames().contains(project.getProjectName())) {
+                    ((HDBManager) user).addCreatedProject(project.getProjectName());
+                }
+            }
+            userDB.updateUsers(managers.values());
+
+            manifest.save(source, rowHashes);
+            System.out.println("Projects loaded successfully from CSV. " + describe(result, added, updated, start));
         } catch (IOException e) {
             System.out.println("Error loading projects from CSV: " + e.getMessage());
-        } catch (Exception e) {
-            System.out.println("Error parsing project data: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Changes the total supply of a flat type of an existing project.
+     * The CSV gives the total number of units, while the project keeps the
+     * units still available, so the units already booked are subtracted.
+     * Booked units are never taken back if the supply shrinks below them.
+     * 
+     * @param project  The project to update
+     * @param flatType The flat type
+     * @param supply   The total number of units from the CSV
+     */
+    private void updateSupply(Project project, FlatType flatType, int supply) {
+        int booked = 0;
+        for (Application application : applicationDB.getApplicationsByProject(project.getProjectName())) {
+            if (application.getFlatType() == flatType && application.getStatus() == ApplicationStatus.BOOKED) {
+                booked++;
+            }
+        }
+        if (supply < booked) {
+            System.out.println("Project " + project.getProjectName() + " has " + booked + " " + flatType
+                    + " units booked, more than the new supply of " + supply + ".");
+        }
+        project.setFlatTypeUnits(flatType, Math.max(0, supply - booked));
+    }
+
+    /**
+     * Parses a project from a CSV row.
+     * 
+     * @param row The reader positioned at the row
+     * @return The project
+     * @throws IllegalArgumentException if a field is invalid or the manager does
+     *                                  not exist
+     */
+    private Project parseProject(MappedCsvReader row) {
+        String name = row.getString(0);
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("missing project name");
+        }
+        String neighborhood = row.getString(1);
+        LocalDate openingDate = row.getDate(2);
+        LocalDate closingDate = row.getDate(3);
+        if (closingDate.isBefore(openingDate)) {
+            throw new IllegalArgumentException("closing date before opening date");
+        }
+        String managerNric = row.getString(4);
+        int twoRoomUnits = row.getInt(5);
+        int threeRoomUnits = row.getInt(6);
+        if (twoRoomUnits < 0 || threeRoomUnits < 0) {
+            throw new IllegalArgumentException("negative unit count");
+        }
+
+        // Check if manager exists
+        if (userDB.getUser(managerNric) == null) {
+            throw new IllegalArgumentException("unknown manager " + managerNric);
+        }
+
+        Project project = new Project(name, neighborhood, openingDate, closingDate, managerNric, 10);
+        project.setFlatTypeUnits(FlatType.TWO_ROOM, twoRoomUnits);
+        project.setFlatTypeUnits(FlatType.THREE_ROOM, threeRoomUnits);
+
+        // Set project to visible by default
+        project.setVisible(true);
+        return project;
+    }
+
+    /**
+     * Hashes a CSV row and parses it unless it is unchanged since the last
+     * import and still in the database.
+     * 
+     * @param row      The reader positioned at the row
+     * @param key      The key identifying the row
+     * @param manifest The manifest of the last import
+     * @param stored   Tells if the database holds the row's entity
+     * @param parser   Turns a row into an entity
+     * @return The row, without an entity if it is unchanged
+     */
+    private static <T> CsvRow<T> parseRow(MappedCsvReader row, String key, ImportManifest manifest,
+            Predicate<String> stored, Function<MappedCsvReader, T> parser) {
+        long hash = row.hashRow();
+        Long previous = manifest.getHash(key);
+        if (previous != null && previous == hash && stored.test(key)) {
+            return new CsvRow<>(key, hash, null, false);
+        }
+        return new CsvRow<>(key, hash, parser.apply(row), previous != null);
+    }
+
+    /**
+     * Reads a memory-mapped CSV file and parses its rows in parallel chunks.
+     * Only a bounded number of parsed chunks is held in memory at once, and
+     * rows are returned in file order. Rows that fail to parse are counted and
+     * skipped.
+     * 
+     * @param fileName  The CSV file to read
+     * @param minFields The number of fields a row needs
+     * @param parser    Turns a row into an entity
+     * @return The parsed rows and the number of skipped rows
+     * @throws IOException if the file could not be read
+     */
+    private <T> CsvResult<T> importCsv(String fileName, int minFields, Function<MappedCsvReader, T> parser)
+            throws IOException {
+        MappedCsvReader reader = MappedCsvReader.open(fileName);
+        reader.split(1); // Skip header
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "csv-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CsvResult<T> result = new CsvResult<>();
+        Deque<Future<CsvResult<T>>> inFlight = new ArrayDeque<>();
+
+        try {
+            while (reader.hasRemaining()) {
+                MappedCsvReader chunk = reader.split(CHUNK_ROWS);
+                inFlight.add(executor.submit(() -> parseChunk(chunk, minFields, parser)));
+                // Wait for the oldest chunk so memory stays bounded
+                if (inFlight.size() > threads * 2) {
+                    result.merge(await(inFlight.poll()));
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                result.merge(await(inFlight.poll()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return result;
+    }
+
+    /**
+     * Parses a chunk of CSV rows.
+     * 
+     * @param chunk     The reader covering the rows
+     * @param minFields The number of fields a row needs
+     * @param parser    Turns a row into an entity
+     * @return The parsed rows and the number of skipped rows
+     */
+    private static <T> CsvResult<T> parseChunk(MappedCsvReader chunk, int minFields,
+            Function<MappedCsvReader, T> parser) {
+        CsvResult<T> result = new CsvResult<>();
+        while (chunk.nextRow()) {
+            result.rowCount++;
+            try {
+                if (chunk.getFieldCount() < minFields) {
+                    throw new IllegalArgumentException("expected " + minFields + " fields");
+                }
+                result.rows.add(parser.apply(chunk));
+            } catch (RuntimeException e) {
+                result.skip("line " + chunk.getLineNumber() + ": " + e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Waits for a chunk to be parsed.
+     * 
+     * @param chunk The chunk being parsed
+     * @return The parsed chunk
+     * @throws IOException if parsing failed or was interrupted
+     */
+    private static <T> CsvResult<T> await(Future<CsvResult<T>> chunk) throws IOException {
+        try {
+            return chunk.get();
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("import interrupted");
+        }
+    }
+
+    /**
+     * Describes the outcome of an import, including its throughput.
+     * 
+     * @param result  The parsed rows
+     * @param added   The number of rows added to the database
+     * @param updated The number of rows updated in the database
+     * @param start   The time the import started, from {@link System#nanoTime()}
+     * @return A one-line summary
+     */
+    private static String describe(CsvResult<? extends CsvRow<?>> result, int added, int updated, long start) {
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        int rows = result.rowCount;
+        int unchanged = 0;
+        for (CsvRow<?> row : result.rows) {
+            if (row.entity == null) {
+                unchanged++;
+            }
+        }
+        String summary = added + " added, " + updated + " updated, " + unchanged + " unchanged of " + rows
+                + " rows in " + millis + " ms (" + (rows * 1000L / millis) + " rows/s)";
+        if (result.skipped > 0) {
+            summary += ", " + result.skipped + " rows skipped, first at " + result.firstError;
+        }
+        return summary;
+    }
+
+    /**
+     * A CSV row with the hash used to detect changes.
+     */
+    private static class CsvRow<T> {
+        private final String key;
+        private final long hash;
+        private final T entity;
+        private final boolean changed;
+
+        /**
+         * Constructs a new CsvRow.
+         * 
+         * @param key     The key identifying the row
+         * @param hash    The hash of the row's fields
+         * @param entity  The parsed entity, or null if the row is unchanged
+         * @param changed true if the row was imported before with other values
+         */
+        private CsvRow(String key, long hash, T entity, boolean changed) {
+            this.key = key;
+            this.hash = hash;
+            this.entity = entity;
+            this.changed = changed;
+        }
+    }
+
+    /**
+     * The rows parsed from a CSV file.
+     */
+    private static class CsvResult<T> {
+        private final List<T> rows = new ArrayList<>();
+        private int rowCount;
+        private int skipped;
+        private String firstError;
+
+        /**
+         * Records a row that could not be parsed.
+         * 
+         * @param error The reason the row was skipped
+         */
+        private void skip(String error) {
+            if (firstError == null) {
+                firstError = error;
+            }
+            skipped++;
+        }
+
+        /**
+         * Appends the rows of a later chunk.
+         * 
+         * @param chunk The chunk to append
+         */
+        private void merge(CsvResult<T> chunk) {
+            rows.addAll(chunk.rows);
+            rowCount += chunk.rowCount;
+            if (firstError == null) {
+                firstError = chunk.firstError;
+            }
+            skipped += chunk.skipped;
+        }
+    }
+}
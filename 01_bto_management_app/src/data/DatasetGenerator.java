@@ -0,0 +1,653 @@
+package data;
+
+import entity.*;
+import entity.enums.ApplicationStatus;
+import entity.enums.FlatType;
+import entity.enums.MaritalStatus;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Generates realistic data sets of any size for load testing.
+ * Applicants get valid NRICs and a spread of ages and marital statuses, and
+ * projects are spread across neighborhoods with managers whose application
+ * periods never overlap. Eligible applicants apply in every application
+ * status, booked applications get bookings and some applicants send
+ * enquiries. Successful and booked applications never outnumber the units of
+ * their flat type, and each booking takes a unit from its project.
+ * <p>
+ * Applicants are generated in parallel chunks, each with its own random
+ * source derived from the seed and the chunk number, so the same seed always
+ * gives the same data however many threads are used. The data can be written
+ * directly as database files or as the seed CSV files that
+ * {@link DataInitializer} imports.
+ */
+public class DatasetGenerator {
+    private static final int CHUNK_SIZE = 50_000;
+    private static final int NRIC_NUMBERS = 10_000_000;
+    private static final int[] NRIC_WEIGHTS = { 2, 7, 6, 5, 4, 3, 2 };
+    private static final String CITIZEN_CHECK_LETTERS = "JZIHGFEDCBA";
+    private static final String FOREIGNER_CHECK_LETTERS = "XWUTRQPNMLK";
+    private static final LocalDate FIRST_OPENING_DATE = LocalDate.of(2024, 1, 1);
+    private static final int OFFICERS_PER_PROJECT = 2;
+    private static final String[] STALE_FILES = {
+            "applications.journal", "users.slots", "usersInit.manifest", "usersInit.manifest.bak",
+            "projectsInit.manifest", "projectsInit.manifest.bak" };
+
+    private static final String[] NEIGHBORHOODS = {
+            "Ang Mo Kio", "Bedok", "Bishan", "Bukit Batok", "Bukit Merah", "Bukit Panjang", "Choa Chu Kang",
+            "Clementi", "Geylang", "Hougang", "Jurong East", "Jurong West", "Kallang", "Pasir Ris", "Punggol",
+            "Queenstown", "Sembawang", "Sengkang", "Serangoon", "Tampines", "Tengah", "Toa Payoh", "Woodlands",
+            "Yishun" };
+    private static final String[] PROJECT_SUFFIXES = {
+            "Harmony", "Vista", "Grove", "Residences", "Heights", "Gardens", "Waterway", "Court", "Green", "Spring" };
+    private static final String[] FIRST_NAMES = {
+            "Aaron", "Aisha", "Benjamin", "Chloe", "Daniel", "Divya", "Ethan", "Farah", "Grace", "Hafiz", "Isabel",
+            "Jun Wei", "Kavya", "Li Ting", "Marcus", "Nurul", "Oliver", "Priya", "Rachel", "Siti", "Tan", "Wei Ming",
+            "Xin Yi", "Yusuf", "Zhi Hao" };
+    private static final String[] LAST_NAMES = {
+            "Tan", "Lim", "Lee", "Ng", "Ong", "Wong", "Goh", "Chua", "Koh", "Teo", "Ahmad", "Abdullah", "Rahman",
+            "Kumar", "Nair", "Singh", "Pillai", "Chen", "Ho", "Yeo" };
+    private static final String[] ENQUIRIES = {
+            "When will the balloting results be released?",
+            "Is there a shuttle service to the nearest MRT station?",
+            "Can I change my flat type after applying?",
+            "What is the expected completion date?",
+            "Are there any units with a corridor-facing layout left?",
+            "Will there be a childcare centre within the estate?" };
+    private static final String[] REPLIES = {
+            "Results will be released within 3 weeks of the closing date.",
+            "Please refer to the project brochure for transport options.",
+            "Flat types cannot be changed once the application is submitted.",
+            "The estimated completion date will be announced at booking." };
+
+    private final long seed;
+    private final int applicantCount;
+    private final int projectCount;
+    private final int threads;
+
+    private int userCount;
+    private int applicationCount;
+    private int bookingCount;
+    private int enquiryCount;
+
+    /**
+     * Constructs a new DatasetGenerator.
+     *
+     * @param seed           The seed that decides all generated data
+     * @param applicantCount The number of applicants
+     * @param projectCount   The number of projects, at least 1
+     * @param threads        The number of threads to generate with
+     * @throws IllegalArgumentException if there are too many users for unique
+     *                                  NRICs
+     */
+    public DatasetGenerator(long seed, int applicantCount, int projectCount, int threads) {
+        if (projectCount < 1 || applicantCount < 0) {
+            throw new IllegalArgumentException("Need at least one project and no negative counts");
+        }
+        long staff = (long) projectCount * (OFFICERS_PER_PROJECT + 1) + 1;
+        if (applicantCount + staff > 2L * NRIC_NUMBERS) {
+            throw new IllegalArgumentException("At most " + (2L * NRIC_NUMBERS - staff) + " applicants are supported");
+        }
+        this.seed = seed;
+        this.applicantCount = applicantCount;
+        this.projectCount = projectCount;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Generates the data set and writes it as the database files of the data
+     * directory, replacing any data there.
+     *
+     * @throws IOException if a file could not be written
+     */
+    public void writeStores() throws IOException {
+        Staff staff = generateStaff();
+        List<User> users = new ArrayList<>(applicantCount + staff.users.size());
+        List<Application> applications = new ArrayList<>();
+        List<FlatBooking> bookings = new ArrayList<>();
+        List<Enquiry> enquiries = new ArrayList<>();
+
+        users.addAll(staff.users);
+        List<Chunk> chunks = generateChunks(staff);
+        reserveUnits(staff.projects, chunks);
+        for (Chunk chunk : chunks) {
+            users.addAll(chunk.applicants);
+            applications.addAll(chunk.applications);
+            bookings.addAll(chunk.bookings);
+            enquiries.addAll(chunk.enquiries);
+        }
+
+        // Encode and write the tables side by side
+        ExecutorService executor = newExecutor();
+        try {
+            List<Future<?>> writes = new ArrayList<>();
+            writes.add(executor.submit(() -> writeStore("users.dat", EntityCodec.encodeUsers(users))));
+            writes.add(executor.submit(() -> writeStore("projects.dat", EntityCodec.encodeProjects(staff.projects))));
+            writes.add(executor.submit(
+                    () -> writeStore("applications.dat", EntityCodec.encodeApplications(applications))));
+            writes.add(executor.submit(() -> writeStore("bookings.dat", EntityCodec.encodeBookings(bookings))));
+            writes.add(executor.submit(() -> writeStore("enquiries.dat", EntityCodec.encodeEnquiries(enquiries))));
+            for (Future<?> write : writes) {
+                await(write);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // A journal or slot file left from earlier data would be replayed over
+        // the new snapshots, and an import manifest would describe rows that
+        // are not in them
+        for (String fileName : STALE_FILES) {
+            Files.deleteIfExists(Paths.get(DataFiles.path(fileName)));
+        }
+
+        userCount = users.size();
+        applicationCount = applications.size();
+        bookingCount = bookings.size();
+        enquiryCount = enquiries.size();
+    }
+
+    /**
+     * Generates the users and projects and writes them as the seed CSV files
+     * of the data directory. The CSV files have no columns for applications,
+     * bookings or enquiries, so those are not generated.
+     *
+     * @throws IOException if a file could not be written
+     */
+    public void writeCsv() throws IOException {
+        Staff staff = generateStaff();
+
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(DataFiles.path("usersInit.csv")), StandardCharsets.UTF_8), 1 << 16)) {
+            out.write("nric,name,age,MaritalStatus,Role\n");
+            for (User user : staff.users) {
+                out.write(toCsv(user));
+            }
+
+            // Render chunks of applicants in parallel and write them in order,
+            // holding a bounded number of chunks in memory
+            ExecutorService executor = newExecutor();
+            Deque<Future<String>> inFlight = new ArrayDeque<>();
+            try {
+                for (int chunk = 0; chunk * (long) CHUNK_SIZE < applicantCount; chunk++) {
+                    int index = chunk;
+                    inFlight.add(executor.submit(() -> toCsv(generateChunk(index, staff, false).applicants)));
+                    if (inFlight.size() > threads * 2) {
+                        out.write(await(inFlight.poll()));
+                    }
+                }
+                while (!inFlight.isEmpty()) {
+                    out.write(await(inFlight.poll()));
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(DataFiles.path("projectsInit.csv")), StandardCharsets.UTF_8), 1 << 16)) {
+            out.write("Name,Neighborhood,OpeningDate,ClosingDate,ManagerNRIC,TwoRoomUnits,ThreeRoomUnits\n");
+            for (Project project : staff.projects) {
+                out.write(project.getProjectName() + "," + project.getNeighborhood() + ","
+                        + project.getApplicationOpeningDate() + "," + project.getApplicationClosingDate() + ","
+                        + project.getManagerInChargeNric() + ","
+                        + project.getFlatTypeUnits().getOrDefault(FlatType.TWO_ROOM, 0) + ","
+                        + project.getFlatTypeUnits().getOrDefault(FlatType.THREE_ROOM, 0) + "\n");
+            }
+        }
+
+        userCount = applicantCount + staff.users.size();
+        applicationCount = 0;
+        bookingCount = 0;
+        enquiryCount = 0;
+    }
+
+    /**
+     * Gets the number of users written by the last run.
+     *
+     * @return The number of users
+     */
+    public int getUserCount() {
+        return userCount;
+    }
+
+    /**
+     * Gets the number of projects written by each run.
+     *
+     * @return The number of projects
+     */
+    public int getProjectCount() {
+        return projectCount;
+    }
+
+    /**
+     * Gets the number of applications written by the last run.
+     *
+     * @return The number of applications
+     */
+    public int getApplicationCount() {
+        return applicationCount;
+    }
+
+    /**
+     * Gets the number of bookings written by the last run.
+     *
+     * @return The number of bookings
+     */
+    public int getBookingCount() {
+        return bookingCount;
+    }
+
+    /**
+     * Gets the number of enquiries written by the last run.
+     *
+     * @return The number of enquiries
+     */
+    public int getEnquiryCount() {
+        return enquiryCount;
+    }
+
+    /**
+     * Builds a valid NRIC for a number, with the check letter of its prefix.
+     *
+     * @param prefix The first letter: S or T for citizens, F or G for
+     *               foreigners
+     * @param number The seven-digit number
+     * @return The NRIC
+     */
+    public static String nric(char prefix, int number) {
+        String digits = String.format("%07d", number);
+        int sum = 0;
+        for (int i = 0; i < NRIC_WEIGHTS.length; i++) {
+            sum += (digits.charAt(i) - '0') * NRIC_WEIGHTS[i];
+        }
+        if (prefix == 'T' || prefix == 'G') {
+            sum += 4;
+        }
+        String letters = prefix == 'S' || prefix == 'T' ? CITIZEN_CHECK_LETTERS : FOREIGNER_CHECK_LETTERS;
+        return prefix + digits + letters.charAt(sum % 11);
+    }
+
+    /**
+     * Generates the projects, their managers and officers, and an admin.
+     *
+     * @return The staff users and the projects
+     */
+    private Staff generateStaff() {
+        SplittableRandom random = new SplittableRandom(seed);
+        Staff staff = new Staff();
+        int userIndex = applicantCount;
+
+        // Each manager runs one project at a time, one after another
+        int managerCount = Math.max(1, projectCount / 4);
+        HDBManager[] managers = new HDBManager[managerCount];
+        for (int i = 0; i < managerCount; i++) {
+            int age = 35 + random.nextInt(25);
+            managers[i] = new HDBManager(nricFor(userIndex++, age), name(random), "password", age,
+                    MaritalStatus.MARRIED);
+            staff.users.add(managers[i]);
+        }
+
+        for (int i = 0; i < projectCount; i++) {
+            String neighborhood = NEIGHBORHOODS[random.nextInt(NEIGHBORHOODS.length)];
+            String projectName = neighborhood + " " + PROJECT_SUFFIXES[random.nextInt(PROJECT_SUFFIXES.length)]
+                    + " " + (i + 1);
+            LocalDate opening = FIRST_OPENING_DATE.plusMonths(4L * (i / managerCount))
+                    .plusDays(random.nextInt(30));
+            LocalDate closing = opening.plusMonths(1 + random.nextInt(3));
+            Map<FlatType, Integer> units = new EnumMap<>(FlatType.class);
+            units.put(FlatType.TWO_ROOM, 50 + random.nextInt(750));
+            units.put(FlatType.THREE_ROOM, random.nextInt(1000));
+
+            HDBManager manager = managers[i % managerCount];
+            Project project = new Project(projectName, neighborhood, units, opening, closing, manager.getNric(),
+                    10 - OFFICERS_PER_PROJECT);
+            project.setVisible(random.nextInt(100) < 85);
+            manager.addCreatedProject(projectName);
+
+            for (int j = 0; j < OFFICERS_PER_PROJECT; j++) {
+                int age = 25 + random.nextInt(35);
+                HDBOfficer officer = new HDBOfficer(nricFor(userIndex++, age), name(random), "password", age,
+                        random.nextBoolean() ? MaritalStatus.MARRIED : MaritalStatus.SINGLE);
+                officer.setHandlingProjectName(projectName);
+                project.addOfficerNric(officer.getNric());
+                staff.users.add(officer);
+            }
+            staff.projects.add(project);
+        }
+
+        staff.users.add(new Admin(nricFor(userIndex, 30), "Admin", "password", 30, MaritalStatus.SINGLE));
+        return staff;
+    }
+
+    /**
+     * Generates every chunk of applicants in parallel.
+     *
+     * @param staff The projects to apply for
+     * @return The chunks, in order
+     * @throws IOException if generation failed
+     */
+    private List<Chunk> generateChunks(Staff staff) throws IOException {
+        ExecutorService executor = newExecutor();
+        List<Future<Chunk>> futures = new ArrayList<>();
+        try {
+            for (int chunk = 0; chunk * (long) CHUNK_SIZE < applicantCount; chunk++) {
+                int index = chunk;
+                futures.add(executor.submit(() -> generateChunk(index, staff, true)));
+            }
+            List<Chunk> chunks = new ArrayList<>(futures.size());
+            for (Future<Chunk> future : futures) {
+                chunks.add(await(future));
+            }
+            return chunks;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Gives successful and booked applications a unit of their flat type, in
+     * chunk order so the outcome does not depend on the number of threads.
+     * Bookings take the unit from the project; successful applications only
+     * hold it back, as they take it when booked. Applications that find their
+     * flat type sold out become unsuccessful.
+     *
+     * @param projects The projects applied for
+     * @param chunks   The chunks, in order
+     */
+    private static void reserveUnits(List<Project> projects, List<Chunk> chunks) {
+        Map<String, Project> projectsByName = new HashMap<>();
+        Map<String, Map<FlatType, Integer>> unitsLeft = new HashMap<>();
+        for (Project project : projects) {
+            projectsByName.put(project.getProjectName(), project);
+            unitsLeft.put(project.getProjectName(), new HashMap<>(project.getFlatTypeUnits()));
+        }
+
+        for (Chunk chunk : chunks) {
+            for (int i = 0; i < chunk.applications.size(); i++) {
+                Application application = chunk.applications.get(i);
+                ApplicationStatus status = application.getStatus();
+                if (status != ApplicationStatus.SUCCESSFUL && status != ApplicationStatus.BOOKED) {
+                    continue;
+                }
+
+                Map<FlatType, Integer> left = unitsLeft.get(application.getProjectName());
+                int units = left.getOrDefault(application.getFlatType(), 0);
+                if (units > 0) {
+                    left.put(application.getFlatType(), units - 1);
+                    if (status == ApplicationStatus.BOOKED) {
+                        projectsByName.get(application.getProjectName())
+                                .decrementFlatTypeUnits(application.getFlatType());
+                    }
+                } else {
+                    chunk.applications.set(i, new Application(application.getApplicationId(),
+                            application.getApplicantNric(), application.getProjectName(), application.getFlatType(),
+                            ApplicationStatus.UNSUCCESSFUL, application.getApplicationDate(), null, false));
+                    chunk.applicantsApplied.get(i).clearApplication();
+                }
+            }
+
+            chunk.bookings.clear();
+            for (Application application : chunk.applications) {
+                if (application.hasBooking()) {
+                    chunk.bookings.add(application.getFlatBooking());
+                }
+            }
+        }
+    }
+
+    /**
+     * Generates one chunk of applicants with their applications, bookings and
+     * enquiries.
+     *
+     * @param index    The number of the chunk
+     * @param staff    The projects to apply for
+     * @param activity true to generate applications and enquiries, false for
+     *                 applicants only
+     * @return The chunk
+     */
+    private Chunk generateChunk(int index, Staff staff, boolean activity) {
+        SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + index + 1);
+        Chunk chunk = new Chunk();
+        int end = (int) Math.min(applicantCount, (long) (index + 1) * CHUNK_SIZE);
+
+        for (int i = index * CHUNK_SIZE; i < end; i++) {
+            int age = age(random);
+            int marriedPercent = age < 30 ? 45 : age < 50 ? 70 : 65;
+            MaritalStatus maritalStatus = random.nextInt(100) < marriedPercent
+                    ? MaritalStatus.MARRIED : MaritalStatus.SINGLE;
+            Applicant applicant = new Applicant(nricFor(i, age), name(random), "password", age, maritalStatus);
+            chunk.applicants.add(applicant);
+            if (!activity) {
+                continue;
+            }
+
+            boolean eligible = maritalStatus == MaritalStatus.MARRIED || age >= 35;
+            if (eligible && random.nextInt(100) < 50) {
+                apply(applicant, staff.projects.get(random.nextInt(staff.projects.size())), random, chunk);
+            }
+
+            if (random.nextInt(100) < 15) {
+                Project project = staff.projects.get(random.nextInt(staff.projects.size()));
+                boolean answered = random.nextInt(100) < 60;
+                chunk.enquiries.add(new Enquiry(uuid(random), applicant.getNric(), project.getProjectName(),
+                        ENQUIRIES[random.nextInt(ENQUIRIES.length)],
+                        answered ? REPLIES[random.nextInt(REPLIES.length)] : null,
+                        timeIn(project, random), answered));
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Generates an application by an applicant, and its booking if it was
+     * booked.
+     *
+     * @param applicant The applicant
+     * @param project   The project applied for
+     * @param random    The random source of the chunk
+     * @param chunk     The chunk to add to
+     */
+    private void apply(Applicant applicant, Project project, SplittableRandom random, Chunk chunk) {
+        FlatType flatType = applicant.getMaritalStatus() == MaritalStatus.SINGLE || random.nextBoolean()
+                ? FlatType.TWO_ROOM : FlatType.THREE_ROOM;
+        int roll = random.nextInt(100);
+        ApplicationStatus status = roll < 35 ? ApplicationStatus.PENDING
+                : roll < 50 ? ApplicationStatus.SUCCESSFUL
+                : roll < 75 ? ApplicationStatus.UNSUCCESSFUL
+                : ApplicationStatus.BOOKED;
+        LocalDateTime applicationDate = timeIn(project, random);
+
+        Application application = new Application(uuid(random), applicant.getNric(), project.getProjectName(),
+                flatType, status, applicationDate, null, false);
+        if (status == ApplicationStatus.BOOKED) {
+            List<String> officers = project.getOfficerNrics();
+            FlatBooking booking = new FlatBooking(uuid(random), application.getApplicationId(),
+                    applicant.getNric(), project.getProjectName(), flatType,
+                    applicationDate.plusDays(1 + random.nextInt(30)), officers.get(random.nextInt(officers.size())));
+            application.setFlatBooking(booking);
+            chunk.bookings.add(booking);
+        }
+        if (status != ApplicationStatus.UNSUCCESSFUL) {
+            applicant.setCurrentApplicationId(application.getApplicationId());
+            if (random.nextInt(100) < 3) {
+                application.setWithdrawn();
+            }
+        }
+        chunk.applications.add(application);
+        chunk.applicantsApplied.add(applicant);
+    }
+
+    /**
+     * Picks an applicant age, weighted towards working ages.
+     *
+     * @param random The random source
+     * @return The age
+     */
+    private static int age(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        if (roll < 40) {
+            return 21 + random.nextInt(14);
+        } else if (roll < 80) {
+            return 35 + random.nextInt(20);
+        }
+        return 55 + random.nextInt(26);
+    }
+
+    /**
+     * Gives the user at an index a unique NRIC. Numbers are spread over the
+     * whole range by a fixed permutation, and the prefix follows the age as it
+     * would for a citizen born before or after 2000.
+     *
+     * @param index The index of the user
+     * @param age   The age of the user
+     * @return The NRIC
+     */
+    private static String nricFor(int index, int age) {
+        int number = (int) ((index % NRIC_NUMBERS * 7_654_321L + 1_234_567L) % NRIC_NUMBERS);
+        boolean young = age <= 25;
+        if (index < NRIC_NUMBERS) {
+            return nric(young ? 'T' : 'S', number);
+        }
+        return nric(young ? 'G' : 'F', number);
+    }
+
+    /**
+     * Picks a full name.
+     *
+     * @param random The random source
+     * @return The name
+     */
+    private static String name(SplittableRandom random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    /**
+     * Picks a time within the application period of a project.
+     *
+     * @param project The project
+     * @param random  The random source
+     * @return The time
+     */
+    private static LocalDateTime timeIn(Project project, SplittableRandom random) {
+        long days = project.getApplicationClosingDate().toEpochDay() - project.getApplicationOpeningDate().toEpochDay();
+        return project.getApplicationOpeningDate().atStartOfDay()
+                .plusSeconds(random.nextLong(Math.max(1, days) * 86_400L));
+    }
+
+    /**
+     * Generates a random UUID string from the random source.
+     *
+     * @param random The random source
+     * @return The UUID string
+     */
+    private static String uuid(SplittableRandom random) {
+        return new UUID(random.nextLong(), random.nextLong()).toString();
+    }
+
+    /**
+     * Renders users as rows of the users CSV file.
+     *
+     * @param users The users
+     * @return The rows
+     */
+    private static String toCsv(List<? extends User> users) {
+        StringBuilder rows = new StringBuilder(users.size() * 48);
+        for (User user : users) {
+            rows.append(toCsv(user));
+        }
+        return rows.toString();
+    }
+
+    /**
+     * Renders a user as a row of the users CSV file.
+     *
+     * @param user The user
+     * @return The row
+     */
+    private static String toCsv(User user) {
+        String role;
+        if (user instanceof HDBOfficer) {
+            role = "hdbofficer";
+        } else if (user instanceof HDBManager) {
+            role = "hdbmanager";
+        } else if (user instanceof Admin) {
+            role = "admin";
+        } else {
+            role = "applicant";
+        }
+        return user.getNric() + "," + user.getName() + "," + user.getAge() + ","
+                + user.getMaritalStatus().getStatus() + "," + role + "\n";
+    }
+
+    /**
+     * Writes a database file in the data directory.
+     *
+     * @param fileName The name of the file
+     * @param data     The encoded table
+     * @return null
+     * @throws IOException if the file could not be written
+     */
+    private static Void writeStore(String fileName, byte[] data) throws IOException {
+        SnapshotFile.write(DataFiles.path(fileName), data);
+        return null;
+    }
+
+    /**
+     * Creates the thread pool to generate with.
+     *
+     * @return The thread pool
+     */
+    private ExecutorService newExecutor() {
+        return Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "dataset-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Waits for a task to finish.
+     *
+     * @param task The task
+     * @return The result of the task
+     * @throws IOException if the task failed or was interrupted
+     */
+    private static <T> T await(Future<T> task) throws IOException {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("generation interrupted");
+        }
+    }
+
+    /**
+     * The staff users and projects of a data set.
+     */
+    private static class Staff {
+        private final List<User> users = new ArrayList<>();
+        private final List<Project> projects = new ArrayList<>();
+    }
+
+    /**
+     * A chunk of applicants and what they did.
+     */
+    private static class Chunk {
+        private final List<Applicant> applicants = new ArrayList<>(CHUNK_SIZE);
+        private final List<Application> applications = new ArrayList<>();
+        private final List<Applicant> applicantsApplied = new ArrayList<>();
+        private final List<FlatBooking> bookings = new ArrayList<>();
+        private final List<Enquiry> enquiries = new ArrayList<>();
+    }
+}
@@ -1,49 +1,139 @@
 package data;
 
 import entity.Enquiry;
+import metrics.DatabaseLoadEvent;
+import metrics.DatabaseSaveEvent;
 
 import java.io.*;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Data access class for Enquiry objects.
  * Handles storage and retrieval of enquiries.
+ * Safe for concurrent use: reads are lock-free and writes are serialized.
  */
-public class EnquiryDB {
+public class EnquiryDB implements Persistable {
     private static final String ENQUIRY_DATA_FILE = "enquiries.dat";
     private Map<String, Enquiry> enquiries;
+    private GroupCommit groupCommit;
+    private TableLoader loader;
+
+    // Enquiry IDs per project in submission order
+    private TimeIndex enquiryIdsByProject;
 
     /**
-     * Constructs a new EnquiryDB and loads existing data if available.
+     * Constructs a new EnquiryDB. Existing data is loaded on first access.
      */
     public EnquiryDB() {
-        enquiries = new HashMap<>();
-        loadData();
+        enquiries = new ConcurrentHashMap<>();
+        enquiryIdsByProject = new TimeIndex();
+        loader = new TableLoader("enquiries", this, this::loadData);
+        loader.getMetrics().recordCount("enquiries", enquiries::size);
     }
 
     /**
      * Loads enquiry data from file.
      */
-    @SuppressWarnings("unchecked")
     private void loadData() {
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(ENQUIRY_DATA_FILE))) {
-            enquiries = (Map<String, Enquiry>) ois.readObject();
+        try (DatabaseLoadEvent event = DatabaseLoadEvent.start("enquiries", ENQUIRY_DATA_FILE)) {
+            byte[] data = SnapshotFile.read(DataFiles.path(ENQUIRY_DATA_FILE));
+            List<Enquiry> loaded = EntityCodec.decodeEnquiries(data);
+            for (Enquiry enquiry : loaded) {
+                enquiries.put(enquiry.getEnquiryId(), enquiry);
+                indexEnquiry(enquiry);
+            }
+            if (event != null) {
+                event.completed(loaded.size(), data.length);
+            }
+            if (EntityCodec.isLegacy(data)) {
+                // Rewrite data saved before the binary format in the new format
+                saveData();
+            }
         } catch (FileNotFoundException e) {
             // System.out.println("Enquiry data file not found. Starting with empty enquiry
             // database.");
-        } catch (IOException | ClassNotFoundException e) {
+        } catch (IOException e) {
+            loader.getMetrics().loadFailed();
             System.out.println("Error loading enquiry data: " + e.getMessage());
         }
     }
 
     /**
      * Saves enquiry data to file.
+     * The file is replaced atomically, so a crash never leaves it truncated.
+     * 
+     * @return true if the data was saved, false otherwise
      */
-    public void saveData() {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(ENQUIRY_DATA_FILE))) {
-            oos.writeObject(enquiries);
+    public synchronized boolean saveData() {
+        loader.ensureLoaded();
+        long start = System.nanoTime();
+        try (DatabaseSaveEvent event = DatabaseSaveEvent.start("enquiries", ENQUIRY_DATA_FILE)) {
+            byte[] data = EntityCodec.encodeEnquiries(enquiries.values());
+            SnapshotFile.write(DataFiles.path(ENQUIRY_DATA_FILE), data);
+            if (event != null) {
+                event.completed(enquiries.size(), data.length);
+            }
+            return true;
         } catch (IOException e) {
+            loader.getMetrics().saveFailed();
             System.out.println("Error saving enquiry data: " + e.getMessage());
+            return false;
+        } finally {
+            loader.getMetrics().saved(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Sets the group commit that batches writes of this database.
+     * 
+     * @param groupCommit The group commit to use, or null to write every change
+     *                    immediately
+     */
+    public void setGroupCommit(GroupCommit groupCommit) {
+        this.groupCommit = groupCommit;
+    }
+
+    /**
+     * Writes all pending changes to disk.
+     * 
+     * @return true if the changes were written, false otherwise
+     */
+    @Override
+    public boolean flush() {
+        return saveData();
+    }
+
+    /**
+     * Persists a change, either immediately or through the group commit.
+     */
+    private void persist() {
+        if (groupCommit != null) {
+            groupCommit.markDirty(this);
+        } else {
+            saveData();
+        }
+    }
+
+    /**
+     * Adds an enquiry to the time index.
+     * 
+     * @param enquiry The enquiry to index
+     */
+    private void indexEnquiry(Enquiry enquiry) {
+        enquiryIdsByProject.add(enquiry.getProjectName(), enquiry.getSubmissionTime(), enquiry.getEnquiryId());
+    }
+
+    /**
+     * Removes an enquiry from the time index.
+     * 
+     * @param enquiry The enquiry to remove, or null
+     */
+    private void unindexEnquiry(Enquiry enquiry) {
+        if (enquiry != null) {
+            enquiryIdsByProject.remove(enquiry.getProjectName(), enquiry.getSubmissionTime(),
+                    enquiry.getEnquiryId());
         }
     }
 
@@ -53,12 +143,14 @@ public class EnquiryDB {
      * @param enquiry The enquiry to add
      * @return true if the enquiry was added, false if enquiry ID already exists
      */
-    public boolean addEnquiry(Enquiry enquiry) {
+    public synchronized boolean addEnquiry(Enquiry enquiry) {
+        loader.ensureLoaded();
         if (enquiries.containsKey(enquiry.getEnquiryId())) {
             return false;
         }
         enquiries.put(enquiry.getEnquiryId(), enquiry);
-        saveData();
+        indexEnquiry(enquiry);
+        persist();
         return true;
     }
 
@@ -68,12 +160,14 @@ public class EnquiryDB {
      * @param enquiry The enquiry to update
      * @return true if the enquiry was updated, false if enquiry ID not found
      */
-    public boolean updateEnquiry(Enquiry enquiry) {
+    public synchronized boolean updateEnquiry(Enquiry enquiry) {
+        loader.ensureLoaded();
         if (!enquiries.containsKey(enquiry.getEnquiryId())) {
             return false;
         }
-        enquiries.put(enquiry.getEnquiryId(), enquiry);
-        saveData();
+        unindexEnquiry(enquiries.put(enquiry.getEnquiryId(), enquiry));
+        indexEnquiry(enquiry);
+        persist();
         return true;
     }
 
@@ -83,12 +177,13 @@ public class EnquiryDB {
      * @param enquiryId The ID of the enquiry to delete
      * @return true if the enquiry was deleted, false if enquiry ID not found
      */
-    public boolean deleteEnquiry(String enquiryId) {
+    public synchronized boolean deleteEnquiry(String enquiryId) {
+        loader.ensureLoaded();
         if (!enquiries.containsKey(enquiryId)) {
             return false;
         }
-        enquiries.remove(enquiryId);
-        saveData();
+        unindexEnquiry(enquiries.remove(enquiryId));
+        persist();
         return true;
     }
 
@@ -99,6 +194,7 @@ public class EnquiryDB {
      * @return The enquiry, or null if not found
      */
     public Enquiry getEnquiry(String enquiryId) {
+        loader.ensureLoaded();
         return enquiries.get(enquiryId);
     }
 
@@ -109,6 +205,7 @@ public class EnquiryDB {
      * @return A list of enquiries from the applicant
      */
     public List<Enquiry> getEnquiriesByApplicant(String applicantNric) {
+        loader.ensureLoaded();
         List<Enquiry> applicantEnquiries = new ArrayList<>();
         for (Enquiry enquiry : enquiries.values()) {
             if (enquiry.getApplicantNric().equals(applicantNric)) {
@@ -119,21 +216,66 @@ public class EnquiryDB {
     }
 
     /**
-     * Gets all enquiries for a specific project.
+     * Gets all enquiries for a specific project, oldest first.
      * 
      * @param projectName The name of the project
      * @return A list of enquiries about the project
      */
     public List<Enquiry> getEnquiriesByProject(String projectName) {
+        loader.ensureLoaded();
         List<Enquiry> projectEnquiries = new ArrayList<>();
-        for (Enquiry enquiry : enquiries.values()) {
-            if (enquiry.getProjectName().equals(projectName)) {
+        for (String enquiryId : enquiryIdsByProject.inOrder(projectName)) {
+            Enquiry enquiry = enquiries.get(enquiryId);
+            if (enquiry != null) {
                 projectEnquiries.add(enquiry);
             }
         }
         return projectEnquiries;
     }
 
+    /**
+     * Gets the enquiries submitted in a time range, oldest first.
+     * 
+     * @param projectName The name of the project, or null for all projects
+     * @param from        The start of the range, inclusive
+     * @param to          The end of the range, exclusive
+     * @return A list of enquiries submitted in the range
+     */
+    public List<Enquiry> getEnquiriesBetween(String projectName, LocalDateTime from, LocalDateTime to) {
+        loader.ensureLoaded();
+        List<Enquiry> rangeEnquiries = new ArrayList<>();
+        for (String enquiryId : enquiryIdsByProject.range(projectName, from, to)) {
+            Enquiry enquiry = enquiries.get(enquiryId);
+            if (enquiry != null) {
+                rangeEnquiries.add(enquiry);
+            }
+        }
+        return rangeEnquiries;
+    }
+
+    /**
+     * Gets the oldest unanswered enquiries, in the order they should be
+     * answered.
+     * 
+     * @param projectName The name of the project, or null for all projects
+     * @param limit       The maximum number of enquiries to return
+     * @return A list of unanswered enquiries, oldest first
+     */
+    public List<Enquiry> getUnansweredEnquiriesInOrder(String projectName, int limit) {
+        loader.ensureLoaded();
+        List<Enquiry> unansweredEnquiries = new ArrayList<>();
+        for (String enquiryId : enquiryIdsByProject.inOrder(projectName)) {
+            if (unansweredEnquiries.size() >= limit) {
+                break;
+            }
+            Enquiry enquiry = enquiries.get(enquiryId);
+            if (enquiry != null && !enquiry.isAnswered()) {
+                unansweredEnquiries.add(enquiry);
+            }
+        }
+        return unansweredEnquiries;
+    }
+
     /**
      * Gets all answered or unanswered enquiries.
      * 
@@ -141,6 +283,7 @@ public class EnquiryDB {
      * @return A list of answered or unanswered enquiries
      */
     public List<Enquiry> getEnquiriesByAnswered(boolean answered) {
+        loader.ensureLoaded();
         List<Enquiry> filteredEnquiries = new ArrayList<>();
         for (Enquiry enquiry : enquiries.values()) {
             if (enquiry.isAnswered() == answered) {
@@ -156,6 +299,31 @@ public class EnquiryDB {
      * @return A list of all enquiries
      */
     public List<Enquiry> getAllEnquiries() {
+        loader.ensureLoaded();
         return new ArrayList<>(enquiries.values());
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets one page of enquiries, oldest first.
+     * 
+     * @param projectName The project to filter by, or null for all enquiries
+     * @param cursor      The cursor of the previous page, or null for the first
+     *                    page
+     * @param limit       The maximum number of enquiries on the page
+     * @return The page of enquiries
+     */
+    public Page<Enquiry> getEnquiriesPage(String projectName, String cursor, int limit) {
+        loader.ensureLoaded();
+        return Page.seek(after -> enquiryIdsByProject.keysAfter(projectName, after), enquiries::get, enquiry -> true,
+                cursor, limit, enquiryIdsByProject.size(projectName));
+    }
+
+    /**
+     * Gets the loader that reads this table from disk.
+     * 
+     * @return The table loader
+     */
+    public TableLoader getLoader() {
+        return loader;
+    }
+}
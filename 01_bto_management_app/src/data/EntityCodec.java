@@ -0,0 +1,836 @@
+package data;
+
+import entity.*;
+import entity.enums.ApplicationStatus;
+import entity.enums.FlatType;
+import entity.enums.MaritalStatus;
+import entity.enums.UserRole;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary format for stored entities.
+ * A table starts with a header holding a magic number, the schema version,
+ * the record type and the record count, followed by the records. Inside a
+ * record NRICs take a fixed 9 bytes, enums are stored by ordinal, dates and
+ * timestamps as epoch days and epoch milliseconds, and strings as UTF-8 with
+ * a variable-length prefix.
+ * Tables written with Java serialization before this format existed are
+ * still read, so existing .dat files migrate on their next save.
+ */
+public class EntityCodec {
+    private static final int MAGIC = 0x42544F43; // "BTOC"
+    private static final int SCHEMA_VERSION = 1;
+    private static final int NRIC_LENGTH = 9;
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private static final byte USER_RECORD = 1;
+    private static final byte PROJECT_RECORD = 2;
+    private static final byte APPLICATION_RECORD = 3;
+    private static final byte BOOKING_RECORD = 4;
+    private static final byte ENQUIRY_RECORD = 5;
+
+    private static final UserRole[] ROLES = UserRole.values();
+    private static final MaritalStatus[] MARITAL_STATUSES = MaritalStatus.values();
+    private static final FlatType[] FLAT_TYPES = FlatType.values();
+    private static final ApplicationStatus[] STATUSES = ApplicationStatus.values();
+    private static final JournalEntry.Operation[] OPERATIONS = JournalEntry.Operation.values();
+
+    /**
+     * Writes a single record.
+     *
+     * @param <T> The type of record
+     */
+    private interface RecordWriter<T> {
+        /**
+         * Writes a record.
+         *
+         * @param out    The output to write to
+         * @param record The record to write
+         * @throws IOException if writing fails
+         */
+        void write(DataOutputStream out, T record) throws IOException;
+    }
+
+    /**
+     * Reads a single record.
+     *
+     * @param <T> The type of record
+     */
+    private interface RecordReader<T> {
+        /**
+         * Reads a record.
+         *
+         * @param in The input to read from
+         * @return The record
+         * @throws IOException if the record is malformed
+         */
+        T read(DataInputStream in) throws IOException;
+    }
+
+    private EntityCodec() {
+    }
+
+    /**
+     * Checks if stored data was written with Java serialization rather than
+     * this format.
+     *
+     * @param data The stored data
+     * @return true if the data needs migrating, false otherwise
+     */
+    public static boolean isLegacy(byte[] data) {
+        return data.length >= 2 && (data[0] & 0xff) == 0xac && (data[1] & 0xff) == 0xed;
+    }
+
+    /**
+     * Encodes a table of users.
+     *
+     * @param users The users to encode
+     * @return The encoded table
+     * @throws IOException if a user cannot be encoded
+     */
+    public static byte[] encodeUsers(Collection<User> users) throws IOException {
+        return encode(USER_RECORD, users, EntityCodec::writeUser);
+    }
+
+    /**
+     * Decodes a table of users.
+     *
+     * @param data The encoded table, or a legacy serialized map
+     * @return The users
+     * @throws IOException if the data is malformed
+     */
+    public static List<User> decodeUsers(byte[] data) throws IOException {
+        return decode(USER_RECORD, data, EntityCodec::readUser);
+    }
+
+    /**
+     * Encodes a single user record without a table header.
+     *
+     * @param user The user to encode
+     * @return The encoded record
+     * @throws IOException if the user cannot be encoded
+     */
+    public static byte[] encodeUser(User user) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        writeUser(out, user);
+        out.flush();
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Decodes a single user record written by {@link #encodeUser(User)}.
+     *
+     * @param data   The buffer holding the record
+     * @param offset The offset of the record in the buffer
+     * @param length The length of the record
+     * @return The user
+     * @throws IOException if the record is malformed
+     */
+    public static User decodeUser(byte[] data, int offset, int length) throws IOException {
+        return readUser(new DataInputStream(new ByteArrayInputStream(data, offset, length)));
+    }
+
+    /**
+     * Encodes a table of projects.
+     *
+     * @param projects The projects to encode
+     * @return The encoded table
+     * @throws IOException if a project cannot be encoded
+     */
+    public static byte[] encodeProjects(Collection<Project> projects) throws IOException {
+        return encode(PROJECT_RECORD, projects, EntityCodec::writeProject);
+    }
+
+    /**
+     * Decodes a table of projects.
+     *
+     * @param data The encoded table, or a legacy serialized map
+     * @return The projects
+     * @throws IOException if the data is malformed
+     */
+    public static List<Project> decodeProjects(byte[] data) throws IOException {
+        return decode(PROJECT_RECORD, data, EntityCodec::readProject);
+    }
+
+    /**
+     * Encodes a table of applications.
+     *
+     * @param applications The applications to encode
+     * @return The encoded table
+     * @throws IOException if an application cannot be encoded
+     */
+    public static byte[] encodeApplications(Collection<Application> applications) throws IOException {
+        return encode(APPLICATION_RECORD, applications, EntityCodec::writeApplication);
+    }
+
+    /**
+     * Decodes a table of applications.
+     *
+     * @param data The encoded table, or a legacy serialized map
+     * @return The applications
+     * @throws IOException if the data is malformed
+     */
+    public static List<Application> decodeApplications(byte[] data) throws IOException {
+        return decode(APPLICATION_RECORD, data, EntityCodec::readApplication);
+    }
+
+    /**
+     * Encodes a table of flat bookings.
+     *
+     * @param bookings The bookings to encode
+     * @return The encoded table
+     * @throws IOException if a booking cannot be encoded
+     */
+    public static byte[] encodeBookings(Collection<FlatBooking> bookings) throws IOException {
+        return encode(BOOKING_RECORD, bookings, EntityCodec::writeBooking);
+    }
+
+    /**
+     * Decodes a table of flat bookings.
+     *
+     * @param data The encoded table, or a legacy serialized map
+     * @return The bookings
+     * @throws IOException if the data is malformed
+     */
+    public static List<FlatBooking> decodeBookings(byte[] data) throws IOException {
+        return decode(BOOKING_RECORD, data, EntityCodec::readBooking);
+    }
+
+    /**
+     * Encodes a table of enquiries.
+     *
+     * @param enquiries The enquiries to encode
+     * @return The encoded table
+     * @throws IOException if an enquiry cannot be encoded
+     */
+    public static byte[] encodeEnquiries(Collection<Enquiry> enquiries) throws IOException {
+        return encode(ENQUIRY_RECORD, enquiries, EntityCodec::writeEnquiry);
+    }
+
+    /**
+     * Decodes a table of enquiries.
+     *
+     * @param data The encoded table, or a legacy serialized map
+     * @return The enquiries
+     * @throws IOException if the data is malformed
+     */
+    public static List<Enquiry> decodeEnquiries(byte[] data) throws IOException {
+        return decode(ENQUIRY_RECORD, data, EntityCodec::readEnquiry);
+    }
+
+    /**
+     * Encodes a journal entry as a single record prefixed with the schema
+     * version.
+     *
+     * @param entry The entry to encode
+     * @return The encoded entry
+     * @throws IOException if the entry cannot be encoded
+     */
+    public static byte[] encodeJournalEntry(JournalEntry entry) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeByte(SCHEMA_VERSION);
+        out.writeByte(entry.getOperation().ordinal());
+        switch (entry.getOperation()) {
+            case ADD_APPLICATION:
+            case UPDATE_APPLICATION:
+                writeApplication(out, (Application) entry.getPayload());
+                break;
+            case ADD_BOOKING:
+                writeBooking(out, (FlatBooking) entry.getPayload());
+                break;
+            case REMOVE_APPLICATION:
+                writeString(out, (String) entry.getPayload());
+                break;
+            default:
+                throw new IOException("Unknown journal operation " + entry.getOperation());
+        }
+        out.flush();
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Decodes a journal entry.
+     *
+     * @param data The encoded entry, or a legacy serialized entry
+     * @return The journal entry
+     * @throws IOException if the data is malformed
+     */
+    public static JournalEntry decodeJournalEntry(byte[] data) throws IOException {
+        if (isLegacy(data)) {
+            return (JournalEntry) readLegacy(data);
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        int version = in.readUnsignedByte();
+        if (version != SCHEMA_VERSION) {
+            throw new IOException("Unsupported journal schema version " + version);
+        }
+
+        JournalEntry.Operation operation = readEnum(in, OPERATIONS);
+        switch (operation) {
+            case ADD_APPLICATION:
+            case UPDATE_APPLICATION:
+                return new JournalEntry(operation, readApplication(in));
+            case ADD_BOOKING:
+                return new JournalEntry(operation, readBooking(in));
+            case REMOVE_APPLICATION:
+                return new JournalEntry(operation, readString(in));
+            default:
+                throw new IOException("Unknown journal operation " + operation);
+        }
+    }
+
+    /**
+     * Encodes a table of records behind the table header.
+     *
+     * @param recordType The type of record in the table
+     * @param records    The records to encode
+     * @param writer     The writer for a single record
+     * @return The encoded table
+     * @throws IOException if a record cannot be encoded
+     */
+    private static <T> byte[] encode(byte recordType, Collection<T> records, RecordWriter<T> writer)
+            throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(buffer));
+        out.writeInt(MAGIC);
+        out.writeShort(SCHEMA_VERSION);
+        out.writeByte(recordType);
+
+        // Count and write from one copy so concurrent changes cannot make the
+        // count disagree with the records
+        List<T> snapshot = new ArrayList<>(records);
+        out.writeInt(snapshot.size());
+        for (T record : snapshot) {
+            writer.write(out, record);
+        }
+        out.flush();
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Decodes a table of records, checking its header.
+     * Legacy tables are deserialized as a map and its values returned.
+     *
+     * @param recordType The expected type of record
+     * @param data       The encoded table
+     * @param reader     The reader for a single record
+     * @return The records in the table
+     * @throws IOException if the data is malformed
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> decode(byte recordType, byte[] data, RecordReader<T> reader) throws IOException {
+        if (isLegacy(data)) {
+            return new ArrayList<>(((Map<String, T>) readLegacy(data)).values());
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an entity table");
+        }
+        int version = in.readUnsignedShort();
+        if (version != SCHEMA_VERSION) {
+            throw new IOException("Unsupported schema version " + version);
+        }
+        if (in.readByte() != recordType) {
+            throw new IOException("Unexpected record type");
+        }
+
+        int count = in.readInt();
+        List<T> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            records.add(reader.read(in));
+        }
+        return records;
+    }
+
+    /**
+     * Reads data written with Java serialization.
+     *
+     * @param data The serialized data
+     * @return The deserialized object
+     * @throws IOException if the data cannot be deserialized
+     */
+    private static Object readLegacy(byte[] data) throws IOException {
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            return ois.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Unknown class in legacy data: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes a user, followed by the fields of its subclass.
+     *
+     * @param out   The output to write to
+     * @param user  The user to write
+     * @throws IOException if writing fails
+     */
+    private static void writeUser(DataOutputStream out, User user) throws IOException {
+        out.writeByte(user.getRole().ordinal());
+        writeNric(out, user.getNric());
+        writeString(out, user.getName());
+        writeString(out, user.getPassword());
+        writeVarInt(out, user.getAge());
+        out.writeByte(user.getMaritalStatus().ordinal());
+
+        if (user instanceof Applicant) {
+            writeString(out, ((Applicant) user).getCurrentApplicationId());
+        }
+        if (user instanceof HDBOfficer) {
+            writeString(out, ((HDBOfficer) user).getHandlingProjectName());
+        }
+        if (user instanceof HDBManager) {
+            writeStrings(out, ((HDBManager) user).getCreatedProjectNames());
+        }
+    }
+
+    /**
+     * Reads a user, creating the subclass that matches its role.
+     *
+     * @param in The input to read from
+     * @return The user
+     * @throws IOException if the data is malformed
+     */
+    private static User readUser(DataInputStream in) throws IOException {
+        UserRole role = readEnum(in, ROLES);
+        String nric = readNric(in);
+        String name = readString(in);
+        String password = readString(in);
+        int age = readVarInt(in);
+        MaritalStatus maritalStatus = readEnum(in, MARITAL_STATUSES);
+
+        switch (role) {
+            case APPLICANT: {
+                Applicant applicant = new Applicant(nric, name, password, age, maritalStatus);
+                applicant.setCurrentApplicationId(readString(in));
+                return applicant;
+            }
+            case HDB_OFFICER: {
+                HDBOfficer officer = new HDBOfficer(nric, name, password, age, maritalStatus);
+                officer.setCurrentApplicationId(readString(in));
+                officer.setHandlingProjectName(readString(in));
+                return officer;
+            }
+            case HDB_MANAGER: {
+                HDBManager manager = new HDBManager(nric, name, password, age, maritalStatus);
+                for (String projectName : readStrings(in)) {
+                    manager.addCreatedProject(projectName);
+                }
+                return manager;
+            }
+            case ADMIN:
+                return new Admin(nric, name, password, age, maritalStatus);
+            default:
+                throw new IOException("Unknown user role " + role);
+        }
+    }
+
+    /**
+     * Writes a project.
+     *
+     * @param out   The output to write to
+     * @param project The project to write
+     * @throws IOException if writing fails
+     */
+    private static void writeProject(DataOutputStream out, Project project) throws IOException {
+        writeString(out, project.getProjectName());
+        writeString(out, project.getNeighborhood());
+
+        Map<FlatType, Integer> flatTypeUnits = project.getFlatTypeUnits();
+        out.writeByte(flatTypeUnits.size());
+        for (Map.Entry<FlatType, Integer> entry : flatTypeUnits.entrySet()) {
+            out.writeByte(entry.getKey().ordinal());
+            out.writeInt(entry.getValue());
+        }
+
+        writeDate(out, project.getApplicationOpeningDate());
+        writeDate(out, project.getApplicationClosingDate());
+        writeNric(out, project.getManagerInChargeNric());
+        out.writeInt(project.getAvailableOfficerSlots());
+        out.writeBoolean(project.isVisible());
+
+        List<String> officerNrics = project.getOfficerNrics();
+        writeVarInt(out, officerNrics.size());
+        for (String officerNric : officerNrics) {
+            writeNric(out, officerNric);
+        }
+    }
+
+    /**
+     * Reads a project.
+     *
+     * @param in The input to read from
+     * @return The project
+     * @throws IOException if the data is malformed
+     */
+    private static Project readProject(DataInputStream in) throws IOException {
+        String projectName = readString(in);
+        String neighborhood = readString(in);
+
+        int flatTypeCount = in.readUnsignedByte();
+        FlatType[] flatTypes = new FlatType[flatTypeCount];
+        int[] units = new int[flatTypeCount];
+        for (int i = 0; i < flatTypeCount; i++) {
+            flatTypes[i] = readEnum(in, FLAT_TYPES);
+            units[i] = in.readInt();
+        }
+
+        LocalDate openingDate = readDate(in);
+        LocalDate closingDate = readDate(in);
+        String managerNric = readNric(in);
+        int availableOfficerSlots = in.readInt();
+
+        Project project = new Project(projectName, neighborhood, openingDate, closingDate, managerNric,
+                availableOfficerSlots);
+        for (int i = 0; i < flatTypeCount; i++) {
+            project.setFlatTypeUnits(flatTypes[i], units[i]);
+        }
+        project.setVisible(in.readBoolean());
+
+        int officerCount = readVarInt(in);
+        for (int i = 0; i < officerCount; i++) {
+            project.addOfficerNric(readNric(in));
+        }
+        return project;
+    }
+
+    /**
+     * Writes an application together with its booking, if any.
+     *
+     * @param out   The output to write to
+     * @param application The application to write
+     * @throws IOException if writing fails
+     */
+    private static void writeApplication(DataOutputStream out, Application application) throws IOException {
+        writeString(out, application.getApplicationId());
+        writeNric(out, application.getApplicantNric());
+        writeString(out, application.getProjectName());
+        out.writeByte(application.getFlatType().ordinal());
+        out.writeByte(application.getStatus().ordinal());
+        writeTimestamp(out, application.getApplicationDate());
+        out.writeBoolean(Boolean.TRUE.equals(application.getWithdrawn()));
+
+        out.writeBoolean(application.hasBooking());
+        if (application.hasBooking()) {
+            writeBooking(out, application.getFlatBooking());
+        }
+    }
+
+    /**
+     * Reads an application together with its booking, if any.
+     *
+     * @param in The input to read from
+     * @return The application
+     * @throws IOException if the data is malformed
+     */
+    private static Application readApplication(DataInputStream in) throws IOException {
+        String applicationId = readString(in);
+        String applicantNric = readNric(in);
+        String projectName = readString(in);
+        FlatType flatType = readEnum(in, FLAT_TYPES);
+        ApplicationStatus status = readEnum(in, STATUSES);
+        LocalDateTime applicationDate = readTimestamp(in);
+        boolean withdrawn = in.readBoolean();
+        FlatBooking flatBooking = in.readBoolean() ? readBooking(in) : null;
+
+        return new Application(applicationId, applicantNric, projectName, flatType, status, applicationDate,
+                flatBooking, withdrawn);
+    }
+
+    /**
+     * Writes a flat booking.
+     *
+     * @param out   The output to write to
+     * @param booking The booking to write
+     * @throws IOException if writing fails
+     */
+    private static void writeBooking(DataOutputStream out, FlatBooking booking) throws IOException {
+        writeString(out, booking.getBookingId());
+        writeString(out, booking.getApplicationId());
+        writeNric(out, booking.getApplicantNric());
+        writeString(out, booking.getProjectName());
+        out.writeByte(booking.getFlatType().ordinal());
+        writeTimestamp(out, booking.getBookingDate());
+        writeNric(out, booking.getOfficerNric());
+    }
+
+    /**
+     * Reads a flat booking.
+     *
+     * @param in The input to read from
+     * @return The booking
+     * @throws IOException if the data is malformed
+     */
+    private static FlatBooking readBooking(DataInputStream in) throws IOException {
+        String bookingId = readString(in);
+        String applicationId = readString(in);
+        String applicantNric = readNric(in);
+        String projectName = readString(in);
+        FlatType flatType = readEnum(in, FLAT_TYPES);
+        LocalDateTime bookingDate = readTimestamp(in);
+        String officerNric = readNric(in);
+
+        return new FlatBooking(bookingId, applicationId, applicantNric, projectName, flatType, bookingDate,
+                officerNric);
+    }
+
+    /**
+     * Writes an enquiry.
+     *
+     * @param out   The output to write to
+     * @param enquiry The enquiry to write
+     * @throws IOException if writing fails
+     */
+    private static void writeEnquiry(DataOutputStream out, Enquiry enquiry) throws IOException {
+        writeString(out, enquiry.getEnquiryId());
+        writeNric(out, enquiry.getApplicantNric());
+        writeString(out, enquiry.getProjectName());
+        writeString(out, enquiry.getEnquiryText());
+        writeString(out, enquiry.getResponse());
+        writeTimestamp(out, enquiry.getSubmissionTime());
+        out.writeBoolean(enquiry.isAnswered());
+    }
+
+    /**
+     * Reads an enquiry.
+     *
+     * @param in The input to read from
+     * @return The enquiry
+     * @throws IOException if the data is malformed
+     */
+    private static Enquiry readEnquiry(DataInputStream in) throws IOException {
+        String enquiryId = readString(in);
+        String applicantNric = readNric(in);
+        String projectName = readString(in);
+        String enquiryText = readString(in);
+        String response = readString(in);
+        LocalDateTime submissionTime = readTimestamp(in);
+        boolean isAnswered = in.readBoolean();
+
+        return new Enquiry(enquiryId, applicantNric, projectName, enquiryText, response, submissionTime,
+                isAnswered);
+    }
+
+    /**
+     * Writes an NRIC in a fixed 9 bytes, padding shorter values with zeros.
+     * A null NRIC is written as all zeros.
+     *
+     * @param out  The output to write to
+     * @param nric The NRIC, may be null
+     * @throws IOException if the NRIC does not fit in 9 ASCII characters
+     */
+    private static void writeNric(DataOutputStream out, String nric) throws IOException {
+        byte[] bytes = new byte[NRIC_LENGTH];
+        if (nric != null) {
+            if (nric.isEmpty() || nric.length() > NRIC_LENGTH) {
+                throw new IOException("Invalid NRIC: " + nric);
+            }
+            for (int i = 0; i < nric.length(); i++) {
+                char c = nric.charAt(i);
+                if (c == 0 || c > 0x7f) {
+                    throw new IOException("Invalid NRIC: " + nric);
+                }
+                bytes[i] = (byte) c;
+            }
+        }
+        out.write(bytes);
+    }
+
+    /**
+     * Reads an enum value stored as its ordinal in one byte.
+     *
+     * @param in     The input to read from
+     * @param values The values of the enum
+     * @param <E>    The enum type
+     * @return The enum value
+     * @throws IOException if the ordinal is out of range
+     */
+    private static <E extends Enum<E>> E readEnum(DataInputStream in, E[] values) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        if (ordinal >= values.length) {
+            throw new IOException(
+                    "invalid ordinal " + ordinal + " for " + values[0].getDeclaringClass().getSimpleName());
+        }
+        return values[ordinal];
+    }
+
+    /**
+     * Reads an NRIC written by {@link #writeNric}.
+     *
+     * @param in The input to read from
+     * @return The NRIC, or null if none was stored
+     * @throws IOException if the data is malformed
+     */
+    private static String readNric(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[NRIC_LENGTH];
+        in.readFully(bytes);
+        int length = 0;
+        while (length < NRIC_LENGTH && bytes[length] != 0) {
+            length++;
+        }
+        return length == 0 ? null : new String(bytes, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Writes a string as UTF-8 behind a variable-length prefix holding the
+     * byte length plus one, so that zero can stand for null.
+     *
+     * @param out   The output to write to
+     * @param value The string, may be null
+     * @throws IOException if writing fails
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length + 1);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #writeString}.
+     *
+     * @param in The input to read from
+     * @return The string, or null if none was stored
+     * @throws IOException if the data is malformed
+     */
+    private static String readString(DataInputStream in) throws IOException {
+        int length = readVarInt(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a list of strings behind its size.
+     *
+     * @param out   The output to write to
+     * @param values The strings to write
+     * @throws IOException if writing fails
+     */
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        writeVarInt(out, values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    /**
+     * Reads a list of strings written by {@link #writeStrings}.
+     *
+     * @param in The input to read from
+     * @return The strings
+     * @throws IOException if the data is malformed
+     */
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int count = readVarInt(in);
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+
+    /**
+     * Writes a date as an epoch day.
+     *
+     * @param out   The output to write to
+     * @param date  The date, may be null
+     * @throws IOException if writing fails
+     */
+    private static void writeDate(DataOutputStream out, LocalDate date) throws IOException {
+        out.writeLong(date != null ? date.toEpochDay() : NO_DATE);
+    }
+
+    /**
+     * Reads a date written by {@link #writeDate}.
+     *
+     * @param in The input to read from
+     * @return The date, or null if none was stored
+     * @throws IOException if the data is malformed
+     */
+    private static LocalDate readDate(DataInputStream in) throws IOException {
+        long epochDay = in.readLong();
+        return epochDay != NO_DATE ? LocalDate.ofEpochDay(epochDay) : null;
+    }
+
+    /**
+     * Writes a timestamp as epoch milliseconds.
+     *
+     * @param out   The output to write to
+     * @param timestamp The timestamp, may be null
+     * @throws IOException if writing fails
+     */
+    private static void writeTimestamp(DataOutputStream out, LocalDateTime timestamp) throws IOException {
+        out.writeLong(timestamp != null ? timestamp.toInstant(ZoneOffset.UTC).toEpochMilli() : NO_DATE);
+    }
+
+    /**
+     * Reads a timestamp written by {@link #writeTimestamp}.
+     *
+     * @param in The input to read from
+     * @return The timestamp, or null if none was stored
+     * @throws IOException if the data is malformed
+     */
+    private static LocalDateTime readTimestamp(DataInputStream in) throws IOException {
+        long epochMilli = in.readLong();
+        return epochMilli != NO_DATE ? LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneOffset.UTC)
+                : null;
+    }
+
+    /**
+     * Writes a non-negative integer in as few bytes as it needs, seven bits
+     * per byte.
+     *
+     * @param out   The output to write to
+     * @param value The value, must not be negative
+     * @throws IOException if writing fails or the value is negative
+     */
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        if (value < 0) {
+            throw new IOException("Negative value: " + value);
+        }
+        while ((value & ~0x7f) != 0) {
+            out.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Reads an integer written by {@link #writeVarInt}.
+     *
+     * @param in The input to read from
+     * @return The value
+     * @throws IOException if the data is malformed
+     */
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer");
+    }
+}
@@ -0,0 +1,142 @@
+package data;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batches database writes so that many mutations share one disk write.
+ * Databases mark themselves dirty after each mutation instead of writing
+ * immediately; a background thread flushes all dirty databases together once
+ * the flush interval has passed or the batch size is reached, whichever comes
+ * first. Callers that need to know when their change is on disk can wait on
+ * the future returned by {@link #whenDurable()}.
+ */
+public class GroupCommit {
+    private final long intervalMillis;
+    private final int batchSize;
+    private final ScheduledExecutorService flusher;
+    private final Object flushLock;
+
+    private Set<Persistable> dirty;
+    private int pendingCount;
+    private CompletableFuture<Void> pendingBatch;
+
+    /**
+     * Constructs a new GroupCommit and starts its background flusher.
+     *
+     * @param intervalMillis The longest time a mutation waits before it is
+     *                       flushed, in milliseconds
+     * @param batchSize      The number of pending mutations that triggers an
+     *                       early flush
+     */
+    public GroupCommit(long intervalMillis, int batchSize) {
+        this.intervalMillis = intervalMillis;
+        this.batchSize = batchSize;
+        this.flushLock = new Object();
+        this.dirty = new LinkedHashSet<>();
+        this.pendingCount = 0;
+        this.pendingBatch = new CompletableFuture<>();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "group-commit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records a mutation of a database that still has to be written to disk.
+     *
+     * @param database The database that changed
+     * @return A future completed once the mutation is on disk
+     */
+    public synchronized CompletableFuture<Void> markDirty(Persistable database) {
+        dirty.add(database);
+        pendingCount++;
+        if (pendingCount == batchSize && !flusher.isShutdown()) {
+            flusher.execute(this::flush);
+        }
+        return pendingBatch;
+    }
+
+    /**
+     * Gets a future that completes once every mutation recorded so far is on
+     * disk. The future completes exceptionally if the flush fails.
+     *
+     * @return The durability future, already completed if nothing is pending
+     */
+    public synchronized CompletableFuture<Void> whenDurable() {
+        if (pendingCount == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return pendingBatch;
+    }
+
+    /**
+     * Writes all dirty databases to disk and completes the futures of the
+     * mutations they contain.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            Set<Persistable> batch;
+            CompletableFuture<Void> batchFuture;
+            synchronized (this) {
+                if (pendingCount == 0) {
+                    return;
+                }
+                batch = dirty;
+                batchFuture = pendingBatch;
+                dirty = new LinkedHashSet<>();
+                pendingCount = 0;
+                pendingBatch = new CompletableFuture<>();
+            }
+
+            boolean written = true;
+            for (Persistable database : batch) {
+                written &= database.flush();
+            }
+
+            if (written) {
+                batchFuture.complete(null);
+            } else {
+                batchFuture.completeExceptionally(new IOException("Group commit failed to write all databases"));
+            }
+        }
+    }
+
+    /**
+     * Stops the background flusher after writing any pending mutations.
+     */
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(intervalMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * Gets the flush interval.
+     *
+     * @return The flush interval in milliseconds
+     */
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    /**
+     * Gets the batch size that triggers an early flush.
+     *
+     * @return The batch size
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+}
@@ -0,0 +1,154 @@
+package data;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Remembers what was imported from a CSV file, so a later import only applies
+ * rows that are new or have changed.
+ * For every row key it keeps a hash of the row's fields, and for the file its
+ * size and modification time so an untouched file can be skipped without
+ * reading it.
+ */
+public class ImportManifest {
+    private static final int MAGIC = 0x42544F4D; // "BTOM"
+    static final long HASH_SEED = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final String fileName;
+    private long sourceLength;
+    private long sourceModified;
+    private Map<String, Long> rowHashes;
+
+    /**
+     * Constructs an empty ImportManifest.
+     *
+     * @param fileName The file the manifest is stored in
+     */
+    private ImportManifest(String fileName) {
+        this.fileName = fileName;
+        this.sourceLength = -1;
+        this.sourceModified = -1;
+        this.rowHashes = new HashMap<>();
+    }
+
+    /**
+     * Creates an empty manifest, ignoring any stored one.
+     * Used when the databases were reset, since the stored manifest then
+     * describes rows that are no longer there.
+     *
+     * @param fileName The file the manifest is stored in
+     * @return The manifest
+     */
+    public static ImportManifest empty(String fileName) {
+        return new ImportManifest(fileName);
+    }
+
+    /**
+     * Loads a manifest from file.
+     * A missing or unreadable manifest gives an empty one.
+     *
+     * @param fileName The file the manifest is stored in
+     * @return The manifest
+     */
+    public static ImportManifest load(String fileName) {
+        ImportManifest manifest = new ImportManifest(fileName);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(SnapshotFile.read(fileName)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("not an import manifest");
+            }
+            manifest.sourceLength = in.readLong();
+            manifest.sourceModified = in.readLong();
+            int count = in.readInt();
+            Map<String, Long> rowHashes = new HashMap<>(count * 4 / 3 + 1);
+            for (int i = 0; i < count; i++) {
+                rowHashes.put(in.readUTF(), in.readLong());
+            }
+            manifest.rowHashes = rowHashes;
+        } catch (FileNotFoundException e) {
+            // Nothing has been imported yet
+        } catch (IOException e) {
+            System.out.println("Error loading import manifest, comparing all rows: " + e.getMessage());
+            manifest = new ImportManifest(fileName);
+        }
+        return manifest;
+    }
+
+    /**
+     * Saves the manifest, recording the current size and modification time of
+     * the imported file.
+     *
+     * @param source    The CSV file that was imported
+     * @param rowHashes The hash of every imported row by key
+     * @return true if the manifest was saved, false otherwise
+     */
+    public boolean save(File source, Map<String, Long> rowHashes) {
+        this.sourceLength = source.length();
+        this.sourceModified = source.lastModified();
+        this.rowHashes = rowHashes;
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(bytes))) {
+                out.writeInt(MAGIC);
+                out.writeLong(sourceLength);
+                out.writeLong(sourceModified);
+                out.writeInt(rowHashes.size());
+                for (Map.Entry<String, Long> entry : rowHashes.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(entry.getValue());
+                }
+            }
+            SnapshotFile.write(fileName, bytes.toByteArray());
+            return true;
+        } catch (IOException e) {
+            System.out.println("Error saving import manifest: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Checks if a CSV file is unchanged since it was last imported.
+     *
+     * @param source The CSV file
+     * @return true if the file has the same size and modification time as at
+     *         the last import, false otherwise
+     */
+    public boolean isUpToDate(File source) {
+        return !rowHashes.isEmpty() && source.length() == sourceLength && source.lastModified() == sourceModified;
+    }
+
+    /**
+     * Gets the hash a row had when it was last imported.
+     *
+     * @param key The key of the row
+     * @return The hash, or null if the row has not been imported before
+     */
+    public Long getHash(String key) {
+        return rowHashes.get(key);
+    }
+
+    /**
+     * Adds a char of a row to its hash.
+     * Rows are hashed with 64-bit FNV-1a over the chars of their trimmed
+     * fields, starting from {@link #HASH_SEED}.
+     *
+     * @param hash The hash so far
+     * @param c    The char to add
+     * @return The new hash
+     */
+    static long hashChar(long hash, int c) {
+        return (hash ^ c) * FNV_PRIME;
+    }
+
+    /**
+     * Marks the end of a field in a row hash, so "ab,c" and "a,bc" differ.
+     *
+     * @param hash The hash so far
+     * @return The new hash
+     */
+    static long endField(long hash) {
+        return (hash ^ 0x1F) * FNV_PRIME;
+    }
+}
@@ -0,0 +1,198 @@
+package data;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of database mutations.
+ * Each entry is stored as a length-prefixed binary record, so recording a
+ * mutation costs one appended record instead of a rewrite of the whole table.
+ * Records carry a checksum and are forced to disk before an append returns,
+ * so a torn or corrupted tail is detected on replay and cut off, and later
+ * appends follow the last good record.
+ */
+public class Journal {
+    private static final int MAGIC = 0x42544F4A; // "BTOJ"
+
+    private final String fileName;
+    private int entryCount;
+
+    /**
+     * Constructs a new Journal backed by the given file.
+     *
+     * @param fileName The name of the journal file
+     */
+    public Journal(String fileName) {
+        this.fileName = fileName;
+        this.entryCount = 0;
+    }
+
+    /**
+     * Appends an entry to the end of the journal.
+     *
+     * @param entry The entry to append
+     * @throws IOException if the entry could not be written
+     */
+    public void append(JournalEntry entry) throws IOException {
+        appendAll(Collections.singletonList(entry));
+    }
+
+    /**
+     * Appends several entries to the end of the journal in a single write.
+     *
+     * @param entries The entries to append, in order
+     * @return The number of bytes written
+     * @throws IOException if the entries could not be written
+     */
+    public long appendAll(List<JournalEntry> entries) throws IOException {
+        long bytes;
+        try (FileOutputStream fos = new FileOutputStream(fileName, true)) {
+            DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(fos));
+            if (fos.getChannel().size() == 0) {
+                dos.writeInt(MAGIC);
+            }
+
+            for (JournalEntry entry : entries) {
+                byte[] record = EntityCodec.encodeJournalEntry(entry);
+
+                CRC32 crc = new CRC32();
+                crc.update(record);
+                dos.writeInt(record.length);
+                dos.writeInt((int) crc.getValue());
+                dos.write(record);
+            }
+
+            dos.flush();
+            fos.getChannel().force(false);
+            bytes = dos.size();
+        }
+        TableMetrics.bytesWritten(fileName, bytes);
+        entryCount += entries.size();
+        return bytes;
+    }
+
+    /**
+     * Reads all complete entries from the journal.
+     * Reading stops at a partially written entry or at an entry that fails
+     * its checksum, since nothing after it can be trusted. The journal is then
+     * truncated after the last good entry, so entries appended later are not
+     * hidden behind the damaged one.
+     *
+     * @return The entries in the order they were appended
+     */
+    public List<JournalEntry> readAll() {
+        List<JournalEntry> entries = new ArrayList<>();
+        long goodLength = 0;
+        boolean damaged = false;
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(fileName)))) {
+            // Journals written before checksums were added have no header
+            boolean checksummed = false;
+            dis.mark(4);
+            try {
+                checksummed = dis.readInt() == MAGIC;
+            } catch (EOFException e) {
+                // Empty journal
+            }
+            if (checksummed) {
+                goodLength = 4;
+            } else {
+                dis.reset();
+            }
+
+            while (true) {
+                byte[] record;
+                int checksum = 0;
+                try {
+                    int length = dis.readInt();
+                    if (checksummed) {
+                        checksum = dis.readInt();
+                    }
+                    if (length < 0 || length > dis.available()) {
+                        // Torn or corrupted length at the tail
+                        damaged = true;
+                        break;
+                    }
+                    record = new byte[length];
+                    dis.readFully(record);
+                } catch (EOFException e) {
+                    // A torn header is left unless the journal ended cleanly
+                    damaged = new File(fileName).length() > goodLength;
+                    break;
+                }
+
+                if (checksummed) {
+                    CRC32 crc = new CRC32();
+                    crc.update(record);
+                    if ((int) crc.getValue() != checksum) {
+                        System.out.println("Journal " + fileName + " has a damaged entry, ignoring the rest.");
+                        damaged = true;
+                        break;
+                    }
+                }
+
+                try {
+                    entries.add(EntityCodec.decodeJournalEntry(record));
+                } catch (IOException e) {
+                    System.out.println("Journal " + fileName + " has an unreadable entry, ignoring the rest.");
+                    damaged = true;
+                    break;
+                }
+                goodLength += (checksummed ? 8 : 4) + record.length;
+            }
+        } catch (FileNotFoundException e) {
+            // No journal yet, nothing to replay
+        } catch (IOException e) {
+            System.out.println("Error reading journal " + fileName + ": " + e.getMessage());
+        }
+
+        if (damaged) {
+            try {
+                truncate(goodLength);
+            } catch (IOException e) {
+                System.out.println("Error truncating journal " + fileName + ": " + e.getMessage());
+            }
+        }
+        entryCount = entries.size();
+        return entries;
+    }
+
+    /**
+     * Discards all entries in the journal.
+     * Called once the entries have been folded into a snapshot.
+     *
+     * @throws IOException if the journal could not be truncated
+     */
+    public void clear() throws IOException {
+        truncate(0);
+        entryCount = 0;
+    }
+
+    /**
+     * Cuts the journal file to a length and forces the change to disk.
+     *
+     * @param length The new length in bytes
+     * @throws IOException if the file could not be truncated
+     */
+    private void truncate(long length) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE)) {
+            channel.truncate(length);
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Gets the number of entries currently in the journal.
+     *
+     * @return The number of entries
+     */
+    public int getEntryCount() {
+        return entryCount;
+    }
+}
@@ -0,0 +1,52 @@
+package data;
+
+import java.io.Serializable;
+
+/**
+ * Represents a single mutation recorded in a {@link Journal}.
+ */
+public class JournalEntry implements Serializable {
+    private static final long serialVersionUID = 2490645477274490839L;
+
+    /**
+     * The kinds of mutation that can be recorded in the journal.
+     */
+    public enum Operation {
+        ADD_APPLICATION,
+        UPDATE_APPLICATION,
+        ADD_BOOKING,
+        REMOVE_APPLICATION
+    }
+
+    private Operation operation;
+    private Serializable payload;
+
+    /**
+     * Creates a new journal entry.
+     *
+     * @param operation The mutation performed
+     * @param payload   The entity written, or the ID of the entity removed
+     */
+    public JournalEntry(Operation operation, Serializable payload) {
+        this.operation = operation;
+        this.payload = payload;
+    }
+
+    /**
+     * Gets the mutation performed.
+     *
+     * @return The operation
+     */
+    public Operation getOperation() {
+        return operation;
+    }
+
+    /**
+     * Gets the entity written, or the ID of the entity removed.
+     *
+     * @return The payload of this entry
+     */
+    public Serializable getPayload() {
+        return payload;
+    }
+}
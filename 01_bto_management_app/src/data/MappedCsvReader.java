@@ -0,0 +1,406 @@
+package data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Reads CSV rows straight from a memory-mapped file.
+ * Only the positions of each field are recorded, and numbers, dates and
+ * keywords are decoded from the bytes without creating strings. Fields may be
+ * quoted, with "" standing for a quote, and a leading UTF-8 byte order mark is
+ * ignored. Whitespace around a field is ignored, but whitespace inside the
+ * quotes of a quoted field is kept. A quote only opens a quoted field at the
+ * start of the field; anywhere else it is part of the text.
+ * A reader covers a range of the file, so several readers can parse separate
+ * parts of the same file in parallel.
+ */
+public class MappedCsvReader {
+    private static final int INITIAL_FIELDS = 16;
+
+    private final ByteBuffer buffer;
+    private final int end;
+    private int position;
+    private long lineNumber;
+    private long rowLineNumber;
+    private int fieldCount;
+    private int[] fieldStarts;
+    private int[] fieldEnds;
+    private boolean[] fieldQuoted;
+
+    /**
+     * Constructs a new MappedCsvReader over part of a mapped file.
+     * The range must start at the beginning of a row.
+     *
+     * @param buffer    The mapped file
+     * @param start     The position of the first row to read
+     * @param end       The position after the last row to read
+     * @param firstLine The line number of the first row
+     */
+    public MappedCsvReader(ByteBuffer buffer, int start, int end, long firstLine) {
+        this.buffer = buffer;
+        this.position = start;
+        this.end = end;
+        this.lineNumber = firstLine;
+        this.rowLineNumber = firstLine;
+        this.fieldStarts = new int[INITIAL_FIELDS];
+        this.fieldEnds = new int[INITIAL_FIELDS];
+        this.fieldQuoted = new boolean[INITIAL_FIELDS];
+    }
+
+    /**
+     * Maps a whole file into memory and creates a reader for it.
+     *
+     * @param fileName The CSV file to read
+     * @return A reader positioned at the first row
+     * @throws IOException if the file could not be mapped
+     */
+    public static MappedCsvReader open(String fileName) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(fileName + " is larger than 2 GB");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        // Skip the byte order mark some editors put at the start of the file
+        int start = 0;
+        if (buffer.limit() >= 3 && (buffer.get(0) & 0xFF) == 0xEF && (buffer.get(1) & 0xFF) == 0xBB
+                && (buffer.get(2) & 0xFF) == 0xBF) {
+            start = 3;
+        }
+        return new MappedCsvReader(buffer, start, buffer.limit(), 1);
+    }
+
+    /**
+     * Creates a reader for the next rows of this reader and skips past them.
+     *
+     * @param rows The number of rows to hand over
+     * @return A reader covering the rows
+     */
+    public MappedCsvReader split(int rows) {
+        int start = position;
+        long firstLine = lineNumber;
+        for (int i = 0; i < rows && position < end; i++) {
+            skipRow();
+        }
+        return new MappedCsvReader(buffer, start, position, firstLine);
+    }
+
+    /**
+     * Checks if there are more rows to read.
+     *
+     * @return true if the reader has not reached the end of its range
+     */
+    public boolean hasRemaining() {
+        return position < end;
+    }
+
+    /**
+     * Moves to the next row that is not blank.
+     *
+     * @return true if a row was read, false at the end of the range
+     */
+    public boolean nextRow() {
+        while (position < end) {
+            rowLineNumber = lineNumber;
+            readRow();
+            if (fieldCount > 1 || fieldStarts[0] < fieldEnds[0]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the line number the current row starts on.
+     *
+     * @return The line number, counting from 1
+     */
+    public long getLineNumber() {
+        return rowLineNumber;
+    }
+
+    /**
+     * Gets the number of fields in the current row.
+     *
+     * @return The number of fields
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Gets a field of the current row as a string.
+     *
+     * @param field The index of the field
+     * @return The field value
+     */
+    public String getString(int field) {
+        int start = fieldStarts[field];
+        int length = fieldEnds[field] - start;
+        byte[] bytes = new byte[length];
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            byte b = buffer.get(start + i);
+            bytes[count++] = b;
+            // A quoted field stores a quote as two quotes
+            if (b == '"' && fieldQuoted[field]) {
+                i++;
+            }
+        }
+        return new String(bytes, 0, count, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets a field of the current row as an integer.
+     *
+     * @param field The index of the field
+     * @return The field value
+     * @throws NumberFormatException if the field is not an integer
+     */
+    public int getInt(int field) {
+        int start = fieldStarts[field];
+        int stop = fieldEnds[field];
+        boolean negative = start < stop && buffer.get(start) == '-';
+        int i = negative || (start < stop && buffer.get(start) == '+') ? start + 1 : start;
+        if (i == stop) {
+            throw new NumberFormatException("For input string: \"" + getString(field) + "\"");
+        }
+
+        long value = 0;
+        for (; i < stop; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9 || value > Integer.MAX_VALUE) {
+                throw new NumberFormatException("For input string: \"" + getString(field) + "\"");
+            }
+            value = value * 10 + digit;
+        }
+        value = negative ? -value : value;
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("For input string: \"" + getString(field) + "\"");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Gets a field of the current row as an ISO date (yyyy-MM-dd).
+     *
+     * @param field The index of the field
+     * @return The field value
+     * @throws IllegalArgumentException if the field is not a valid date
+     */
+    public LocalDate getDate(int field) {
+        int start = fieldStarts[field];
+        if (fieldEnds[field] - start != 10 || buffer.get(start + 4) != '-' || buffer.get(start + 7) != '-') {
+            throw new IllegalArgumentException("invalid date " + getString(field));
+        }
+        return LocalDate.of(digits(field, start, 4), digits(field, start + 5, 2), digits(field, start + 8, 2));
+    }
+
+    /**
+     * Checks if a field of the current row equals a keyword, ignoring case.
+     *
+     * @param field   The index of the field
+     * @param keyword The keyword, in ASCII
+     * @return true if the field equals the keyword, false otherwise
+     */
+    public boolean fieldEquals(int field, String keyword) {
+        int start = fieldStarts[field];
+        if (fieldEnds[field] - start != keyword.length()) {
+            return false;
+        }
+        for (int i = 0; i < keyword.length(); i++) {
+            if (Character.toLowerCase((char) buffer.get(start + i)) != Character.toLowerCase(keyword.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hashes the fields of the current row for change detection.
+     * The hash is taken over the chars the fields decode to, so it does not
+     * depend on how the text is encoded.
+     *
+     * @return A 64-bit hash of the row
+     */
+    public long hashRow() {
+        long hash = ImportManifest.HASH_SEED;
+        for (int field = 0; field < fieldCount; field++) {
+            int stop = fieldEnds[field];
+            for (int i = fieldStarts[field]; i < stop; i++) {
+                int b = buffer.get(i) & 0xFF;
+                if (b == '"' && fieldQuoted[field]) {
+                    i++;
+                } else if (b >= 0x80) {
+                    // Hash non-ASCII text as the chars it decodes to
+                    int length = b >= 0xF0 ? 4 : b >= 0xE0 ? 3 : 2;
+                    String decoded = decode(i, Math.min(length, stop - i));
+                    for (int c = 0; c < decoded.length(); c++) {
+                        hash = ImportManifest.hashChar(hash, decoded.charAt(c));
+                    }
+                    i += length - 1;
+                    continue;
+                }
+                hash = ImportManifest.hashChar(hash, b);
+            }
+            hash = ImportManifest.endField(hash);
+        }
+        return hash;
+    }
+
+    /**
+     * Reads the fields of the row at the current position.
+     */
+    private void readRow() {
+        fieldCount = 0;
+        while (true) {
+            if (fieldCount == fieldStarts.length) {
+                fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+                fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+                fieldQuoted = Arrays.copyOf(fieldQuoted, fieldCount * 2);
+            }
+
+            int start = skipSpaces(position);
+            int stop;
+            boolean quoted = start < end && buffer.get(start) == '"';
+            if (quoted) {
+                start++;
+                stop = closingQuote(start);
+                position = Math.min(stop + 1, end);
+                while (position < end && buffer.get(position) != ',' && buffer.get(position) != '\n') {
+                    position++;
+                }
+            } else {
+                position = start;
+                while (position < end && buffer.get(position) != ',' && buffer.get(position) != '\n') {
+                    position++;
+                }
+                stop = position;
+                // Trim trailing whitespace, including the \r of Windows line endings
+                while (stop > start && (buffer.get(stop - 1) & 0xFF) <= ' ') {
+                    stop--;
+                }
+            }
+
+            fieldStarts[fieldCount] = start;
+            fieldEnds[fieldCount] = stop;
+            fieldQuoted[fieldCount] = quoted;
+            fieldCount++;
+
+            if (position >= end || buffer.get(position) == '\n') {
+                position++;
+                lineNumber++;
+                return;
+            }
+            position++; // Skip the comma
+        }
+    }
+
+    /**
+     * Skips the row at the current position without recording its fields.
+     * Quotes are found by the same rule as {@link #readRow()}, so a split
+     * falls on the same row boundaries as a sequential read.
+     */
+    private void skipRow() {
+        while (true) {
+            int start = skipSpaces(position);
+            if (start < end && buffer.get(start) == '"') {
+                position = Math.min(closingQuote(start + 1) + 1, end);
+            } else {
+                position = start;
+            }
+            while (position < end && buffer.get(position) != ',' && buffer.get(position) != '\n') {
+                position++;
+            }
+
+            if (position >= end || buffer.get(position) == '\n') {
+                position = Math.min(position + 1, end);
+                lineNumber++;
+                return;
+            }
+            position++; // Skip the comma
+        }
+    }
+
+    /**
+     * Finds the quote that closes a quoted field, counting the lines inside it.
+     *
+     * @param start The position after the opening quote
+     * @return The position of the closing quote, or the end of the range
+     */
+    private int closingQuote(int start) {
+        int i = start;
+        while (i < end) {
+            byte b = buffer.get(i);
+            if (b == '"') {
+                if (i + 1 < end && buffer.get(i + 1) == '"') {
+                    i += 2;
+                    continue;
+                }
+                return i;
+            }
+            if (b == '\n') {
+                lineNumber++;
+            }
+            i++;
+        }
+        return end;
+    }
+
+    /**
+     * Skips spaces and tabs.
+     *
+     * @param from The position to start at
+     * @return The position of the first other byte
+     */
+    private int skipSpaces(int from) {
+        int i = from;
+        while (i < end && (buffer.get(i) == ' ' || buffer.get(i) == '\t')) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Parses a fixed number of digits of a field.
+     *
+     * @param field The index of the field, used in error messages
+     * @param start The position of the first digit
+     * @param count The number of digits
+     * @return The value of the digits
+     */
+    private int digits(int field, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalArgumentException("invalid date " + getString(field));
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Decodes a few bytes of UTF-8.
+     *
+     * @param start  The position of the first byte
+     * @param length The number of bytes
+     * @return The decoded text
+     */
+    private String decode(int start, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,645 @@
+package data;
+
+import entity.User;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * User table stored in a memory-mapped file of fixed-size slots.
+ * Slots are addressed by a hash of the NRIC with linear probing, so a lookup
+ * touches one or two slots and an update writes a single new slot.
+ * Opening the store only maps the file; users are decoded one at a time when
+ * they are read, so the table never has to fit on the heap.
+ * The file starts with a one-slot header, followed by the slots. Each slot
+ * holds a state byte, the fixed-width NRIC, the record length and the user
+ * record in the {@link EntityCodec} format. A removed user leaves a tombstone
+ * so the users probed past its slot are still found; tombstones are dropped
+ * when the file is rehashed. An updated user is written to a free slot before
+ * its old slot is removed, so a crash never tears the only copy of a user; a
+ * store that was not closed cleanly is checked for such a crash when opened.
+ */
+public class MappedUserStore extends AbstractMap<String, User> {
+    private static final int MAGIC = 0x4254554D; // "BTUM"
+    private static final int VERSION = 1;
+    private static final int SLOT_SIZE = 512;
+    private static final int SLOTS_PER_SEGMENT = 1 << 20;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int BULK_FORCE_THRESHOLD = 256;
+
+    private static final int NRIC_LENGTH = 9;
+    private static final int NRIC_OFFSET = 1;
+    private static final int LENGTH_OFFSET = NRIC_OFFSET + NRIC_LENGTH;
+    private static final int RECORD_OFFSET = LENGTH_OFFSET + 2;
+    private static final int MAX_RECORD_LENGTH = SLOT_SIZE - RECORD_OFFSET;
+    private static final byte EMPTY = 0;
+    private static final byte USED = 1;
+    private static final byte DELETED = 2;
+    private static final byte WRITING = 3;
+
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int COUNT_OFFSET = 12;
+    private static final int TOMBSTONES_OFFSET = 16;
+    private static final int OPEN_OFFSET = 20;
+
+    private final String fileName;
+    private final ReentrantReadWriteLock lock;
+    private RandomAccessFile file;
+    private MappedByteBuffer[] segments;
+    private int capacity;
+    private int count;
+    private int tombstones;
+    private BitSet dirtySlots;
+
+    /**
+     * Opens the store in a file, creating the file if it does not exist.
+     *
+     * @param fileName The name of the slot file
+     * @throws IOException if the file cannot be opened or is not a user store
+     */
+    public MappedUserStore(String fileName) throws IOException {
+        this(fileName, INITIAL_CAPACITY);
+    }
+
+    /**
+     * Opens the store in a file, creating the file with the given number of
+     * slots if it does not exist.
+     *
+     * @param fileName        The name of the slot file
+     * @param initialCapacity The number of slots for a new file, a power of two
+     * @throws IOException if the file cannot be opened or is not a user store
+     */
+    private MappedUserStore(String fileName, int initialCapacity) throws IOException {
+        this.fileName = fileName;
+        this.lock = new ReentrantReadWriteLock();
+        open(initialCapacity);
+    }
+
+    /**
+     * Maps the slot file, initialising its header if the file is new.
+     *
+     * @param initialCapacity The number of slots for a new file
+     * @throws IOException if the file cannot be mapped or is not a user store
+     */
+    private void open(int initialCapacity) throws IOException {
+        dirtySlots = new BitSet();
+        file = new RandomAccessFile(fileName, "rw");
+        boolean created = file.length() == 0;
+        boolean recover = false;
+        if (created) {
+            capacity = initialCapacity;
+            count = 0;
+            tombstones = 0;
+        } else {
+            if (file.length() < SLOT_SIZE || file.readInt() != MAGIC) {
+                file.close();
+                throw new IOException(fileName + " is not a user store");
+            }
+            if (file.readInt() != VERSION) {
+                file.close();
+                throw new IOException("Unsupported user store version in " + fileName);
+            }
+            capacity = file.readInt();
+            count = file.readInt();
+            tombstones = file.readInt();
+            recover = file.readInt() != 0;
+        }
+
+        long slots = (long) capacity + 1;
+        file.setLength(slots * SLOT_SIZE);
+        segments = new MappedByteBuffer[(int) ((slots + SLOTS_PER_SEGMENT - 1) / SLOTS_PER_SEGMENT)];
+        for (int i = 0; i < segments.length; i++) {
+            long start = (long) i * SLOTS_PER_SEGMENT * SLOT_SIZE;
+            long size = Math.min((long) SLOTS_PER_SEGMENT * SLOT_SIZE, slots * SLOT_SIZE - start);
+            segments[i] = file.getChannel().map(FileChannel.MapMode.READ_WRITE, start, size);
+        }
+
+        if (created) {
+            MappedByteBuffer header = segments[0];
+            header.putInt(0, MAGIC);
+            header.putInt(4, VERSION);
+            header.putInt(CAPACITY_OFFSET, capacity);
+            header.putInt(COUNT_OFFSET, count);
+            header.putInt(TOMBSTONES_OFFSET, tombstones);
+        }
+        if (recover) {
+            recover();
+        }
+        // Cleared again by close, so a store left open by a crash is recovered
+        segments[0].putInt(OPEN_OFFSET, 1);
+        segments[0].force(0, SLOT_SIZE);
+    }
+
+    /**
+     * Repairs a store that was not closed cleanly. A slot left being written
+     * by an update is kept if the old copy of its user was already removed
+     * and its record is complete, and dropped otherwise. The header counts
+     * are then recounted, as they may not have reached the disk.
+     */
+    private void recover() {
+        count = 0;
+        tombstones = 0;
+        byte[] nric = new byte[NRIC_LENGTH];
+        for (int slot = 0; slot < capacity; slot++) {
+            MappedByteBuffer segment = segmentFor(slot);
+            int offset = offsetFor(slot);
+            if (segment.get(offset) == WRITING) {
+                segment.get(offset + NRIC_OFFSET, nric);
+                segment.put(offset, findSlot(nric) < 0 && isReadable(slot) ? USED : DELETED);
+                dirtySlots.set(slot + 1);
+            }
+            byte state = segment.get(offset);
+            if (state == USED) {
+                count++;
+            } else if (state == DELETED) {
+                tombstones++;
+            }
+        }
+        writeCounts();
+        System.out.println("User store " + fileName + " was not closed cleanly, recovered " + count + " users.");
+    }
+
+    /**
+     * Checks if the record in a slot decodes.
+     *
+     * @param slot The slot index
+     * @return true if the record is complete, false otherwise
+     */
+    private boolean isReadable(int slot) {
+        int length = segmentFor(slot).getShort(offsetFor(slot) + LENGTH_OFFSET) & 0xffff;
+        if (length > MAX_RECORD_LENGTH) {
+            return false;
+        }
+        try {
+            readUser(slot);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Gets a user by NRIC.
+     *
+     * @param key The NRIC of the user
+     * @return The user, or null if not found
+     */
+    @Override
+    public User get(Object key) {
+        byte[] nric = toNricBytes(key);
+        if (nric == null) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            int slot = findSlot(nric);
+            return slot >= 0 ? readUser(slot) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Checks if a user with an NRIC is stored.
+     *
+     * @param key The NRIC of the user
+     * @return true if the user is stored, false otherwise
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        byte[] nric = toNricBytes(key);
+        if (nric == null) {
+            return false;
+        }
+
+        lock.readLock().lock();
+        try {
+            return findSlot(nric) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stores a user, overwriting the slot of any user with the same NRIC.
+     * The previous user is not decoded, so this always returns null.
+     *
+     * @param key  The NRIC of the user
+     * @param user The user to store
+     * @return null
+     * @throws IllegalArgumentException if the NRIC is not valid or the user does
+     *                                  not fit in a slot
+     */
+    @Override
+    public User put(String key, User user) {
+        byte[] nric = toNricBytes(key);
+        if (nric == null) {
+            throw new IllegalArgumentException("Invalid NRIC: " + key);
+        }
+
+        byte[] record;
+        try {
+            record = EntityCodec.encodeUser(user);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (record.length > MAX_RECORD_LENGTH) {
+            throw new IllegalArgumentException("User " + key + " does not fit in a slot");
+        }
+
+        lock.writeLock().lock();
+        try {
+            int slot = findSlot(nric);
+            // An update takes a free slot too, so it can fill the table as well
+            if ((count + tombstones + 1) * 4L > capacity * 3L) {
+                // Double only if live users fill the table, otherwise rehashing drops the tombstones
+                rehash((count + 1) * 2L > capacity ? capacity * 2 : capacity);
+                slot = findSlot(nric);
+            }
+            if (slot >= 0) {
+                updateSlot(slot, nric, record);
+                return null;
+            }
+            int free = -slot - 1;
+            if (segmentFor(free).get(offsetFor(free)) == DELETED) {
+                tombstones--;
+            }
+            writeSlot(free, nric, record, record.length, USED);
+            count++;
+            writeCounts();
+            return null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a user, leaving a tombstone in its slot.
+     *
+     * @param key The NRIC of the user
+     * @return The removed user, or null if not found
+     */
+    @Override
+    public User remove(Object key) {
+        byte[] nric = toNricBytes(key);
+        if (nric == null) {
+            return null;
+        }
+
+        lock.writeLock().lock();
+        try {
+            int slot = findSlot(nric);
+            if (slot < 0) {
+                return null;
+            }
+            User user = readUser(slot);
+            segmentFor(slot).put(offsetFor(slot), DELETED);
+            dirtySlots.set(slot + 1);
+            count--;
+            tombstones++;
+            writeCounts();
+            return user;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of stored users.
+     *
+     * @return The number of users
+     */
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets a snapshot of all stored users.
+     * Every user is decoded, so this is only meant for listings and scans.
+     *
+     * @return The NRIC and user of every stored user
+     */
+    @Override
+    public Set<Map.Entry<String, User>> entrySet() {
+        Set<Map.Entry<String, User>> entries = new LinkedHashSet<>();
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < capacity; slot++) {
+                if (segmentFor(slot).get(offsetFor(slot)) == USED) {
+                    User user = readUser(slot);
+                    entries.add(new AbstractMap.SimpleImmutableEntry<>(user.getNric(), user));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return Collections.unmodifiableSet(entries);
+    }
+
+    /**
+     * Gets the NRICs of all stored users without decoding their records.
+     *
+     * @return A snapshot of the stored NRICs
+     */
+    @Override
+    public Set<String> keySet() {
+        Set<String> keys = new LinkedHashSet<>();
+        byte[] nric = new byte[NRIC_LENGTH];
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < capacity; slot++) {
+                MappedByteBuffer segment = segmentFor(slot);
+                int offset = offsetFor(slot);
+                if (segment.get(offset) == USED) {
+                    segment.get(offset + NRIC_OFFSET, nric);
+                    int length = 0;
+                    while (length < NRIC_LENGTH && nric[length] != 0) {
+                        length++;
+                    }
+                    keys.add(new String(nric, 0, length, StandardCharsets.US_ASCII));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return Collections.unmodifiableSet(keys);
+    }
+
+    /**
+     * Forces the slots changed since the last call to disk.
+     * Small batches write back only the changed slots, so a single update
+     * costs the same however large the table is.
+     */
+    public void force() {
+        lock.writeLock().lock();
+        try {
+            if (dirtySlots.cardinality() > BULK_FORCE_THRESHOLD) {
+                // Large batches are cheaper to write back a whole mapping at a time
+                for (MappedByteBuffer segment : segments) {
+                    segment.force();
+                }
+            } else {
+                for (int index = dirtySlots.nextSetBit(0); index >= 0; index = dirtySlots.nextSetBit(index + 1)) {
+                    segmentFor(index - 1).force(offsetFor(index - 1), SLOT_SIZE);
+                }
+            }
+            dirtySlots.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forces all changes to disk and closes the file.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    public void close() throws IOException {
+        segments[0].putInt(OPEN_OFFSET, 0);
+        dirtySlots.set(0);
+        force();
+        file.close();
+    }
+
+    /**
+     * Finds the slot holding an NRIC, or the free slot where it would go.
+     * Tombstones and slots being written are probed past, and the first
+     * tombstone is reused for a new user.
+     *
+     * @param nric The NRIC in its fixed-width form
+     * @return The slot index if found, otherwise -(free slot index + 1)
+     */
+    private int findSlot(byte[] nric) {
+        int mask = capacity - 1;
+        int slot = hash(nric) & mask;
+        int free = -1;
+        while (true) {
+            MappedByteBuffer segment = segmentFor(slot);
+            int offset = offsetFor(slot);
+            byte state = segment.get(offset);
+            if (state == EMPTY) {
+                return -(free >= 0 ? free : slot) - 1;
+            }
+            if (state == USED && nricMatches(segment, offset, nric)) {
+                return slot;
+            }
+            if (state == DELETED && free < 0) {
+                free = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Finds the first slot an NRIC could be written to: a tombstone or an
+     * empty slot on its probe path.
+     *
+     * @param nric The NRIC in its fixed-width form
+     * @return The slot index
+     */
+    private int findFreeSlot(byte[] nric) {
+        int mask = capacity - 1;
+        int slot = hash(nric) & mask;
+        while (true) {
+            byte state = segmentFor(slot).get(offsetFor(slot));
+            if (state == EMPTY || state == DELETED) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Replaces the record of a user. The new record is written to a free slot
+     * on the user's probe path, marked as being written, before the old slot
+     * becomes a tombstone; only then is the new slot marked used. A crash
+     * before the old slot is removed leaves the old copy of the user, and one
+     * after it leaves the complete new copy for {@link #recover()} to keep.
+     * The slots reach the disk with the next {@link #force()}.
+     *
+     * @param slot   The slot index of the current record
+     * @param nric   The NRIC in its fixed-width form
+     * @param record The encoded user
+     */
+    private void updateSlot(int slot, byte[] nric, byte[] record) {
+        int free = findFreeSlot(nric);
+        if (segmentFor(free).get(offsetFor(free)) == EMPTY) {
+            // The old slot becomes a tombstone without one being reused
+            tombstones++;
+        }
+        writeSlot(free, nric, record, record.length, WRITING);
+        segmentFor(slot).put(offsetFor(slot), DELETED);
+        dirtySlots.set(slot + 1);
+        segmentFor(free).put(offsetFor(free), USED);
+        writeCounts();
+    }
+
+    /**
+     * Writes the user and tombstone counts to the header.
+     */
+    private void writeCounts() {
+        segments[0].putInt(COUNT_OFFSET, count);
+        segments[0].putInt(TOMBSTONES_OFFSET, tombstones);
+        // Slot -1 stands for the header
+        dirtySlots.set(0);
+    }
+
+    /**
+     * Writes a record into a slot that is not in use. The state byte is
+     * written last, so a slot only becomes visible once it is complete.
+     *
+     * @param slot   The slot index
+     * @param nric   The NRIC in its fixed-width form
+     * @param record The buffer holding the encoded user
+     * @param length The length of the encoded user
+     * @param state  The state of the slot once written
+     */
+    private void writeSlot(int slot, byte[] nric, byte[] record, int length, byte state) {
+        MappedByteBuffer segment = segmentFor(slot);
+        int offset = offsetFor(slot);
+        segment.put(offset + NRIC_OFFSET, nric);
+        segment.putShort(offset + LENGTH_OFFSET, (short) length);
+        segment.put(offset + RECORD_OFFSET, record, 0, length);
+        segment.put(offset, state);
+        dirtySlots.set(slot + 1);
+    }
+
+    /**
+     * Decodes the user stored in a slot.
+     *
+     * @param slot The slot index
+     * @return The user
+     */
+    private User readUser(int slot) {
+        MappedByteBuffer segment = segmentFor(slot);
+        int offset = offsetFor(slot);
+        int length = segment.getShort(offset + LENGTH_OFFSET) & 0xffff;
+        byte[] record = new byte[length];
+        segment.get(offset + RECORD_OFFSET, record);
+        try {
+            return EntityCodec.decodeUser(record, 0, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Damaged user slot in " + fileName, e);
+        }
+    }
+
+    /**
+     * Rehashes every user into a new file with the given number of slots that
+     * then replaces the current one, dropping the tombstones.
+     *
+     * @param newCapacity The number of slots, a power of two
+     */
+    private void rehash(int newCapacity) {
+        String tempName = fileName + ".tmp";
+        try {
+            Files.deleteIfExists(Paths.get(tempName));
+            MappedUserStore rehashed = new MappedUserStore(tempName, newCapacity);
+            byte[] nric = new byte[NRIC_LENGTH];
+            byte[] record = new byte[MAX_RECORD_LENGTH];
+            for (int slot = 0; slot < capacity; slot++) {
+                MappedByteBuffer segment = segmentFor(slot);
+                int offset = offsetFor(slot);
+                if (segment.get(offset) == USED) {
+                    int length = segment.getShort(offset + LENGTH_OFFSET) & 0xffff;
+                    segment.get(offset + NRIC_OFFSET, nric);
+                    segment.get(offset + RECORD_OFFSET, record, 0, length);
+                    rehashed.writeSlot(-rehashed.findSlot(nric) - 1, nric, record, length, USED);
+                }
+            }
+            rehashed.count = count;
+            rehashed.segments[0].putInt(COUNT_OFFSET, count);
+            rehashed.close();
+
+            close();
+            Files.move(Paths.get(tempName), Paths.get(fileName), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            open(newCapacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not rehash user store " + fileName, e);
+        }
+    }
+
+    /**
+     * Gets the mapped segment holding a slot.
+     *
+     * @param slot The slot index
+     * @return The segment
+     */
+    private MappedByteBuffer segmentFor(int slot) {
+        return segments[(int) (((long) slot + 1) / SLOTS_PER_SEGMENT)];
+    }
+
+    /**
+     * Gets the offset of a slot within its segment.
+     *
+     * @param slot The slot index
+     * @return The byte offset of the slot
+     */
+    private static int offsetFor(int slot) {
+        return (int) (((long) slot + 1) % SLOTS_PER_SEGMENT) * SLOT_SIZE;
+    }
+
+    /**
+     * Checks if the NRIC stored in a slot equals the given NRIC.
+     *
+     * @param segment The segment holding the slot
+     * @param offset  The offset of the slot
+     * @param nric    The NRIC in its fixed-width form
+     * @return true if they are equal, false otherwise
+     */
+    private static boolean nricMatches(MappedByteBuffer segment, int offset, byte[] nric) {
+        for (int i = 0; i < NRIC_LENGTH; i++) {
+            if (segment.get(offset + NRIC_OFFSET + i) != nric[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hashes a fixed-width NRIC, spreading the bits so that consecutive
+     * NRICs do not cluster in neighbouring slots.
+     *
+     * @param nric The NRIC in its fixed-width form
+     * @return The hash
+     */
+    private static int hash(byte[] nric) {
+        int h = Arrays.hashCode(nric);
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Converts an NRIC to its fixed-width form, padded with zeros.
+     *
+     * @param key The NRIC
+     * @return The fixed-width NRIC, or null if the key is not a valid NRIC
+     */
+    private static byte[] toNricBytes(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        String nric = (String) key;
+        if (nric.isEmpty() || nric.length() > NRIC_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[NRIC_LENGTH];
+        byte[] ascii = nric.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(ascii, 0, bytes, 0, ascii.length);
+        return bytes;
+    }
+}
@@ -0,0 +1,163 @@
+package data;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * One page of a sorted listing.
+ * A listing kept in an ordered index is paged with {@link #seek}, which starts
+ * at the cursor and reads only as far as the page needs. An unordered listing
+ * is paged with {@link #select}, which scans it once, keeping the smallest
+ * records after the cursor in a bounded heap, so a page costs memory for its
+ * own records however long the listing is.
+ *
+ * @param <T> The type of record listed
+ */
+public class Page<T> {
+    private final List<T> items;
+    private final String nextCursor;
+    private final int total;
+
+    /**
+     * Constructs a new Page.
+     *
+     * @param items      The records on the page, in order
+     * @param nextCursor The cursor of the next page, or null if this is the last
+     * @param total      The number of records in the whole listing
+     */
+    public Page(List<T> items, String nextCursor, int total) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.total = total;
+    }
+
+    /**
+     * Selects a page of records from a source.
+     *
+     * @param source  The records to list
+     * @param filter  The records to include
+     * @param sortKey Gives the sort key of a record
+     * @param cursor  The cursor returned with the previous page, or null for
+     *                the first page
+     * @param limit   The maximum number of records on the page
+     * @return The page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static <T> Page<T> select(Iterable<T> source, Predicate<T> filter, Function<T, SortKey> sortKey,
+            String cursor, int limit) {
+        SortKey after = cursor == null ? null : SortKey.fromCursor(cursor);
+        int size = Math.max(1, limit);
+
+        // Largest key on top, so the heap keeps the smallest size + 1 records
+        PriorityQueue<Map.Entry<SortKey, T>> heap = new PriorityQueue<>(size + 1,
+                (a, b) -> b.getKey().compareTo(a.getKey()));
+        int total = 0;
+        for (T item : source) {
+            if (item == null || !filter.test(item)) {
+                continue;
+            }
+            total++;
+            SortKey key = sortKey.apply(item);
+            if (after != null && key.compareTo(after) <= 0) {
+                continue;
+            }
+            if (heap.size() <= size) {
+                heap.add(new AbstractMap.SimpleImmutableEntry<>(key, item));
+            } else if (key.compareTo(heap.peek().getKey()) < 0) {
+                heap.poll();
+                heap.add(new AbstractMap.SimpleImmutableEntry<>(key, item));
+            }
+        }
+
+        List<Map.Entry<SortKey, T>> selected = new ArrayList<>(heap);
+        selected.sort(Map.Entry.comparingByKey());
+        String nextCursor = null;
+        if (selected.size() > size) {
+            selected.remove(size);
+            nextCursor = selected.get(size - 1).getKey().toCursor();
+        }
+
+        List<T> items = new ArrayList<>(selected.size());
+        for (Map.Entry<SortKey, T> entry : selected) {
+            items.add(entry.getValue());
+        }
+        return new Page<>(items, nextCursor, total);
+    }
+
+    /**
+     * Reads a page of records from an ordered index.
+     * Keys are read from the cursor on and reading stops as soon as one record
+     * past the page is found, so a page costs time for its own records rather
+     * than for the whole listing.
+     *
+     * @param keys   Gives the keys of the index in order, starting after a key
+     *               or, for null, at the first key
+     * @param lookup Gives the record stored under an ID, or null if it is gone
+     * @param filter The records to include
+     * @param cursor The cursor returned with the previous page, or null for the
+     *               first page
+     * @param limit  The maximum number of records on the page
+     * @param total  The number of records in the whole listing
+     * @return The page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static <T> Page<T> seek(Function<SortKey, Iterable<SortKey>> keys, Function<String, T> lookup,
+            Predicate<T> filter, String cursor, int limit, int total) {
+        SortKey after = cursor == null ? null : SortKey.fromCursor(cursor);
+        int size = Math.max(1, limit);
+
+        List<T> items = new ArrayList<>(size);
+        SortKey last = null;
+        String nextCursor = null;
+        for (SortKey key : keys.apply(after)) {
+            T item = lookup.apply(key.getId());
+            if (item == null || !filter.test(item)) {
+                continue;
+            }
+            if (items.size() == size) {
+                nextCursor = last.toCursor();
+                break;
+            }
+            items.add(item);
+            last = key;
+        }
+        return new Page<>(items, nextCursor, total);
+    }
+
+    /**
+     * Gets the records on this page.
+     *
+     * @return The records, in order
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Gets the cursor to pass for the next page.
+     *
+     * @return The cursor, or null if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Checks if there is a page after this one.
+     *
+     * @return true if more records follow, false otherwise
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * Gets the number of records in the whole listing.
+     *
+     * @return The total number of records
+     */
+    public int getTotal() {
+        return total;
+    }
+}
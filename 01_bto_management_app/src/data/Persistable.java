@@ -0,0 +1,15 @@
+package data;
+
+/**
+ * A database whose pending changes can be written to disk on request.
+ * Implemented by the database classes so a {@link GroupCommit} can flush them
+ * together.
+ */
+public interface Persistable {
+    /**
+     * Writes all pending changes to disk.
+     *
+     * @return true if the changes were written, false if writing failed
+     */
+    boolean flush();
+}
@@ -2,50 +2,117 @@ package data;
 
 import entity.Project;
 import entity.enums.FlatType;
+import entity.enums.MaritalStatus;
+import metrics.DatabaseLoadEvent;
+import metrics.DatabaseSaveEvent;
 
 import java.io.*;
 // import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Data access class for Project objects.
  * Handles storage and retrieval of projects.
+ * Safe for concurrent use: reads are lock-free and writes are serialized.
  */
-public class ProjectDB {
+public class ProjectDB implements Persistable {
     private static final String PROJECT_DATA_FILE = "projects.dat";
     private Map<String, Project> projects;
+    private GroupCommit groupCommit;
+    private TableLoader loader;
+    private ProjectIndex index;
 
     /**
-     * Constructs a new ProjectDB and loads existing data if available.
+     * Constructs a new ProjectDB. Existing data is loaded on first access.
      */
     public ProjectDB() {
-        projects = new HashMap<>();
-        loadData();
+        projects = new ConcurrentHashMap<>();
+        index = new ProjectIndex();
+        loader = new TableLoader("projects", this, this::loadData);
+        loader.getMetrics().recordCount("projects", projects::size);
     }
 
     /**
      * Loads project data from file.
      */
-    @SuppressWarnings("unchecked")
     private void loadData() {
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(PROJECT_DATA_FILE))) {
-            projects = (Map<String, Project>) ois.readObject();
+        try (DatabaseLoadEvent event = DatabaseLoadEvent.start("projects", PROJECT_DATA_FILE)) {
+            byte[] data = SnapshotFile.read(DataFiles.path(PROJECT_DATA_FILE));
+            List<Project> loaded = EntityCodec.decodeProjects(data);
+            for (Project project : loaded) {
+                projects.put(project.getProjectName(), project);
+                index.put(project);
+            }
+            if (event != null) {
+                event.completed(loaded.size(), data.length);
+            }
+            if (EntityCodec.isLegacy(data)) {
+                // Rewrite data saved before the binary format in the new format
+                saveData();
+            }
         } catch (FileNotFoundException e) {
             // System.out.println("Project data file not found. Starting with empty project
             // database.");
-        } catch (IOException | ClassNotFoundException e) {
+        } catch (IOException e) {
+            loader.getMetrics().loadFailed();
             System.out.println("Error loading project data: " + e.getMessage());
         }
     }
 
     /**
      * Saves project data to file.
+     * The file is replaced atomically, so a crash never leaves it truncated.
+     * 
+     * @return true if the data was saved, false otherwise
      */
-    public void saveData() {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(PROJECT_DATA_FILE))) {
-            oos.writeObject(projects);
+    public synchronized boolean saveData() {
+        loader.ensureLoaded();
+        long start = System.nanoTime();
+        try (DatabaseSaveEvent event = DatabaseSaveEvent.start("projects", PROJECT_DATA_FILE)) {
+            byte[] data = EntityCodec.encodeProjects(projects.values());
+            SnapshotFile.write(DataFiles.path(PROJECT_DATA_FILE), data);
+            if (event != null) {
+                event.completed(projects.size(), data.length);
+            }
+            return true;
         } catch (IOException e) {
+            loader.getMetrics().saveFailed();
             System.out.println("Error saving project data: " + e.getMessage());
+            return false;
+        } finally {
+            loader.getMetrics().saved(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Sets the group commit that batches writes of this database.
+     * 
+     * @param groupCommit The group commit to use, or null to write every change
+     *                    immediately
+     */
+    public void setGroupCommit(GroupCommit groupCommit) {
+        this.groupCommit = groupCommit;
+    }
+
+    /**
+     * Writes all pending changes to disk.
+     * 
+     * @return true if the changes were written, false otherwise
+     */
+    @Override
+    public boolean flush() {
+        return saveData();
+    }
+
+    /**
+     * Persists a change, either immediately or through the group commit.
+     */
+    private void persist() {
+        if (groupCommit != null) {
+            groupCommit.markDirty(this);
+        } else {
+            saveData();
         }
     }
 
@@ -55,42 +122,94 @@ public class ProjectDB {
      * @param project The project to add
      * @return true if the project was added, false if project name already exists
      */
-    public boolean addProject(Project project) {
+    public synchronized boolean addProject(Project project) {
+        loader.ensureLoaded();
         if (projects.containsKey(project.getProjectName())) {
             return false;
         }
         projects.put(project.getProjectName(), project);
-        saveData();
+        index.put(project);
+        persist();
         return true;
     }
 
+    /**
+     * Adds many projects to the database and saves them once.
+     * Projects whose name already exists are skipped.
+     * 
+     * @param newProjects The projects to add
+     * @return The number of projects added
+     */
+    public synchronized int addProjects(Collection<Project> newProjects) {
+        loader.ensureLoaded();
+        int added = 0;
+        for (Project project : newProjects) {
+            if (!projects.containsKey(project.getProjectName())) {
+                projects.put(project.getProjectName(), project);
+                index.put(project);
+                added++;
+            }
+        }
+        if (added > 0) {
+            persist();
+        }
+        return added;
+    }
+
     /**
      * Updates an existing project in the database.
      * 
      * @param project The project to update
      * @return true if the project was updated, false if project name not found
      */
-    public boolean updateProject(Project project) {
+    public synchronized boolean updateProject(Project project) {
+        loader.ensureLoaded();
         if (!projects.containsKey(project.getProjectName())) {
             return false;
         }
         projects.put(project.getProjectName(), project);
-        saveData();
+        index.put(project);
+        persist();
         return true;
     }
 
+    /**
+     * Updates many existing projects in the database and saves them once.
+     * Projects whose name is not found are skipped.
+     * 
+     * @param changedProjects The projects to update
+     * @return The number of projects updated
+     */
+    public synchronized int updateProjects(Collection<Project> changedProjects) {
+        loader.ensureLoaded();
+        int updated = 0;
+        for (Project project : changedProjects) {
+            if (projects.containsKey(project.getProjectName())) {
+                projects.put(project.getProjectName(), project);
+                index.put(project);
+                updated++;
+            }
+        }
+        if (updated > 0) {
+            persist();
+        }
+        return updated;
+    }
+
     /**
      * Deletes a project from the database.
      * 
      * @param projectName The name of the project to delete
      * @return true if the project was deleted, false if project name not found
      */
-    public boolean deleteProject(String projectName) {
+    public synchronized boolean deleteProject(String projectName) {
+        loader.ensureLoaded();
         if (!projects.containsKey(projectName)) {
             return false;
         }
         projects.remove(projectName);
-        saveData();
+        index.remove(projectName);
+        persist();
         return true;
     }
 
@@ -101,6 +220,7 @@ public class ProjectDB {
      * @return The project, or null if not found
      */
     public Project getProject(String projectName) {
+        loader.ensureLoaded();
         return projects.get(projectName);
     }
 
@@ -110,6 +230,7 @@ public class ProjectDB {
      * @return A list of all projects
      */
     public List<Project> getAllProjects() {
+        loader.ensureLoaded();
         return new ArrayList<>(projects.values());
     }
 
@@ -119,6 +240,7 @@ public class ProjectDB {
      * @return A list of all visible projects
      */
     public List<Project> getAllVisibleProjects() {
+        loader.ensureLoaded();
         List<Project> visibleProjects = new ArrayList<>();
         for (Project project : projects.values()) {
             if (project.isVisible()) {
@@ -135,6 +257,7 @@ public class ProjectDB {
      * @return A list of projects created by the manager
      */
     public List<Project> getProjectsByManager(String managerNric) {
+        loader.ensureLoaded();
         List<Project> managerProjects = new ArrayList<>();
         for (Project project : projects.values()) {
             if (project.getManagerInChargeNric().equals(managerNric)) {
@@ -151,6 +274,7 @@ public class ProjectDB {
      * @return A list of projects handled by the officer
      */
     public List<Project> getProjectsByOfficer(String officerNric) {
+        loader.ensureLoaded();
         List<Project> officerProjects = new ArrayList<>();
         for (Project project : projects.values()) {
             if (project.getOfficerNrics().contains(officerNric)) {
@@ -168,20 +292,17 @@ public class ProjectDB {
      * @return A list of visible projects suitable for the marital status
      */
     public List<Project> getVisibleProjectsByMaritalStatus(boolean isMarried) {
-        List<Project> filteredProjects = new ArrayList<>();
-        for (Project project : projects.values()) {
-            if (project.isVisible()) {
-                // For married, return all visible projects
-                if (isMarried) {
-                    filteredProjects.add(project);
-                }
-                // For singles, return projects with 2-Room flats
-                else if (!isMarried && project.getFlatTypeUnits().containsKey(FlatType.TWO_ROOM)) {
-                    filteredProjects.add(project);
-                }
-            }
-        }
-        return filteredProjects;
+        return query().visible().eligibleFor(isMarried ? MaritalStatus.MARRIED : MaritalStatus.SINGLE).list();
+    }
+
+    /**
+     * Starts a search for projects answered from the project indexes.
+     * 
+     * @return A query matching every project, to be narrowed with conditions
+     */
+    public ProjectQuery query() {
+        loader.ensureLoaded();
+        return new ProjectQuery(index);
     }
 
     /**
@@ -226,4 +347,26 @@ public class ProjectDB {
         }
         return filteredProjects;
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets one page of projects, ordered by name.
+     * 
+     * @param cursor The cursor of the previous page, or null for the first page
+     * @param limit  The maximum number of projects on the page
+     * @return The page of projects
+     */
+    public Page<Project> getProjectsPage(String cursor, int limit) {
+        loader.ensureLoaded();
+        return Page.select(projects.values(), project -> true, project -> new SortKey(project.getProjectName()),
+                cursor, limit);
+    }
+
+    /**
+     * Gets the loader that reads this table from disk.
+     * 
+     * @return The table loader
+     */
+    public TableLoader getLoader() {
+        return loader;
+    }
+}
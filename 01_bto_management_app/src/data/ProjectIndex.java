@@ -0,0 +1,179 @@
+package data;
+
+import entity.Project;
+import entity.enums.FlatType;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmap indexes over the projects of a {@link ProjectDB}.
+ * Every project gets a small number, and each indexed property keeps a bitmap
+ * of the numbers of the projects that have it: visibility, neighborhood, flat
+ * types offered and flat types with units left. A query intersects the bitmaps
+ * it needs instead of scanning all projects.
+ * Projects are reindexed whenever the database stores them.
+ */
+public class ProjectIndex {
+    private final Map<String, Integer> ids;
+    private final List<Project> projectsById;
+    private final List<String> neighborhoodsById;
+    private final BitSet freeIds;
+    private final BitSet all;
+    private final BitSet visible;
+    private final Map<String, BitSet> byNeighborhood;
+    private final Map<FlatType, BitSet> offering;
+    private final Map<FlatType, BitSet> available;
+    private final ReentrantReadWriteLock lock;
+
+    /**
+     * Constructs a new empty ProjectIndex.
+     */
+    public ProjectIndex() {
+        this.ids = new HashMap<>();
+        this.projectsById = new ArrayList<>();
+        this.neighborhoodsById = new ArrayList<>();
+        this.freeIds = new BitSet();
+        this.all = new BitSet();
+        this.visible = new BitSet();
+        this.byNeighborhood = new HashMap<>();
+        this.offering = new EnumMap<>(FlatType.class);
+        this.available = new EnumMap<>(FlatType.class);
+        for (FlatType flatType : FlatType.values()) {
+            offering.put(flatType, new BitSet());
+            available.put(flatType, new BitSet());
+        }
+        this.lock = new ReentrantReadWriteLock();
+    }
+
+    /**
+     * Normalizes a neighborhood name so lookups ignore case and surrounding
+     * whitespace.
+     *
+     * @param neighborhood The neighborhood name
+     * @return The normalized name
+     */
+    public static String normalize(String neighborhood) {
+        return neighborhood == null ? "" : neighborhood.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Adds a project to the index, or reindexes it if it is already indexed.
+     *
+     * @param project The project to index
+     */
+    public void put(Project project) {
+        lock.writeLock().lock();
+        try {
+            Integer id = ids.get(project.getProjectName());
+            if (id != null) {
+                clear(id);
+            } else {
+                id = freeIds.isEmpty() ? projectsById.size() : freeIds.nextSetBit(0);
+                freeIds.clear(id);
+                ids.put(project.getProjectName(), id);
+                if (id == projectsById.size()) {
+                    projectsById.add(null);
+                    neighborhoodsById.add(null);
+                }
+            }
+
+            projectsById.set(id, project);
+            all.set(id);
+            if (project.isVisible()) {
+                visible.set(id);
+            }
+            String neighborhood = normalize(project.getNeighborhood());
+            neighborhoodsById.set(id, neighborhood);
+            byNeighborhood.computeIfAbsent(neighborhood, key -> new BitSet()).set(id);
+            for (Map.Entry<FlatType, Integer> entry : project.getFlatTypeUnits().entrySet()) {
+                offering.get(entry.getKey()).set(id);
+                if (entry.getValue() > 0) {
+                    available.get(entry.getKey()).set(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a project from the index.
+     *
+     * @param projectName The name of the project to remove
+     */
+    public void remove(String projectName) {
+        lock.writeLock().lock();
+        try {
+            Integer id = ids.remove(projectName);
+            if (id != null) {
+                clear(id);
+                projectsById.set(id, null);
+                freeIds.set(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the projects that may match a query.
+     * The bitmaps of every condition in the query are intersected; the caller
+     * checks the result against the live projects.
+     *
+     * @param query The query to run
+     * @return The candidate projects
+     */
+    List<Project> candidates(ProjectQuery query) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = (BitSet) all.clone();
+            if (query.isVisibleOnly()) {
+                matches.and(visible);
+            }
+            if (query.getNeighborhood() != null) {
+                BitSet neighborhood = byNeighborhood.get(normalize(query.getNeighborhood()));
+                if (neighborhood == null) {
+                    return new ArrayList<>();
+                }
+                matches.and(neighborhood);
+            }
+            for (FlatType flatType : query.getOfferedFlatTypes()) {
+                matches.and(offering.get(flatType));
+            }
+            for (FlatType flatType : query.getAvailableFlatTypes()) {
+                matches.and(available.get(flatType));
+            }
+
+            List<Project> result = new ArrayList<>(matches.cardinality());
+            for (int id = matches.nextSetBit(0); id >= 0; id = matches.nextSetBit(id + 1)) {
+                result.add(projectsById.get(id));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Clears a project number from every bitmap.
+     *
+     * @param id The number of the project
+     */
+    private void clear(int id) {
+        all.clear(id);
+        visible.clear(id);
+        String neighborhood = neighborhoodsById.get(id);
+        BitSet inNeighborhood = byNeighborhood.get(neighborhood);
+        if (inNeighborhood != null) {
+            inNeighborhood.clear(id);
+            if (inNeighborhood.isEmpty()) {
+                byNeighborhood.remove(neighborhood);
+            }
+        }
+        for (FlatType flatType : FlatType.values()) {
+            offering.get(flatType).clear(id);
+            available.get(flatType).clear(id);
+        }
+    }
+}
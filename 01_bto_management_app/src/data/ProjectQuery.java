@@ -0,0 +1,166 @@
+package data;
+
+import entity.Project;
+import entity.enums.FlatType;
+import entity.enums.MaritalStatus;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A search for projects, built by chaining conditions.
+ * Conditions are answered from the {@link ProjectIndex} of the database, so
+ * adding one narrows the search instead of scanning another list. For example:
+ * {@code projectDB.query().visible().eligibleFor(status).inNeighborhood(n).list()}
+ */
+public class ProjectQuery {
+    private final ProjectIndex index;
+    private boolean visibleOnly;
+    private String neighborhood;
+    private final Set<FlatType> offeredFlatTypes;
+    private final Set<FlatType> availableFlatTypes;
+
+    /**
+     * Constructs a new ProjectQuery that matches every project.
+     *
+     * @param index The index to answer the query from
+     */
+    ProjectQuery(ProjectIndex index) {
+        this.index = index;
+        this.offeredFlatTypes = EnumSet.noneOf(FlatType.class);
+        this.availableFlatTypes = EnumSet.noneOf(FlatType.class);
+    }
+
+    /**
+     * Only matches projects that are visible to applicants.
+     *
+     * @return This query
+     */
+    public ProjectQuery visible() {
+        visibleOnly = true;
+        return this;
+    }
+
+    /**
+     * Only matches projects an applicant of a marital status may apply for.
+     * Singles may only apply for projects offering 2-Room flats.
+     *
+     * @param maritalStatus The marital status of the applicant
+     * @return This query
+     */
+    public ProjectQuery eligibleFor(MaritalStatus maritalStatus) {
+        if (maritalStatus == MaritalStatus.SINGLE) {
+            offeredFlatTypes.add(FlatType.TWO_ROOM);
+        }
+        return this;
+    }
+
+    /**
+     * Only matches projects in a neighborhood, ignoring case.
+     *
+     * @param neighborhood The neighborhood, or null or empty for any
+     * @return This query
+     */
+    public ProjectQuery inNeighborhood(String neighborhood) {
+        if (neighborhood != null && !neighborhood.isEmpty()) {
+            this.neighborhood = neighborhood;
+        }
+        return this;
+    }
+
+    /**
+     * Only matches projects with units of a flat type left.
+     *
+     * @param flatType The flat type, or null for any
+     * @return This query
+     */
+    public ProjectQuery withAvailableUnits(FlatType flatType) {
+        if (flatType != null) {
+            availableFlatTypes.add(flatType);
+        }
+        return this;
+    }
+
+    /**
+     * Runs the query.
+     * Unit counts change without the index being told until the project is
+     * saved, so each candidate is checked once more against its live state.
+     *
+     * @return The matching projects
+     */
+    public List<Project> list() {
+        List<Project> matches = new ArrayList<>();
+        for (Project project : index.candidates(this)) {
+            if (matches(project)) {
+                matches.add(project);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Checks a project against every condition of the query.
+     *
+     * @param project The project to check
+     * @return true if the project matches, false otherwise
+     */
+    private boolean matches(Project project) {
+        if (visibleOnly && !project.isVisible()) {
+            return false;
+        }
+        if (neighborhood != null
+                && !ProjectIndex.normalize(project.getNeighborhood()).equals(ProjectIndex.normalize(neighborhood))) {
+            return false;
+        }
+        for (FlatType flatType : offeredFlatTypes) {
+            if (!project.getFlatTypeUnits().containsKey(flatType)) {
+                return false;
+            }
+        }
+        for (FlatType flatType : availableFlatTypes) {
+            Integer units = project.getFlatTypeUnits().get(flatType);
+            if (units == null || units <= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the query only matches visible projects.
+     *
+     * @return true if only visible projects match
+     */
+    boolean isVisibleOnly() {
+        return visibleOnly;
+    }
+
+    /**
+     * Gets the neighborhood the query is limited to.
+     *
+     * @return The neighborhood, or null for any
+     */
+    String getNeighborhood() {
+        return neighborhood;
+    }
+
+    /**
+     * Gets the flat types matching projects must offer.
+     *
+     * @return The flat types
+     */
+    Set<FlatType> getOfferedFlatTypes() {
+        return offeredFlatTypes;
+    }
+
+    /**
+     * Gets the flat types matching projects must have units of.
+     *
+     * @return The flat types
+     */
+    Set<FlatType> getAvailableFlatTypes() {
+        return availableFlatTypes;
+    }
+}
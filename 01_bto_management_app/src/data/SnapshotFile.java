@@ -0,0 +1,150 @@
+package data;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Crash-safe storage of database snapshots.
+ * A snapshot is written to a temporary file, forced to disk and then renamed
+ * over the live file, so a crash leaves either the old or the new snapshot but
+ * never a truncated one. The previous snapshot is kept as a backup, and every
+ * snapshot carries a checksum that is verified when it is read back.
+ */
+public class SnapshotFile {
+    private static final int MAGIC = 0x42544F53; // "BTOS"
+    private static final int HEADER_LENGTH = 16;
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String BACKUP_SUFFIX = ".bak";
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * Writes data as the new snapshot in a file.
+     *
+     * @param fileName The name of the snapshot file
+     * @param payload  The encoded data to write
+     * @throws IOException if the snapshot could not be written
+     */
+    public static void write(String fileName, byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        header.putInt(MAGIC).putInt(payload.length).putLong(crc.getValue()).flip();
+
+        Path target = Paths.get(fileName);
+        Path temp = Paths.get(fileName + TEMP_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer body = ByteBuffer.wrap(payload);
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            while (body.hasRemaining()) {
+                channel.write(body);
+            }
+            channel.force(true);
+        }
+
+        // Keep the previous snapshot; if we crash between the two renames the
+        // backup is still there to load from
+        if (Files.exists(target)) {
+            Files.move(target, Paths.get(fileName + BACKUP_SUFFIX), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory(target.toAbsolutePath().getParent());
+        TableMetrics.bytesWritten(fileName, HEADER_LENGTH + payload.length);
+    }
+
+    /**
+     * Reads the data stored in a snapshot file.
+     * Falls back to the backup if the file is missing or fails its checksum.
+     *
+     * @param fileName The name of the snapshot file
+     * @return The stored data
+     * @throws FileNotFoundException if neither the file nor its backup exists
+     * @throws IOException           if no valid snapshot could be read
+     */
+    public static byte[] read(String fileName) throws IOException {
+        File file = new File(fileName);
+        File backup = new File(fileName + BACKUP_SUFFIX);
+
+        if (file.exists()) {
+            try {
+                return readFile(file);
+            } catch (IOException e) {
+                if (!backup.exists()) {
+                    throw e;
+                }
+                System.out.println("Snapshot " + fileName + " is damaged (" + e.getMessage()
+                        + "), loading backup.");
+            }
+        }
+
+        if (!backup.exists()) {
+            throw new FileNotFoundException(fileName);
+        }
+        return readFile(backup);
+    }
+
+    /**
+     * Checks if a snapshot or its backup exists.
+     *
+     * @param fileName The name of the snapshot file
+     * @return true if a snapshot can be loaded, false otherwise
+     */
+    public static boolean exists(String fileName) {
+        return new File(fileName).exists() || new File(fileName + BACKUP_SUFFIX).exists();
+    }
+
+    /**
+     * Reads and verifies a single snapshot file.
+     * Files written before checksums were introduced have no header and are
+     * returned as they are.
+     *
+     * @param file The file to read
+     * @return The stored data
+     * @throws IOException if the file is truncated or fails its checksum
+     */
+    private static byte[] readFile(File file) throws IOException {
+        byte[] contents = Files.readAllBytes(file.toPath());
+        TableMetrics.bytesRead(file.getPath(), contents.length);
+        ByteBuffer buffer = ByteBuffer.wrap(contents);
+
+        if (contents.length >= HEADER_LENGTH && buffer.getInt() == MAGIC) {
+            int length = buffer.getInt();
+            long checksum = buffer.getLong();
+            if (length < 0 || length != contents.length - HEADER_LENGTH) {
+                throw new IOException("truncated snapshot");
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(contents, HEADER_LENGTH, length);
+            if (crc.getValue() != checksum) {
+                throw new IOException("checksum mismatch");
+            }
+            return Arrays.copyOfRange(contents, HEADER_LENGTH, contents.length);
+        }
+        return contents;
+    }
+
+    /**
+     * Forces a directory to disk so a rename inside it survives a crash.
+     * Not every platform allows opening a directory, in which case this does
+     * nothing.
+     *
+     * @param directory The directory to force
+     */
+    private static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directory sync is not supported here
+        }
+    }
+}
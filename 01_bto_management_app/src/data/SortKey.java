@@ -0,0 +1,119 @@
+package data;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * The position of a record in a paged listing.
+ * Records are ordered by a numeric key such as a timestamp, with ties broken
+ * by a unique id, so the order is stable even when records share a key. A
+ * sort key can be written as a cursor string and read back to continue a
+ * listing after that record.
+ */
+public class SortKey implements Comparable<SortKey> {
+    private final long primary;
+    private final String id;
+
+    /**
+     * Constructs a new SortKey.
+     *
+     * @param primary The numeric key, such as epoch milliseconds
+     * @param id      The unique id of the record
+     */
+    public SortKey(long primary, String id) {
+        this.primary = primary;
+        this.id = id;
+    }
+
+    /**
+     * Constructs a new SortKey ordered by id alone.
+     *
+     * @param id The unique id of the record
+     */
+    public SortKey(String id) {
+        this(0, id);
+    }
+
+    /**
+     * Constructs a new SortKey ordered by a timestamp, then by id.
+     * Records without a timestamp sort first.
+     *
+     * @param time The timestamp, or null
+     * @param id   The unique id of the record
+     */
+    public SortKey(LocalDateTime time, String id) {
+        this(time == null ? Long.MIN_VALUE : time.toInstant(ZoneOffset.UTC).toEpochMilli(), id);
+    }
+
+    /**
+     * Reads a sort key back from a cursor string.
+     *
+     * @param cursor The cursor from {@link #toCursor()}
+     * @return The sort key
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static SortKey fromCursor(String cursor) {
+        int separator = cursor.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Malformed cursor: " + cursor);
+        }
+        try {
+            return new SortKey(Long.parseLong(cursor.substring(0, separator)), cursor.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Gets the ID of the record.
+     *
+     * @return The record ID
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Writes this sort key as a cursor string.
+     *
+     * @return The cursor
+     */
+    public String toCursor() {
+        return primary + ":" + id;
+    }
+
+    /**
+     * Compares this sort key with another, first by the numeric key and then
+     * by id.
+     *
+     * @param other The sort key to compare with
+     * @return A negative number, zero or a positive number as this key sorts
+     *         before, with or after the other
+     */
+    @Override
+    public int compareTo(SortKey other) {
+        int result = Long.compare(primary, other.primary);
+        return result != 0 ? result : id.compareTo(other.id);
+    }
+
+    /**
+     * Checks if this sort key names the same position as another object.
+     *
+     * @param other The object to compare with
+     * @return true if the other object is an equal sort key, false otherwise
+     */
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof SortKey && compareTo((SortKey) other) == 0;
+    }
+
+    /**
+     * Gets the hash code of this sort key.
+     *
+     * @return The hash code
+     */
+    @Override
+    public int hashCode() {
+        return Long.hashCode(primary) * 31 + id.hashCode();
+    }
+}
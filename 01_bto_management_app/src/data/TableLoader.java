@@ -0,0 +1,143 @@
+package data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Loads a database table the first time it is needed.
+ * Databases call {@link #ensureLoaded()} before touching their data, so a
+ * table that a session never uses is never read from disk. The time taken by
+ * the load is recorded for the startup report and in the table's metrics.
+ */
+public class TableLoader {
+    private final String tableName;
+    private final Object lock;
+    private final Runnable loader;
+    private final TableMetrics metrics;
+    private volatile boolean loaded;
+    private Thread loadingThread;
+    private long loadMillis;
+
+    /**
+     * Constructs a new TableLoader for a table.
+     * The load runs while holding the lock the database uses for its writes,
+     * so a write can never interleave with the load.
+     *
+     * @param tableName The name of the table, used in reports
+     * @param lock      The lock that guards writes to the table
+     * @param loader    The action that reads the table from disk
+     */
+    public TableLoader(String tableName, Object lock, Runnable loader) {
+        this.tableName = tableName;
+        this.lock = lock;
+        this.loader = loader;
+        this.metrics = new TableMetrics(tableName);
+        this.loaded = false;
+        this.loadMillis = -1;
+    }
+
+    /**
+     * Loads the table unless it has been loaded already.
+     * Other threads wait for a load in progress. Calls made by the loading
+     * thread itself, such as a save during migration, return straight away.
+     */
+    public void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+
+        synchronized (lock) {
+            if (loaded || loadingThread == Thread.currentThread()) {
+                return;
+            }
+
+            loadingThread = Thread.currentThread();
+            try {
+                long start = System.nanoTime();
+                loader.run();
+                long nanos = System.nanoTime() - start;
+                loadMillis = nanos / 1_000_000;
+                metrics.loaded(nanos);
+                loaded = true;
+            } finally {
+                loadingThread = null;
+            }
+        }
+    }
+
+    /**
+     * Checks if the table has been loaded.
+     *
+     * @return true if the table is loaded, false otherwise
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Gets the time the load took.
+     *
+     * @return The load time in milliseconds, or -1 if not loaded yet
+     */
+    public long getLoadMillis() {
+        synchronized (lock) {
+            return loadMillis;
+        }
+    }
+
+    /**
+     * Gets the name of the table.
+     *
+     * @return The table name
+     */
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Gets the metrics of the table.
+     *
+     * @return The table metrics
+     */
+    public TableMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Loads several tables at the same time and waits until all are loaded.
+     * The tables are stored in separate files, so the total time is roughly
+     * that of the slowest table.
+     *
+     * @param loaders The loaders of the tables to load
+     * @param threads The maximum number of tables to load at once
+     */
+    public static void loadInParallel(List<TableLoader> loaders, int threads) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, loaders.size())),
+                task -> {
+                    Thread thread = new Thread(task, "table-loader");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        try {
+            List<Future<?>> loads = new ArrayList<>();
+            for (TableLoader loader : loaders) {
+                loads.add(executor.submit(loader::ensureLoaded));
+            }
+            for (Future<?> load : loads) {
+                try {
+                    load.get();
+                } catch (ExecutionException e) {
+                    System.out.println("Error loading table: " + e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package data;
+
+import metrics.Counter;
+import metrics.LatencyHistogram;
+import metrics.MetricsRegistry;
+
+import java.nio.file.Paths;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Metrics of the persistence of one database table: how long saves and loads
+ * take, how many fail, how many bytes reach the disk and how many records the
+ * table holds. Every metric is labelled with the table name, so the tables
+ * can be compared on the runtime metrics screen.
+ */
+public class TableMetrics {
+    public static final String SAVE_SECONDS = "bto_db_save_seconds";
+    public static final String SAVE_ERRORS = "bto_db_save_errors_total";
+    public static final String LOAD_SECONDS = "bto_db_load_seconds";
+    public static final String LOAD_ERRORS = "bto_db_load_errors_total";
+    public static final String RECORDS = "bto_db_records";
+    public static final String BYTES_WRITTEN = "bto_db_bytes_written_total";
+    public static final String BYTES_READ = "bto_db_bytes_read_total";
+
+    private final MetricsRegistry registry;
+    private final String tableName;
+    private final LatencyHistogram saveLatency;
+    private final Counter saveErrors;
+    private final Counter loadErrors;
+
+    /**
+     * Constructs a new TableMetrics in the default registry.
+     *
+     * @param tableName The name of the table
+     */
+    public TableMetrics(String tableName) {
+        this.registry = MetricsRegistry.getDefault();
+        this.tableName = tableName;
+        this.saveLatency = registry.histogram(SAVE_SECONDS, "Time taken to save a table.", "table", tableName);
+        this.saveErrors = registry.counter(SAVE_ERRORS, "Saves of a table that failed.", "table", tableName);
+        this.loadErrors = registry.counter(LOAD_ERRORS, "Loads of a table that failed.", "table", tableName);
+    }
+
+    /**
+     * Records how long a save of the table took.
+     *
+     * @param nanos The save time in nanoseconds
+     */
+    public void saved(long nanos) {
+        saveLatency.record(nanos);
+    }
+
+    /**
+     * Counts a failed save of the table.
+     */
+    public void saveFailed() {
+        saveErrors.increment();
+    }
+
+    /**
+     * Counts a failed load of the table.
+     */
+    public void loadFailed() {
+        loadErrors.increment();
+    }
+
+    /**
+     * Records how long the load of the table took.
+     *
+     * @param nanos The load time in nanoseconds
+     */
+    public void loaded(long nanos) {
+        registry.gauge(LOAD_SECONDS, "Time taken by the last load of a table.", "table", tableName).set(nanos / 1e9);
+    }
+
+    /**
+     * Reports the number of records of the table, or of one kind of record
+     * kept in it.
+     *
+     * @param kind  The kind of record, such as {@code bookings}
+     * @param count Gives the current number of records
+     */
+    public void recordCount(String kind, DoubleSupplier count) {
+        registry.registerGauge(RECORDS, "Records held by a table.", count, "table", kind);
+    }
+
+    /**
+     * Counts bytes written to a data file.
+     *
+     * @param fileName The path of the file
+     * @param bytes    The number of bytes written
+     */
+    public static void bytesWritten(String fileName, long bytes) {
+        MetricsRegistry.getDefault().counter(BYTES_WRITTEN, "Bytes written to a data file.", "file",
+                Paths.get(fileName).getFileName().toString()).add(bytes);
+    }
+
+    /**
+     * Counts bytes read from a data file.
+     *
+     * @param fileName The path of the file
+     * @param bytes    The number of bytes read
+     */
+    public static void bytesRead(String fileName, long bytes) {
+        MetricsRegistry.getDefault().counter(BYTES_READ, "Bytes read from a data file.", "file",
+                Paths.get(fileName).getFileName().toString()).add(bytes);
+    }
+}
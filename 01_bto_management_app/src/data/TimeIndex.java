@@ -0,0 +1,155 @@
+package data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Index of record IDs ordered by time, per project and across all projects.
+ * Each project keeps a skip list sorted by timestamp and then ID, so records
+ * can be read oldest first, by time range or from a cursor on without
+ * scanning or sorting. Reads never block and see records added while they
+ * iterate.
+ */
+public class TimeIndex {
+    private final Map<String, NavigableSet<SortKey>> byProject;
+    private final NavigableSet<SortKey> all;
+    // Skip lists count their elements by walking them, so sizes are kept here
+    private final Map<String, AtomicInteger> sizes;
+    private final AtomicInteger allSize;
+
+    /**
+     * Constructs a new empty TimeIndex.
+     */
+    public TimeIndex() {
+        this.byProject = new ConcurrentHashMap<>();
+        this.all = new ConcurrentSkipListSet<>();
+        this.sizes = new ConcurrentHashMap<>();
+        this.allSize = new AtomicInteger();
+    }
+
+    /**
+     * Adds a record to the index.
+     *
+     * @param projectName The project of the record
+     * @param time        The time of the record
+     * @param id          The ID of the record
+     */
+    public void add(String projectName, LocalDateTime time, String id) {
+        SortKey key = new SortKey(time, id);
+        if (byProject.computeIfAbsent(projectName, k -> new ConcurrentSkipListSet<>()).add(key)) {
+            sizes.computeIfAbsent(projectName, k -> new AtomicInteger()).incrementAndGet();
+        }
+        if (all.add(key)) {
+            allSize.incrementAndGet();
+        }
+    }
+
+    /**
+     * Removes a record from the index.
+     * A record that is not indexed under the project is left alone.
+     *
+     * @param projectName The project of the record
+     * @param time        The time of the record
+     * @param id          The ID of the record
+     */
+    public void remove(String projectName, LocalDateTime time, String id) {
+        SortKey key = new SortKey(time, id);
+        NavigableSet<SortKey> keys = byProject.get(projectName);
+        if (keys == null || !keys.remove(key)) {
+            return;
+        }
+        sizes.get(projectName).decrementAndGet();
+        if (all.remove(key)) {
+            allSize.decrementAndGet();
+        }
+    }
+
+    /**
+     * Removes every record from the index.
+     */
+    public void clear() {
+        byProject.clear();
+        all.clear();
+        sizes.clear();
+        allSize.set(0);
+    }
+
+    /**
+     * Gets the number of records of a project.
+     *
+     * @param projectName The project, or null for all projects
+     * @return The number of records
+     */
+    public int size(String projectName) {
+        if (projectName == null) {
+            return allSize.get();
+        }
+        AtomicInteger size = sizes.get(projectName);
+        return size != null ? size.get() : 0;
+    }
+
+    /**
+     * Gets the IDs of the records of a project, oldest first.
+     *
+     * @param projectName The project, or null for all projects
+     * @return The IDs in time order
+     */
+    public Iterable<String> inOrder(String projectName) {
+        NavigableSet<SortKey> keys = keysFor(projectName);
+        return () -> keys.stream().map(SortKey::getId).iterator();
+    }
+
+    /**
+     * Gets the keys of the records of a project that sort after a key, oldest
+     * first. The skip list seeks straight to the key, so reading a page far
+     * into a listing costs the same as reading the first.
+     *
+     * @param projectName The project, or null for all projects
+     * @param after       The key to start after, or null to start at the
+     *                    oldest record
+     * @return The keys in time order
+     */
+    public Iterable<SortKey> keysAfter(String projectName, SortKey after) {
+        NavigableSet<SortKey> keys = keysFor(projectName);
+        return after == null ? keys : keys.tailSet(after, false);
+    }
+
+    /**
+     * Gets the IDs of the records in a time range, oldest first.
+     *
+     * @param projectName The project, or null for all projects
+     * @param from        The start of the range, inclusive
+     * @param to          The end of the range, exclusive
+     * @return The IDs in time order
+     */
+    public List<String> range(String projectName, LocalDateTime from, LocalDateTime to) {
+        List<String> ids = new ArrayList<>();
+        if (from.isBefore(to)) {
+            // "" sorts before every ID, so these keys bound whole timestamps
+            for (SortKey key : keysFor(projectName).subSet(new SortKey(from, ""), new SortKey(to, ""))) {
+                ids.add(key.getId());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Gets the ordered keys of a project.
+     *
+     * @param projectName The project, or null for all projects
+     * @return The keys, empty if the project has no records
+     */
+    private NavigableSet<SortKey> keysFor(String projectName) {
+        if (projectName == null) {
+            return all;
+        }
+        NavigableSet<SortKey> keys = byProject.get(projectName);
+        return keys != null ? keys : new ConcurrentSkipListSet<>();
+    }
+}
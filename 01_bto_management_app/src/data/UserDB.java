@@ -4,51 +4,182 @@ import entity.*;
 // import entity.enums.MaritalStatus;
 import entity.enums.UserRole;
 
+import metrics.DatabaseLoadEvent;
+import metrics.DatabaseSaveEvent;
+
 import java.io.*;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Data access class for User objects.
  * Handles storage and retrieval of all user types.
+ * Safe for concurrent use: reads never block each other and writes are serialized.
  */
-public class UserDB {
+public class UserDB implements Persistable {
     private static final String USER_DATA_FILE = "users.dat";
+    private static final String USER_SLOT_FILE = "users.slots";
     private Map<String, User> users;
+    private MappedUserStore mappedStore;
+    private GroupCommit groupCommit;
+    private TableLoader loader;
 
     /**
-     * Constructs a new UserDB and loads existing data if available.
+     * Constructs a new UserDB. Existing data is loaded on first access.
      */
     public UserDB() {
-        users = new HashMap<>();
-        loadData();
+        this(false);
+    }
+
+    /**
+     * Constructs a new UserDB, optionally backed by a memory-mapped slot file
+     * instead of an in-memory map. The mapped store keeps users on disk and
+     * updates them in place, so it suits very large user tables.
+     * 
+     * @param mapped true to use the memory-mapped store, false to keep users in
+     *               memory
+     */
+    public UserDB(boolean mapped) {
+        if (mapped) {
+            try {
+                mappedStore = new MappedUserStore(DataFiles.path(USER_SLOT_FILE));
+                users = mappedStore;
+                loader = new TableLoader("users", this, this::loadData);
+                loader.getMetrics().recordCount("users", users::size);
+                return;
+            } catch (IOException e) {
+                System.out.println("Error opening user store, keeping users in memory: " + e.getMessage());
+            }
+        }
+
+        users = new ConcurrentHashMap<>();
+        loader = new TableLoader("users", this, this::loadData);
+        loader.getMetrics().recordCount("users", users::size);
     }
 
     /**
      * Loads user data from file.
      */
-    @SuppressWarnings("unchecked")
     private void loadData() {
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(USER_DATA_FILE))) {
-            users = (Map<String, User>) ois.readObject();
+        // The mapped store only imports the snapshot the first time it is used
+        if (mappedStore != null && !mappedStore.isEmpty()) {
+            return;
+        }
+
+        try (DatabaseLoadEvent event = DatabaseLoadEvent.start("users", USER_DATA_FILE)) {
+            byte[] data = SnapshotFile.read(DataFiles.path(USER_DATA_FILE));
+            List<User> loaded = EntityCodec.decodeUsers(data);
+            for (User user : loaded) {
+                users.put(user.getNric(), user);
+            }
+            if (event != null) {
+                event.completed(loaded.size(), data.length);
+            }
+            if (EntityCodec.isLegacy(data)) {
+                // Rewrite data saved before the binary format in the new format
+                saveData();
+            }
         } catch (FileNotFoundException e) {
             // System.out.println("User data file not found. Starting with empty user
             // database.");
-        } catch (IOException | ClassNotFoundException e) {
+        } catch (IOException e) {
+            loader.getMetrics().loadFailed();
             System.out.println("Error loading user data: " + e.getMessage());
         }
     }
 
     /**
      * Saves user data to file.
+     * The file is replaced atomically, so a crash never leaves it truncated.
+     * With the mapped store, changed slots are forced to disk instead.
+     * 
+     * @return true if the data was saved, false otherwise
      */
-    public void saveData() {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(USER_DATA_FILE))) {
-            oos.writeObject(users);
+    public synchronized boolean saveData() {
+        loader.ensureLoaded();
+        long start = System.nanoTime();
+        try (DatabaseSaveEvent event = DatabaseSaveEvent.start("users",
+                mappedStore != null ? USER_SLOT_FILE : USER_DATA_FILE)) {
+            // The mapped store is updated in place and only needs forcing to disk
+            if (mappedStore != null) {
+                mappedStore.force();
+                if (event != null) {
+                    event.completed(users.size(), 0);
+                }
+                return true;
+            }
+
+            byte[] data = EntityCodec.encodeUsers(users.values());
+            SnapshotFile.write(DataFiles.path(USER_DATA_FILE), data);
+            if (event != null) {
+                event.completed(users.size(), data.length);
+            }
+            return true;
         } catch (IOException e) {
+            loader.getMetrics().saveFailed();
             System.out.println("Error saving user data: " + e.getMessage());
+            return false;
+        } finally {
+            loader.getMetrics().saved(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Checks if user data has been saved before, either as a snapshot or in
+     * the mapped store.
+     * 
+     * @return true if saved user data exists, false otherwise
+     */
+    public boolean hasSavedData() {
+        return SnapshotFile.exists(DataFiles.path(USER_DATA_FILE)) || (mappedStore != null && !mappedStore.isEmpty());
+    }
+
+    /**
+     * Sets the group commit that batches writes of this database.
+     * 
+     * @param groupCommit The group commit to use, or null to write every change
+     *                    immediately
+     */
+    public void setGroupCommit(GroupCommit groupCommit) {
+        this.groupCommit = groupCommit;
+    }
+
+    /**
+     * Writes all pending changes to disk.
+     * 
+     * @return true if the changes were written, false otherwise
+     */
+    @Override
+    public boolean flush() {
+        return saveData();
+    }
+
+    /**
+     * Closes the mapped store, if used, after forcing it to disk, so it is not
+     * checked for a crash the next time it is opened.
+     */
+    public synchronized void close() {
+        if (mappedStore == null) {
+            return;
+        }
+        try {
+            mappedStore.close();
+        } catch (IOException e) {
+            System.out.println("Error closing user store: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Persists a change, either immediately or through the group commit.
+     */
+    private void persist() {
+        if (groupCommit != null) {
+            groupCommit.markDirty(this);
+        } else {
+            saveData();
         }
     }
 
@@ -58,27 +189,73 @@ public class UserDB {
      * @param user The user to add
      * @return true if the user was added, false if NRIC already exists
      */
-    public boolean addUser(User user) {
+    public synchronized boolean addUser(User user) {
+        loader.ensureLoaded();
         if (users.containsKey(user.getNric())) {
             return false;
         }
         users.put(user.getNric(), user);
-        saveData();
+        persist();
         return true;
     }
 
+    /**
+     * Adds many users to the database and saves them once.
+     * Users whose NRIC already exists are skipped.
+     * 
+     * @param newUsers The users to add
+     * @return The number of users added
+     */
+    public synchronized int addUsers(Collection<? extends User> newUsers) {
+        loader.ensureLoaded();
+        int added = 0;
+        for (User user : newUsers) {
+            if (!users.containsKey(user.getNric())) {
+                users.put(user.getNric(), user);
+                added++;
+            }
+        }
+        if (added > 0) {
+            persist();
+        }
+        return added;
+    }
+
+    /**
+     * Updates many existing users in the database and saves them once.
+     * Users whose NRIC is not found are skipped.
+     * 
+     * @param changedUsers The users to update
+     * @return The number of users updated
+     */
+    public synchronized int updateUsers(Collection<? extends User> changedUsers) {
+        loader.ensureLoaded();
+        int updated = 0;
+        for (User user : changedUsers) {
+            if (users.containsKey(user.getNric())) {
+                users.put(user.getNric(), user);
+                updated++;
+            }
+        }
+        if (updated > 0) {
+            persist();
+        }
+        return updated;
+    }
+
     /**
      * Updates an existing user in the database.
      * 
      * @param user The user to update
      * @return true if the user was updated, false if NRIC not found
      */
-    public boolean updateUser(User user) {
+    public synchronized boolean updateUser(User user) {
+        loader.ensureLoaded();
         if (!users.containsKey(user.getNric())) {
             return false;
         }
         users.put(user.getNric(), user);
-        saveData();
+        persist();
         return true;
     }
 
@@ -89,6 +266,7 @@ public class UserDB {
      * @return The user, or null if not found
      */
     public User getUser(String nric) {
+        loader.ensureLoaded();
         return users.get(nric);
     }
 
@@ -98,6 +276,7 @@ public class UserDB {
      * @return A list of all users
      */
     public List<User> getAllUsers() {
+        loader.ensureLoaded();
         return new ArrayList<>(users.values());
     }
 
@@ -108,6 +287,7 @@ public class UserDB {
      * @return A list of users with the specified role
      */
     public List<User> getUsersByRole(UserRole role) {
+        loader.ensureLoaded();
         List<User> filteredUsers = new ArrayList<>();
         for (User user : users.values()) {
             if (user.getRole() == role) {
@@ -123,6 +303,7 @@ public class UserDB {
      * @return A list of all applicants
      */
     public List<Applicant> getAllApplicants() {
+        loader.ensureLoaded();
         List<Applicant> applicants = new ArrayList<>();
         for (User user : users.values()) {
             if (user instanceof Applicant) {
@@ -138,6 +319,7 @@ public class UserDB {
      * @return A list of all HDB officers
      */
     public List<HDBOfficer> getAllOfficers() {
+        loader.ensureLoaded();
         List<HDBOfficer> officers = new ArrayList<>();
         for (User user : users.values()) {
             if (user instanceof HDBOfficer) {
@@ -153,6 +335,7 @@ public class UserDB {
      * @return A list of all HDB managers
      */
     public List<HDBManager> getAllManagers() {
+        loader.ensureLoaded();
         List<HDBManager> managers = new ArrayList<>();
         for (User user : users.values()) {
             if (user instanceof HDBManager) {
@@ -170,6 +353,7 @@ public class UserDB {
      * @return The authenticated user, or null if authentication failed
      */
     public User authenticate(String nric, String password) {
+        loader.ensureLoaded();
         User user = users.get(nric);
         if (user != null && user.getPassword().equals(password)) {
             return user;
@@ -185,6 +369,7 @@ public class UserDB {
      * @return true if the current user has the default password
      */
     public boolean hasDefaultPassword(String nric, String password) {
+        loader.ensureLoaded();
         User user = users.get(nric);
         if (user.getPassword().equals("password")) {
             return true;
@@ -194,6 +379,42 @@ public class UserDB {
 
     }
 
+    /**
+     * Gets one page of users, ordered by NRIC.
+     * 
+     * @param role   The role to filter by, or null for all users
+     * @param cursor The cursor of the previous page, or null for the first page
+     * @param limit  The maximum number of users on the page
+     * @return The page of users
+     */
+    public Page<User> getUsersPage(UserRole role, String cursor, int limit) {
+        loader.ensureLoaded();
+        if (role != null) {
+            return Page.select(users.values(), user -> user.getRole() == role, user -> new SortKey(user.getNric()),
+                    cursor, limit);
+        }
+
+        // Page over the NRICs alone, so only the users on the page are read
+        Page<String> nrics = Page.select(users.keySet(), nric -> true, SortKey::new, cursor, limit);
+        List<User> page = new ArrayList<>();
+        for (String nric : nrics.getItems()) {
+            User user = users.get(nric);
+            if (user != null) {
+                page.add(user);
+            }
+        }
+        return new Page<>(page, nrics.getNextCursor(), nrics.getTotal());
+    }
+
+    /**
+     * Gets the loader that reads this table from disk.
+     * 
+     * @return The table loader
+     */
+    public TableLoader getLoader() {
+        return loader;
+    }
+
     /**
      * Changes a user's password.
      * 
@@ -202,11 +423,13 @@ public class UserDB {
      * @param newPassword The new password
      * @return true if the password was changed, false otherwise
      */
-    public boolean changePassword(String nric, String oldPassword, String newPassword) {
+    public synchronized boolean changePassword(String nric, String oldPassword, String newPassword) {
+        loader.ensureLoaded();
         User user = users.get(nric);
         if (user != null && user.getPassword().equals(oldPassword)) {
             user.setPassword(newPassword);
-            saveData();
+            users.put(nric, user);
+            persist();
             return true;
         }
         return false;
@@ -8,6 +8,7 @@ import entity.enums.UserRole;
  * Extends the User class with administrator-specific functionality.
  */
 public class Admin extends User {
+    private static final long serialVersionUID = 2948661631700323508L;
 
     /**
      * Creates a new AdminUser with the specified details.
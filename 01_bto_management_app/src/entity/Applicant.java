@@ -8,6 +8,8 @@ import entity.enums.UserRole;
  * Extends the User class with applicant-specific functionality.
  */
 public class Applicant extends User {
+    private static final long serialVersionUID = 6081510991895604886L;
+
     private String currentApplicationId;
 
     /**
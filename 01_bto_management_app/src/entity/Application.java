@@ -9,6 +9,8 @@ import java.time.LocalDateTime;
  * Represents a BTO application in the system.
  */
 public class Application implements Serializable {
+    private static final long serialVersionUID = 5716241608152656501L;
+
     private String applicationId;
     private String applicantNric;
     private String projectName;
@@ -37,6 +39,30 @@ public class Application implements Serializable {
         this.withdrawn = false;
     }
 
+    /**
+     * Restores an application from storage with all of its recorded state.
+     * 
+     * @param applicationId   The unique ID of the application
+     * @param applicantNric   The NRIC of the applicant
+     * @param projectName     The name of the project
+     * @param flatType        The type of flat applied for
+     * @param status          The status of the application
+     * @param applicationDate The date and time the application was made
+     * @param flatBooking     The booking for the application, or null if none
+     * @param withdrawn       Whether withdrawal has been requested
+     */
+    public Application(String applicationId, String applicantNric, String projectName, FlatType flatType,
+            ApplicationStatus status, LocalDateTime applicationDate, FlatBooking flatBooking, boolean withdrawn) {
+        this.applicationId = applicationId;
+        this.applicantNric = applicantNric;
+        this.projectName = projectName;
+        this.flatType = flatType;
+        this.status = status;
+        this.applicationDate = applicationDate;
+        this.flatBooking = flatBooking;
+        this.withdrawn = withdrawn;
+    }
+
     /**
      * Gets the ID of this application.
      * 
@@ -7,6 +7,8 @@ import java.time.LocalDateTime;
  * Represents an enquiry submitted by a user about a project.
  */
 public class Enquiry implements Serializable {
+    private static final long serialVersionUID = 4577566526383008941L;
+
     private String enquiryId;
     private String applicantNric;
     private String projectName;
@@ -33,6 +35,28 @@ public class Enquiry implements Serializable {
         this.isAnswered = false;
     }
 
+    /**
+     * Restores an enquiry from storage with all of its recorded state.
+     * 
+     * @param enquiryId      The unique ID of the enquiry
+     * @param applicantNric  The NRIC of the applicant who submitted the enquiry
+     * @param projectName    The name of the project the enquiry is about
+     * @param enquiryText    The text of the enquiry
+     * @param response       The response text, or null if not answered
+     * @param submissionTime The date and time the enquiry was submitted
+     * @param isAnswered     Whether the enquiry has been answered
+     */
+    public Enquiry(String enquiryId, String applicantNric, String projectName, String enquiryText,
+            String response, LocalDateTime submissionTime, boolean isAnswered) {
+        this.enquiryId = enquiryId;
+        this.applicantNric = applicantNric;
+        this.projectName = projectName;
+        this.enquiryText = enquiryText;
+        this.response = response;
+        this.submissionTime = submissionTime;
+        this.isAnswered = isAnswered;
+    }
+
     /**
      * Gets the ID of this enquiry.
      * 
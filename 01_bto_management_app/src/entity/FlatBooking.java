@@ -8,6 +8,8 @@ import java.time.LocalDateTime;
  * Represents a flat booking in the system.
  */
 public class FlatBooking implements Serializable {
+    private static final long serialVersionUID = -3279633987455715743L;
+
     private String bookingId;
     private String applicationId;
     private String applicantNric;
@@ -37,6 +39,28 @@ public class FlatBooking implements Serializable {
         this.officerNric = officerNric;
     }
 
+    /**
+     * Restores a flat booking from storage with its recorded booking date.
+     * 
+     * @param bookingId     The unique ID of the booking
+     * @param applicationId The ID of the associated application
+     * @param applicantNric The NRIC of the applicant
+     * @param projectName   The name of the project
+     * @param flatType      The type of flat booked
+     * @param bookingDate   The date and time the booking was made
+     * @param officerNric   The NRIC of the officer who processed the booking
+     */
+    public FlatBooking(String bookingId, String applicationId, String applicantNric,
+            String projectName, FlatType flatType, LocalDateTime bookingDate, String officerNric) {
+        this.bookingId = bookingId;
+        this.applicationId = applicationId;
+        this.applicantNric = applicantNric;
+        this.projectName = projectName;
+        this.flatType = flatType;
+        this.bookingDate = bookingDate;
+        this.officerNric = officerNric;
+    }
+
     /**
      * Gets the ID of this booking.
      * 
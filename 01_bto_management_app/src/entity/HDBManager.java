@@ -10,6 +10,8 @@ import java.util.List;
  * Extends the User class with manager-specific functionality.
  */
 public class HDBManager extends User {
+    private static final long serialVersionUID = 2142522789136870513L;
+
     private List<String> createdProjectNames;
 
     /**
@@ -8,6 +8,8 @@ import entity.enums.UserRole;
  * Extends the Applicant class with officer-specific functionality.
  */
 public class HDBOfficer extends Applicant {
+    private static final long serialVersionUID = -4007752589000198600L;
+
     private String handlingProjectName;
 
     /**
@@ -7,6 +7,8 @@ import java.time.LocalDateTime;
  * Represents an HDB officer registration for a project.
  */
 public class OfficerRegistration implements Serializable {
+    private static final long serialVersionUID = 5025616201344167052L;
+
     private String registrationId;
     private String officerNric;
     private String projectName;
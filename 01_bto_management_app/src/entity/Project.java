@@ -1,17 +1,23 @@
 package entity;
 
 import entity.enums.FlatType;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.time.LocalDate;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Represents a BTO project in the system.
+ * Flat type unit counts are updated with compare-and-set, so concurrent
+ * bookings can never take the same unit twice.
  */
 public class Project implements Serializable {
+    private static final long serialVersionUID = -8082552438697886227L;
+
     private String projectName;
     private String neighborhood;
     private Map<FlatType, Integer> flatTypeUnits;
@@ -39,7 +45,7 @@ public class Project implements Serializable {
             String managerInChargeNric, int availableOfficerSlots) {
         this.projectName = projectName;
         this.neighborhood = neighborhood;
-        this.flatTypeUnits = flatTypeUnits;
+        this.flatTypeUnits = new ConcurrentHashMap<>(flatTypeUnits);
         this.applicationOpeningDate = applicationOpeningDate;
         this.applicationClosingDate = applicationClosingDate;
         this.managerInChargeNric = managerInChargeNric;
@@ -57,7 +63,7 @@ public class Project implements Serializable {
             String managerInChargeNric, int availableOfficerSlots) {
         this.projectName = projectName;
         this.neighborhood = neighborhood;
-        this.flatTypeUnits = new HashMap<>();
+        this.flatTypeUnits = new ConcurrentHashMap<>();
         this.applicationOpeningDate = applicationOpeningDate;
         this.applicationClosingDate = applicationClosingDate;
         this.managerInChargeNric = managerInChargeNric;
@@ -196,7 +202,7 @@ public class Project implements Serializable {
     /**
      * Decrements the available officer slots by one.
      */
-    public void decrementAvailableOfficerSlots() {
+    public synchronized void decrementAvailableOfficerSlots() {
         if (availableOfficerSlots > 0) {
             availableOfficerSlots--;
         }
@@ -205,7 +211,7 @@ public class Project implements Serializable {
     /**
      * Increments the available officer slots by one.
      */
-    public void incrementAvailableOfficerSlots() {
+    public synchronized void incrementAvailableOfficerSlots() {
         if (availableOfficerSlots < 10) {
             availableOfficerSlots++;
         }
@@ -244,7 +250,7 @@ public class Project implements Serializable {
      * @param officerNric The NRIC of the officer to add
      * @return true if the officer was added, false if already present
      */
-    public boolean addOfficerNric(String officerNric) {
+    public synchronized boolean addOfficerNric(String officerNric) {
         if (!officerNrics.contains(officerNric)) {
             officerNrics.add(officerNric);
             return true;
@@ -258,23 +264,28 @@ public class Project implements Serializable {
      * @param officerNric The NRIC of the officer to remove
      * @return true if the officer was removed, false if not found
      */
-    public boolean removeOfficerNric(String officerNric) {
+    public synchronized boolean removeOfficerNric(String officerNric) {
         return officerNrics.remove(officerNric);
     }
 
     /**
      * Decreases the number of units for a specific flat type by one.
+     * The unit is reserved atomically, so when several bookings race for the
+     * last unit exactly one of them succeeds.
      * 
      * @param flatType The flat type to decrement
      * @return true if successful, false if no more units available
      */
     public boolean decrementFlatTypeUnits(FlatType flatType) {
-        Integer currentUnits = flatTypeUnits.get(flatType);
-        if (currentUnits != null && currentUnits > 0) {
-            flatTypeUnits.put(flatType, currentUnits - 1);
-            return true;
+        while (true) {
+            Integer currentUnits = flatTypeUnits.get(flatType);
+            if (currentUnits == null || currentUnits <= 0) {
+                return false;
+            }
+            if (flatTypeUnits.replace(flatType, currentUnits, currentUnits - 1)) {
+                return true;
+            }
         }
-        return false;
     }
 
     /**
@@ -283,8 +294,7 @@ public class Project implements Serializable {
      * @param flatType The flat type to increment
      */
     public void incrementFlatTypeUnits(FlatType flatType) {
-        Integer currentUnits = flatTypeUnits.getOrDefault(flatType, 0);
-        flatTypeUnits.put(flatType, currentUnits + 1);
+        flatTypeUnits.merge(flatType, 1, Integer::sum);
     }
 
     /**
@@ -297,4 +307,20 @@ public class Project implements Serializable {
         LocalDate today = LocalDate.now();
         return !today.isBefore(applicationOpeningDate) && !today.isAfter(applicationClosingDate);
     }
+
+    /**
+     * Restores a project written with Java serialization. Projects saved
+     * before unit counts were made concurrent hold a plain map, which is
+     * copied into a concurrent one so bookings stay atomic.
+     * 
+     * @param in The stream to read from
+     * @throws IOException            if reading fails
+     * @throws ClassNotFoundException if a class in the stream is unknown
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (!(flatTypeUnits instanceof ConcurrentHashMap)) {
+            flatTypeUnits = flatTypeUnits != null ? new ConcurrentHashMap<>(flatTypeUnits) : new ConcurrentHashMap<>();
+        }
+    }
 }
\ No newline at end of file
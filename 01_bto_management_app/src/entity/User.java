@@ -9,6 +9,8 @@ import java.io.Serializable;
  * Base class for all user types in the system.
  */
 public class User implements Serializable {
+    private static final long serialVersionUID = -9163187792187060859L;
+
     private String nric;
     private String name;
     private String password;
@@ -53,6 +55,15 @@ public class User implements Serializable {
         return name;
     }
 
+    /**
+     * Sets the name of this user.
+     * 
+     * @param name The new name for the user
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
     /**
      * Gets the password of this user.
      * 
@@ -80,6 +91,15 @@ public class User implements Serializable {
         return age;
     }
 
+    /**
+     * Sets the age of this user.
+     * 
+     * @param age The new age for the user
+     */
+    public void setAge(int age) {
+        this.age = age;
+    }
+
     /**
      * Gets the marital status of this user.
      * 
@@ -89,6 +109,15 @@ public class User implements Serializable {
         return maritalStatus;
     }
 
+    /**
+     * Sets the marital status of this user.
+     * 
+     * @param maritalStatus The new marital status for the user
+     */
+    public void setMaritalStatus(MaritalStatus maritalStatus) {
+        this.maritalStatus = maritalStatus;
+    }
+
     /**
      * Gets the role of this user.
      * 
@@ -0,0 +1,88 @@
+package main;
+
+import data.DatasetGenerator;
+
+import java.io.IOException;
+
+/**
+ * Command-line tool that generates a large data set for load testing.
+ * Files are written to the working directory, or to the directory given by
+ * {@code -Dbto.dataDir}.
+ */
+public class GenerateData {
+    /**
+     * Main method to generate a data set.
+     *
+     * @param args Options: {@code --applicants N}, {@code --projects N},
+     *             {@code --seed N}, {@code --threads N} and
+     *             {@code --format dat|csv}
+     */
+    public static void main(String[] args) {
+        int applicants = 100_000;
+        int projects = -1;
+        long seed = 42;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String format = "dat";
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + option);
+                }
+                String value = args[++i];
+                switch (option) {
+                    case "--applicants":
+                        applicants = Integer.parseInt(value);
+                        break;
+                    case "--projects":
+                        projects = Integer.parseInt(value);
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(value);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(value);
+                        break;
+                    case "--format":
+                        format = value;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + option);
+                }
+            }
+            if (!format.equals("dat") && !format.equals("csv")) {
+                throw new IllegalArgumentException("Format must be dat or csv");
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+            System.out.println("Usage: GenerateData [--applicants N] [--projects N] [--seed N] [--threads N]"
+                    + " [--format dat|csv]");
+            System.exit(1);
+            return;
+        }
+
+        if (projects < 0) {
+            // About one project for every thousand applicants
+            projects = Math.max(10, applicants / 1000);
+        }
+
+        long start = System.nanoTime();
+        try {
+            DatasetGenerator generator = new DatasetGenerator(seed, applicants, projects, threads);
+            if (format.equals("csv")) {
+                generator.writeCsv();
+            } else {
+                generator.writeStores();
+            }
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("Generated " + generator.getUserCount() + " users, " + generator.getProjectCount()
+                    + " projects, " + generator.getApplicationCount() + " applications, "
+                    + generator.getBookingCount() + " bookings and " + generator.getEnquiryCount()
+                    + " enquiries in " + millis + " ms.");
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Error generating data: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
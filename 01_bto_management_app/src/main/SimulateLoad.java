@@ -0,0 +1,145 @@
+package main;
+
+import controller.*;
+import data.*;
+import simulation.WorkloadConfig;
+import simulation.WorkloadSimulator;
+
+/**
+ * Command-line tool that runs a simulated launch-day workload against the
+ * data in the data directory and prints the latency of every operation.
+ * The workload changes the data, so run it on a copy, for example one made by
+ * {@link GenerateData} in a directory given by {@code -Dbto.dataDir}.
+ */
+public class SimulateLoad {
+    /**
+     * Main method to run the simulation.
+     *
+     * @param args Options: {@code --applicants N}, {@code --officers N},
+     *             {@code --managers N}, {@code --warmup SECONDS},
+     *             {@code --duration SECONDS},
+     *             {@code --think APPLICANT,OFFICER,MANAGER} (milliseconds),
+     *             {@code --mix BROWSE,APPLY,ENQUIRE},
+     *             {@code --manager-mix REPORT%,APPROVE%,BATCH} and
+     *             {@code --seed N}
+     */
+    public static void main(String[] args) {
+        WorkloadConfig config = new WorkloadConfig();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + option);
+                }
+                String value = args[++i];
+                switch (option) {
+                    case "--applicants":
+                        config.applicants(Integer.parseInt(value));
+                        break;
+                    case "--officers":
+                        config.officers(Integer.parseInt(value));
+                        break;
+                    case "--managers":
+                        config.managers(Integer.parseInt(value));
+                        break;
+                    case "--warmup":
+                        config.warmupSeconds(Integer.parseInt(value));
+                        break;
+                    case "--duration":
+                        config.durationSeconds(Integer.parseInt(value));
+                        break;
+                    case "--think": {
+                        int[] think = parseList(option, value);
+                        config.thinkMillis(think[0], think[1], think[2]);
+                        break;
+                    }
+                    case "--mix": {
+                        int[] mix = parseList(option, value);
+                        config.applicantMix(mix[0], mix[1], mix[2]);
+                        break;
+                    }
+                    case "--manager-mix": {
+                        int[] mix = parseList(option, value);
+                        config.managerMix(mix[0], mix[1], mix[2]);
+                        break;
+                    }
+                    case "--seed":
+                        config.seed(Long.parseLong(value));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + option);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+            System.out.println("Usage: SimulateLoad [--applicants N] [--officers N] [--managers N] [--warmup S]"
+                    + " [--duration S] [--think A,O,M] [--mix BROWSE,APPLY,ENQUIRE]"
+                    + " [--manager-mix REPORT,APPROVE,BATCH] [--seed N]");
+            System.exit(1);
+            return;
+        }
+
+        UserDB userDB = new UserDB("mapped".equals(System.getProperty("bto.userStore")));
+        ProjectDB projectDB = new ProjectDB();
+        ApplicationDB applicationDB = new ApplicationDB(userDB);
+        EnquiryDB enquiryDB = new EnquiryDB();
+        new DataInitializer(userDB, projectDB, applicationDB, enquiryDB).initialize();
+
+        // Batch database writes if a group commit interval is configured, as
+        // the application does
+        GroupCommit groupCommit = null;
+        long commitIntervalMillis = Long.getLong("bto.groupCommit.intervalMs", 0);
+        if (commitIntervalMillis > 0) {
+            groupCommit = new GroupCommit(commitIntervalMillis, Integer.getInteger("bto.groupCommit.batchSize", 256));
+            userDB.setGroupCommit(groupCommit);
+            projectDB.setGroupCommit(groupCommit);
+            applicationDB.setGroupCommit(groupCommit);
+            enquiryDB.setGroupCommit(groupCommit);
+        }
+
+        ReportStatistics reportStatistics = new ReportStatistics(applicationDB, userDB);
+        WorkloadSimulator simulator = new WorkloadSimulator(config, new UserController(userDB),
+                new ProjectController(projectDB, userDB),
+                new ApplicationController(applicationDB, projectDB, userDB, reportStatistics),
+                new EnquiryController(enquiryDB, projectDB, userDB),
+                new ReportController(applicationDB, projectDB, userDB, reportStatistics));
+
+        try {
+            System.out.println("Running workload for " + (config.getWarmupSeconds() + config.getDurationSeconds())
+                    + " s...");
+            simulator.run();
+            System.out.println();
+            System.out.print(simulator.getReport());
+        } catch (IllegalStateException e) {
+            System.out.println("Error: " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (groupCommit != null) {
+                groupCommit.shutdown();
+            }
+            userDB.close();
+        }
+    }
+
+    /**
+     * Parses a comma-separated list of three numbers.
+     *
+     * @param option The option the list was given for
+     * @param value  The list
+     * @return The three numbers
+     * @throws IllegalArgumentException if the list is not three numbers
+     */
+    private static int[] parseList(String option, String value) {
+        String[] parts = value.split(",");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException(option + " needs three comma-separated numbers");
+        }
+        int[] numbers = new int[3];
+        for (int i = 0; i < 3; i++) {
+            numbers[i] = Integer.parseInt(parts[i].trim());
+        }
+        return numbers;
+    }
+}
@@ -0,0 +1,43 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A count that only goes up, such as the number of bytes written.
+ * Increments are lock-free and scale across threads.
+ */
+public class Counter {
+    private final LongAdder count;
+
+    /**
+     * Constructs a new Counter at zero.
+     */
+    public Counter() {
+        this.count = new LongAdder();
+    }
+
+    /**
+     * Adds one to the count.
+     */
+    public void increment() {
+        count.increment();
+    }
+
+    /**
+     * Adds to the count.
+     *
+     * @param amount The amount to add, not negative
+     */
+    public void add(long amount) {
+        count.add(amount);
+    }
+
+    /**
+     * Gets the count.
+     *
+     * @return The count
+     */
+    public long get() {
+        return count.sum();
+    }
+}
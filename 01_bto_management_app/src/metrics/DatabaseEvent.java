@@ -0,0 +1,71 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of one database file being saved or loaded.
+ * The event starts when it is constructed and is committed when it is closed,
+ * so it is used with try-with-resources around the file operation. Callers
+ * report the record and byte counts once the operation has succeeded; an
+ * event closed without them is recorded as failed. Events are created through
+ * the {@code start} method of each subclass, which gives null when no
+ * recording wants them, so saves and loads allocate nothing for the event
+ * when no recording is running.
+ */
+@Category({ "BTO", "Database" })
+@StackTrace(false)
+public abstract class DatabaseEvent extends jdk.jfr.Event implements TimedEvent {
+    @Label("Table")
+    String table;
+
+    @Label("File")
+    String fileName;
+
+    @Label("Records")
+    int records;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Succeeded")
+    boolean succeeded;
+
+    /**
+     * Starts a new DatabaseEvent.
+     *
+     * @param table    The table the file belongs to
+     * @param fileName The name of the file
+     */
+    protected DatabaseEvent(String table, String fileName) {
+        this.table = table;
+        this.fileName = fileName;
+        begin();
+    }
+
+    /**
+     * Reports that the operation succeeded.
+     *
+     * @param records The number of records saved or loaded
+     * @param bytes   The number of bytes written or read
+     */
+    public void completed(int records, long bytes) {
+        this.records = records;
+        this.bytes = bytes;
+        this.succeeded = true;
+    }
+
+    /**
+     * Ends the event and commits it if a recording wants it.
+     */
+    @Override
+    public void close() {
+        end();
+        if (shouldCommit()) {
+            commit();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event of a database file being loaded.
+ */
+@Name("bto.DatabaseLoad")
+@Label("Database Load")
+@Description("A database table read from disk")
+public class DatabaseLoadEvent extends DatabaseEvent {
+    /**
+     * The registered type of the event, looked up on first use.
+     */
+    private static class Type {
+        private static final EventType LOAD = EventType.getEventType(DatabaseLoadEvent.class);
+    }
+
+    /**
+     * Starts a new DatabaseLoadEvent.
+     *
+     * @param table    The table being loaded
+     * @param fileName The name of the file read
+     */
+    public DatabaseLoadEvent(String table, String fileName) {
+        super(table, fileName);
+    }
+
+    /**
+     * Starts a new DatabaseLoadEvent if a running recording wants it.
+     *
+     * @param table    The table being loaded
+     * @param fileName The name of the file read
+     * @return The event, or null if load events are not being recorded
+     */
+    public static DatabaseLoadEvent start(String table, String fileName) {
+        return Type.LOAD.isEnabled() ? new DatabaseLoadEvent(table, fileName) : null;
+    }
+}
@@ -0,0 +1,42 @@
+package metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event of a database file being saved.
+ */
+@Name("bto.DatabaseSave")
+@Label("Database Save")
+@Description("A database table or journal written to disk")
+public class DatabaseSaveEvent extends DatabaseEvent {
+    /**
+     * The registered type of the event, looked up on first use.
+     */
+    private static class Type {
+        private static final EventType SAVE = EventType.getEventType(DatabaseSaveEvent.class);
+    }
+
+    /**
+     * Starts a new DatabaseSaveEvent.
+     *
+     * @param table    The table being saved
+     * @param fileName The name of the file written
+     */
+    public DatabaseSaveEvent(String table, String fileName) {
+        super(table, fileName);
+    }
+
+    /**
+     * Starts a new DatabaseSaveEvent if a running recording wants it.
+     *
+     * @param table    The table being saved
+     * @param fileName The name of the file written
+     * @return The event, or null if save events are not being recorded
+     */
+    public static DatabaseSaveEvent start(String table, String fileName) {
+        return Type.SAVE.isEnabled() ? new DatabaseSaveEvent(table, fileName) : null;
+    }
+}
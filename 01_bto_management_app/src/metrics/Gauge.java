@@ -0,0 +1,49 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+
+/**
+ * A value that can go up and down, such as the number of records in a table.
+ * The value is either set directly or read from a supplier each time it is
+ * viewed.
+ */
+public class Gauge {
+    private final AtomicLong bits;
+    private final DoubleSupplier supplier;
+
+    /**
+     * Constructs a new Gauge at zero whose value is set directly.
+     */
+    public Gauge() {
+        this(null);
+    }
+
+    /**
+     * Constructs a new Gauge that reads its value from a supplier.
+     *
+     * @param supplier Gives the current value, or null to set it directly
+     */
+    public Gauge(DoubleSupplier supplier) {
+        this.bits = new AtomicLong(Double.doubleToLongBits(0));
+        this.supplier = supplier;
+    }
+
+    /**
+     * Sets the value.
+     *
+     * @param value The new value
+     */
+    public void set(double value) {
+        bits.set(Double.doubleToLongBits(value));
+    }
+
+    /**
+     * Gets the value.
+     *
+     * @return The current value
+     */
+    public double get() {
+        return supplier != null ? supplier.getAsDouble() : Double.longBitsToDouble(bits.get());
+    }
+}
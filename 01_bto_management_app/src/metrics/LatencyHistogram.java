@@ -0,0 +1,153 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies with bounded relative error, in the style of
+ * HdrHistogram.
+ * Values below 128 get a bucket each; every power of two above that is split
+ * into 64 buckets, so a recorded value is off by at most 1/64 of itself
+ * however large it is. Recording is lock-free and costs the same for any
+ * value, and the whole histogram takes a few kilobytes.
+ */
+public class LatencyHistogram {
+    private static final int LINEAR_BUCKETS = 128;
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = LINEAR_BUCKETS + (63 - 7) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts;
+    private final LongAdder total;
+    private final LongAdder sum;
+
+    /**
+     * Constructs a new empty LatencyHistogram.
+     */
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKETS);
+        this.total = new LongAdder();
+        this.sum = new LongAdder();
+    }
+
+    /**
+     * Records a value.
+     *
+     * @param value The value, such as a latency in nanoseconds; negative
+     *              values are recorded as zero
+     */
+    public void record(long value) {
+        long clamped = Math.max(0, value);
+        counts.incrementAndGet(bucketOf(clamped));
+        total.increment();
+        sum.add(clamped);
+    }
+
+    /**
+     * Removes every recorded value.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        total.reset();
+        sum.reset();
+    }
+
+    /**
+     * Gets the number of recorded values.
+     *
+     * @return The number of values
+     */
+    public long getCount() {
+        return total.sum();
+    }
+
+    /**
+     * Gets the mean of the recorded values.
+     *
+     * @return The mean, or 0 if nothing was recorded
+     */
+    public double getMean() {
+        long count = total.sum();
+        return count == 0 ? 0 : (double) sum.sum() / count;
+    }
+
+    /**
+     * Gets the value at a percentile: the smallest value that at least that
+     * share of the recorded values do not exceed.
+     *
+     * @param percentile The percentile, from 0 to 100
+     * @return The value, rounded up to the top of its bucket, or 0 if nothing
+     *         was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, percentile) / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return highestValueIn(i);
+            }
+        }
+        return highestValueIn(BUCKETS - 1);
+    }
+
+    /**
+     * Gets the largest recorded value.
+     *
+     * @return The largest value, rounded up to the top of its bucket, or 0 if
+     *         nothing was recorded
+     */
+    public long getMax() {
+        for (int i = BUCKETS - 1; i >= 0; i--) {
+            if (counts.get(i) > 0) {
+                return highestValueIn(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the bucket a value falls in.
+     *
+     * @param value The value, not negative
+     * @return The bucket index
+     */
+    private static int bucketOf(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return LINEAR_BUCKETS + (exponent - 7) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Gets the largest value that falls in a bucket.
+     *
+     * @param bucket The bucket index
+     * @return The largest value of the bucket
+     */
+    private static long highestValueIn(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        int exponent = 7 + (bucket - LINEAR_BUCKETS) / SUB_BUCKETS;
+        int subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        long next = (long) (SUB_BUCKETS + subBucket + 1) << shift;
+        return next - 1 < 0 ? Long.MAX_VALUE : next - 1;
+    }
+}
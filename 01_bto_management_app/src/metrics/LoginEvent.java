@@ -0,0 +1,72 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of a login attempt.
+ * The NRIC is left out so recordings can be shared without exposing who
+ * logged in. Callers check {@link #isRecording()} before creating the event,
+ * so logins allocate nothing for it when no recording wants login events.
+ */
+@Name("bto.Login")
+@Label("Login")
+@Category({ "BTO", "Authentication" })
+@Description("An attempt to log in")
+@StackTrace(false)
+public class LoginEvent extends jdk.jfr.Event implements TimedEvent {
+    @Label("Succeeded")
+    boolean succeeded;
+
+    @Label("Role")
+    String role;
+
+    /**
+     * The registered type of the event, looked up on first use.
+     */
+    private static class Type {
+        private static final EventType LOGIN = EventType.getEventType(LoginEvent.class);
+    }
+
+    /**
+     * Starts a new LoginEvent. The attempt counts as failed unless
+     * {@link #succeeded(String)} is called.
+     */
+    public LoginEvent() {
+        begin();
+    }
+
+    /**
+     * Checks if a running recording wants login events.
+     *
+     * @return true if login events are being recorded, false otherwise
+     */
+    public static boolean isRecording() {
+        return Type.LOGIN.isEnabled();
+    }
+
+    /**
+     * Reports that the login succeeded.
+     *
+     * @param role The role of the user who logged in
+     */
+    public void succeeded(String role) {
+        this.succeeded = true;
+        this.role = role;
+    }
+
+    /**
+     * Ends the event and commits it if a recording wants it.
+     */
+    @Override
+    public void close() {
+        end();
+        if (shouldCommit()) {
+            commit();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Latency histograms for the methods of one component, such as a controller.
+ * Each method gets a histogram labelled with the component and method name in
+ * the {@code bto_controller_call_seconds} family. The histogram is looked up
+ * once per method and then found with a single map read, so timing a call
+ * costs well under a microsecond.
+ */
+public class MethodTimers {
+    private final MetricsRegistry registry;
+    private final String component;
+    private final Map<String, LatencyHistogram> histograms;
+
+    /**
+     * Constructs a new MethodTimers in the default registry.
+     *
+     * @param component The name of the component, such as its class name
+     */
+    public MethodTimers(String component) {
+        this(MetricsRegistry.getDefault(), component);
+    }
+
+    /**
+     * Constructs a new MethodTimers.
+     *
+     * @param registry  The registry to record in
+     * @param component The name of the component, such as its class name
+     */
+    public MethodTimers(MetricsRegistry registry, String component) {
+        this.registry = registry;
+        this.component = component;
+        this.histograms = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Times a call of a method that returns a value. The latency is recorded
+     * however the call ends.
+     *
+     * @param method The name of the method
+     * @param call   The body of the method
+     * @return The result of the call
+     */
+    public <T> T time(String method, Supplier<T> call) {
+        return time(method, null, call);
+    }
+
+    /**
+     * Times a call of a method that returns a value, ending a Flight Recorder
+     * event with it. The latency is recorded and the event closed however the
+     * call ends.
+     *
+     * @param method The name of the method
+     * @param event  The event started for the call, or null if none was
+     * @param call   The body of the method
+     * @return The result of the call
+     */
+    public <T> T time(String method, TimedEvent event, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            histogram(method).record(System.nanoTime() - start);
+            if (event != null) {
+                event.close();
+            }
+        }
+    }
+
+    /**
+     * Times a call of a method that returns nothing. The latency is recorded
+     * however the call ends.
+     *
+     * @param method The name of the method
+     * @param call   The body of the method
+     */
+    public void run(String method, Runnable call) {
+        long start = System.nanoTime();
+        try {
+            call.run();
+        } finally {
+            histogram(method).record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Gets the histogram of a method, creating it on the first call.
+     *
+     * @param method The name of the method
+     * @return The histogram
+     */
+    private LatencyHistogram histogram(String method) {
+        LatencyHistogram histogram = histograms.get(method);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(method, name -> registry.histogram("bto_controller_call_seconds",
+                    "Latency of controller method calls.", "controller", component, "method", name));
+        }
+        return histogram;
+    }
+}
@@ -0,0 +1,300 @@
+package metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Registry of the counters, gauges and latency histograms of the application.
+ * Metrics are grouped into families by name, in the style of Prometheus, and
+ * each metric in a family is told apart by its labels, given as alternating
+ * names and values such as {@code "table", "users"}. Asking for a metric that
+ * already exists returns the same one, so components can look metrics up
+ * where they use them. Every metric is lock-free to update.
+ */
+public class MetricsRegistry {
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+    private static final double[] QUANTILES = { 0.5, 0.99, 0.999 };
+
+    private final Map<String, Family> families;
+
+    /**
+     * Constructs a new empty MetricsRegistry.
+     */
+    public MetricsRegistry() {
+        this.families = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets the registry shared by the whole application.
+     *
+     * @return The default registry
+     */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Gets a counter, creating it if needed.
+     *
+     * @param name   The name of the family
+     * @param help   The description of the family
+     * @param labels Alternating label names and values
+     * @return The counter
+     */
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) family(name, help, Type.COUNTER).children.computeIfAbsent(labelKey(labels),
+                key -> new Counter());
+    }
+
+    /**
+     * Gets a gauge whose value is set directly, creating it if needed.
+     *
+     * @param name   The name of the family
+     * @param help   The description of the family
+     * @param labels Alternating label names and values
+     * @return The gauge
+     */
+    public Gauge gauge(String name, String help, String... labels) {
+        return (Gauge) family(name, help, Type.GAUGE).children.computeIfAbsent(labelKey(labels), key -> new Gauge());
+    }
+
+    /**
+     * Registers a gauge that reads its value from a supplier, replacing any
+     * gauge with the same labels.
+     *
+     * @param name     The name of the family
+     * @param help     The description of the family
+     * @param supplier Gives the current value
+     * @param labels   Alternating label names and values
+     * @return The gauge
+     */
+    public Gauge registerGauge(String name, String help, DoubleSupplier supplier, String... labels) {
+        Gauge gauge = new Gauge(supplier);
+        family(name, help, Type.GAUGE).children.put(labelKey(labels), gauge);
+        return gauge;
+    }
+
+    /**
+     * Gets a latency histogram, creating it if needed. Values are recorded in
+     * nanoseconds and exported in seconds.
+     *
+     * @param name   The name of the family
+     * @param help   The description of the family
+     * @param labels Alternating label names and values
+     * @return The histogram
+     */
+    public LatencyHistogram histogram(String name, String help, String... labels) {
+        return (LatencyHistogram) family(name, help, Type.SUMMARY).children.computeIfAbsent(labelKey(labels),
+                key -> new LatencyHistogram());
+    }
+
+    /**
+     * Gets the values of the counters in a family.
+     *
+     * @param name The name of the family
+     * @return The values keyed by their labels, such as {@code table="users"}
+     */
+    public Map<String, Long> getCounterValues(String name) {
+        Map<String, Long> values = new TreeMap<>();
+        for (Map.Entry<String, Object> entry : children(name, Type.COUNTER).entrySet()) {
+            values.put(entry.getKey(), ((Counter) entry.getValue()).get());
+        }
+        return values;
+    }
+
+    /**
+     * Gets the values of the gauges in a family.
+     *
+     * @param name The name of the family
+     * @return The values keyed by their labels, such as {@code table="users"}
+     */
+    public Map<String, Double> getGaugeValues(String name) {
+        Map<String, Double> values = new TreeMap<>();
+        for (Map.Entry<String, Object> entry : children(name, Type.GAUGE).entrySet()) {
+            values.put(entry.getKey(), ((Gauge) entry.getValue()).get());
+        }
+        return values;
+    }
+
+    /**
+     * Gets the histograms in a family.
+     *
+     * @param name The name of the family
+     * @return The histograms keyed by their labels
+     */
+    public Map<String, LatencyHistogram> getHistograms(String name) {
+        Map<String, LatencyHistogram> histograms = new TreeMap<>();
+        for (Map.Entry<String, Object> entry : children(name, Type.SUMMARY).entrySet()) {
+            histograms.put(entry.getKey(), (LatencyHistogram) entry.getValue());
+        }
+        return histograms;
+    }
+
+    /**
+     * Gets the value of one label from a label key.
+     *
+     * @param labelKey The labels as returned by the getters, such as
+     *                 {@code controller="LoginController",method="login"}
+     * @param label    The name of the label
+     * @return The value of the label, or an empty string if it is not set
+     */
+    public static String labelValue(String labelKey, String label) {
+        String prefix = label + "=\"";
+        int start = labelKey.startsWith(prefix) ? 0 : labelKey.indexOf("," + prefix);
+        if (start < 0) {
+            return "";
+        }
+        int from = labelKey.indexOf(prefix, start) + prefix.length();
+        int to = labelKey.indexOf('"', from);
+        return to < 0 ? "" : labelKey.substring(from, to);
+    }
+
+    /**
+     * Writes every metric in the Prometheus text exposition format.
+     * Histograms are written as summaries with their 50th, 99th and 99.9th
+     * percentiles, sum and count, in seconds.
+     *
+     * @return The metrics as text
+     */
+    public String toPrometheusText() {
+        StringBuilder text = new StringBuilder();
+        for (String name : new TreeMap<>(families).keySet()) {
+            Family family = families.get(name);
+            text.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+            text.append("# TYPE ").append(name).append(' ').append(family.type.name().toLowerCase(Locale.ROOT))
+                    .append('\n');
+            for (Map.Entry<String, Object> entry : new TreeMap<>(family.children).entrySet()) {
+                String labels = entry.getKey();
+                switch (family.type) {
+                    case COUNTER:
+                        appendSample(text, name, labels, ((Counter) entry.getValue()).get());
+                        break;
+                    case GAUGE:
+                        appendSample(text, name, labels, ((Gauge) entry.getValue()).get());
+                        break;
+                    default:
+                        LatencyHistogram histogram = (LatencyHistogram) entry.getValue();
+                        for (double quantile : QUANTILES) {
+                            String quantileLabel = "quantile=\"" + quantile + "\"";
+                            appendSample(text, name, labels.isEmpty() ? quantileLabel : labels + "," + quantileLabel,
+                                    histogram.getValueAtPercentile(quantile * 100) / 1e9);
+                        }
+                        long count = histogram.getCount();
+                        appendSample(text, name + "_sum", labels, histogram.getMean() * count / 1e9);
+                        appendSample(text, name + "_count", labels, count);
+                        break;
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Appends one sample line.
+     *
+     * @param text   The text to append to
+     * @param name   The name of the sample
+     * @param labels The labels, or an empty string
+     * @param value  The value
+     */
+    private static void appendSample(StringBuilder text, String name, String labels, double value) {
+        text.append(name);
+        if (!labels.isEmpty()) {
+            text.append('{').append(labels).append('}');
+        }
+        text.append(' ');
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            text.append((long) value);
+        } else {
+            text.append(value);
+        }
+        text.append('\n');
+    }
+
+    /**
+     * Gets a family, creating it if needed.
+     *
+     * @param name The name of the family
+     * @param help The description of the family
+     * @param type The type of its metrics
+     * @return The family
+     * @throws IllegalArgumentException if the family exists with another type
+     */
+    private Family family(String name, String help, Type type) {
+        Family family = families.computeIfAbsent(name, key -> new Family(help, type));
+        if (family.type != type) {
+            throw new IllegalArgumentException("Metric " + name + " is a " + family.type + ", not a " + type);
+        }
+        return family;
+    }
+
+    /**
+     * Gets the metrics of a family of the given type.
+     *
+     * @param name The name of the family
+     * @param type The expected type
+     * @return The metrics keyed by their labels, empty if there is no such
+     *         family
+     */
+    private Map<String, Object> children(String name, Type type) {
+        Family family = families.get(name);
+        return family == null || family.type != type ? Map.of() : family.children;
+    }
+
+    /**
+     * Builds the label key of a metric, such as {@code table="users"}.
+     *
+     * @param labels Alternating label names and values
+     * @return The labels in exposition format
+     * @throws IllegalArgumentException if a label has no value
+     */
+    private static String labelKey(String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name and value pairs");
+        }
+        Map<String, String> pairs = new LinkedHashMap<>();
+        for (int i = 0; i < labels.length; i += 2) {
+            pairs.put(labels[i], labels[i + 1]);
+        }
+        List<String> parts = new ArrayList<>();
+        for (Map.Entry<String, String> label : pairs.entrySet()) {
+            String value = label.getValue().replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+            parts.add(label.getKey() + "=\"" + value + "\"");
+        }
+        return String.join(",", parts);
+    }
+
+    /**
+     * The types of metric, named as in the exposition format.
+     */
+    private enum Type {
+        COUNTER, GAUGE, SUMMARY
+    }
+
+    /**
+     * A family of metrics sharing a name, description and type.
+     */
+    private static class Family {
+        private final String help;
+        private final Type type;
+        private final Map<String, Object> children;
+
+        /**
+         * Constructs a new empty Family.
+         *
+         * @param help The description of the family
+         * @param type The type of its metrics
+         */
+        private Family(String help, Type type) {
+            this.help = help;
+            this.type = type;
+            this.children = new ConcurrentHashMap<>();
+        }
+    }
+}
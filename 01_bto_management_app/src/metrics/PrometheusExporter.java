@@ -0,0 +1,87 @@
+package metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the metrics of a registry to a file in the Prometheus text exposition
+ * format on a fixed interval, for a scraper such as the node exporter's
+ * textfile collector to pick up. Each dump is written to a temporary file and
+ * renamed over the target, so a reader never sees a half-written file.
+ */
+public class PrometheusExporter {
+    private final MetricsRegistry registry;
+    private final Path target;
+    private final long intervalSeconds;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructs a new PrometheusExporter.
+     *
+     * @param registry        The registry to export
+     * @param fileName        The name of the file to write
+     * @param intervalSeconds The time between dumps in seconds
+     */
+    public PrometheusExporter(MetricsRegistry registry, String fileName, long intervalSeconds) {
+        this.registry = registry;
+        this.target = Paths.get(fileName);
+        this.intervalSeconds = Math.max(1, intervalSeconds);
+    }
+
+    /**
+     * Starts writing the file on the interval in a background thread.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "metrics-exporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::export, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops the background thread and writes the file one last time, so the
+     * final counts of the session are not lost.
+     */
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(intervalSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduler = null;
+        export();
+    }
+
+    /**
+     * Writes the current metrics to the file.
+     *
+     * @return true if the file was written, false otherwise
+     */
+    public boolean export() {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            Files.write(temp, registry.toPrometheusText().getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            System.out.println("Error writing metrics to " + target + ": " + e.getMessage());
+            return false;
+        }
+    }
+}
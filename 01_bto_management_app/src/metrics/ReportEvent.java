@@ -0,0 +1,73 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.Arrays;
+
+/**
+ * Flight Recorder event of a report being generated.
+ * The event starts when it is constructed and is committed when it is closed.
+ * Callers check {@link #isRecording()} before creating the event, so neither
+ * the event nor its parameters are allocated when no recording wants report
+ * events, and the parameters are only turned into text if the event is
+ * committed.
+ */
+@Name("bto.Report")
+@Label("Report")
+@Category({ "BTO", "Reports" })
+@Description("A report generated by the report controller")
+@StackTrace(false)
+public class ReportEvent extends jdk.jfr.Event implements TimedEvent {
+    @Label("Report")
+    String report;
+
+    @Label("Parameters")
+    String parameters;
+
+    private transient Object[] arguments;
+
+    /**
+     * The registered type of the event, looked up on first use.
+     */
+    private static class Type {
+        private static final EventType REPORT = EventType.getEventType(ReportEvent.class);
+    }
+
+    /**
+     * Starts a new ReportEvent.
+     *
+     * @param report    The name of the report
+     * @param arguments The parameters the report was asked for
+     */
+    public ReportEvent(String report, Object... arguments) {
+        this.report = report;
+        this.arguments = arguments;
+        begin();
+    }
+
+    /**
+     * Checks if a running recording wants report events.
+     *
+     * @return true if report events are being recorded, false otherwise
+     */
+    public static boolean isRecording() {
+        return Type.REPORT.isEnabled();
+    }
+
+    /**
+     * Ends the event and commits it if a recording wants it.
+     */
+    @Override
+    public void close() {
+        end();
+        if (shouldCommit()) {
+            parameters = Arrays.deepToString(arguments);
+            commit();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package metrics;
+
+/**
+ * A Flight Recorder event that spans an operation. The event starts when it
+ * is constructed and ends when it is closed, so it can be handed to
+ * {@link MethodTimers} to end together with the timing of a call.
+ */
+public interface TimedEvent extends AutoCloseable {
+    /**
+     * Ends the event and commits it if a recording wants it.
+     */
+    @Override
+    void close();
+}
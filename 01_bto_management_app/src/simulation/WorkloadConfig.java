@@ -0,0 +1,274 @@
+package simulation;
+
+/**
+ * Settings of a simulated workload: how many users of each role take part,
+ * how long they think between operations, and which operations they choose.
+ * Setters return the configuration so settings can be chained, for example
+ * {@code new WorkloadConfig().applicants(200).durationSeconds(60)}.
+ */
+public class WorkloadConfig {
+    private int applicants = 50;
+    private int officers = 10;
+    private int managers = 2;
+    private int warmupSeconds = 5;
+    private int durationSeconds = 30;
+    private long applicantThinkMillis = 100;
+    private long officerThinkMillis = 200;
+    private long managerThinkMillis = 500;
+    private int browseWeight = 70;
+    private int applyWeight = 20;
+    private int enquireWeight = 10;
+    private int reportPercent = 10;
+    private int approvePercent = 80;
+    private int reviewBatchSize = 10;
+    private long seed = 42;
+
+    /**
+     * Sets the number of simulated applicants.
+     *
+     * @param applicants The number of applicants
+     * @return This configuration
+     */
+    public WorkloadConfig applicants(int applicants) {
+        this.applicants = applicants;
+        return this;
+    }
+
+    /**
+     * Sets the number of simulated officers.
+     *
+     * @param officers The number of officers
+     * @return This configuration
+     */
+    public WorkloadConfig officers(int officers) {
+        this.officers = officers;
+        return this;
+    }
+
+    /**
+     * Sets the number of simulated managers.
+     *
+     * @param managers The number of managers
+     * @return This configuration
+     */
+    public WorkloadConfig managers(int managers) {
+        this.managers = managers;
+        return this;
+    }
+
+    /**
+     * Sets how long the workload runs before latencies are recorded.
+     *
+     * @param warmupSeconds The warm-up time in seconds
+     * @return This configuration
+     */
+    public WorkloadConfig warmupSeconds(int warmupSeconds) {
+        this.warmupSeconds = warmupSeconds;
+        return this;
+    }
+
+    /**
+     * Sets how long latencies are recorded for.
+     *
+     * @param durationSeconds The measured time in seconds
+     * @return This configuration
+     */
+    public WorkloadConfig durationSeconds(int durationSeconds) {
+        this.durationSeconds = durationSeconds;
+        return this;
+    }
+
+    /**
+     * Sets the mean think time of each role between operations. Think times
+     * are drawn from an exponential distribution with these means, so each
+     * user issues at most about 1000 / think time operations per second.
+     *
+     * @param applicantMillis The mean think time of applicants
+     * @param officerMillis   The mean think time of officers
+     * @param managerMillis   The mean think time of managers
+     * @return This configuration
+     */
+    public WorkloadConfig thinkMillis(long applicantMillis, long officerMillis, long managerMillis) {
+        this.applicantThinkMillis = applicantMillis;
+        this.officerThinkMillis = officerMillis;
+        this.managerThinkMillis = managerMillis;
+        return this;
+    }
+
+    /**
+     * Sets the mix of applicant operations as relative weights.
+     *
+     * @param browse  The weight of browsing projects
+     * @param apply   The weight of applying for a project
+     * @param enquire The weight of sending an enquiry
+     * @return This configuration
+     */
+    public WorkloadConfig applicantMix(int browse, int apply, int enquire) {
+        this.browseWeight = browse;
+        this.applyWeight = apply;
+        this.enquireWeight = enquire;
+        return this;
+    }
+
+    /**
+     * Sets how managers split their time and decide applications.
+     *
+     * @param reportPercent   The percentage of manager operations that
+     *                        generate a report instead of reviewing
+     * @param approvePercent  The percentage of reviewed applications approved
+     * @param reviewBatchSize The number of applications taken per review
+     * @return This configuration
+     */
+    public WorkloadConfig managerMix(int reportPercent, int approvePercent, int reviewBatchSize) {
+        this.reportPercent = reportPercent;
+        this.approvePercent = approvePercent;
+        this.reviewBatchSize = reviewBatchSize;
+        return this;
+    }
+
+    /**
+     * Sets the seed of the random choices the users make.
+     *
+     * @param seed The seed
+     * @return This configuration
+     */
+    public WorkloadConfig seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Gets the number of simulated applicants.
+     *
+     * @return The number of applicants
+     */
+    public int getApplicants() {
+        return applicants;
+    }
+
+    /**
+     * Gets the number of simulated officers.
+     *
+     * @return The number of officers
+     */
+    public int getOfficers() {
+        return officers;
+    }
+
+    /**
+     * Gets the number of simulated managers.
+     *
+     * @return The number of managers
+     */
+    public int getManagers() {
+        return managers;
+    }
+
+    /**
+     * Gets the warm-up time.
+     *
+     * @return The warm-up time in seconds
+     */
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    /**
+     * Gets the measured time.
+     *
+     * @return The measured time in seconds
+     */
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    /**
+     * Gets the mean think time of applicants.
+     *
+     * @return The think time in milliseconds
+     */
+    public long getApplicantThinkMillis() {
+        return applicantThinkMillis;
+    }
+
+    /**
+     * Gets the mean think time of officers.
+     *
+     * @return The think time in milliseconds
+     */
+    public long getOfficerThinkMillis() {
+        return officerThinkMillis;
+    }
+
+    /**
+     * Gets the mean think time of managers.
+     *
+     * @return The think time in milliseconds
+     */
+    public long getManagerThinkMillis() {
+        return managerThinkMillis;
+    }
+
+    /**
+     * Gets the weight of browsing among applicant operations.
+     *
+     * @return The weight
+     */
+    public int getBrowseWeight() {
+        return browseWeight;
+    }
+
+    /**
+     * Gets the weight of applying among applicant operations.
+     *
+     * @return The weight
+     */
+    public int getApplyWeight() {
+        return applyWeight;
+    }
+
+    /**
+     * Gets the weight of enquiring among applicant operations.
+     *
+     * @return The weight
+     */
+    public int getEnquireWeight() {
+        return enquireWeight;
+    }
+
+    /**
+     * Gets the percentage of manager operations that generate a report.
+     *
+     * @return The percentage
+     */
+    public int getReportPercent() {
+        return reportPercent;
+    }
+
+    /**
+     * Gets the percentage of reviewed applications that are approved.
+     *
+     * @return The percentage
+     */
+    public int getApprovePercent() {
+        return approvePercent;
+    }
+
+    /**
+     * Gets the number of applications a manager takes per review.
+     *
+     * @return The batch size
+     */
+    public int getReviewBatchSize() {
+        return reviewBatchSize;
+    }
+
+    /**
+     * Gets the seed of the random choices.
+     *
+     * @return The seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+}
@@ -0,0 +1,382 @@
+package simulation;
+
+import controller.*;
+import entity.*;
+import entity.enums.FlatType;
+import entity.enums.MaritalStatus;
+import entity.enums.UserRole;
+import metrics.LatencyHistogram;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Drives the controllers with simulated applicants, officers and managers
+ * working at the same time, and records the latency of every operation.
+ * The load is closed-loop: each simulated user waits for an operation to
+ * finish, thinks for a random time and then starts the next one, as people at
+ * a screen do. Work flows between the roles as it would on launch day:
+ * applicants apply and send enquiries for the projects of the simulated
+ * managers, managers review the pending applications, and officers book flats
+ * for approved applications and answer the enquiries.
+ */
+public class WorkloadSimulator {
+    private static final String[] OPERATIONS = {
+            "browseProjects", "createApplication", "createEnquiry", "bookFlat", "answerEnquiry",
+            "takePendingApplications", "approveApplication", "rejectApplication",
+            "applicationSummaryReport", "flatTypePreferenceReport", "bookingReport", "systemSummaryReport" };
+
+    private final WorkloadConfig config;
+    private final UserController userController;
+    private final ProjectController projectController;
+    private final ApplicationController applicationController;
+    private final EnquiryController enquiryController;
+    private final ReportController reportController;
+
+    private final Map<String, LatencyHistogram> latencies;
+    private final Map<String, LongAdder> failures;
+    private final Map<String, Queue<String>> approvedByProject;
+    private final Map<String, Queue<String>> enquiriesByProject;
+    private final Queue<Applicant> idleApplicants;
+    private List<Applicant> applicants;
+    private List<Project> projects;
+
+    private int officerCount;
+    private int managerCount;
+    private volatile boolean running;
+    private volatile boolean recording;
+    private long measuredNanos;
+
+    /**
+     * Constructs a new WorkloadSimulator.
+     *
+     * @param config                The workload to simulate
+     * @param userController        The user controller
+     * @param projectController     The project controller
+     * @param applicationController The application controller
+     * @param enquiryController     The enquiry controller
+     * @param reportController      The report controller
+     */
+    public WorkloadSimulator(WorkloadConfig config, UserController userController,
+            ProjectController projectController, ApplicationController applicationController,
+            EnquiryController enquiryController, ReportController reportController) {
+        this.config = config;
+        this.userController = userController;
+        this.projectController = projectController;
+        this.applicationController = applicationController;
+        this.enquiryController = enquiryController;
+        this.reportController = reportController;
+        this.latencies = new LinkedHashMap<>();
+        this.failures = new HashMap<>();
+        for (String operation : OPERATIONS) {
+            latencies.put(operation, new LatencyHistogram());
+            failures.put(operation, new LongAdder());
+        }
+        this.approvedByProject = new ConcurrentHashMap<>();
+        this.enquiriesByProject = new ConcurrentHashMap<>();
+        this.idleApplicants = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Runs the workload: starts every simulated user, waits for the warm-up
+     * and measured time, and stops them.
+     *
+     * @throws IllegalStateException if there are no managers with projects or
+     *                               no applicants to simulate
+     * @throws InterruptedException  if the run is interrupted
+     */
+    public void run() throws InterruptedException {
+        Random random = new Random(config.getSeed());
+        List<Thread> threads = new ArrayList<>();
+
+        // Simulated managers and their projects are the ones launching today
+        projects = new ArrayList<>();
+        List<HDBManager> managers = new ArrayList<>();
+        for (HDBManager manager : userController.getAllManagers()) {
+            if (managers.size() >= config.getManagers()) {
+                break;
+            }
+            List<Project> managed = projectController.getProjectsByManager(manager.getNric());
+            if (!managed.isEmpty()) {
+                managers.add(manager);
+                projects.addAll(managed);
+            }
+        }
+        if (projects.isEmpty()) {
+            throw new IllegalStateException("No managers with projects to simulate");
+        }
+        Set<String> projectNames = new HashSet<>();
+        for (Project project : projects) {
+            projectNames.add(project.getProjectName());
+            approvedByProject.put(project.getProjectName(), new ConcurrentLinkedQueue<>());
+            enquiriesByProject.put(project.getProjectName(), new ConcurrentLinkedQueue<>());
+        }
+
+        applicants = new ArrayList<>();
+        for (Applicant applicant : userController.getAllApplicants()) {
+            if (applicant.getRole() == UserRole.APPLICANT) {
+                applicants.add(applicant);
+            }
+        }
+        if (applicants.isEmpty()) {
+            throw new IllegalStateException("No applicants to simulate");
+        }
+        List<Applicant> idle = new ArrayList<>();
+        for (Applicant applicant : applicants) {
+            if (applicant.getCurrentApplicationId() == null) {
+                idle.add(applicant);
+            }
+        }
+        Collections.shuffle(idle, random);
+        idleApplicants.addAll(idle);
+
+        running = true;
+        for (int i = 0; i < config.getApplicants(); i++) {
+            Random userRandom = new Random(random.nextLong());
+            threads.add(start("sim-applicant-" + (i + 1), config.getApplicantThinkMillis(), userRandom,
+                    () -> actAsApplicant(userRandom)));
+        }
+        int officers = 0;
+        for (HDBOfficer officer : userController.getAllOfficers()) {
+            if (officers >= config.getOfficers()) {
+                break;
+            }
+            if (projectNames.contains(officer.getHandlingProjectName())) {
+                Random userRandom = new Random(random.nextLong());
+                threads.add(start("sim-officer-" + (++officers), config.getOfficerThinkMillis(), userRandom,
+                        () -> actAsOfficer(officer, userRandom)));
+            }
+        }
+        officerCount = officers;
+        managerCount = managers.size();
+        for (int i = 0; i < managers.size(); i++) {
+            HDBManager manager = managers.get(i);
+            List<Project> managed = projectController.getProjectsByManager(manager.getNric());
+            Random userRandom = new Random(random.nextLong());
+            threads.add(start("sim-manager-" + (i + 1), config.getManagerThinkMillis(), userRandom,
+                    () -> actAsManager(managed, userRandom)));
+        }
+
+        try {
+            Thread.sleep(config.getWarmupSeconds() * 1000L);
+            long start = System.nanoTime();
+            recording = true;
+            Thread.sleep(config.getDurationSeconds() * 1000L);
+            recording = false;
+            measuredNanos = System.nanoTime() - start;
+        } finally {
+            running = false;
+            for (Thread thread : threads) {
+                thread.interrupt();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+    }
+
+    /**
+     * Formats the throughput and latency percentiles of every operation.
+     *
+     * @return The report, one line per operation
+     */
+    public String getReport() {
+        double seconds = Math.max(1, measuredNanos) / 1e9;
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Workload: %d applicants, %d officers, %d managers; %.1f s measured after %d s"
+                + " warm-up%n%n", config.getApplicants(), officerCount, managerCount, seconds,
+                config.getWarmupSeconds()));
+        report.append(String.format("%-26s %9s %9s %7s %9s %9s %9s %9s %9s%n", "Operation", "Count", "Ops/s",
+                "Failed", "Mean ms", "p50 ms", "p99 ms", "p99.9 ms", "Max ms"));
+        for (Map.Entry<String, LatencyHistogram> entry : latencies.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            report.append(String.format("%-26s %9d %9.1f %7d %9.3f %9.3f %9.3f %9.3f %9.3f%n", entry.getKey(),
+                    histogram.getCount(), histogram.getCount() / seconds, failures.get(entry.getKey()).sum(),
+                    histogram.getMean() / 1e6, histogram.getValueAtPercentile(50) / 1e6,
+                    histogram.getValueAtPercentile(99) / 1e6, histogram.getValueAtPercentile(99.9) / 1e6,
+                    histogram.getMax() / 1e6));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Gets the latencies recorded for an operation.
+     *
+     * @param operation The name of the operation
+     * @return The histogram of latencies in nanoseconds, or null if the
+     *         operation is unknown
+     */
+    public LatencyHistogram getLatencies(String operation) {
+        return latencies.get(operation);
+    }
+
+    /**
+     * Starts a simulated user that repeats an action with think time in
+     * between until the run stops.
+     *
+     * @param name        The name of the thread
+     * @param thinkMillis The mean think time
+     * @param random      The random source of the user
+     * @param action      One operation of the user
+     * @return The started thread
+     */
+    private Thread start(String name, long thinkMillis, Random random, Runnable action) {
+        Thread thread = new Thread(() -> {
+            while (running) {
+                try {
+                    action.run();
+                } catch (RuntimeException e) {
+                    // Keep the user going; the failed operation is already counted
+                }
+                try {
+                    // Exponential think time gives Poisson arrivals per user
+                    Thread.sleep((long) (-thinkMillis * Math.log(1 - random.nextDouble())));
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Performs one applicant operation: browsing, applying or enquiring.
+     *
+     * @param random The random source of the user
+     */
+    private void actAsApplicant(Random random) {
+        int roll = random.nextInt(config.getBrowseWeight() + config.getApplyWeight() + config.getEnquireWeight());
+        Applicant applicant = applicants.get(random.nextInt(applicants.size()));
+        Project project = projects.get(random.nextInt(projects.size()));
+
+        if (roll < config.getBrowseWeight()) {
+            boolean married = applicant.getMaritalStatus() == MaritalStatus.MARRIED;
+            time("browseProjects", () -> projectController.getVisibleProjectsByMaritalStatus(married));
+        } else if (roll < config.getBrowseWeight() + config.getApplyWeight()) {
+            Applicant newApplicant = idleApplicants.poll();
+            if (newApplicant == null) {
+                return;
+            }
+            FlatType flatType = newApplicant.getMaritalStatus() == MaritalStatus.SINGLE || random.nextBoolean()
+                    ? FlatType.TWO_ROOM : FlatType.THREE_ROOM;
+            time("createApplication", () -> applicationController.createApplication(newApplicant.getNric(),
+                    project.getProjectName(), flatType));
+        } else {
+            String enquiryId = time("createEnquiry", () -> enquiryController.createEnquiry(applicant.getNric(),
+                    project.getProjectName(), "Is there a shuttle service to the nearest MRT station?"));
+            if (enquiryId != null) {
+                enquiriesByProject.get(project.getProjectName()).add(enquiryId);
+            }
+        }
+    }
+
+    /**
+     * Performs one officer operation: booking a flat for an approved
+     * application or answering an enquiry about the officer's project.
+     *
+     * @param officer The officer
+     * @param random  The random source of the user
+     */
+    private void actAsOfficer(HDBOfficer officer, Random random) {
+        String projectName = officer.getHandlingProjectName();
+        Queue<String> approved = approvedByProject.get(projectName);
+        Queue<String> enquiries = enquiriesByProject.get(projectName);
+        boolean book = random.nextBoolean() ? !approved.isEmpty() : enquiries.isEmpty();
+
+        if (book) {
+            String applicationId = approved.poll();
+            if (applicationId != null) {
+                time("bookFlat", () -> applicationController.bookFlat(applicationId, officer.getNric()));
+            }
+        } else {
+            String enquiryId = enquiries.poll();
+            if (enquiryId != null) {
+                time("answerEnquiry", () -> enquiryController.answerEnquiry(enquiryId, officer.getNric(),
+                        "Please refer to the project brochure for transport options."));
+            }
+        }
+    }
+
+    /**
+     * Performs one manager operation: generating a report or reviewing a
+     * batch of pending applications.
+     *
+     * @param managed The projects of the manager
+     * @param random  The random source of the user
+     */
+    private void actAsManager(List<Project> managed, Random random) {
+        Project project = managed.get(random.nextInt(managed.size()));
+
+        if (random.nextInt(100) < config.getReportPercent()) {
+            switch (random.nextInt(4)) {
+                case 0:
+                    time("applicationSummaryReport", reportController::generateApplicationSummaryReport);
+                    break;
+                case 1:
+                    time("flatTypePreferenceReport", reportController::generateFlatTypePreferenceReport);
+                    break;
+                case 2:
+                    time("bookingReport", () -> reportController.generateBookingReport(project.getProjectName(),
+                            null, null, null, null));
+                    break;
+                default:
+                    time("systemSummaryReport", reportController::generateSystemSummaryReport);
+                    break;
+            }
+            return;
+        }
+
+        List<Application> batch = time("takePendingApplications",
+                () -> applicationController.takePendingApplications(project.getProjectName(),
+                        config.getReviewBatchSize()));
+        List<Application> unreviewed = new ArrayList<>(batch);
+        try {
+            for (Application application : batch) {
+                String applicationId = application.getApplicationId();
+                if (random.nextInt(100) < config.getApprovePercent()) {
+                    if (time("approveApplication", () -> applicationController.approveApplication(applicationId))) {
+                        approvedByProject.get(project.getProjectName()).add(applicationId);
+                    }
+                } else {
+                    time("rejectApplication", () -> applicationController.rejectApplication(applicationId));
+                }
+                unreviewed.remove(application);
+            }
+        } finally {
+            applicationController.putBackPendingApplications(unreviewed);
+        }
+    }
+
+    /**
+     * Runs an operation and records its latency while recording. A null or
+     * false result, or an exception, counts as a failure.
+     *
+     * @param operation The name of the operation
+     * @param call      The operation
+     * @return The result of the operation
+     */
+    private <T> T time(String operation, Supplier<T> call) {
+        long start = System.nanoTime();
+        T result = null;
+        try {
+            result = call.get();
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            if (recording) {
+                latencies.get(operation).record(elapsed);
+                if (result == null || Boolean.FALSE.equals(result)) {
+                    failures.get(operation).increment();
+                }
+            }
+        }
+    }
+}
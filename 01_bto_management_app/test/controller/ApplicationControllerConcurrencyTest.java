@@ -0,0 +1,302 @@
+package controller;
+
+import data.ApplicationDB;
+import data.ProjectDB;
+import data.UserDB;
+import entity.Applicant;
+import entity.HDBOfficer;
+import entity.Project;
+import entity.enums.ApplicationStatus;
+import entity.enums.FlatType;
+import entity.enums.MaritalStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that the controllers stay correct when many sessions call them at
+ * the same time.
+ */
+class ApplicationControllerConcurrencyTest {
+    private static final String PROJECT = "Alpha";
+    private static final int THREADS = 16;
+
+    @TempDir
+    Path dir;
+
+    private UserDB userDB;
+    private ProjectDB projectDB;
+    private ApplicationDB applicationDB;
+    private ApplicationController applicationController;
+    private ReportController reportController;
+
+    /**
+     * Opens empty databases in the temporary directory.
+     */
+    @BeforeEach
+    void openDatabases() {
+        System.setProperty("bto.dataDir", dir.toString());
+        userDB = new UserDB();
+        projectDB = new ProjectDB();
+        applicationDB = new ApplicationDB(userDB);
+        ReportStatistics reportStatistics = new ReportStatistics(applicationDB, userDB);
+        applicationController = new ApplicationController(applicationDB, projectDB, userDB, reportStatistics);
+        reportController = new ReportController(applicationDB, projectDB, userDB, reportStatistics);
+    }
+
+    /**
+     * Restores the default data directory.
+     */
+    @AfterEach
+    void clearDataDir() {
+        System.clearProperty("bto.dataDir");
+    }
+
+    /**
+     * When one applicant submits from several sessions at once, only one
+     * application is created.
+     */
+    @Test
+    void sameApplicantGetsOneApplication() throws Exception {
+        addProject(10);
+        String nric = addApplicant(0);
+
+        List<String> ids = race(THREADS, thread -> applicationController.createApplication(nric, PROJECT,
+                FlatType.TWO_ROOM));
+
+        ids.removeIf(id -> id == null);
+        assertEquals(1, ids.size());
+        assertEquals(1, applicationDB.getApplicationsByProject(PROJECT).size());
+        assertEquals(ids.get(0), ((Applicant) userDB.getUser(nric)).getCurrentApplicationId());
+    }
+
+    /**
+     * Applicants applying at the same time all get their own application,
+     * and the report counters count each of them once.
+     */
+    @Test
+    void concurrentApplicantsAreAllRecorded() throws Exception {
+        addProject(10);
+        assertEquals(0, reportController.generateApplicationDetailReport(PROJECT).values().stream()
+                .mapToInt(Integer::intValue).sum());
+        int applicants = THREADS * 8;
+        for (int i = 0; i < applicants; i++) {
+            addApplicant(i);
+        }
+
+        List<String> ids = race(applicants, i -> applicationController.createApplication(
+                String.format("S%07dA", i), PROJECT, FlatType.TWO_ROOM));
+
+        Set<String> distinct = new HashSet<>(ids);
+        distinct.remove(null);
+        assertEquals(applicants, distinct.size());
+        assertEquals(applicants, applicationDB.getApplicationsByProject(PROJECT).size());
+        assertEquals(Map.of(PROJECT, applicants), reportController.generateApplicationSummaryReport());
+        assertTrue(reportController.verifyStatistics());
+    }
+
+    /**
+     * Users logging in at the same time each get their own session.
+     */
+    @Test
+    void concurrentLoginsGetSeparateSessions() throws Exception {
+        int users = THREADS * 4;
+        for (int i = 0; i < users; i++) {
+            addApplicant(i);
+        }
+        LoginController loginController = new LoginController(userDB);
+
+        List<Session> sessions = race(users, i -> loginController.login(String.format("S%07dA", i), "password"));
+
+        assertEquals(users, loginController.getActiveSessionCount());
+        for (int i = 0; i < users; i++) {
+            Session session = sessions.get(i);
+            assertNotNull(session);
+            assertEquals(String.format("S%07dA", i), session.getUser().getNric());
+            assertSame(session, loginController.getSession(session.getSessionId()));
+        }
+    }
+
+    /**
+     * Officers racing to book more successful applications than there are
+     * units book exactly the units there are, and the sold-out count is
+     * what gets saved.
+     */
+    @Test
+    void racingOfficersDoNotOversell() throws Exception {
+        int units = 5;
+        int applicants = THREADS * 4;
+        addProject(units);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < applicants; i++) {
+            String applicationId = applicationController.createApplication(addApplicant(i), PROJECT,
+                    FlatType.TWO_ROOM);
+            assertTrue(applicationController.approveApplication(applicationId));
+            ids.add(applicationId);
+        }
+        for (int i = 0; i < 4; i++) {
+            addOfficer(i);
+        }
+
+        List<String> bookingIds = race(applicants, i -> applicationController.bookFlat(ids.get(i),
+                String.format("T%07dO", i % 4)));
+
+        bookingIds.removeIf(id -> id == null);
+        assertEquals(units, bookingIds.size());
+        assertEquals(units, applicationDB.getBookingsByProject(PROJECT).size());
+        assertEquals(0, projectDB.getProject(PROJECT).getFlatTypeUnits().get(FlatType.TWO_ROOM));
+        assertEquals(units, applicationDB.getApplicationsByStatus(PROJECT, ApplicationStatus.BOOKED).size());
+        assertEquals(applicants - units,
+                applicationDB.getApplicationsByStatus(PROJECT, ApplicationStatus.SUCCESSFUL).size());
+        assertTrue(reportController.verifyStatistics());
+
+        ProjectDB reloaded = new ProjectDB();
+        assertEquals(0, reloaded.getProject(PROJECT).getFlatTypeUnits().get(FlatType.TWO_ROOM));
+    }
+
+    /**
+     * A unit given back by a withdrawn booking can be booked again, once.
+     */
+    @Test
+    void withdrawnUnitIsBookedOnce() throws Exception {
+        addProject(1);
+        addOfficer(0);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < THREADS + 1; i++) {
+            String applicationId = applicationController.createApplication(addApplicant(i), PROJECT,
+                    FlatType.TWO_ROOM);
+            assertTrue(applicationController.approveApplication(applicationId));
+            ids.add(applicationId);
+        }
+        String officer = String.format("T%07dO", 0);
+        assertNotNull(applicationController.bookFlat(ids.get(0), officer));
+        assertTrue(applicationController.requestWithdrawal(ids.get(0)));
+        assertTrue(applicationController.approveWithdrawal(ids.get(0)));
+        assertEquals(1, projectDB.getProject(PROJECT).getFlatTypeUnits().get(FlatType.TWO_ROOM));
+
+        List<String> bookingIds = race(THREADS, i -> applicationController.bookFlat(ids.get(i + 1), officer));
+
+        bookingIds.removeIf(id -> id == null);
+        assertEquals(1, bookingIds.size());
+        assertEquals(0, projectDB.getProject(PROJECT).getFlatTypeUnits().get(FlatType.TWO_ROOM));
+    }
+
+    /**
+     * Concurrent reservations of a flat type take every unit exactly once
+     * and never take the count below zero.
+     */
+    @Test
+    void reservationsNeverGoBelowZero() throws Exception {
+        int units = 1000;
+        Map<FlatType, Integer> flatTypeUnits = new EnumMap<>(FlatType.class);
+        flatTypeUnits.put(FlatType.THREE_ROOM, units);
+        Project project = new Project(PROJECT, "Yishun", flatTypeUnits, LocalDate.of(2025, 1, 1),
+                LocalDate.of(2025, 12, 31), "S5000000M", 5);
+
+        List<Integer> reserved = race(THREADS, thread -> {
+            int count = 0;
+            for (int i = 0; i < units / THREADS * 2; i++) {
+                if (project.decrementFlatTypeUnits(FlatType.THREE_ROOM)) {
+                    count++;
+                }
+            }
+            return count;
+        });
+
+        assertEquals(units, reserved.stream().mapToInt(Integer::intValue).sum());
+        assertEquals(0, project.getFlatTypeUnits().get(FlatType.THREE_ROOM));
+        assertFalse(project.decrementFlatTypeUnits(FlatType.THREE_ROOM));
+        assertFalse(project.decrementFlatTypeUnits(FlatType.TWO_ROOM));
+    }
+
+    /**
+     * Adds a visible project with units of 2-Room flats.
+     *
+     * @param units The number of 2-Room units
+     */
+    private void addProject(int units) {
+        Map<FlatType, Integer> flatTypeUnits = new EnumMap<>(FlatType.class);
+        flatTypeUnits.put(FlatType.TWO_ROOM, units);
+        Project project = new Project(PROJECT, "Yishun", flatTypeUnits, LocalDate.of(2025, 1, 1),
+                LocalDate.of(2025, 12, 31), "S5000000M", 5);
+        project.setVisible(true);
+        projectDB.addProject(project);
+    }
+
+    /**
+     * Adds a married applicant eligible for every flat type.
+     *
+     * @param id A number unique to the applicant
+     * @return The NRIC of the applicant
+     */
+    private String addApplicant(int id) {
+        String nric = String.format("S%07dA", id);
+        userDB.addUser(new Applicant(nric, "Applicant " + id, "password", 30, MaritalStatus.MARRIED));
+        return nric;
+    }
+
+    /**
+     * Adds an officer handling the project.
+     *
+     * @param id A number unique to the officer
+     */
+    private void addOfficer(int id) {
+        HDBOfficer officer = new HDBOfficer(String.format("T%07dO", id), "Officer " + id, "password", 30,
+                MaritalStatus.MARRIED);
+        officer.setHandlingProjectName(PROJECT);
+        userDB.addUser(officer);
+    }
+
+    /**
+     * Runs tasks on a pool of threads, releasing them all at once.
+     *
+     * @param tasks The number of tasks
+     * @param task  The task, given its number
+     * @return The results of the tasks, in task order
+     * @throws Exception if a task failed
+     */
+    private static <T> List<T> race(int tasks, IntFunction<T> task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                int number = i;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return task.apply(number);
+                }));
+            }
+            start.countDown();
+
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
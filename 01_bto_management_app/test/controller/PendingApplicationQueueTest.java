@@ -0,0 +1,150 @@
+package controller;
+
+import data.ApplicationDB;
+import data.UserDB;
+import entity.Application;
+import entity.enums.ApplicationStatus;
+import entity.enums.FlatType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that pending applications are handed out oldest first, each to one
+ * manager at a time, and come back when a review is abandoned.
+ */
+class PendingApplicationQueueTest {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 3, 21, 9, 0);
+
+    @TempDir
+    Path dir;
+
+    private ApplicationDB applicationDB;
+
+    /**
+     * Opens an empty application database in the temporary directory.
+     */
+    @BeforeEach
+    void openDatabase() {
+        System.setProperty("bto.dataDir", dir.toString());
+        applicationDB = new ApplicationDB(new UserDB());
+    }
+
+    /**
+     * Restores the default data directory.
+     */
+    @AfterEach
+    void clearDataDir() {
+        System.clearProperty("bto.dataDir");
+    }
+
+    /**
+     * The queue of a project is filled with its pending applications only,
+     * and they are taken oldest first.
+     */
+    @Test
+    void pollTakesOldestPendingOfProject() {
+        add("A-3", "Alpha", 3, ApplicationStatus.PENDING);
+        add("A-1", "Alpha", 1, ApplicationStatus.PENDING);
+        add("A-2", "Alpha", 2, ApplicationStatus.SUCCESSFUL);
+        add("B-0", "Beta", 0, ApplicationStatus.PENDING);
+        PendingApplicationQueue queue = new PendingApplicationQueue(applicationDB);
+
+        assertEquals(2, queue.size("Alpha"));
+        assertEquals(List.of("A-1", "A-3"), ids(queue.poll("Alpha", 10)));
+        assertEquals(List.of("B-0"), ids(queue.poll("Beta", 10)));
+    }
+
+    /**
+     * A leased application is not handed to a second manager, and one put
+     * back unreviewed keeps its place at the front.
+     */
+    @Test
+    void leasedApplicationsAreHandedOutOnce() {
+        for (int i = 0; i < 3; i++) {
+            add("A-" + i, "Alpha", i, ApplicationStatus.PENDING);
+        }
+        PendingApplicationQueue queue = new PendingApplicationQueue(applicationDB);
+
+        List<Application> first = queue.poll("Alpha", 1);
+        assertEquals(List.of("A-0"), ids(first));
+        assertEquals(List.of("A-1"), ids(queue.poll("Alpha", 1)));
+
+        queue.putBack(first.get(0));
+        assertEquals(List.of("A-0", "A-2"), ids(queue.poll("Alpha", 10)));
+    }
+
+    /**
+     * Applications whose lease ran out go back into the queue once, even if
+     * the manager who took them puts them back afterwards.
+     */
+    @Test
+    void expiredLeasesAreReclaimedOnce() {
+        add("A-0", "Alpha", 0, ApplicationStatus.PENDING);
+        add("A-1", "Alpha", 1, ApplicationStatus.PENDING);
+        PendingApplicationQueue queue = new PendingApplicationQueue(applicationDB, 0);
+
+        List<Application> taken = queue.poll("Alpha", 10);
+        assertEquals(2, taken.size());
+        assertEquals(2, queue.size("Alpha"));
+        for (Application application : taken) {
+            queue.putBack(application);
+        }
+        assertEquals(List.of("A-0", "A-1"), ids(queue.poll("Alpha", 10)));
+    }
+
+    /**
+     * Applications reviewed elsewhere are dropped instead of handed out.
+     */
+    @Test
+    void reviewedApplicationsAreDropped() {
+        add("A-0", "Alpha", 0, ApplicationStatus.PENDING);
+        add("A-1", "Alpha", 1, ApplicationStatus.PENDING);
+        PendingApplicationQueue queue = new PendingApplicationQueue(applicationDB);
+        assertEquals(2, queue.size("Alpha"));
+
+        Application reviewed = applicationDB.getApplication("A-0");
+        reviewed.setStatus(ApplicationStatus.UNSUCCESSFUL);
+        applicationDB.updateApplication(reviewed);
+
+        assertEquals(1, queue.size("Alpha"));
+        assertEquals(List.of("A-1"), ids(queue.poll("Alpha", 10)));
+        assertTrue(queue.poll("Alpha", 10).isEmpty());
+    }
+
+    /**
+     * Adds an application to the database.
+     *
+     * @param id          The ID of the application
+     * @param projectName The name of the project
+     * @param minutes     The minutes after the start the application was made
+     * @param status      The status of the application
+     */
+    private void add(String id, String projectName, int minutes, ApplicationStatus status) {
+        applicationDB.addApplication(new Application(id, "S000000" + minutes + "A", projectName, FlatType.TWO_ROOM,
+                status, START.plusMinutes(minutes), null, false));
+    }
+
+    /**
+     * Gets the IDs of applications.
+     *
+     * @param applications The applications
+     * @return Their IDs, in the same order
+     */
+    private static List<String> ids(List<Application> applications) {
+        List<String> ids = new ArrayList<>();
+        for (Application application : applications) {
+            ids.add(application.getApplicationId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,201 @@
+package controller;
+
+import data.ApplicationDB;
+import data.ProjectDB;
+import data.UserDB;
+import entity.Applicant;
+import entity.Application;
+import entity.FlatBooking;
+import entity.HDBOfficer;
+import entity.Project;
+import entity.User;
+import entity.enums.ApplicationStatus;
+import entity.enums.FlatType;
+import entity.enums.MaritalStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that the reports computed in one pass over the applications and
+ * bookings give the same numbers as counting each project separately.
+ */
+class ReportControllerTest {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 3, 21, 9, 0);
+    private static final String OFFICER = "T1000000O";
+    private static final String DEPARTED_OFFICER = "T9999999Z";
+
+    @TempDir
+    Path dir;
+
+    private UserDB userDB;
+    private ProjectDB projectDB;
+    private ApplicationDB applicationDB;
+    private ReportController reportController;
+    private int nextId;
+
+    /**
+     * Opens empty databases in the temporary directory.
+     */
+    @BeforeEach
+    void openDatabases() {
+        System.setProperty("bto.dataDir", dir.toString());
+        userDB = new UserDB();
+        projectDB = new ProjectDB();
+        applicationDB = new ApplicationDB(userDB);
+        reportController = new ReportController(applicationDB, projectDB, userDB,
+                new ReportStatistics(applicationDB, userDB));
+        userDB.addUser(new HDBOfficer(OFFICER, "Officer", "password", 30, MaritalStatus.MARRIED));
+        addProject("Alpha");
+        addProject("Beta");
+    }
+
+    /**
+     * Restores the default data directory.
+     */
+    @AfterEach
+    void clearDataDir() {
+        System.clearProperty("bto.dataDir");
+    }
+
+    /**
+     * Every report counts applications, statuses, flat types, ages and
+     * bookings per project, including bookings by officers who have left.
+     */
+    @Test
+    void reportsCountEveryApplicationAndBooking() {
+        book(apply("Alpha", 25, MaritalStatus.MARRIED, FlatType.THREE_ROOM, ApplicationStatus.SUCCESSFUL), OFFICER);
+        apply("Alpha", 35, MaritalStatus.MARRIED, FlatType.TWO_ROOM, ApplicationStatus.PENDING);
+        apply("Alpha", 38, MaritalStatus.SINGLE, FlatType.TWO_ROOM, ApplicationStatus.UNSUCCESSFUL);
+        apply("Beta", 28, MaritalStatus.MARRIED, FlatType.THREE_ROOM, ApplicationStatus.SUCCESSFUL);
+        book(apply("Beta", 36, MaritalStatus.SINGLE, FlatType.TWO_ROOM, ApplicationStatus.SUCCESSFUL),
+                DEPARTED_OFFICER);
+
+        assertEquals(Map.of("Alpha", 3, "Beta", 2), reportController.generateApplicationSummaryReport());
+
+        Map<ApplicationStatus, Integer> detail = reportController.generateApplicationDetailReport("Alpha");
+        assertEquals(1, detail.get(ApplicationStatus.PENDING));
+        assertEquals(0, detail.get(ApplicationStatus.SUCCESSFUL));
+        assertEquals(1, detail.get(ApplicationStatus.UNSUCCESSFUL));
+        assertEquals(1, detail.get(ApplicationStatus.BOOKED));
+
+        Map<MaritalStatus, Map<FlatType, Integer>> preferences = reportController.generateFlatTypePreferenceReport();
+        assertEquals(Map.of(FlatType.TWO_ROOM, 1, FlatType.THREE_ROOM, 2), preferences.get(MaritalStatus.MARRIED));
+        assertEquals(Map.of(FlatType.TWO_ROOM, 2, FlatType.THREE_ROOM, 0), preferences.get(MaritalStatus.SINGLE));
+
+        Map<String, Double> successRates = reportController.generateAgeGroupSuccessReport(new int[] { 30, 40, 50 });
+        assertEquals(1.0, successRates.get("Below 30"), 1e-9);
+        assertEquals(1.0 / 3, successRates.get("30 to 39"), 1e-9);
+
+        assertEquals(Map.of(OFFICER, 1, DEPARTED_OFFICER, 1), reportController.generateOfficerPerformanceReport());
+
+        String summary = reportController.generateSystemSummaryReport();
+        assertTrue(summary.contains("Total Applications: 5"), summary);
+        assertTrue(summary.contains("Total Bookings: 2"), summary);
+    }
+
+    /**
+     * The flat type preference and officer reports match counts taken project
+     * by project from the application database, as the reports used to do.
+     */
+    @Test
+    void reportsMatchPerProjectCounts() {
+        addProject("Gamma");
+        String[] projects = { "Alpha", "Beta", "Gamma" };
+        ApplicationStatus[] statuses = ApplicationStatus.values();
+        for (int i = 0; i < 120; i++) {
+            MaritalStatus maritalStatus = i % 3 == 0 ? MaritalStatus.SINGLE : MaritalStatus.MARRIED;
+            FlatType flatType = maritalStatus == MaritalStatus.SINGLE || i % 2 == 0
+                    ? FlatType.TWO_ROOM : FlatType.THREE_ROOM;
+            ApplicationStatus status = statuses[i % statuses.length];
+            String applicationId = apply(projects[i % projects.length], 35 + i % 20, maritalStatus, flatType,
+                    status == ApplicationStatus.BOOKED ? ApplicationStatus.SUCCESSFUL : status);
+            if (status == ApplicationStatus.BOOKED) {
+                book(applicationId, i % 7 == 0 ? DEPARTED_OFFICER : OFFICER);
+            }
+        }
+
+        Map<MaritalStatus, Map<FlatType, Integer>> preferences = new EnumMap<>(MaritalStatus.class);
+        Map<String, Integer> bookingsByOfficer = new HashMap<>();
+        bookingsByOfficer.put(OFFICER, 0);
+        for (String projectName : projects) {
+            for (Application application : applicationDB.getApplicationsByProject(projectName)) {
+                User applicant = userDB.getUser(application.getApplicantNric());
+                preferences.computeIfAbsent(applicant.getMaritalStatus(), status -> new EnumMap<>(FlatType.class))
+                        .merge(application.getFlatType(), 1, Integer::sum);
+            }
+            for (FlatBooking booking : applicationDB.getBookingsByProject(projectName)) {
+                bookingsByOfficer.merge(booking.getOfficerNric(), 1, Integer::sum);
+            }
+        }
+
+        Map<MaritalStatus, Map<FlatType, Integer>> report = reportController.generateFlatTypePreferenceReport();
+        for (MaritalStatus maritalStatus : MaritalStatus.values()) {
+            for (FlatType flatType : FlatType.values()) {
+                int expected = preferences.getOrDefault(maritalStatus, Map.of()).getOrDefault(flatType, 0);
+                assertEquals(expected, report.get(maritalStatus).get(flatType), maritalStatus + " " + flatType);
+            }
+        }
+        assertEquals(bookingsByOfficer, reportController.generateOfficerPerformanceReport());
+    }
+
+    /**
+     * Adds a visible project with units of both flat types.
+     *
+     * @param projectName The name of the project
+     */
+    private void addProject(String projectName) {
+        Map<FlatType, Integer> units = new EnumMap<>(FlatType.class);
+        units.put(FlatType.TWO_ROOM, 100);
+        units.put(FlatType.THREE_ROOM, 100);
+        Project project = new Project(projectName, "Yishun", units, LocalDate.of(2025, 1, 1),
+                LocalDate.of(2025, 12, 31), "S5000000M", 5);
+        project.setVisible(true);
+        projectDB.addProject(project);
+    }
+
+    /**
+     * Adds an applicant and an application of theirs.
+     *
+     * @param projectName   The name of the project
+     * @param age           The age of the applicant
+     * @param maritalStatus The marital status of the applicant
+     * @param flatType      The flat type applied for
+     * @param status        The status of the application
+     * @return The ID of the application
+     */
+    private String apply(String projectName, int age, MaritalStatus maritalStatus, FlatType flatType,
+            ApplicationStatus status) {
+        int id = nextId++;
+        String nric = String.format("S%07dA", id);
+        userDB.addUser(new Applicant(nric, "Applicant " + id, "password", age, maritalStatus));
+        String applicationId = "A-" + id;
+        applicationDB.addApplication(new Application(applicationId, nric, projectName, flatType, status,
+                START.plusMinutes(id), null, false));
+        return applicationId;
+    }
+
+    /**
+     * Books a flat for a successful application.
+     *
+     * @param applicationId The ID of the application
+     * @param officerNric   The NRIC of the officer making the booking
+     */
+    private void book(String applicationId, String officerNric) {
+        Application application = applicationDB.getApplication(applicationId);
+        applicationDB.addBooking(new FlatBooking("B-" + applicationId, applicationId,
+                application.getApplicantNric(), application.getProjectName(), application.getFlatType(),
+                officerNric));
+    }
+}
@@ -0,0 +1,167 @@
+package controller;
+
+import data.ApplicationDB;
+import data.ProjectDB;
+import data.UserDB;
+import entity.Applicant;
+import entity.Application;
+import entity.HDBOfficer;
+import entity.Project;
+import entity.enums.ApplicationStatus;
+import entity.enums.FlatType;
+import entity.enums.MaritalStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that the live report counters follow every state transition and
+ * are rebuilt when they drift from the raw data.
+ */
+class ReportStatisticsTest {
+    private static final String PROJECT = "Alpha";
+    private static final String OFFICER = "T1000000O";
+
+    @TempDir
+    Path dir;
+
+    private UserDB userDB;
+    private ApplicationDB applicationDB;
+    private ReportStatistics reportStatistics;
+    private ApplicationController applicationController;
+    private ReportController reportController;
+
+    /**
+     * Opens empty databases in the temporary directory with one project and
+     * an officer handling it.
+     */
+    @BeforeEach
+    void openDatabases() {
+        System.setProperty("bto.dataDir", dir.toString());
+        userDB = new UserDB();
+        ProjectDB projectDB = new ProjectDB();
+        applicationDB = new ApplicationDB(userDB);
+        reportStatistics = new ReportStatistics(applicationDB, userDB);
+        applicationController = new ApplicationController(applicationDB, projectDB, userDB, reportStatistics);
+        reportController = new ReportController(applicationDB, projectDB, userDB, reportStatistics);
+
+        Map<FlatType, Integer> units = new EnumMap<>(FlatType.class);
+        units.put(FlatType.TWO_ROOM, 10);
+        units.put(FlatType.THREE_ROOM, 10);
+        Project project = new Project(PROJECT, "Yishun", units, LocalDate.of(2025, 1, 1),
+                LocalDate.of(2025, 12, 31), "S5000000M", 5);
+        project.setVisible(true);
+        projectDB.addProject(project);
+
+        HDBOfficer officer = new HDBOfficer(OFFICER, "Officer", "password", 30, MaritalStatus.MARRIED);
+        officer.setHandlingProjectName(PROJECT);
+        userDB.addUser(officer);
+    }
+
+    /**
+     * Restores the default data directory.
+     */
+    @AfterEach
+    void clearDataDir() {
+        System.clearProperty("bto.dataDir");
+    }
+
+    /**
+     * Creating, approving, rejecting, booking and withdrawing applications
+     * each leave the live counters equal to counters rebuilt from scratch.
+     */
+    @Test
+    void liveCountersFollowTransitions() {
+        // Build the live counters before any transition so every one updates them
+        assertEquals(0, reportStatistics.getProjectStatistics(PROJECT).getApplicationCount());
+
+        String[] ids = new String[6];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = apply(i, i % 2 == 0 ? MaritalStatus.MARRIED : MaritalStatus.SINGLE);
+            assertConsistent();
+        }
+        for (int i = 0; i < 4; i++) {
+            assertTrue(applicationController.approveApplication(ids[i]));
+            assertConsistent();
+        }
+        assertTrue(applicationController.rejectApplication(ids[4]));
+        assertConsistent();
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(applicationController.bookFlat(ids[i], OFFICER));
+            assertConsistent();
+        }
+
+        assertTrue(applicationController.requestWithdrawal(ids[0]));
+        assertTrue(applicationController.approveWithdrawal(ids[0]));
+        assertConsistent();
+        assertTrue(applicationController.requestWithdrawal(ids[5]));
+        assertTrue(applicationController.approveWithdrawal(ids[5]));
+        assertConsistent();
+
+        Map<ApplicationStatus, Integer> detail = reportController.generateApplicationDetailReport(PROJECT);
+        assertEquals(0, detail.get(ApplicationStatus.PENDING));
+        assertEquals(1, detail.get(ApplicationStatus.SUCCESSFUL));
+        assertEquals(1, detail.get(ApplicationStatus.UNSUCCESSFUL));
+        assertEquals(2, detail.get(ApplicationStatus.BOOKED));
+        assertEquals(Map.of(OFFICER, 2), reportController.generateOfficerPerformanceReport());
+        assertTrue(reportController.verifyStatistics());
+    }
+
+    /**
+     * A change made behind the controllers is caught by the consistency
+     * check, which rebuilds the counters from the raw data.
+     */
+    @Test
+    void driftedCountersAreRebuilt() {
+        String applicationId = apply(0, MaritalStatus.MARRIED);
+        assertEquals(1, reportStatistics.getProjectStatistics(PROJECT).getApplicationCount());
+        assertTrue(reportController.verifyStatistics());
+
+        // Change the data without telling the counters
+        Application application = applicationDB.getApplication(applicationId);
+        applicationDB.addApplication(new Application("stray", application.getApplicantNric(), PROJECT,
+                FlatType.THREE_ROOM, ApplicationStatus.SUCCESSFUL, LocalDateTime.of(2025, 3, 21, 9, 0), null,
+                false));
+        assertEquals(1, reportStatistics.getProjectStatistics(PROJECT).getApplicationCount());
+
+        assertFalse(reportController.verifyStatistics());
+        assertEquals(2, reportStatistics.getProjectStatistics(PROJECT).getApplicationCount());
+        assertEquals(1, reportStatistics.getProjectStatistics(PROJECT).getStatusCount(ApplicationStatus.SUCCESSFUL));
+        assertTrue(reportController.verifyStatistics());
+    }
+
+    /**
+     * Checks that the live counters equal counters rebuilt from the raw data.
+     */
+    private void assertConsistent() {
+        ProjectStatistics rebuilt = new ReportStatistics(applicationDB, userDB).getProjectStatistics(PROJECT);
+        assertEquals(rebuilt, reportStatistics.getProjectStatistics(PROJECT));
+    }
+
+    /**
+     * Adds an applicant and applies for a 2-Room flat through the controller.
+     *
+     * @param id            A number unique to the applicant
+     * @param maritalStatus The marital status of the applicant
+     * @return The ID of the new application
+     */
+    private String apply(int id, MaritalStatus maritalStatus) {
+        String nric = String.format("S%07dA", id);
+        userDB.addUser(new Applicant(nric, "Applicant " + id, "password", 35 + id, maritalStatus));
+        String applicationId = applicationController.createApplication(nric, PROJECT, FlatType.TWO_ROOM);
+        assertNotNull(applicationId);
+        return applicationId;
+    }
+}
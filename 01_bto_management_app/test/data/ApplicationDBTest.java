@@ -0,0 +1,161 @@
+package data;
+
+import entity.Application;
+import entity.FlatBooking;
+import entity.enums.ApplicationStatus;
+import entity.enums.FlatType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that the secondary indexes of the application database follow every
+ * change to the applications, and are rebuilt the same after a restart.
+ */
+class ApplicationDBTest {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 3, 21, 9, 0);
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Points the data files at the temporary directory.
+     */
+    @BeforeEach
+    void useTempDir() {
+        System.setProperty("bto.dataDir", dir.toString());
+    }
+
+    /**
+     * Restores the default data directory.
+     */
+    @AfterEach
+    void clearDataDir() {
+        System.clearProperty("bto.dataDir");
+    }
+
+    /**
+     * Lookups by applicant, project and status see status changes made in
+     * place, bookings and removals.
+     */
+    @Test
+    void indexesFollowChanges() {
+        ApplicationDB applicationDB = new ApplicationDB(new UserDB());
+        change(applicationDB);
+        assertIndexes(applicationDB);
+    }
+
+    /**
+     * The indexes rebuilt from the journal after a restart match the ones
+     * kept up to date while running.
+     */
+    @Test
+    void indexesAreRebuiltOnReload() {
+        change(new ApplicationDB(new UserDB()));
+
+        ApplicationDB reloaded = new ApplicationDB(new UserDB());
+        assertIndexes(reloaded);
+    }
+
+    /**
+     * Adds applications, then approves, books and removes some of them.
+     *
+     * @param applicationDB The application database
+     */
+    private static void change(ApplicationDB applicationDB) {
+        applicationDB.addApplication(application("APP-1", "S1111111A", "Alpha", 0, ApplicationStatus.UNSUCCESSFUL));
+        applicationDB.addApplication(application("APP-2", "S1111111A", "Beta", 1, ApplicationStatus.PENDING));
+        applicationDB.addApplication(application("APP-3", "S2222222B", "Alpha", 2, ApplicationStatus.PENDING));
+        applicationDB.addApplication(application("APP-4", "S3333333C", "Alpha", 3, ApplicationStatus.PENDING));
+
+        Application approved = applicationDB.getApplication("APP-3");
+        approved.setStatus(ApplicationStatus.SUCCESSFUL);
+        applicationDB.updateApplication(approved);
+        applicationDB.addBooking(new FlatBooking("BK-1", "APP-2", "S1111111A", "Beta", FlatType.TWO_ROOM,
+                START.plusDays(1), "T0000000A"));
+        applicationDB.removeApplication("APP-4");
+    }
+
+    /**
+     * Checks the lookups after the changes made by {@link #change}.
+     *
+     * @param applicationDB The application database
+     */
+    private static void assertIndexes(ApplicationDB applicationDB) {
+        assertEquals(Set.of("APP-1", "APP-2"), ids(applicationDB.getApplicationsByApplicant("S1111111A")));
+        assertTrue(applicationDB.getApplicationsByApplicant("S3333333C").isEmpty());
+        assertEquals("APP-2", applicationDB.getCurrentApplication("S1111111A").getApplicationId());
+        assertNull(applicationDB.getCurrentApplication("S3333333C"));
+        assertTrue(applicationDB.hasActiveApplication("S2222222B"));
+        assertFalse(applicationDB.hasActiveApplication("S3333333C"));
+
+        assertEquals(List.of("APP-1", "APP-3"), orderedIds(applicationDB.getApplicationsByProject("Alpha")));
+        assertEquals(Set.of("APP-2"), ids(applicationDB.getApplicationsByStatus(ApplicationStatus.BOOKED)));
+        assertEquals(Set.of("APP-3"), ids(applicationDB.getApplicationsByStatus(ApplicationStatus.SUCCESSFUL)));
+        assertTrue(applicationDB.getApplicationsByStatus(ApplicationStatus.PENDING).isEmpty());
+        assertTrue(applicationDB.getApplicationsByStatus("Alpha", ApplicationStatus.PENDING).isEmpty());
+        assertEquals(Set.of("APP-3"),
+                ids(applicationDB.getApplicationsByStatus("Alpha", ApplicationStatus.SUCCESSFUL)));
+        assertEquals(Set.of("APP-2"), ids(applicationDB.getSuccessfulApplicationsByProject("Beta")));
+        assertEquals(1, applicationDB.getBookingsByProject("Beta").size());
+        assertEquals(ApplicationStatus.BOOKED, applicationDB.getApplication("APP-2").getStatus());
+    }
+
+    /**
+     * Builds an application.
+     *
+     * @param id          The ID of the application
+     * @param nric        The NRIC of the applicant
+     * @param projectName The name of the project
+     * @param minutes     The minutes after the start the application was made
+     * @param status      The status of the application
+     * @return The application
+     */
+    private static Application application(String id, String nric, String projectName, int minutes,
+            ApplicationStatus status) {
+        return new Application(id, nric, projectName, FlatType.TWO_ROOM, status, START.plusMinutes(minutes), null,
+                false);
+    }
+
+    /**
+     * Gets the IDs of applications in no particular order.
+     *
+     * @param applications The applications
+     * @return Their IDs
+     */
+    private static Set<String> ids(Collection<Application> applications) {
+        Set<String> ids = new TreeSet<>();
+        for (Application application : applications) {
+            ids.add(application.getApplicationId());
+        }
+        return ids;
+    }
+
+    /**
+     * Gets the IDs of applications in order.
+     *
+     * @param applications The applications
+     * @return Their IDs, in the same order
+     */
+    private static List<String> orderedIds(List<Application> applications) {
+        List<String> ids = new ArrayList<>();
+        for (Application application : applications) {
+            ids.add(application.getApplicationId());
+        }
+        return ids;
+    }
+}
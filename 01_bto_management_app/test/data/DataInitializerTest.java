@@ -0,0 +1,177 @@
+package data;
+
+import entity.Application;
+import entity.HDBManager;
+import entity.Project;
+import entity.enums.ApplicationStatus;
+import entity.enums.FlatType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests importing the CSV files into an empty data directory and applying
+ * later changes to them with {@code -Dbto.csvImport=delta}. Each run uses new
+ * databases, as a restart of the application would.
+ */
+class DataInitializerTest {
+    private static final String USERS_CSV = "nric,name,age,MaritalStatus,Role\n"
+            + "S1111111A,Molly,45,Married,hdbmanager\n"
+            + "S2222222B,Mark,50,Single,hdbmanager\n"
+            + "S3333333C,Alice,35,Married,applicant\n"
+            + "S4444444D,Ben,40,Married,applicant\n";
+    private static final String PROJECT = "Bishan Grove";
+
+    @TempDir
+    Path dir;
+
+    private UserDB userDB;
+    private ProjectDB projectDB;
+    private ApplicationDB applicationDB;
+
+    /**
+     * Points the data files at the temporary directory.
+     */
+    @BeforeEach
+    void useTempDir() throws IOException {
+        System.setProperty("bto.dataDir", dir.toString());
+        Files.write(dir.resolve("usersInit.csv"), USERS_CSV.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Restores the default data directory and import mode.
+     */
+    @AfterEach
+    void clearProperties() {
+        System.clearProperty("bto.dataDir");
+        System.clearProperty("bto.csvImport");
+    }
+
+    /**
+     * A changed project row updates the supply net of booked units and moves
+     * the project to its new manager, and the change is kept after a restart.
+     */
+    @Test
+    void deltaImportAppliesChangedRows() throws IOException {
+        writeProjects("S1111111A", 10);
+        run();
+        assertEquals(10, projectDB.getProject(PROJECT).getFlatTypeUnits().get(FlatType.TWO_ROOM));
+        assertTrue(manager("S1111111A").getCreatedProjectNames().contains(PROJECT));
+        applicationDB.addApplication(booked("APP-1", "S3333333C"));
+        applicationDB.addApplication(booked("APP-2", "S4444444D"));
+
+        writeProjects("S2222222B", 8);
+        System.setProperty("bto.csvImport", "delta");
+        run();
+        assertEquals(6, projectDB.getProject(PROJECT).getFlatTypeUnits().get(FlatType.TWO_ROOM));
+        assertEquals(5, projectDB.getProject(PROJECT).getFlatTypeUnits().get(FlatType.THREE_ROOM));
+        assertEquals("S2222222B", projectDB.getProject(PROJECT).getManagerInChargeNric());
+
+        System.clearProperty("bto.csvImport");
+        run();
+        Project project = projectDB.getProject(PROJECT);
+        assertEquals(6, project.getFlatTypeUnits().get(FlatType.TWO_ROOM));
+        assertEquals("S2222222B", project.getManagerInChargeNric());
+        assertFalse(manager("S1111111A").getCreatedProjectNames().contains(PROJECT));
+        assertTrue(manager("S2222222B").getCreatedProjectNames().contains(PROJECT));
+        assertEquals(2, applicationDB.getApplicationsByProject(PROJECT).size());
+    }
+
+    /**
+     * An unchanged CSV leaves the data alone, even if the data was changed
+     * in the application since the import.
+     */
+    @Test
+    void deltaImportSkipsUnchangedFiles() throws IOException {
+        writeProjects("S1111111A", 10);
+        run();
+        projectDB.getProject(PROJECT).setFlatTypeUnits(FlatType.TWO_ROOM, 9);
+        projectDB.updateProject(projectDB.getProject(PROJECT));
+
+        System.setProperty("bto.csvImport", "delta");
+        run();
+        assertEquals(9, projectDB.getProject(PROJECT).getFlatTypeUnits().get(FlatType.TWO_ROOM));
+    }
+
+    /**
+     * Deleting the data files imports every row again, even though the
+     * manifests of the last import are still there.
+     */
+    @Test
+    void resetReimportsEveryRow() throws IOException {
+        writeProjects("S1111111A", 10);
+        run();
+
+        for (String fileName : new String[] { "users.dat", "projects.dat" }) {
+            Files.deleteIfExists(dir.resolve(fileName));
+            Files.deleteIfExists(dir.resolve(fileName + ".bak"));
+        }
+        System.setProperty("bto.csvImport", "delta");
+        run();
+        assertEquals(4, userDB.getAllUsers().size());
+        assertEquals(10, projectDB.getProject(PROJECT).getFlatTypeUnits().get(FlatType.TWO_ROOM));
+        assertTrue(manager("S1111111A").getCreatedProjectNames().contains(PROJECT));
+    }
+
+    /**
+     * Starts the application against the data directory: opens new databases
+     * and initializes them from the CSV files.
+     */
+    private void run() {
+        userDB = new UserDB();
+        projectDB = new ProjectDB();
+        applicationDB = new ApplicationDB(userDB);
+        new DataInitializer(userDB, projectDB, applicationDB, new EnquiryDB()).initialize();
+    }
+
+    /**
+     * Writes the project CSV with one project. The modification time is moved
+     * on each time, so a rewrite within the same clock tick is still seen as
+     * a change.
+     *
+     * @param managerNric  The NRIC of the manager in charge
+     * @param twoRoomUnits The total number of 2-room units
+     */
+    private void writeProjects(String managerNric, int twoRoomUnits) throws IOException {
+        Path file = dir.resolve("projectsInit.csv");
+        long modified = Files.exists(file) ? Files.getLastModifiedTime(file).toMillis() : 0;
+        String csv = "Name,Neighborhood,OpeningDate,ClosingDate,ManagerNRIC,TwoRoomUnits,ThreeRoomUnits\n"
+                + PROJECT + ",Bishan,2025-03-20,2025-05-20," + managerNric + "," + twoRoomUnits + ",5\n";
+        Files.write(file, csv.getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Math.max(modified + 2000, System.currentTimeMillis())));
+    }
+
+    /**
+     * Gets a manager from the current user database.
+     *
+     * @param nric The NRIC of the manager
+     * @return The manager
+     */
+    private HDBManager manager(String nric) {
+        return (HDBManager) userDB.getUser(nric);
+    }
+
+    /**
+     * Builds a booked 2-room application for the test project.
+     *
+     * @param applicationId The ID of the application
+     * @param nric          The NRIC of the applicant
+     * @return The application
+     */
+    private static Application booked(String applicationId, String nric) {
+        return new Application(applicationId, nric, PROJECT, FlatType.TWO_ROOM, ApplicationStatus.BOOKED,
+                LocalDateTime.of(2025, 3, 21, 10, 0), null, false);
+    }
+}
@@ -0,0 +1,183 @@
+package data;
+
+import entity.Applicant;
+import entity.Application;
+import entity.Enquiry;
+import entity.FlatBooking;
+import entity.HDBManager;
+import entity.Project;
+import entity.User;
+import entity.enums.ApplicationStatus;
+import entity.enums.FlatType;
+import entity.enums.MaritalStatus;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that entities survive the binary format and that data saved with
+ * Java serialization before it still loads.
+ */
+class EntityCodecTest {
+    private static final LocalDateTime APPLIED = LocalDateTime.of(2025, 3, 21, 9, 30, 15);
+
+    /**
+     * Users keep their role and the fields of their subclass.
+     */
+    @Test
+    void usersRoundTrip() throws IOException {
+        Applicant applicant = new Applicant("S1234567A", "Alice", "secret", 35, MaritalStatus.MARRIED);
+        applicant.setCurrentApplicationId("APP-1");
+        HDBManager manager = new HDBManager("T7654321B", "Bob", "password", 50, MaritalStatus.SINGLE);
+        manager.addCreatedProject("Woodlands Harmony");
+
+        List<User> users = EntityCodec.decodeUsers(EntityCodec.encodeUsers(List.of(applicant, manager)));
+        assertEquals(2, users.size());
+        Applicant decodedApplicant = assertInstanceOf(Applicant.class, users.get(0));
+        assertEquals("S1234567A", decodedApplicant.getNric());
+        assertEquals("Alice", decodedApplicant.getName());
+        assertEquals("secret", decodedApplicant.getPassword());
+        assertEquals(35, decodedApplicant.getAge());
+        assertEquals(MaritalStatus.MARRIED, decodedApplicant.getMaritalStatus());
+        assertEquals("APP-1", decodedApplicant.getCurrentApplicationId());
+        HDBManager decodedManager = assertInstanceOf(HDBManager.class, users.get(1));
+        assertEquals(List.of("Woodlands Harmony"), decodedManager.getCreatedProjectNames());
+    }
+
+    /**
+     * Projects keep their dates, manager and unit counts.
+     */
+    @Test
+    void projectsRoundTrip() throws IOException {
+        Project project = project();
+
+        Project decoded = EntityCodec.decodeProjects(EntityCodec.encodeProjects(List.of(project))).get(0);
+        assertEquals("Woodlands Harmony", decoded.getProjectName());
+        assertEquals("Woodlands", decoded.getNeighborhood());
+        assertEquals(LocalDate.of(2025, 3, 20), decoded.getApplicationOpeningDate());
+        assertEquals(LocalDate.of(2025, 5, 20), decoded.getApplicationClosingDate());
+        assertEquals("T7654321B", decoded.getManagerInChargeNric());
+        assertEquals(project.getFlatTypeUnits(), decoded.getFlatTypeUnits());
+        assertEquals(project.isVisible(), decoded.isVisible());
+    }
+
+    /**
+     * Applications keep their status and booking, and bookings and enquiries
+     * keep their fields.
+     */
+    @Test
+    void applicationsBookingsAndEnquiriesRoundTrip() throws IOException {
+        FlatBooking booking = new FlatBooking("BK-1", "APP-1", "S1234567A", "Woodlands Harmony",
+                FlatType.THREE_ROOM, APPLIED.plusDays(3), "T2109876H");
+        Application booked = new Application("APP-1", "S1234567A", "Woodlands Harmony", FlatType.THREE_ROOM,
+                ApplicationStatus.BOOKED, APPLIED, booking, false);
+        Application pending = new Application("APP-2", "S7654321C", "Woodlands Harmony", FlatType.TWO_ROOM,
+                ApplicationStatus.PENDING, APPLIED.plusHours(1), null, true);
+
+        List<Application> applications = EntityCodec.decodeApplications(
+                EntityCodec.encodeApplications(List.of(booked, pending)));
+        assertEquals(ApplicationStatus.BOOKED, applications.get(0).getStatus());
+        assertEquals(APPLIED, applications.get(0).getApplicationDate());
+        assertEquals("BK-1", applications.get(0).getFlatBooking().getBookingId());
+        assertFalse(applications.get(0).getWithdrawn());
+        assertEquals(FlatType.TWO_ROOM, applications.get(1).getFlatType());
+        assertNull(applications.get(1).getFlatBooking());
+        assertTrue(applications.get(1).getWithdrawn());
+
+        FlatBooking decodedBooking = EntityCodec.decodeBookings(EntityCodec.encodeBookings(List.of(booking))).get(0);
+        assertEquals("APP-1", decodedBooking.getApplicationId());
+        assertEquals(APPLIED.plusDays(3), decodedBooking.getBookingDate());
+        assertEquals("T2109876H", decodedBooking.getOfficerNric());
+
+        Enquiry enquiry = new Enquiry("ENQ-1", "S1234567A", "Woodlands Harmony", "Is parking included?",
+                "Yes", APPLIED, true);
+        Enquiry decodedEnquiry = EntityCodec.decodeEnquiries(EntityCodec.encodeEnquiries(List.of(enquiry))).get(0);
+        assertEquals("Is parking included?", decodedEnquiry.getEnquiryText());
+        assertEquals("Yes", decodedEnquiry.getResponse());
+        assertEquals(APPLIED, decodedEnquiry.getSubmissionTime());
+        assertTrue(decodedEnquiry.isAnswered());
+    }
+
+    /**
+     * Journal entries keep their operation and payload.
+     */
+    @Test
+    void journalEntriesRoundTrip() throws IOException {
+        Application application = new Application("APP-1", "S1234567A", "Woodlands Harmony", FlatType.TWO_ROOM,
+                ApplicationStatus.SUCCESSFUL, APPLIED, null, false);
+        JournalEntry entry = new JournalEntry(JournalEntry.Operation.UPDATE_APPLICATION, application);
+
+        JournalEntry decoded = EntityCodec.decodeJournalEntry(EntityCodec.encodeJournalEntry(entry));
+        assertEquals(JournalEntry.Operation.UPDATE_APPLICATION, decoded.getOperation());
+        Application payload = assertInstanceOf(Application.class, decoded.getPayload());
+        assertEquals(ApplicationStatus.SUCCESSFUL, payload.getStatus());
+    }
+
+    /**
+     * An enum ordinal out of range is reported as malformed data rather than
+     * an unchecked exception.
+     */
+    @Test
+    void invalidOrdinalIsMalformed() throws IOException {
+        Application application = new Application("APP-1", "S1234567A", "Woodlands Harmony", FlatType.TWO_ROOM,
+                ApplicationStatus.PENDING, APPLIED, null, false);
+        byte[] data = EntityCodec.encodeJournalEntry(
+                new JournalEntry(JournalEntry.Operation.ADD_APPLICATION, application));
+        // The operation follows the schema version
+        data[1] = (byte) 0xEE;
+
+        IOException e = assertThrows(IOException.class, () -> EntityCodec.decodeJournalEntry(data));
+        assertTrue(e.getMessage().contains("invalid ordinal"));
+    }
+
+    /**
+     * A map of projects saved with Java serialization is recognised and
+     * decoded, and the unit counts can still be updated concurrently.
+     */
+    @Test
+    void legacyProjectsDecode() throws IOException {
+        Map<String, Project> legacy = new HashMap<>();
+        legacy.put("Woodlands Harmony", project());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(legacy);
+        }
+        byte[] data = bytes.toByteArray();
+
+        assertTrue(EntityCodec.isLegacy(data));
+        assertFalse(EntityCodec.isLegacy(EntityCodec.encodeProjects(legacy.values())));
+        Project decoded = EntityCodec.decodeProjects(data).get(0);
+        assertEquals("Woodlands Harmony", decoded.getProjectName());
+        assertEquals(50, decoded.getFlatTypeUnits().get(FlatType.TWO_ROOM));
+        assertInstanceOf(ConcurrentHashMap.class, decoded.getFlatTypeUnits());
+    }
+
+    /**
+     * Builds a project with units of both flat types.
+     *
+     * @return The project
+     */
+    private static Project project() {
+        Map<FlatType, Integer> units = new EnumMap<>(FlatType.class);
+        units.put(FlatType.TWO_ROOM, 50);
+        units.put(FlatType.THREE_ROOM, 30);
+        return new Project("Woodlands Harmony", "Woodlands", units, LocalDate.of(2025, 3, 20),
+                LocalDate.of(2025, 5, 20), "T7654321B", 10);
+    }
+}
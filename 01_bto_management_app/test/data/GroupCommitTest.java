@@ -0,0 +1,162 @@
+package data;
+
+import entity.Application;
+import entity.Project;
+import entity.enums.ApplicationStatus;
+import entity.enums.FlatType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that group commit batches writes and reports when they are durable.
+ */
+class GroupCommitTest {
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Points the databases at the temporary directory.
+     */
+    @BeforeEach
+    void setDataDir() {
+        System.setProperty("bto.dataDir", dir.toString());
+    }
+
+    /**
+     * Restores the default data directory.
+     */
+    @AfterEach
+    void clearDataDir() {
+        System.clearProperty("bto.dataDir");
+    }
+
+    /**
+     * Many changes to one database are written with a single flush, and the
+     * durability future completes only once they are.
+     */
+    @Test
+    void changesShareOneFlush() {
+        GroupCommit groupCommit = new GroupCommit(HOUR, 100);
+        AtomicInteger flushes = new AtomicInteger();
+        Persistable database = () -> flushes.incrementAndGet() > 0;
+
+        CompletableFuture<Void> durable = null;
+        for (int i = 0; i < 10; i++) {
+            durable = groupCommit.markDirty(database);
+        }
+        assertEquals(0, flushes.get());
+        assertFalse(durable.isDone());
+
+        groupCommit.flush();
+        assertEquals(1, flushes.get());
+        assertTrue(durable.isDone());
+        assertTrue(groupCommit.whenDurable().isDone());
+
+        groupCommit.flush();
+        assertEquals(1, flushes.get());
+        groupCommit.shutdown();
+    }
+
+    /**
+     * Reaching the batch size writes the batch without waiting for the
+     * interval.
+     */
+    @Test
+    void fullBatchIsWrittenEarly() throws Exception {
+        GroupCommit groupCommit = new GroupCommit(HOUR, 3);
+        ProjectDB projectDB = new ProjectDB();
+        projectDB.setGroupCommit(groupCommit);
+
+        projectDB.addProject(project("Alpha"));
+        projectDB.addProject(project("Beta"));
+        CompletableFuture<Void> durable = groupCommit.whenDurable();
+        assertFalse(durable.isDone());
+        assertEquals(0, new ProjectDB().getAllProjects().size());
+
+        projectDB.addProject(project("Gamma"));
+        durable.get(10, TimeUnit.SECONDS);
+        assertEquals(3, new ProjectDB().getAllProjects().size());
+        groupCommit.shutdown();
+    }
+
+    /**
+     * Changes are written once the interval has passed.
+     */
+    @Test
+    void intervalWritesPendingChanges() throws Exception {
+        GroupCommit groupCommit = new GroupCommit(20, 1000);
+        ProjectDB projectDB = new ProjectDB();
+        projectDB.setGroupCommit(groupCommit);
+
+        projectDB.addProject(project("Alpha"));
+        groupCommit.whenDurable().get(10, TimeUnit.SECONDS);
+        assertEquals(1, new ProjectDB().getAllProjects().size());
+        groupCommit.shutdown();
+    }
+
+    /**
+     * Shutting down writes the journal entries still waiting in the batch.
+     */
+    @Test
+    void shutdownWritesPendingJournalEntries() {
+        GroupCommit groupCommit = new GroupCommit(HOUR, 1000);
+        UserDB userDB = new UserDB();
+        ApplicationDB applicationDB = new ApplicationDB(userDB);
+        applicationDB.setGroupCommit(groupCommit);
+
+        for (int i = 0; i < 5; i++) {
+            applicationDB.addApplication(new Application("A-" + i, String.format("S%07dA", i), "Alpha",
+                    FlatType.TWO_ROOM, ApplicationStatus.PENDING, LocalDateTime.of(2025, 3, 21, 9, i), null, false));
+        }
+        assertEquals(0, new ApplicationDB(userDB).getAllApplications().size());
+
+        groupCommit.shutdown();
+        assertTrue(groupCommit.whenDurable().isDone());
+        assertEquals(5, new ApplicationDB(userDB).getAllApplications().size());
+    }
+
+    /**
+     * A failed write completes the durability future exceptionally.
+     */
+    @Test
+    void failedWriteFailsFuture() {
+        GroupCommit groupCommit = new GroupCommit(HOUR, 100);
+        CompletableFuture<Void> durable = groupCommit.markDirty(() -> false);
+
+        groupCommit.flush();
+        ExecutionException e = assertThrows(ExecutionException.class, durable::get);
+        assertInstanceOf(IOException.class, e.getCause());
+        groupCommit.shutdown();
+    }
+
+    /**
+     * Creates a project with a few units.
+     *
+     * @param projectName The name of the project
+     * @return The project
+     */
+    private static Project project(String projectName) {
+        return new Project(projectName, "Yishun", Map.of(FlatType.TWO_ROOM, 10), LocalDate.of(2025, 1, 1),
+                LocalDate.of(2025, 12, 31), "S5000000M", 5);
+    }
+}
@@ -0,0 +1,120 @@
+package data;
+
+import entity.Application;
+import entity.enums.FlatType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests that a journal survives a crash part way through an append.
+ */
+class JournalTest {
+    @TempDir
+    Path dir;
+
+    /**
+     * A torn record at the tail is dropped and cut off the file, so entries
+     * appended afterwards are not hidden behind it.
+     */
+    @Test
+    void tornTailIsTruncatedAndLaterAppendsReplay() throws IOException {
+        String fileName = dir.resolve("applications.journal").toString();
+        Journal journal = new Journal(fileName);
+        journal.append(add("a1"));
+        journal.append(add("a2"));
+        long goodLength = Files.size(Path.of(fileName));
+
+        // A crash while writing the length and checksum of a third record
+        try (FileOutputStream out = new FileOutputStream(fileName, true)) {
+            out.write(new byte[] { 0, 0, 1 });
+        }
+
+        List<JournalEntry> entries = new Journal(fileName).readAll();
+        assertEquals(2, entries.size());
+        assertEquals(goodLength, Files.size(Path.of(fileName)));
+
+        Journal reopened = new Journal(fileName);
+        reopened.readAll();
+        reopened.append(add("a3"));
+        List<JournalEntry> replayed = new Journal(fileName).readAll();
+        assertEquals(3, replayed.size());
+        assertEquals("a3", ((Application) replayed.get(2).getPayload()).getApplicationId());
+    }
+
+    /**
+     * A record whose checksum does not match ends the replay at the last good
+     * record.
+     */
+    @Test
+    void damagedRecordEndsReplay() throws IOException {
+        String fileName = dir.resolve("applications.journal").toString();
+        Journal journal = new Journal(fileName);
+        journal.append(add("a1"));
+        long goodLength = Files.size(Path.of(fileName));
+        journal.append(add("a2"));
+
+        byte[] data = Files.readAllBytes(Path.of(fileName));
+        data[data.length - 1] ^= 0x55;
+        Files.write(Path.of(fileName), data);
+
+        assertEquals(1, new Journal(fileName).readAll().size());
+        assertEquals(goodLength, Files.size(Path.of(fileName)));
+    }
+
+    /**
+     * An entry of a journal written before checksums were added that holds an
+     * invalid enum value ends the replay instead of failing the startup.
+     */
+    @Test
+    void invalidEntryInLegacyJournalEndsReplay() throws IOException {
+        String fileName = dir.resolve("applications.journal").toString();
+        byte[] good = EntityCodec.encodeJournalEntry(add("a1"));
+        byte[] bad = EntityCodec.encodeJournalEntry(add("a2"));
+        // The operation follows the schema version
+        bad[1] = (byte) 0xEE;
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(fileName))) {
+            out.writeInt(good.length);
+            out.write(good);
+            out.writeInt(bad.length);
+            out.write(bad);
+        }
+
+        List<JournalEntry> entries = new Journal(fileName).readAll();
+        assertEquals(1, entries.size());
+        assertEquals(4 + good.length, Files.size(Path.of(fileName)));
+    }
+
+    /**
+     * Clearing the journal leaves an empty file.
+     */
+    @Test
+    void clearEmptiesTheFile() throws IOException {
+        String fileName = dir.resolve("applications.journal").toString();
+        Journal journal = new Journal(fileName);
+        journal.append(add("a1"));
+        journal.clear();
+
+        assertEquals(0, Files.size(Path.of(fileName)));
+        assertEquals(0, new Journal(fileName).readAll().size());
+    }
+
+    /**
+     * Builds an entry adding an application.
+     *
+     * @param applicationId The ID of the application
+     * @return The entry
+     */
+    private static JournalEntry add(String applicationId) {
+        return new JournalEntry(JournalEntry.Operation.ADD_APPLICATION,
+                new Application(applicationId, "S1234567A", "Woodlands Harmony", FlatType.TWO_ROOM));
+    }
+}
@@ -0,0 +1,154 @@
+package data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests parsing CSV rows from a mapped file, and that splitting the file into
+ * chunks gives the same rows as reading it in one go.
+ */
+class MappedCsvReaderTest {
+    private static final byte[] BOM = { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF };
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Whitespace around a field is trimmed, including the \r of Windows line
+     * endings, but whitespace and doubled quotes inside quotes are kept.
+     */
+    @Test
+    void quotedFieldsKeepTheirText() throws IOException {
+        MappedCsvReader reader = open("\"Tan \",  \" a \"\"b\"\" \" , plain  \r\n");
+
+        assertEquals(List.of("Tan ", " a \"b\" ", "plain"), fields(reader));
+    }
+
+    /**
+     * A byte order mark at the start of the file is not part of the first
+     * field.
+     */
+    @Test
+    void byteOrderMarkIsSkipped() throws IOException {
+        Path file = dir.resolve("users.csv");
+        byte[] text = "nric,name\nS1234567A,Alice\n".getBytes(StandardCharsets.UTF_8);
+        byte[] data = new byte[BOM.length + text.length];
+        System.arraycopy(BOM, 0, data, 0, BOM.length);
+        System.arraycopy(text, 0, data, BOM.length, text.length);
+        Files.write(file, data);
+
+        MappedCsvReader reader = MappedCsvReader.open(file.toString());
+        assertEquals(List.of("nric", "name"), fields(reader));
+        assertTrue(reader.fieldEquals(0, "NRIC"));
+    }
+
+    /**
+     * A quoted field may span lines, and the rows after it report the line
+     * they start on.
+     */
+    @Test
+    void quotedNewlinesAreCounted() throws IOException {
+        MappedCsvReader reader = open("a,\"line one\nline two\"\nb,c\n\nd,e\n");
+
+        assertEquals(List.of("a", "line one\nline two"), fields(reader));
+        assertEquals(1, reader.getLineNumber());
+        assertEquals(List.of("b", "c"), fields(reader));
+        assertEquals(3, reader.getLineNumber());
+        assertEquals(List.of("d", "e"), fields(reader));
+        assertEquals(5, reader.getLineNumber());
+    }
+
+    /**
+     * Numbers and dates are decoded from the bytes.
+     */
+    @Test
+    void numbersAndDatesAreParsed() throws IOException {
+        MappedCsvReader reader = open("Woodlands Harmony, 2025-03-20 ,-12,+7\n");
+
+        assertTrue(reader.nextRow());
+        assertEquals("2025-03-20", reader.getDate(1).toString());
+        assertEquals(-12, reader.getInt(2));
+        assertEquals(7, reader.getInt(3));
+    }
+
+    /**
+     * Rows read from chunks of any size match a sequential read, with stray
+     * quotes inside unquoted fields and quoted fields holding commas and line
+     * breaks.
+     */
+    @Test
+    void splitMatchesSequentialRead() throws IOException {
+        String csv = "name,note\n"
+                + "ab\"c,1\n"
+                + "\"x, y\",\"two\nlines\"\n"
+                + "d\"e\"f,\"\"\"quoted\"\"\"\n"
+                + "plain,2\r\n"
+                + "last,\"open\"";
+        List<List<String>> expected = new ArrayList<>();
+        MappedCsvReader sequential = open(csv);
+        while (sequential.nextRow()) {
+            expected.add(row(sequential));
+        }
+        assertEquals(6, expected.size());
+        assertEquals(List.of("ab\"c", "1"), expected.get(1));
+
+        for (int rows = 1; rows <= 4; rows++) {
+            List<List<String>> actual = new ArrayList<>();
+            MappedCsvReader reader = open(csv);
+            while (reader.hasRemaining()) {
+                MappedCsvReader chunk = reader.split(rows);
+                while (chunk.nextRow()) {
+                    actual.add(row(chunk));
+                }
+            }
+            assertEquals(expected, actual, "chunks of " + rows + " rows");
+        }
+    }
+
+    /**
+     * Writes a CSV file and opens a reader over it.
+     *
+     * @param csv The content of the file
+     * @return The reader
+     */
+    private MappedCsvReader open(String csv) throws IOException {
+        Path file = dir.resolve("test.csv");
+        Files.write(file, csv.getBytes(StandardCharsets.UTF_8));
+        return MappedCsvReader.open(file.toString());
+    }
+
+    /**
+     * Reads the next row and gets its fields.
+     *
+     * @param reader The reader
+     * @return The fields of the row
+     */
+    private static List<String> fields(MappedCsvReader reader) {
+        assertTrue(reader.nextRow());
+        return row(reader);
+    }
+
+    /**
+     * Gets the fields of the current row.
+     *
+     * @param reader The reader positioned at the row
+     * @return The fields
+     */
+    private static List<String> row(MappedCsvReader reader) {
+        List<String> fields = new ArrayList<>();
+        for (int i = 0; i < reader.getFieldCount(); i++) {
+            fields.add(reader.getString(i));
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,203 @@
+package data;
+
+import entity.Applicant;
+import entity.User;
+import entity.enums.MaritalStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests that the memory-mapped user store grows, reuses removed slots and
+ * keeps its users across reopening.
+ */
+class MappedUserStoreTest {
+    private static final int USERS = 3000;
+    // Layout of the slot file: a header slot, then slots of a state byte and the NRIC
+    private static final int SLOT_SIZE = 512;
+    private static final int OPEN_OFFSET = 20;
+    private static final byte USED = 1;
+    private static final byte DELETED = 2;
+    private static final byte WRITING = 3;
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Users added past the initial capacity are all found again after the
+     * store is reopened, along with updates made before closing.
+     */
+    @Test
+    void growsAndReopens() throws IOException {
+        String fileName = dir.resolve("users.slots").toString();
+        MappedUserStore store = new MappedUserStore(fileName);
+        for (int i = 0; i < USERS; i++) {
+            store.put(nric(i), applicant(i, "password"));
+        }
+        store.put(nric(7), applicant(7, "changed"));
+        store.close();
+
+        MappedUserStore reopened = new MappedUserStore(fileName);
+        assertEquals(USERS, reopened.size());
+        for (int i = 0; i < USERS; i++) {
+            assertEquals("User " + i, reopened.get(nric(i)).getName());
+        }
+        assertEquals("changed", reopened.get(nric(7)).getPassword());
+        reopened.close();
+    }
+
+    /**
+     * Removed users stay gone after reopening, and adding them back reuses
+     * their slots instead of growing the file.
+     */
+    @Test
+    void removedSlotsAreReused() throws IOException {
+        String fileName = dir.resolve("users.slots").toString();
+        MappedUserStore store = new MappedUserStore(fileName);
+        for (int i = 0; i < 500; i++) {
+            store.put(nric(i), applicant(i, "password"));
+        }
+        for (int i = 0; i < 100; i++) {
+            store.remove(nric(i));
+        }
+        store.close();
+
+        MappedUserStore reopened = new MappedUserStore(fileName);
+        assertEquals(400, reopened.size());
+        assertNull(reopened.get(nric(0)));
+        assertEquals("User 100", reopened.get(nric(100)).getName());
+
+        long length = Files.size(Path.of(fileName));
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 100; i++) {
+                reopened.put(nric(i), applicant(i, "password"));
+            }
+            for (int i = 0; i < 100; i++) {
+                reopened.remove(nric(i));
+            }
+        }
+        assertEquals(400, reopened.size());
+        assertEquals(length, Files.size(Path.of(fileName)));
+        reopened.close();
+    }
+
+    /**
+     * A crash after the old copy of an updated user was removed, but before
+     * the new copy was marked used, keeps the new copy.
+     */
+    @Test
+    void crashAfterOldCopyRemovedKeepsUpdate() throws IOException {
+        String fileName = dir.resolve("users.slots").toString();
+        MappedUserStore store = new MappedUserStore(fileName);
+        store.put(nric(1), applicant(1, "old"));
+        store.put(nric(2), applicant(2, "password"));
+        store.put(nric(1), applicant(1, "new"));
+        store.close();
+        setState(fileName, nric(1), USED, WRITING);
+        markOpen(fileName);
+
+        MappedUserStore reopened = new MappedUserStore(fileName);
+        assertEquals(2, reopened.size());
+        assertEquals("new", reopened.get(nric(1)).getPassword());
+        assertEquals(2, reopened.keySet().size());
+        reopened.close();
+    }
+
+    /**
+     * A crash while the new copy of an updated user was being written keeps
+     * the old copy, and the slot of the new copy can be used again.
+     */
+    @Test
+    void crashWhileWritingCopyKeepsOldUser() throws IOException {
+        String fileName = dir.resolve("users.slots").toString();
+        MappedUserStore store = new MappedUserStore(fileName);
+        store.put(nric(1), applicant(1, "old"));
+        store.put(nric(1), applicant(1, "new"));
+        store.close();
+        setState(fileName, nric(1), USED, WRITING);
+        setState(fileName, nric(1), DELETED, USED);
+        markOpen(fileName);
+
+        MappedUserStore reopened = new MappedUserStore(fileName);
+        assertEquals(1, reopened.size());
+        assertEquals("old", reopened.get(nric(1)).getPassword());
+        reopened.put(nric(1), applicant(1, "again"));
+        reopened.put(nric(2), applicant(2, "password"));
+        reopened.close();
+
+        MappedUserStore clean = new MappedUserStore(fileName);
+        assertEquals(2, clean.size());
+        assertEquals("again", clean.get(nric(1)).getPassword());
+        clean.close();
+    }
+
+    /**
+     * Changes the state of the first slot holding an NRIC in a given state,
+     * as a crash part way through an update would leave it.
+     *
+     * @param fileName The name of the slot file
+     * @param nric     The NRIC in the slot
+     * @param from     The current state of the slot
+     * @param to       The new state of the slot
+     */
+    private static void setState(String fileName, String nric, byte from, byte to) throws IOException {
+        byte[] expected = nric.getBytes(StandardCharsets.US_ASCII);
+        byte[] stored = new byte[expected.length];
+        try (RandomAccessFile file = new RandomAccessFile(fileName, "rw")) {
+            for (long offset = SLOT_SIZE; offset < file.length(); offset += SLOT_SIZE) {
+                file.seek(offset);
+                if (file.readByte() == from) {
+                    file.readFully(stored);
+                    if (Arrays.equals(stored, expected)) {
+                        file.seek(offset);
+                        file.writeByte(to);
+                        return;
+                    }
+                }
+            }
+        }
+        throw new AssertionError("No slot of " + nric + " in state " + from);
+    }
+
+    /**
+     * Marks the store as still open, as a crash before closing leaves it.
+     *
+     * @param fileName The name of the slot file
+     */
+    private static void markOpen(String fileName) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(fileName, "rw")) {
+            file.seek(OPEN_OFFSET);
+            file.writeInt(1);
+        }
+    }
+
+    /**
+     * Builds the NRIC of a numbered test user.
+     *
+     * @param i The number of the user
+     * @return The NRIC
+     */
+    private static String nric(int i) {
+        return String.format("S%07dA", i);
+    }
+
+    /**
+     * Builds a numbered test applicant.
+     *
+     * @param i        The number of the user
+     * @param password The password of the user
+     * @return The applicant
+     */
+    private static User applicant(int i, String password) {
+        return new Applicant(nric(i), "User " + i, password, 30, MaritalStatus.SINGLE);
+    }
+}
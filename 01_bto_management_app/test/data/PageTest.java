@@ -0,0 +1,252 @@
+package data;
+
+import entity.Application;
+import entity.Project;
+import entity.enums.ApplicationStatus;
+import entity.enums.FlatType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that paged listings visit every record once, in sort key order, and
+ * that cursors survive being written out and read back.
+ */
+class PageTest {
+    private static final int RECORDS = 47;
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Restores the default data directory.
+     */
+    @AfterEach
+    void clearDataDir() {
+        System.clearProperty("bto.dataDir");
+    }
+
+    /**
+     * A sort key read back from its cursor is the same key, even when the id
+     * contains the separator or the key has no timestamp.
+     */
+    @Test
+    void cursorRoundTrips() {
+        for (SortKey key : List.of(new SortKey(42, "plain"), new SortKey(-7, "with:colon"), new SortKey("name"),
+                new SortKey((LocalDateTime) null, "untimed"),
+                new SortKey(LocalDateTime.of(2025, 3, 21, 9, 0), "timed"))) {
+            assertEquals(key, SortKey.fromCursor(key.toCursor()));
+        }
+        SortKey epoch = new SortKey(LocalDateTime.of(1970, 1, 1, 0, 0), "a");
+        assertTrue(new SortKey((LocalDateTime) null, "b").compareTo(epoch) < 0);
+        assertTrue(new SortKey(1, "a").compareTo(new SortKey(1, "b")) < 0);
+        assertTrue(new SortKey(1, "b").compareTo(new SortKey(2, "a")) < 0);
+    }
+
+    /**
+     * A cursor that was not written by a sort key is rejected.
+     */
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> SortKey.fromCursor("no-separator"));
+        assertThrows(IllegalArgumentException.class, () -> SortKey.fromCursor("x:1"));
+        assertThrows(IllegalArgumentException.class,
+                () -> Page.select(List.of("a"), record -> true, SortKey::new, "bad", 10));
+    }
+
+    /**
+     * Selecting page after page from an unordered source lists every
+     * matching record once, in order, with ties on the key broken by id.
+     */
+    @Test
+    void selectVisitsEveryRecordOnce() {
+        List<String> records = records();
+        Collections.shuffle(records, new Random(1));
+        for (int limit : new int[] { 1, 5, 10, 47, 100 }) {
+            List<String> listed = walk(cursor -> Page.select(records, record -> !record.endsWith("3"),
+                    PageTest::sortKey, cursor, limit), RECORDS - 5);
+            assertEquals(expected(record -> !record.endsWith("3")), listed, "limit " + limit);
+        }
+    }
+
+    /**
+     * Seeking page after page through an ordered index lists every matching
+     * record once, in order, skipping records that have gone.
+     */
+    @Test
+    void seekVisitsEveryRecordOnce() {
+        TreeMap<SortKey, String> index = new TreeMap<>();
+        Map<String, String> stored = new HashMap<>();
+        for (String record : records()) {
+            index.put(sortKey(record), record);
+            if (!record.endsWith("7")) {
+                stored.put(record, record);
+            }
+        }
+        Function<SortKey, Iterable<SortKey>> keys = after -> after == null ? index.keySet()
+                : index.tailMap(after, false).keySet();
+
+        for (int limit : new int[] { 1, 4, 10, 47 }) {
+            List<String> listed = walk(cursor -> Page.seek(keys, stored::get, record -> true, cursor, limit,
+                    stored.size()), stored.size());
+            assertEquals(expected(record -> !record.endsWith("7")), listed, "limit " + limit);
+        }
+    }
+
+    /**
+     * A listing that fills its last page exactly has no page after it.
+     */
+    @Test
+    void fullLastPageHasNoNext() {
+        List<String> records = records().subList(0, 20);
+        Page<String> first = Page.select(records, record -> true, PageTest::sortKey, null, 10);
+        assertTrue(first.hasNext());
+        Page<String> second = Page.select(records, record -> true, PageTest::sortKey, first.getNextCursor(), 10);
+        assertEquals(10, second.getItems().size());
+        assertFalse(second.hasNext());
+        assertNull(second.getNextCursor());
+    }
+
+    /**
+     * The database listings page projects by name and applications by date.
+     */
+    @Test
+    void databaseListingsArePaged() {
+        System.setProperty("bto.dataDir", dir.toString());
+        ProjectDB projectDB = new ProjectDB();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            String name = "Project " + (char) ('L' - i);
+            names.add(name);
+            projectDB.addProject(new Project(name, "Yishun", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31),
+                    "S5000000M", 5));
+        }
+        Collections.sort(names);
+        assertEquals(names, walkProjects(projectDB));
+
+        ApplicationDB applicationDB = new ApplicationDB(new UserDB());
+        List<Application> pending = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            ApplicationStatus status = i % 3 == 0 ? ApplicationStatus.SUCCESSFUL : ApplicationStatus.PENDING;
+            Application application = new Application(String.format("A-%02d", 24 - i), "S0000000A", "Alpha",
+                    FlatType.TWO_ROOM, status, LocalDateTime.of(2025, 3, 21, 9, i / 2), null, false);
+            applicationDB.addApplication(application);
+            if (status == ApplicationStatus.PENDING) {
+                pending.add(application);
+            }
+        }
+        pending.sort(Comparator.comparing(Application::getApplicationDate)
+                .thenComparing(Application::getApplicationId));
+
+        List<Application> listed = new ArrayList<>();
+        String cursor = null;
+        do {
+            Page<Application> page = applicationDB.getApplicationsByProjectPage("Alpha", ApplicationStatus.PENDING,
+                    cursor, 4);
+            assertEquals(pending.size(), page.getTotal());
+            listed.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertEquals(pending, listed);
+    }
+
+    /**
+     * Walks all pages of the project listing.
+     *
+     * @param projectDB The project database
+     * @return The names of the projects listed, in order
+     */
+    private static List<String> walkProjects(ProjectDB projectDB) {
+        List<String> names = new ArrayList<>();
+        String cursor = null;
+        do {
+            Page<Project> page = projectDB.getProjectsPage(cursor, 5);
+            for (Project project : page.getItems()) {
+                names.add(project.getProjectName());
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return names;
+    }
+
+    /**
+     * Walks all pages of a listing, checking each page reports the total.
+     *
+     * @param pages Gives the page after a cursor
+     * @param total The number of records the listing should report
+     * @return The records listed, in order
+     */
+    private static List<String> walk(Function<String, Page<String>> pages, int total) {
+        List<String> listed = new ArrayList<>();
+        String cursor = null;
+        do {
+            Page<String> page = pages.apply(cursor);
+            assertEquals(total, page.getTotal());
+            assertFalse(page.getItems().isEmpty() && page.hasNext());
+            listed.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return listed;
+    }
+
+    /**
+     * Creates the test records, named r00 to r46.
+     *
+     * @return The records
+     */
+    private static List<String> records() {
+        List<String> records = new ArrayList<>();
+        for (int i = 0; i < RECORDS; i++) {
+            records.add(String.format("r%02d", i));
+        }
+        return records;
+    }
+
+    /**
+     * Gets the records that match a filter in sort key order.
+     *
+     * @param filter The records to include
+     * @return The matching records, in order
+     */
+    private static List<String> expected(Predicate<String> filter) {
+        List<String> expected = new ArrayList<>();
+        for (String record : records()) {
+            if (filter.test(record)) {
+                expected.add(record);
+            }
+        }
+        expected.sort(Comparator.comparing(PageTest::sortKey));
+        return expected;
+    }
+
+    /**
+     * Gets the sort key of a test record. Only five keys are used, so many
+     * records share a key and are ordered by name.
+     *
+     * @param record The record
+     * @return The sort key
+     */
+    private static SortKey sortKey(String record) {
+        return new SortKey(Integer.parseInt(record.substring(1)) % 5, record);
+    }
+}
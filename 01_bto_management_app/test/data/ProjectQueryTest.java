@@ -0,0 +1,157 @@
+package data;
+
+import entity.Project;
+import entity.enums.FlatType;
+import entity.enums.MaritalStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests that project queries answered from the bitmap indexes find exactly
+ * the projects a scan would, and that the indexes follow project changes.
+ */
+class ProjectQueryTest {
+    @TempDir
+    Path dir;
+
+    private ProjectDB projectDB;
+
+    /**
+     * Opens a project database in the temporary directory with projects in
+     * two neighborhoods.
+     */
+    @BeforeEach
+    void openDatabase() {
+        System.setProperty("bto.dataDir", dir.toString());
+        projectDB = new ProjectDB();
+        projectDB.addProject(project("A", "Yishun", true, 5, 0));
+        projectDB.addProject(project("B", " yishun ", true, null, 3));
+        projectDB.addProject(project("C", "Tampines", true, 0, 2));
+        projectDB.addProject(project("D", "Yishun", false, 5, null));
+    }
+
+    /**
+     * Restores the default data directory.
+     */
+    @AfterEach
+    void clearDataDir() {
+        System.clearProperty("bto.dataDir");
+    }
+
+    /**
+     * Each condition narrows the result, and chained conditions intersect.
+     */
+    @Test
+    void conditionsIntersect() {
+        assertEquals(Set.of("A", "B", "C", "D"), names(projectDB.query().list()));
+        assertEquals(Set.of("A", "B", "C"), names(projectDB.query().visible().list()));
+        assertEquals(Set.of("A", "C"), names(projectDB.query().visible().eligibleFor(MaritalStatus.SINGLE).list()));
+        assertEquals(Set.of("A", "B", "C"),
+                names(projectDB.query().visible().eligibleFor(MaritalStatus.MARRIED).list()));
+        assertEquals(Set.of("A", "B", "D"), names(projectDB.query().inNeighborhood("YISHUN").list()));
+        assertEquals(Set.of("A", "D"), names(projectDB.query().withAvailableUnits(FlatType.TWO_ROOM).list()));
+        assertEquals(Set.of("B"), names(projectDB.query().visible().inNeighborhood("Yishun")
+                .withAvailableUnits(FlatType.THREE_ROOM).list()));
+        assertEquals(Set.of(), names(projectDB.query().inNeighborhood("Bedok").list()));
+        assertEquals(Set.of("A", "B", "C"), names(projectDB.query().visible().inNeighborhood("")
+                .withAvailableUnits(null).list()));
+        assertEquals(Set.of("A", "C"), names(projectDB.getVisibleProjectsByMaritalStatus(false)));
+    }
+
+    /**
+     * Saved changes to visibility, neighborhood and units move a project
+     * between the indexes, and a deleted project's slot is reused cleanly.
+     */
+    @Test
+    void indexesFollowChanges() {
+        Project a = projectDB.getProject("A");
+        a.setVisible(false);
+        a.setNeighborhood("Tampines");
+        a.setFlatTypeUnits(FlatType.THREE_ROOM, 4);
+        projectDB.updateProject(a);
+
+        assertEquals(Set.of("B", "C"), names(projectDB.query().visible().list()));
+        assertEquals(Set.of("A", "C"), names(projectDB.query().inNeighborhood("tampines").list()));
+        assertEquals(Set.of("A", "B", "C"), names(projectDB.query().withAvailableUnits(FlatType.THREE_ROOM).list()));
+
+        projectDB.deleteProject("C");
+        assertEquals(Set.of("A"), names(projectDB.query().inNeighborhood("Tampines").list()));
+        projectDB.addProject(project("E", "Bedok", false, null, null));
+        assertEquals(Set.of("B"), names(projectDB.query().visible().list()));
+        assertEquals(Set.of("A", "B"), names(projectDB.query().withAvailableUnits(FlatType.THREE_ROOM).list()));
+        assertEquals(Set.of("E"), names(projectDB.query().inNeighborhood("bedok").list()));
+    }
+
+    /**
+     * Units booked since the project was last saved are still seen by the
+     * query.
+     */
+    @Test
+    void unsavedUnitChangesAreSeen() {
+        Project a = projectDB.getProject("A");
+        for (int i = 0; i < 5; i++) {
+            a.decrementFlatTypeUnits(FlatType.TWO_ROOM);
+        }
+        assertEquals(Set.of("D"), names(projectDB.query().withAvailableUnits(FlatType.TWO_ROOM).list()));
+    }
+
+    /**
+     * Projects loaded from disk are indexed.
+     */
+    @Test
+    void loadedProjectsAreIndexed() {
+        ProjectDB reloaded = new ProjectDB();
+        assertEquals(Set.of("A", "B"), names(reloaded.query().visible().inNeighborhood("yishun").list()));
+    }
+
+    /**
+     * Creates a project.
+     *
+     * @param projectName  The name of the project
+     * @param neighborhood The neighborhood of the project
+     * @param visible      Whether applicants can see the project
+     * @param twoRoom      The number of 2-Room units, or null if not offered
+     * @param threeRoom    The number of 3-Room units, or null if not offered
+     * @return The project
+     */
+    private static Project project(String projectName, String neighborhood, boolean visible, Integer twoRoom,
+            Integer threeRoom) {
+        Map<FlatType, Integer> units = new EnumMap<>(FlatType.class);
+        if (twoRoom != null) {
+            units.put(FlatType.TWO_ROOM, twoRoom);
+        }
+        if (threeRoom != null) {
+            units.put(FlatType.THREE_ROOM, threeRoom);
+        }
+        Project project = new Project(projectName, neighborhood, units, LocalDate.of(2025, 1, 1),
+                LocalDate.of(2025, 12, 31), "S5000000M", 5);
+        project.setVisible(visible);
+        return project;
+    }
+
+    /**
+     * Gets the names of projects.
+     *
+     * @param projects The projects
+     * @return Their names
+     */
+    private static Set<String> names(List<Project> projects) {
+        Set<String> names = new TreeSet<>();
+        for (Project project : projects) {
+            names.add(project.getProjectName());
+        }
+        return names;
+    }
+}
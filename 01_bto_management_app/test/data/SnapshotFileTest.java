@@ -0,0 +1,73 @@
+package data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that a snapshot falls back to its backup when it cannot be read.
+ */
+class SnapshotFileTest {
+    @TempDir
+    Path dir;
+
+    /**
+     * A snapshot that fails its checksum is replaced by the previous one.
+     */
+    @Test
+    void damagedSnapshotLoadsBackup() throws IOException {
+        String fileName = dir.resolve("projects.dat").toString();
+        SnapshotFile.write(fileName, bytes("first"));
+        SnapshotFile.write(fileName, bytes("second"));
+        assertArrayEquals(bytes("second"), SnapshotFile.read(fileName));
+
+        byte[] data = Files.readAllBytes(Path.of(fileName));
+        data[data.length - 1] ^= 0x55;
+        Files.write(Path.of(fileName), data);
+
+        assertArrayEquals(bytes("first"), SnapshotFile.read(fileName));
+    }
+
+    /**
+     * A crash between moving the snapshot to its backup and moving the new
+     * snapshot in place leaves only the backup, which is loaded.
+     */
+    @Test
+    void missingSnapshotLoadsBackup() throws IOException {
+        String fileName = dir.resolve("projects.dat").toString();
+        SnapshotFile.write(fileName, bytes("first"));
+        SnapshotFile.write(fileName, bytes("second"));
+        Files.delete(Path.of(fileName));
+
+        assertTrue(SnapshotFile.exists(fileName));
+        assertArrayEquals(bytes("first"), SnapshotFile.read(fileName));
+    }
+
+    /**
+     * Without a snapshot or a backup there is nothing to load.
+     */
+    @Test
+    void noSnapshotIsNotFound() {
+        String fileName = dir.resolve("projects.dat").toString();
+        assertThrows(FileNotFoundException.class, () -> SnapshotFile.read(fileName));
+    }
+
+    /**
+     * Encodes text as the payload of a snapshot.
+     *
+     * @param text The text
+     * @return The payload
+     */
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
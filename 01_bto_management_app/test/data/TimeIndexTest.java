@@ -0,0 +1,167 @@
+package data;
+
+import entity.Enquiry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that the time index keeps records in time order per project and
+ * answers range and cursor reads without scanning.
+ */
+class TimeIndexTest {
+    private static final LocalDateTime NINE = LocalDateTime.of(2025, 3, 21, 9, 0);
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Restores the default data directory.
+     */
+    @AfterEach
+    void clearDataDir() {
+        System.clearProperty("bto.dataDir");
+    }
+
+    /**
+     * Records come back oldest first whatever order they were added in, with
+     * records of the same time ordered by ID and untimed records first.
+     */
+    @Test
+    void recordsAreInTimeOrder() {
+        TimeIndex index = new TimeIndex();
+        index.add("Alpha", NINE.plusMinutes(30), "c");
+        index.add("Beta", NINE.plusMinutes(10), "x");
+        index.add("Alpha", NINE, "b");
+        index.add("Alpha", NINE, "a");
+        index.add("Alpha", null, "z");
+
+        assertEquals(List.of("z", "a", "b", "c"), ids(index.inOrder("Alpha")));
+        assertEquals(List.of("z", "a", "b", "x", "c"), ids(index.inOrder(null)));
+        assertEquals(List.of(), ids(index.inOrder("Gamma")));
+    }
+
+    /**
+     * A range includes records at its start and leaves out records at its
+     * end, whatever their IDs.
+     */
+    @Test
+    void rangeExcludesEnd() {
+        TimeIndex index = new TimeIndex();
+        index.add("Alpha", NINE.minusSeconds(1), "early");
+        index.add("Alpha", NINE, "z-start");
+        index.add("Alpha", NINE.plusMinutes(30), "middle");
+        index.add("Alpha", NINE.plusHours(1), "a-end");
+        index.add("Beta", NINE.plusMinutes(30), "other");
+
+        assertEquals(List.of("z-start", "middle"), index.range("Alpha", NINE, NINE.plusHours(1)));
+        assertEquals(List.of("z-start", "middle", "other"), index.range(null, NINE, NINE.plusHours(1)));
+        assertTrue(index.range("Alpha", NINE.plusHours(1), NINE).isEmpty());
+        assertTrue(index.range("Alpha", NINE, NINE).isEmpty());
+        assertTrue(index.range("Gamma", NINE, NINE.plusHours(1)).isEmpty());
+    }
+
+    /**
+     * Reading after a key continues with the next record, including records
+     * that share the key's time.
+     */
+    @Test
+    void keysAfterContinuesFromKey() {
+        TimeIndex index = new TimeIndex();
+        for (int i = 0; i < 6; i++) {
+            index.add("Alpha", NINE.plusMinutes(i / 2), "r" + i);
+        }
+
+        List<String> after = new ArrayList<>();
+        for (SortKey key : index.keysAfter("Alpha", new SortKey(NINE.plusMinutes(1), "r2"))) {
+            after.add(key.getId());
+        }
+        assertEquals(List.of("r3", "r4", "r5"), after);
+
+        List<String> all = new ArrayList<>();
+        for (SortKey key : index.keysAfter("Alpha", null)) {
+            all.add(key.getId());
+        }
+        assertEquals(List.of("r0", "r1", "r2", "r3", "r4", "r5"), all);
+    }
+
+    /**
+     * Sizes count each record once and follow removals.
+     */
+    @Test
+    void sizesFollowAddAndRemove() {
+        TimeIndex index = new TimeIndex();
+        index.add("Alpha", NINE, "a");
+        index.add("Alpha", NINE, "a");
+        index.add("Alpha", NINE.plusMinutes(1), "b");
+        index.add("Beta", NINE, "c");
+        assertEquals(2, index.size("Alpha"));
+        assertEquals(3, index.size(null));
+
+        index.remove("Alpha", NINE, "a");
+        index.remove("Alpha", NINE, "a");
+        index.remove("Alpha", NINE, "missing");
+        index.remove("Gamma", NINE, "c");
+        assertEquals(1, index.size("Alpha"));
+        assertEquals(1, index.size("Beta"));
+        assertEquals(2, index.size(null));
+        assertEquals(List.of("b"), ids(index.inOrder("Alpha")));
+
+        index.clear();
+        assertEquals(0, index.size("Alpha"));
+        assertEquals(0, index.size(null));
+    }
+
+    /**
+     * Enquiries are answered oldest first and found by time range, also after
+     * the database is reloaded.
+     */
+    @Test
+    void enquiriesAreReadInArrivalOrder() {
+        System.setProperty("bto.dataDir", dir.toString());
+        EnquiryDB enquiryDB = new EnquiryDB();
+        for (int i = 0; i < 6; i++) {
+            enquiryDB.addEnquiry(new Enquiry("E-" + (5 - i), "S0000000A", "Alpha", "Question " + i, null,
+                    NINE.plusHours(5 - i), false));
+        }
+        Enquiry answered = enquiryDB.getEnquiry("E-0");
+        answered.setResponse("Answer");
+        enquiryDB.updateEnquiry(answered);
+
+        for (EnquiryDB database : List.of(enquiryDB, new EnquiryDB())) {
+            List<String> unanswered = new ArrayList<>();
+            for (Enquiry enquiry : database.getUnansweredEnquiriesInOrder("Alpha", 3)) {
+                unanswered.add(enquiry.getEnquiryId());
+            }
+            assertEquals(List.of("E-1", "E-2", "E-3"), unanswered);
+
+            List<String> between = new ArrayList<>();
+            for (Enquiry enquiry : database.getEnquiriesBetween("Alpha", NINE.plusHours(1), NINE.plusHours(3))) {
+                between.add(enquiry.getEnquiryId());
+            }
+            assertEquals(List.of("E-1", "E-2"), between);
+        }
+    }
+
+    /**
+     * Gets the IDs from an iterable.
+     *
+     * @param ids The IDs
+     * @return The IDs as a list, in order
+     */
+    private static List<String> ids(Iterable<String> ids) {
+        List<String> list = new ArrayList<>();
+        for (String id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,104 @@
+package metrics;
+
+import controller.LoginController;
+import data.ProjectDB;
+import data.UserDB;
+import entity.Applicant;
+import entity.enums.MaritalStatus;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that the Flight Recorder events are only created while a recording
+ * wants them, and carry their fields when it does.
+ */
+class FlightRecorderEventsTest {
+    @TempDir
+    Path dir;
+
+    /**
+     * Points the data files at the temporary directory.
+     */
+    @BeforeEach
+    void useTempDir() {
+        System.setProperty("bto.dataDir", dir.toString());
+    }
+
+    /**
+     * Restores the default data directory.
+     */
+    @AfterEach
+    void clearDataDir() {
+        System.clearProperty("bto.dataDir");
+    }
+
+    /**
+     * Without a recording no event is created.
+     */
+    @Test
+    void eventsAreSkippedWithoutRecording() {
+        assertFalse(LoginEvent.isRecording());
+        assertFalse(ReportEvent.isRecording());
+        assertNull(DatabaseSaveEvent.start("projects", "projects.dat"));
+        assertNull(DatabaseLoadEvent.start("projects", "projects.dat"));
+    }
+
+    /**
+     * A recording that enables the events receives logins and saves with
+     * their fields.
+     */
+    @Test
+    void enabledEventsAreRecorded() throws IOException {
+        UserDB userDB = new UserDB();
+        userDB.addUser(new Applicant("S1234567A", "Alice", "password", 35, MaritalStatus.MARRIED));
+        LoginController loginController = new LoginController(userDB);
+
+        List<RecordedEvent> events = new ArrayList<>();
+        try (Recording recording = new Recording()) {
+            recording.enable("bto.Login").withoutThreshold();
+            recording.enable("bto.DatabaseSave").withoutThreshold();
+            recording.start();
+            assertTrue(LoginEvent.isRecording());
+            assertNotNull(DatabaseSaveEvent.start("projects", "projects.dat"));
+
+            assertNotNull(loginController.login("S1234567A", "password"));
+            assertNull(loginController.login("S1234567A", "wrong"));
+            new ProjectDB().saveData();
+            recording.stop();
+
+            Path file = dir.resolve("events.jfr");
+            recording.dump(file);
+            events.addAll(RecordingFile.readAllEvents(file));
+        }
+
+        List<Boolean> logins = new ArrayList<>();
+        RecordedEvent save = null;
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals("bto.Login")) {
+                logins.add(event.getBoolean("succeeded"));
+            } else if (event.getEventType().getName().equals("bto.DatabaseSave")
+                    && "projects".equals(event.getString("table"))) {
+                save = event;
+            }
+        }
+        assertEquals(List.of(true, false), logins);
+        assertNotNull(save);
+        assertTrue(save.getBoolean("succeeded"));
+    }
+}